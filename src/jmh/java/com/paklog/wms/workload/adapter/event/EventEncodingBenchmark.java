@@ -0,0 +1,47 @@
+package com.paklog.wms.workload.adapter.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Event payload encoding, for a small payload and a roster change of an optimized plan
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class EventEncodingBenchmark {
+
+    @Param({"json", "avro"})
+    String codec;
+
+    EventPayloadCodec payloadCodec;
+    WorkloadEventPayload planApproved;
+    WorkloadEventPayload rosterChanged;
+
+    @Setup
+    public void setUp() {
+        payloadCodec = codec.equals("json")
+            ? new JsonEventPayloadCodec(new ObjectMapper())
+            : new AvroEventPayloadCodec();
+        planApproved = new WorkloadEventPayload.PlanApproved("plan-1", "WH-1", "supervisor", 120, 92.5);
+        List<WorkloadEventPayload.RosterChanged.Assignment> added = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            added.add(new WorkloadEventPayload.RosterChanged.Assignment("W-" + i, "DAY_SHIFT", "PICKING", 8));
+        }
+        rosterChanged = new WorkloadEventPayload.RosterChanged("plan-1", "WH-1", 1, added.size(), added, List.of(), List.of());
+    }
+
+    @Benchmark
+    public byte[] planApproved() {
+        return payloadCodec.encode(planApproved);
+    }
+
+    @Benchmark
+    public byte[] rosterChanged() {
+        return payloadCodec.encode(rosterChanged);
+    }
+}
@@ -0,0 +1,32 @@
+package com.paklog.wms.workload.adapter.rest;
+
+import com.paklog.wms.workload.adapter.rest.dto.WorkloadPlanResponse;
+import com.paklog.wms.workload.domain.aggregate.WorkloadPlan;
+import com.paklog.wms.workload.domain.aggregate.WorkloadPlanBenchmark;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping a plan to its read DTO, by number of shift assignments
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class WorkloadPlanResponseBenchmark {
+
+    @Param({"10", "100", "1000"})
+    int assignments;
+
+    WorkloadPlan plan;
+
+    @Setup
+    public void setUp() {
+        plan = WorkloadPlanBenchmark.staffedPlan(assignments);
+    }
+
+    @Benchmark
+    public WorkloadPlanResponse from() {
+        return WorkloadPlanResponse.from(plan);
+    }
+}
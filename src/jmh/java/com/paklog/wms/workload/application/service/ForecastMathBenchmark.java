@@ -0,0 +1,38 @@
+package com.paklog.wms.workload.application.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-point statistics of forecast generation, run once per category and period ahead
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class ForecastMathBenchmark {
+
+    // A week of daily values, a week and a month of hourly values
+    @Param({"7", "168", "720"})
+    int historySize;
+
+    List<Integer> history;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        history = random.ints(historySize, 0, 5_000).boxed().toList();
+    }
+
+    @Benchmark
+    public int movingAverage() {
+        return WorkloadPlanningService.calculateMovingAverage(history, 7);
+    }
+
+    @Benchmark
+    public double confidenceInterval() {
+        return WorkloadPlanningService.calculateConfidenceInterval(history);
+    }
+}
@@ -0,0 +1,56 @@
+package com.paklog.wms.workload.application.service;
+
+import com.paklog.wms.workload.domain.aggregate.WorkloadPlan;
+import com.paklog.wms.workload.domain.entity.WorkerCapacity;
+import com.paklog.wms.workload.domain.valueobject.SkillLevel;
+import com.paklog.wms.workload.domain.valueobject.WorkloadCategory;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Greedy worker allocation of optimizeLaborAllocation, without the load and save around it
+ *
+ * Planned volumes need about as many workers as are offered, so every worker is
+ * placed and the plan ends with one assignment each.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class LaborAllocationBenchmark {
+
+    private static final WorkloadCategory[] CORE = {
+        WorkloadCategory.RECEIVING, WorkloadCategory.PICKING, WorkloadCategory.PACKING
+    };
+
+    @Param({"100", "1000", "5000"})
+    int workers;
+
+    List<WorkerCapacity> availableWorkers;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        SkillLevel[] skills = {SkillLevel.JUNIOR, SkillLevel.INTERMEDIATE, SkillLevel.SENIOR, SkillLevel.EXPERT};
+        availableWorkers = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            availableWorkers.add(new WorkerCapacity("W-" + i, "Worker " + i,
+                skills[random.nextInt(skills.length)], 40, true, 22.0));
+        }
+    }
+
+    @Benchmark
+    public WorkloadPlan allocate() {
+        WorkloadPlan plan = WorkloadPlan.create("plan-1", "WH-1", LocalDate.of(2025, 3, 1));
+        for (WorkloadCategory category : CORE) {
+            // Workers per category times an 8-hour shift at the standard rate
+            plan.setPlannedVolume(category, (int) (workers / CORE.length * 8 * category.getStandardProductivityRate()));
+        }
+        WorkloadPlanningService.allocateWorkers(plan, availableWorkers);
+        return plan;
+    }
+}
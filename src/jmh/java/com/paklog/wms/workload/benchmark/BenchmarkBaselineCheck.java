@@ -0,0 +1,107 @@
+package com.paklog.wms.workload.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result with the stored baseline and fails on regressions
+ *
+ * Each benchmark, keyed by name and parameters, is checked on its average time
+ * and on bytes allocated per operation (gc.alloc.rate.norm from the gc
+ * profiler). Benchmarks missing from the baseline are reported and pass. With
+ * update set, the result is written as the new baseline instead.
+ *
+ * Arguments: result file, baseline file, time tolerance, allocation tolerance, update.
+ */
+public final class BenchmarkBaselineCheck {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    // Allocation noise of a few bytes per operation is not a regression
+    private static final double ALLOCATION_SLACK_BYTES = 16;
+
+    private BenchmarkBaselineCheck() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        File resultFile = new File(args[0]);
+        File baselineFile = new File(args[1]);
+        double timeTolerance = Double.parseDouble(args[2]);
+        double allocationTolerance = Double.parseDouble(args[3]);
+        boolean update = Boolean.parseBoolean(args[4]);
+
+        Map<String, Measurement> results = read(MAPPER.readTree(resultFile));
+        if (update) {
+            MAPPER.writeValue(baselineFile, results);
+            System.out.printf("Recorded %d benchmarks as the baseline in %s%n", results.size(), baselineFile);
+            return;
+        }
+
+        Map<String, Measurement> baseline = MAPPER.readValue(baselineFile,
+            MAPPER.getTypeFactory().constructMapType(TreeMap.class, String.class, Measurement.class));
+        List<String> regressions = new ArrayList<>();
+        results.forEach((key, current) -> {
+            Measurement expected = baseline.get(key);
+            if (expected == null) {
+                System.out.printf("NEW   %s: %.3f %s, %.0f B/op%n", key, current.score(), current.unit(),
+                    current.bytesPerOp());
+                return;
+            }
+            double timeLimit = expected.score() * (1 + timeTolerance);
+            double allocationLimit = expected.bytesPerOp() * (1 + allocationTolerance) + ALLOCATION_SLACK_BYTES;
+            boolean slower = current.score() > timeLimit;
+            boolean allocates = current.bytesPerOp() > allocationLimit;
+            System.out.printf("%s %s: %.3f %s (baseline %.3f), %.0f B/op (baseline %.0f)%n",
+                slower || allocates ? "FAIL " : "OK   ", key, current.score(), current.unit(), expected.score(),
+                current.bytesPerOp(), expected.bytesPerOp());
+            if (slower) {
+                regressions.add(String.format("%s takes %.3f %s, over %.3f", key, current.score(), current.unit(), timeLimit));
+            }
+            if (allocates) {
+                regressions.add(String.format("%s allocates %.0f B/op, over %.0f", key, current.bytesPerOp(), allocationLimit));
+            }
+        });
+
+        if (!regressions.isEmpty()) {
+            System.err.println("Benchmark regressions against " + baselineFile + ":");
+            regressions.forEach(regression -> System.err.println("  " + regression));
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Measurement> read(JsonNode runs) {
+        Map<String, Measurement> measurements = new TreeMap<>();
+        for (JsonNode run : runs) {
+            JsonNode primary = run.path("primaryMetric");
+            JsonNode allocation = run.path("secondaryMetrics").path("gc.alloc.rate.norm");
+            measurements.put(key(run), new Measurement(
+                primary.path("score").asDouble(),
+                primary.path("scoreUnit").asText(),
+                allocation.path("score").asDouble()
+            ));
+        }
+        return measurements;
+    }
+
+    private static String key(JsonNode run) {
+        StringBuilder key = new StringBuilder(run.path("benchmark").asText()
+            .replace("com.paklog.wms.workload.", ""));
+        Iterator<Map.Entry<String, JsonNode>> params = run.path("params").fields();
+        while (params.hasNext()) {
+            Map.Entry<String, JsonNode> param = params.next();
+            key.append(key.indexOf(":") < 0 ? ":" : ",").append(param.getKey()).append('=').append(param.getValue().asText());
+        }
+        return key.toString();
+    }
+
+    record Measurement(double score, String unit, double bytesPerOp) {}
+}
@@ -0,0 +1,54 @@
+package com.paklog.wms.workload.domain.aggregate;
+
+import com.paklog.wms.workload.domain.valueobject.ForecastPeriod;
+import com.paklog.wms.workload.domain.valueobject.WorkloadCategory;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Data point lookups on a forecast of every category, from a day to a month of hourly points
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class DemandForecastBenchmark {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 3, 1, 0, 0);
+
+    // An HOURLY forecast's horizon, and hourly points over a MONTHLY period
+    @Param({"24", "720"})
+    int hours;
+
+    DemandForecast forecast;
+    LocalDateTime lastHour;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        forecast = DemandForecast.create("fc-1", "WH-1", ForecastPeriod.HOURLY, START);
+        for (WorkloadCategory category : WorkloadCategory.values()) {
+            for (int hour = 0; hour < hours; hour++) {
+                forecast.addDataPoint(START.plusHours(hour), category, random.nextInt(5_000), 120.0);
+            }
+        }
+        lastHour = START.plusHours(hours - 1);
+    }
+
+    @Benchmark
+    public int forecastedVolume() {
+        return forecast.getForecastedVolume(lastHour, WorkloadCategory.MAINTENANCE);
+    }
+
+    @Benchmark
+    public int totalForecastedVolume() {
+        return forecast.getTotalForecastedVolume(WorkloadCategory.PICKING);
+    }
+
+    @Benchmark
+    public LocalDateTime peakDemandTime() {
+        return forecast.getPeakDemandTime(WorkloadCategory.PICKING);
+    }
+}
@@ -0,0 +1,49 @@
+package com.paklog.wms.workload.domain.aggregate;
+
+import com.paklog.wms.workload.domain.valueobject.ShiftType;
+import com.paklog.wms.workload.domain.valueobject.WorkloadCategory;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metric recalculation of a plan mutation, by number of shift assignments
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class WorkloadPlanBenchmark {
+
+    @Param({"10", "100", "1000"})
+    int assignments;
+
+    WorkloadPlan plan;
+    int volume;
+
+    @Setup
+    public void setUp() {
+        plan = staffedPlan(assignments);
+    }
+
+    @Benchmark
+    public Double setPlannedVolume() {
+        // Every mutation recalculates the metrics over all assignments
+        plan.setPlannedVolume(WorkloadCategory.PICKING, 1_000 + (volume++ & 1023));
+        return plan.getUtilizationPercentage();
+    }
+
+    public static WorkloadPlan staffedPlan(int assignments) {
+        WorkloadPlan plan = WorkloadPlan.create("plan-1", "WH-1", LocalDate.of(2025, 3, 1));
+        WorkloadCategory[] categories = WorkloadCategory.values();
+        ShiftType[] shifts = ShiftType.values();
+        for (WorkloadCategory category : categories) {
+            plan.setPlannedVolume(category, 2_000);
+        }
+        for (int i = 0; i < assignments; i++) {
+            plan.assignWorkerToShift(shifts[i % shifts.length], "W-" + i, "Worker " + i,
+                categories[i % categories.length], 8);
+        }
+        return plan;
+    }
+}
@@ -0,0 +1,28 @@
+package com.paklog.wms.workload;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Scheduler for the virtual-thread execution mode
+ *
+ * Boot's virtual-thread scheduler runs fixed-delay jobs on its single scheduler
+ * thread, so the outbox relay, roster flush and dedupe checkpoint would queue
+ * behind each other's Mongo and Kafka calls. This keeps the pooled scheduler,
+ * sized by spring.task.scheduling.pool.size, with virtual worker threads.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class SchedulingConfiguration {
+
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        ThreadPoolTaskScheduler scheduler = builder.build();
+        scheduler.setThreadFactory(Thread.ofVirtual().name(scheduler.getThreadNamePrefix(), 0).factory());
+        return scheduler;
+    }
+}
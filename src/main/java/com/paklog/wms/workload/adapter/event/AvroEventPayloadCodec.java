@@ -0,0 +1,193 @@
+package com.paklog.wms.workload.adapter.event;
+
+import com.paklog.wms.workload.adapter.event.WorkloadEventPayload.ForecastGenerated;
+import com.paklog.wms.workload.adapter.event.WorkloadEventPayload.PlanApproved;
+import com.paklog.wms.workload.adapter.event.WorkloadEventPayload.PlanCancelled;
+import com.paklog.wms.workload.adapter.event.WorkloadEventPayload.PlanCreated;
+import com.paklog.wms.workload.adapter.event.WorkloadEventPayload.PlanPublished;
+import com.paklog.wms.workload.adapter.event.WorkloadEventPayload.RosterChanged;
+import com.paklog.wms.workload.adapter.event.WorkloadEventPayload.WorkerAssigned;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaNormalization;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Avro binary payload encoding
+ *
+ * Fields are written straight from the payload records in schema order, with
+ * pooled output buffers and encoders that are reused across events, so the only
+ * allocation per event is the resulting byte array. The pool is shared rather
+ * than per-thread because request threads are virtual and never reused. The
+ * dataschema names the schema and its parsing fingerprint.
+ */
+@Component
+public class AvroEventPayloadCodec implements EventPayloadCodec {
+
+    private static final Class<?>[] PAYLOAD_TYPES = WorkloadEventPayload.class.getPermittedSubclasses();
+
+    private final Map<Class<?>, Schema> schemas = new HashMap<>();
+    private final Map<Class<?>, URI> dataSchemas = new HashMap<>();
+    private final BlockingQueue<ReusableOutput> outputs =
+        new ArrayBlockingQueue<>(Runtime.getRuntime().availableProcessors() * 2);
+
+    public AvroEventPayloadCodec() {
+        for (Class<?> type : PAYLOAD_TYPES) {
+            Schema schema = loadSchema(type.getSimpleName());
+            schemas.put(type, schema);
+            dataSchemas.put(type, URI.create("urn:avro:" + schema.getFullName() + ":"
+                + Long.toHexString(SchemaNormalization.parsingFingerprint64(schema))));
+        }
+    }
+
+    @Override
+    public String name() {
+        return "avro";
+    }
+
+    @Override
+    public String contentType() {
+        return "application/avro";
+    }
+
+    @Override
+    public URI dataSchema(WorkloadEventPayload payload) {
+        return dataSchemas.get(payload.getClass());
+    }
+
+    /**
+     * Schema of a payload type
+     */
+    public Schema schema(Class<? extends WorkloadEventPayload> type) {
+        return schemas.get(type);
+    }
+
+    @Override
+    public byte[] encode(WorkloadEventPayload payload) {
+        ReusableOutput pooled = outputs.poll();
+        ReusableOutput output = pooled != null ? pooled : new ReusableOutput();
+        output.reset();
+        try {
+            BinaryEncoder out = output.encoder();
+            switch (payload) {
+                case ForecastGenerated p -> {
+                    out.writeString(p.forecastId());
+                    out.writeString(p.warehouseId());
+                    out.writeString(p.period());
+                    out.writeString(p.forecastingModel());
+                    writeNullableDouble(out, p.accuracy());
+                }
+                case PlanCreated p -> {
+                    out.writeString(p.planId());
+                    out.writeString(p.warehouseId());
+                    out.writeString(p.planDate());
+                    out.writeInt(p.totalRequiredHours());
+                }
+                case PlanApproved p -> {
+                    out.writeString(p.planId());
+                    out.writeString(p.warehouseId());
+                    out.writeString(p.approvedBy());
+                    out.writeInt(p.totalWorkers());
+                    out.writeDouble(p.utilization());
+                }
+                case PlanPublished p -> {
+                    out.writeString(p.planId());
+                    out.writeString(p.warehouseId());
+                    out.writeString(p.planDate());
+                    out.writeInt(p.totalWorkers());
+                }
+                case PlanCancelled p -> {
+                    out.writeString(p.planId());
+                    out.writeString(p.warehouseId());
+                    out.writeString(p.reason());
+                }
+                case WorkerAssigned p -> {
+                    out.writeString(p.planId());
+                    out.writeString(p.workerId());
+                    out.writeString(p.workerName());
+                    out.writeString(p.shift());
+                    out.writeString(p.category());
+                    out.writeInt(p.plannedHours());
+                }
+                case RosterChanged p -> {
+                    out.writeString(p.planId());
+                    out.writeString(p.warehouseId());
+                    out.writeInt(p.coalescedChanges());
+                    out.writeInt(p.totalWorkers());
+                    writeAssignments(out, p.added());
+                    writeAssignments(out, p.updated());
+                    writeAssignments(out, p.removed());
+                }
+            }
+            out.flush();
+            return output.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            outputs.offer(output);
+        }
+    }
+
+    private static void writeNullableDouble(BinaryEncoder out, Double value) throws IOException {
+        if (value == null) {
+            out.writeIndex(0);
+        } else {
+            out.writeIndex(1);
+            out.writeDouble(value);
+        }
+    }
+
+    private static void writeAssignments(BinaryEncoder out, List<RosterChanged.Assignment> assignments)
+            throws IOException {
+        out.writeArrayStart();
+        out.setItemCount(assignments.size());
+        for (RosterChanged.Assignment assignment : assignments) {
+            out.startItem();
+            out.writeString(assignment.workerId());
+            out.writeString(assignment.shift());
+            out.writeString(assignment.category());
+            out.writeInt(assignment.plannedHours());
+        }
+        out.writeArrayEnd();
+    }
+
+    private static Schema loadSchema(String name) {
+        try (InputStream in = AvroEventPayloadCodec.class.getResourceAsStream("/avro/" + name + ".avsc")) {
+            if (in == null) {
+                throw new IllegalStateException("Missing Avro schema for " + name);
+            }
+            return new Schema.Parser().parse(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Growable buffer that keeps its capacity across events, with its encoder
+     */
+    private static final class ReusableOutput extends ByteArrayOutputStream {
+
+        private BinaryEncoder encoder;
+
+        ReusableOutput() {
+            super(256);
+        }
+
+        BinaryEncoder encoder() {
+            encoder = EncoderFactory.get().directBinaryEncoder(this, encoder);
+            return encoder;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.paklog.wms.workload.adapter.event;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.listener.RecordInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Drops redelivered CloudEvents before they reach any Kafka listener of this service
+ *
+ * Events are identified by the ce_id header of the CloudEvents binary content
+ * mode. An event is only recorded as processed once its listener succeeds, so a
+ * failed delivery is retried rather than dropped. Probable duplicates are passed
+ * on with the {@value #PROBABLE_DUPLICATE_HEADER} header for the listener to
+ * confirm against its own store.
+ */
+@Component
+@ConditionalOnProperty(prefix = "workload.events.dedupe", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class DeduplicatingRecordInterceptor implements RecordInterceptor<Object, Object> {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeduplicatingRecordInterceptor.class);
+
+    static final String EVENT_ID_HEADER = "ce_id";
+    public static final String PROBABLE_DUPLICATE_HEADER = "workload_probable_duplicate";
+
+    private final InboundEventDeduplicator deduplicator;
+
+    public DeduplicatingRecordInterceptor(InboundEventDeduplicator deduplicator) {
+        this.deduplicator = deduplicator;
+    }
+
+    @Override
+    public ConsumerRecord<Object, Object> intercept(ConsumerRecord<Object, Object> record,
+                                                    Consumer<Object, Object> consumer) {
+        String eventId = eventId(record);
+        if (eventId == null) {
+            return record;
+        }
+
+        switch (deduplicator.check(eventId)) {
+            case DUPLICATE -> {
+                logger.debug("Dropping redelivered event {} from {}-{}@{}",
+                    eventId, record.topic(), record.partition(), record.offset());
+                return null;
+            }
+            case PROBABLE_DUPLICATE -> record.headers().add(PROBABLE_DUPLICATE_HEADER, new byte[] {1});
+            case FIRST_DELIVERY -> {
+            }
+        }
+        return record;
+    }
+
+    @Override
+    public void success(ConsumerRecord<Object, Object> record, Consumer<Object, Object> consumer) {
+        String eventId = eventId(record);
+        if (eventId != null) {
+            deduplicator.markProcessed(eventId);
+        }
+    }
+
+    private static String eventId(ConsumerRecord<?, ?> record) {
+        Header header = record.headers().lastHeader(EVENT_ID_HEADER);
+        return header != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+    }
+}
@@ -0,0 +1,29 @@
+package com.paklog.wms.workload.adapter.event;
+
+import java.net.URI;
+
+/**
+ * Encodes event payloads into CloudEvent data
+ */
+public interface EventPayloadCodec {
+
+    /**
+     * Name used to select this codec in configuration
+     */
+    String name();
+
+    /**
+     * CloudEvent datacontenttype of encoded payloads
+     */
+    String contentType();
+
+    /**
+     * CloudEvent dataschema for a payload, or null if the encoding is self-describing
+     */
+    URI dataSchema(WorkloadEventPayload payload);
+
+    /**
+     * Encode a payload
+     */
+    byte[] encode(WorkloadEventPayload payload);
+}
@@ -0,0 +1,59 @@
+package com.paklog.wms.workload.adapter.event;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Selects the payload encoding per topic
+ *
+ * A topic uses workload.events.encoding.topics.&lt;topic&gt; when set and
+ * workload.events.encoding.default otherwise.
+ */
+@Component
+public class EventPayloadEncoders {
+
+    private static final String TOPIC_PROPERTY_PREFIX = "workload.events.encoding.topics.";
+
+    private final Map<String, EventPayloadCodec> codecsByName;
+    private final Environment environment;
+    private final EventPayloadCodec defaultCodec;
+    private final ConcurrentMap<String, EventPayloadCodec> codecsByTopic = new ConcurrentHashMap<>();
+
+    public EventPayloadEncoders(
+            List<EventPayloadCodec> codecs,
+            Environment environment,
+            @Value("${workload.events.encoding.default:json}") String defaultEncoding
+    ) {
+        this.codecsByName = codecs.stream()
+            .collect(Collectors.toUnmodifiableMap(EventPayloadCodec::name, Function.identity()));
+        this.environment = environment;
+        this.defaultCodec = byName(defaultEncoding);
+    }
+
+    /**
+     * Get the codec configured for a topic
+     */
+    public EventPayloadCodec forTopic(String topic) {
+        return codecsByTopic.computeIfAbsent(topic, key -> {
+            String encoding = environment.getProperty(TOPIC_PROPERTY_PREFIX + key);
+            return encoding != null ? byName(encoding) : defaultCodec;
+        });
+    }
+
+    private EventPayloadCodec byName(String encoding) {
+        EventPayloadCodec codec = codecsByName.get(encoding);
+        if (codec == null) {
+            throw new IllegalStateException("Unknown event encoding '" + encoding
+                + "', expected one of " + codecsByName.keySet());
+        }
+        return codec;
+    }
+}
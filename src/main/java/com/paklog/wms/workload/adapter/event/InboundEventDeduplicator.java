@@ -0,0 +1,406 @@
+package com.paklog.wms.workload.adapter.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Remembers the IDs of processed inbound events so redeliveries can be dropped
+ *
+ * Recent IDs are kept in an exact, bounded set that catches the usual
+ * redeliveries after a rebalance or restart. Older IDs live on in a ring of
+ * time-bucketed Bloom filters covering the retention window; a hit there only
+ * makes an event a probable duplicate, which the consumer confirms against its
+ * own store. Neither check touches MongoDB, and memory is fixed by the bucket
+ * sizing and the recent-ID capacity.
+ *
+ * State is checkpointed to MongoDB periodically and on shutdown, and restored
+ * on startup, so redeliveries across a restart are still recognized.
+ */
+@Component
+@ConditionalOnProperty(prefix = "workload.events.dedupe", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class InboundEventDeduplicator implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(InboundEventDeduplicator.class);
+
+    static final String CHECKPOINT_COLLECTION = "inbound_dedupe_checkpoints";
+    private static final String RECENT_ID = "recent";
+    private static final String BUCKET_PREFIX = "bucket:";
+
+    /**
+     * Outcome of checking an inbound event ID
+     */
+    public enum Result {
+        /** Not seen before */
+        FIRST_DELIVERY,
+        /** Processed recently, drop it */
+        DUPLICATE,
+        /** Possibly processed within the retention window; confirm before applying */
+        PROBABLE_DUPLICATE
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final Duration bucketDuration;
+    private final int bucketCount;
+    private final int bitsPerBucket;
+    private final int hashFunctions;
+    private final int recentCapacity;
+    private final Clock clock;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Deque<BloomBucket> buckets = new ArrayDeque<>();
+    private final LinkedHashMap<String, Boolean> recentIds;
+    private final Counter firstDeliveries;
+    private final Counter duplicates;
+    private final Counter probableDuplicates;
+    private boolean dirty;
+    private volatile boolean running;
+
+    @Autowired
+    public InboundEventDeduplicator(
+            MongoTemplate mongoTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${workload.events.dedupe.bucket-duration:1h}") Duration bucketDuration,
+            @Value("${workload.events.dedupe.buckets:24}") int bucketCount,
+            @Value("${workload.events.dedupe.expected-per-bucket:100000}") int expectedPerBucket,
+            @Value("${workload.events.dedupe.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${workload.events.dedupe.recent-ids:100000}") int recentCapacity
+    ) {
+        this(mongoTemplate, meterRegistry, bucketDuration, bucketCount, expectedPerBucket, falsePositiveRate,
+            recentCapacity, Clock.systemUTC());
+    }
+
+    InboundEventDeduplicator(
+            MongoTemplate mongoTemplate,
+            MeterRegistry meterRegistry,
+            Duration bucketDuration,
+            int bucketCount,
+            int expectedPerBucket,
+            double falsePositiveRate,
+            int recentCapacity,
+            Clock clock
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.bucketDuration = bucketDuration;
+        this.bucketCount = bucketCount;
+        double bits = -expectedPerBucket * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        this.bitsPerBucket = (int) (Math.ceil(bits / Long.SIZE) * Long.SIZE);
+        this.hashFunctions = Math.max(1, (int) Math.round(bitsPerBucket / (double) expectedPerBucket * Math.log(2)));
+        this.recentCapacity = recentCapacity;
+        this.clock = clock;
+        this.recentIds = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > InboundEventDeduplicator.this.recentCapacity;
+            }
+        };
+
+        this.firstDeliveries = result(meterRegistry, Result.FIRST_DELIVERY);
+        this.duplicates = result(meterRegistry, Result.DUPLICATE);
+        this.probableDuplicates = result(meterRegistry, Result.PROBABLE_DUPLICATE);
+        Gauge.builder("workload.events.inbound.dedupe.bloom", this, dedupe -> (double) dedupe.bloomBytes())
+            .description("Memory held by the inbound dedupe Bloom filters")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Check whether an event was processed before, without recording it
+     */
+    public Result check(String eventId) {
+        long hash1 = hash(eventId);
+        long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L);
+        Result result;
+        lock.lock();
+        try {
+            rotate();
+            if (recentIds.containsKey(eventId)) {
+                result = Result.DUPLICATE;
+            } else {
+                result = Result.FIRST_DELIVERY;
+                for (BloomBucket bucket : buckets) {
+                    if (bucket.mightContain(hash1, hash2, hashFunctions)) {
+                        result = Result.PROBABLE_DUPLICATE;
+                        break;
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        switch (result) {
+            case FIRST_DELIVERY -> firstDeliveries.increment();
+            case DUPLICATE -> duplicates.increment();
+            case PROBABLE_DUPLICATE -> probableDuplicates.increment();
+        }
+        return result;
+    }
+
+    /**
+     * Record an event as processed; call once its effects are committed
+     */
+    public void markProcessed(String eventId) {
+        long hash1 = hash(eventId);
+        long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L);
+        lock.lock();
+        try {
+            rotate();
+            recentIds.put(eventId, Boolean.TRUE);
+            buckets.peekFirst().put(hash1, hash2, hashFunctions);
+            dirty = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Persist the current state if anything was recorded since the last checkpoint
+     */
+    @Scheduled(fixedDelayString = "${workload.events.dedupe.checkpoint-interval:PT30S}")
+    public void checkpoint() {
+        List<Document> snapshot = new ArrayList<>();
+        Instant oldestKept;
+        lock.lock();
+        try {
+            rotate();
+            if (!dirty) {
+                return;
+            }
+            for (BloomBucket bucket : buckets) {
+                snapshot.add(new Document("_id", BUCKET_PREFIX + bucket.start.toEpochMilli())
+                    .append("start", bucket.start)
+                    .append("hashes", hashFunctions)
+                    .append("bits", new Binary(toBytes(bucket.bits))));
+            }
+            snapshot.add(new Document("_id", RECENT_ID).append("ids", new ArrayList<>(recentIds.keySet())));
+            oldestKept = buckets.peekLast().start;
+            dirty = false;
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            for (Document document : snapshot) {
+                mongoTemplate.save(document, CHECKPOINT_COLLECTION);
+            }
+            mongoTemplate.remove(Query.query(where("start").lt(oldestKept)), CHECKPOINT_COLLECTION);
+        } catch (RuntimeException e) {
+            markDirty();
+            logger.warn("Could not checkpoint inbound dedupe state: {}", e.toString());
+        }
+    }
+
+    @Override
+    public void start() {
+        // Reading the checkpoint waits for MongoDB; keep it off the startup thread
+        Thread restorer = new Thread(() -> {
+            try {
+                restore(mongoTemplate.findAll(Document.class, CHECKPOINT_COLLECTION));
+            } catch (RuntimeException e) {
+                logger.warn("Could not restore inbound dedupe state, starting empty: {}", e.toString());
+            }
+        }, "inbound-dedupe-restore");
+        restorer.setDaemon(true);
+        restorer.start();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        checkpoint();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // Start before and stop after the listener containers that use it
+        return Integer.MIN_VALUE + 1000;
+    }
+
+    /**
+     * Merge checkpointed state into what was recorded since startup
+     */
+    void restore(List<Document> documents) {
+        lock.lock();
+        try {
+            Instant oldestKept = bucketStart(clock.instant()).minus(bucketDuration.multipliedBy(bucketCount - 1L));
+            Map<Instant, BloomBucket> merged = new LinkedHashMap<>();
+            buckets.forEach(bucket -> merged.put(bucket.start, bucket));
+            List<String> restoredIds = List.of();
+            int restoredBuckets = 0;
+            for (Document document : documents) {
+                if (RECENT_ID.equals(document.get("_id"))) {
+                    restoredIds = document.getList("ids", String.class, List.of());
+                } else if (document.getDate("start") != null) {
+                    Instant start = document.getDate("start").toInstant();
+                    byte[] bits = document.get("bits", Binary.class).getData();
+                    // Filters sized differently from the current configuration cannot be probed
+                    if (!start.isBefore(oldestKept) && bits.length * 8L == bitsPerBucket
+                            && document.getInteger("hashes", 0) == hashFunctions) {
+                        merged.merge(start, new BloomBucket(start, toLongs(bits)), BloomBucket::union);
+                        restoredBuckets++;
+                    }
+                }
+            }
+
+            List<BloomBucket> ordered = new ArrayList<>(merged.values());
+            ordered.sort((left, right) -> right.start.compareTo(left.start));
+            buckets.clear();
+            buckets.addAll(ordered);
+            rotate();
+
+            // Restored IDs are older than anything recorded since startup
+            List<String> recordedSinceStartup = new ArrayList<>(recentIds.keySet());
+            recentIds.clear();
+            restoredIds.forEach(id -> recentIds.put(id, Boolean.TRUE));
+            recordedSinceStartup.forEach(id -> recentIds.put(id, Boolean.TRUE));
+            logger.info("Restored inbound dedupe state: {} recent IDs, {} Bloom buckets",
+                restoredIds.size(), restoredBuckets);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long bloomBytes() {
+        lock.lock();
+        try {
+            return (long) buckets.size() * bitsPerBucket / 8;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void markDirty() {
+        lock.lock();
+        try {
+            dirty = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Open a bucket for the current period and drop those past retention; caller holds the lock
+     */
+    private void rotate() {
+        Instant current = bucketStart(clock.instant());
+        if (buckets.isEmpty() || buckets.peekFirst().start.isBefore(current)) {
+            buckets.addFirst(new BloomBucket(current, new long[bitsPerBucket / Long.SIZE]));
+            dirty = true;
+        }
+        Instant oldestKept = current.minus(bucketDuration.multipliedBy(bucketCount - 1L));
+        while (buckets.size() > bucketCount || buckets.peekLast().start.isBefore(oldestKept)) {
+            buckets.removeLast();
+        }
+    }
+
+    private Instant bucketStart(Instant instant) {
+        long size = bucketDuration.toMillis();
+        return Instant.ofEpochMilli(Math.floorDiv(instant.toEpochMilli(), size) * size);
+    }
+
+    private static Counter result(MeterRegistry meterRegistry, Result result) {
+        return Counter.builder("workload.events.inbound.dedupe")
+            .description("Inbound events by deduplication outcome")
+            .tag("result", result.name().toLowerCase())
+            .register(meterRegistry);
+    }
+
+    private static long hash(String value) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001B3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+        value = (value ^ (value >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return value ^ (value >>> 33);
+    }
+
+    private static byte[] toBytes(long[] words) {
+        ByteBuffer buffer = ByteBuffer.allocate(words.length * Long.BYTES);
+        buffer.asLongBuffer().put(words);
+        return buffer.array();
+    }
+
+    private static long[] toLongs(byte[] bytes) {
+        long[] words = new long[bytes.length / Long.BYTES];
+        ByteBuffer.wrap(bytes).asLongBuffer().get(words);
+        return words;
+    }
+
+    /**
+     * Bloom filter of the IDs processed during one bucket period
+     */
+    private static final class BloomBucket {
+
+        private final Instant start;
+        private final long[] bits;
+
+        BloomBucket(Instant start, long[] bits) {
+            this.start = start;
+            this.bits = bits;
+        }
+
+        void put(long hash1, long hash2, int hashFunctions) {
+            long size = (long) bits.length * Long.SIZE;
+            for (int i = 0; i < hashFunctions; i++) {
+                long index = Math.floorMod(hash1 + i * hash2, size);
+                bits[(int) (index >>> 6)] |= 1L << index;
+            }
+        }
+
+        BloomBucket union(BloomBucket other) {
+            for (int i = 0; i < bits.length; i++) {
+                bits[i] |= other.bits[i];
+            }
+            return this;
+        }
+
+        boolean mightContain(long hash1, long hash2, int hashFunctions) {
+            long size = (long) bits.length * Long.SIZE;
+            for (int i = 0; i < hashFunctions; i++) {
+                long index = Math.floorMod(hash1 + i * hash2, size);
+                if ((bits[(int) (index >>> 6)] & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
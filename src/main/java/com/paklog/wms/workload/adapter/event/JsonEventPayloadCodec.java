@@ -0,0 +1,45 @@
+package com.paklog.wms.workload.adapter.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+
+/**
+ * JSON payload encoding with typed numbers, the fallback for topics without a schema-based encoding
+ */
+@Component
+public class JsonEventPayloadCodec implements EventPayloadCodec {
+
+    private final ObjectWriter writer;
+
+    public JsonEventPayloadCodec(ObjectMapper objectMapper) {
+        this.writer = objectMapper.writer();
+    }
+
+    @Override
+    public String name() {
+        return "json";
+    }
+
+    @Override
+    public String contentType() {
+        return "application/json";
+    }
+
+    @Override
+    public URI dataSchema(WorkloadEventPayload payload) {
+        return null;
+    }
+
+    @Override
+    public byte[] encode(WorkloadEventPayload payload) {
+        try {
+            return writer.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode " + payload.eventType() + " payload", e);
+        }
+    }
+}
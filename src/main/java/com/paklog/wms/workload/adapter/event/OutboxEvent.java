@@ -0,0 +1,87 @@
+package com.paklog.wms.workload.adapter.event;
+
+import io.cloudevents.CloudEvent;
+import io.cloudevents.core.builder.CloudEventBuilder;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.net.URI;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * CloudEvent staged in the outbox, written in the same transaction as the aggregate change
+ * and removed by the relay once the broker acknowledges it
+ */
+@Document(collection = "event_outbox")
+@CompoundIndex(name = "claim_order", def = "{'createdAt': 1, 'lockedUntil': 1}")
+public record OutboxEvent(
+    @Id String id,
+    String topic,
+    String key,
+    String type,
+    String source,
+    String subject,
+    Instant time,
+    String dataContentType,
+    String dataSchema,
+    byte[] data,
+    Instant createdAt,
+    int attempts,
+    String lockedBy,
+    Instant lockedUntil,
+    String lastError
+) {
+
+    /**
+     * Stage a CloudEvent for delivery
+     */
+    public static OutboxEvent pending(String topic, String key, CloudEvent event) {
+        return new OutboxEvent(
+            event.getId(),
+            topic,
+            key,
+            event.getType(),
+            event.getSource().toString(),
+            event.getSubject(),
+            event.getTime() != null ? event.getTime().toInstant() : null,
+            event.getDataContentType(),
+            event.getDataSchema() != null ? event.getDataSchema().toString() : null,
+            event.getData() != null ? event.getData().toBytes() : null,
+            Instant.now(),
+            0,
+            null,
+            Instant.EPOCH,
+            null
+        );
+    }
+
+    /**
+     * The event as kept in the dead-letter collection after the broker's last rejection
+     */
+    public OutboxEvent rejected(String error) {
+        return new OutboxEvent(id, topic, key, type, source, subject, time, dataContentType, dataSchema, data,
+            createdAt, attempts + 1, null, null, error);
+    }
+
+    /**
+     * Rebuild the staged CloudEvent
+     */
+    public CloudEvent toCloudEvent() {
+        CloudEventBuilder builder = CloudEventBuilder.v1()
+            .withId(id)
+            .withSource(URI.create(source))
+            .withType(type)
+            .withSubject(subject)
+            .withTime(time != null ? OffsetDateTime.ofInstant(time, ZoneOffset.UTC) : null);
+        if (dataSchema != null) {
+            builder.withDataSchema(URI.create(dataSchema));
+        }
+        if (data != null) {
+            builder.withData(dataContentType, data);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,408 @@
+package com.paklog.wms.workload.adapter.event;
+
+import io.cloudevents.CloudEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.common.errors.RetriableException;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Drains the event outbox to Kafka in batches, oldest first
+ *
+ * One instance relays at a time, under a lease renewed on every run, so batches
+ * are never sent side by side. A batch is the unlocked head of the outbox, sent
+ * without waiting between records so the producer can fill its batches (linger,
+ * compression and acks are producer settings), then settled in order:
+ * acknowledged events are deleted up to the first failed one, which is released
+ * for a retry after a backoff together with everything behind it, sent or not.
+ * Delivery is at least once, and a replay after a failure repeats the events
+ * in their original order.
+ *
+ * The outbox is also the buffer for broker outages: planning keeps committing
+ * events to it at full speed while the broker is down. A failed send pauses the
+ * relay for the retry backoff instead of claiming further batches, so an outage
+ * costs one timed-out batch per backoff. Only a send the broker rejects (a
+ * non-retriable error) counts as an attempt of the event; after the maximum
+ * attempts it is moved to the dead-letter collection so it cannot hold up the
+ * events behind it.
+ *
+ * Per event type it records the time from staging to broker acknowledgement
+ * (workload.events.publish.latency), failed sends (workload.events.publish.failures)
+ * and dead-lettered events (workload.events.publish.dead-lettered); the backlog is
+ * tracked by workload.events.outbox.pending, workload.events.outbox.bytes and
+ * workload.events.relay.paused.
+ */
+@Component
+@ConditionalOnProperty(prefix = "workload.outbox.relay", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    static final String LEASE_COLLECTION = "event_outbox_lease";
+    static final String DEAD_LETTER_COLLECTION = "event_outbox_dead_letters";
+    private static final String LEASE_ID = "relay";
+
+    private final MongoTemplate mongoTemplate;
+    private final KafkaTemplate<String, CloudEvent> kafkaTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Duration lease;
+    private final Duration sendTimeout;
+    private final Duration retryBackoff;
+    private final int maxAttempts;
+    private final Duration backlogRefresh;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final String relayId = UUID.randomUUID().toString();
+
+    // Per event type; building a meter looks it up in the registry on every event
+    private final Map<String, Timer> publishLatencies = new ConcurrentHashMap<>();
+    private final Map<String, Counter> publishFailures = new ConcurrentHashMap<>();
+    private final Map<String, Counter> deadLetters = new ConcurrentHashMap<>();
+    private final AtomicLong pendingEvents = new AtomicLong();
+    private final AtomicLong pendingBytes = new AtomicLong();
+    private volatile Instant pausedUntil = Instant.EPOCH;
+    private volatile Instant backlogRefreshedAt = Instant.EPOCH;
+
+    @Autowired
+    public OutboxRelay(
+            MongoTemplate mongoTemplate,
+            KafkaTemplate<String, CloudEvent> kafkaTemplate,
+            @Value("${workload.outbox.relay.batch-size:500}") int batchSize,
+            @Value("${workload.outbox.relay.max-batches-per-run:10}") int maxBatchesPerRun,
+            @Value("${workload.outbox.relay.lease:30s}") Duration lease,
+            @Value("${workload.outbox.relay.send-timeout:10s}") Duration sendTimeout,
+            @Value("${workload.outbox.relay.retry-backoff:5s}") Duration retryBackoff,
+            @Value("${workload.outbox.relay.max-attempts:10}") int maxAttempts,
+            @Value("${workload.outbox.relay.backlog-refresh:10s}") Duration backlogRefresh,
+            MeterRegistry meterRegistry
+    ) {
+        this(mongoTemplate, kafkaTemplate, batchSize, maxBatchesPerRun, lease, sendTimeout, retryBackoff,
+            maxAttempts, backlogRefresh, meterRegistry, Clock.systemUTC());
+    }
+
+    OutboxRelay(
+            MongoTemplate mongoTemplate,
+            KafkaTemplate<String, CloudEvent> kafkaTemplate,
+            int batchSize,
+            int maxBatchesPerRun,
+            Duration lease,
+            Duration sendTimeout,
+            Duration retryBackoff,
+            int maxAttempts,
+            Duration backlogRefresh,
+            MeterRegistry meterRegistry,
+            Clock clock
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.kafkaTemplate = kafkaTemplate;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.lease = lease;
+        this.sendTimeout = sendTimeout;
+        this.retryBackoff = retryBackoff;
+        this.maxAttempts = maxAttempts;
+        this.backlogRefresh = backlogRefresh;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+
+        Gauge.builder("workload.events.outbox.pending", pendingEvents, AtomicLong::get)
+            .description("Events staged in the outbox and not yet acknowledged by the broker")
+            .register(meterRegistry);
+        Gauge.builder("workload.events.outbox.bytes", pendingBytes, AtomicLong::get)
+            .description("Size of the outbox backlog")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        Gauge.builder("workload.events.relay.paused", this, relay -> relay.isPaused() ? 1 : 0)
+            .description("Whether the relay is backing off after failed sends")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Relay pending events until the outbox is empty or the per-run batch limit is reached
+     *
+     * @return number of events acknowledged by the broker
+     */
+    @Scheduled(fixedDelayString = "${workload.outbox.relay.poll-interval:PT0.2S}")
+    public int drain() {
+        int relayed = 0;
+        if (!isPaused() && holdLease()) {
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                List<OutboxEvent> claimed = claimBatch();
+                if (claimed.isEmpty()) {
+                    break;
+                }
+                int acknowledged = send(claimed);
+                relayed += acknowledged;
+                if (acknowledged < claimed.size()) {
+                    break;
+                }
+                if (claimed.size() < batchSize) {
+                    break;
+                }
+            }
+        }
+        refreshBacklog();
+        return relayed;
+    }
+
+    /**
+     * Whether the relay is backing off after failed sends
+     */
+    public boolean isPaused() {
+        return clock.instant().isBefore(pausedUntil);
+    }
+
+    /**
+     * Take or renew the relay lease; another instance holding an unexpired lease makes the upsert collide
+     */
+    private boolean holdLease() {
+        Instant now = clock.instant();
+        try {
+            mongoTemplate.upsert(
+                Query.query(where("_id").is(LEASE_ID)
+                    .orOperator(where("holder").is(relayId), where("expiresAt").lt(now))),
+                new Update().set("holder", relayId).set("expiresAt", now.plus(lease)),
+                LEASE_COLLECTION
+            );
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    private List<OutboxEvent> claimBatch() {
+        Instant now = clock.instant();
+        Query oldest = new Query().with(Sort.by("createdAt")).limit(batchSize);
+        oldest.fields().include("_id", "lockedUntil");
+        List<Object> ids = new ArrayList<>();
+        for (Document document : mongoTemplate.find(oldest, Document.class,
+                mongoTemplate.getCollectionName(OutboxEvent.class))) {
+            // An event waiting out its backoff holds back everything staged after it
+            Date lockedUntil = document.getDate("lockedUntil");
+            if (lockedUntil != null && !lockedUntil.toInstant().isBefore(now)) {
+                break;
+            }
+            ids.add(document.get("_id"));
+        }
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        mongoTemplate.updateMulti(
+            Query.query(where("_id").in(ids).and("lockedUntil").lt(now)),
+            new Update().set("lockedBy", relayId).set("lockedUntil", now.plus(lease)),
+            OutboxEvent.class
+        );
+        List<OutboxEvent> locked = mongoTemplate.find(
+            Query.query(where("_id").in(ids).and("lockedBy").is(relayId)).with(Sort.by("createdAt")),
+            OutboxEvent.class
+        );
+        // Only the run of events locked from the head on; a gap would send the events after it early
+        int head = 0;
+        while (head < locked.size() && locked.get(head).id().equals(ids.get(head))) {
+            head++;
+        }
+        if (head < locked.size()) {
+            releaseUnsent(locked.subList(head, locked.size()), now);
+        }
+        return locked.subList(0, head);
+    }
+
+    private int send(List<OutboxEvent> events) {
+        Map<OutboxEvent, CompletableFuture<SendResult<String, CloudEvent>>> sends = new LinkedHashMap<>();
+        AtomicBoolean failed = new AtomicBoolean();
+        for (OutboxEvent event : events) {
+            if (failed.get()) {
+                // The events behind a failed one are released without sending them
+                break;
+            }
+            CompletableFuture<SendResult<String, CloudEvent>> future;
+            try {
+                future = kafkaTemplate.send(event.topic(), event.key(), event.toCloudEvent());
+            } catch (RuntimeException e) {
+                failed.set(true);
+                future = CompletableFuture.failedFuture(e);
+            }
+            future.whenComplete((result, error) -> {
+                if (error != null) {
+                    failed.set(true);
+                }
+            });
+            sends.put(event, future);
+        }
+
+        long deadline = System.nanoTime() + sendTimeout.toNanos();
+        List<Object> acknowledged = new ArrayList<>();
+        int settled = 0;
+        for (Map.Entry<OutboxEvent, CompletableFuture<SendResult<String, CloudEvent>>> send : sends.entrySet()) {
+            OutboxEvent event = send.getKey();
+            Throwable failure;
+            try {
+                send.getValue().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                acknowledged.add(event.id());
+                publishLatency(event.type()).record(Duration.between(event.createdAt(), clock.instant()));
+                settled++;
+                continue;
+            } catch (ExecutionException e) {
+                failure = e.getCause();
+            } catch (TimeoutException e) {
+                failure = e;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure = e;
+            }
+            settled++;
+            Instant retryAt = fail(event, failure);
+            releaseUnsent(events.subList(settled, events.size()), retryAt);
+            break;
+        }
+
+        if (!acknowledged.isEmpty()) {
+            mongoTemplate.remove(Query.query(where("_id").in(acknowledged)), OutboxEvent.class);
+        }
+        return acknowledged.size();
+    }
+
+    /**
+     * Settle a failed send: pause for a broker outage, count a rejection against the event,
+     * and dead-letter the event once it runs out of attempts
+     *
+     * @return when the events behind it may be sent again
+     */
+    private Instant fail(OutboxEvent event, Throwable cause) {
+        publishFailures(event.type()).increment();
+        Instant now = clock.instant();
+        boolean retriable = isRetriable(cause);
+        if (!retriable && event.attempts() + 1 >= maxAttempts) {
+            logger.error("Broker rejected event {} (type={}) {} times, moving it to {}: {}",
+                event.id(), event.type(), maxAttempts, DEAD_LETTER_COLLECTION, cause.toString());
+            mongoTemplate.save(event.rejected(cause.toString()), DEAD_LETTER_COLLECTION);
+            mongoTemplate.remove(Query.query(where("_id").is(event.id()).and("lockedBy").is(relayId)),
+                OutboxEvent.class);
+            deadLetters(event.type()).increment();
+            return now;
+        }
+
+        Instant retryAt = now.plus(retryBackoff);
+        Update release = new Update()
+            .set("lastError", cause.toString())
+            .set("lockedUntil", retryAt)
+            .unset("lockedBy");
+        if (retriable) {
+            logger.warn("Broker unavailable, pausing outbox relay for {}: {}", retryBackoff, cause.toString());
+        } else {
+            release.inc("attempts", 1);
+            logger.warn("Broker rejected event {} (type={}, attempt {} of {}), retrying in {}: {}",
+                event.id(), event.type(), event.attempts() + 1, maxAttempts, retryBackoff, cause.toString());
+        }
+        mongoTemplate.updateFirst(
+            Query.query(where("_id").is(event.id()).and("lockedBy").is(relayId)),
+            release,
+            OutboxEvent.class
+        );
+        pausedUntil = retryAt;
+        return retryAt;
+    }
+
+    private void releaseUnsent(List<OutboxEvent> events, Instant retryAt) {
+        if (events.isEmpty()) {
+            return;
+        }
+        mongoTemplate.updateMulti(
+            Query.query(where("_id").in(events.stream().map(OutboxEvent::id).toList()).and("lockedBy").is(relayId)),
+            new Update().set("lockedUntil", retryAt).unset("lockedBy"),
+            OutboxEvent.class
+        );
+    }
+
+    /**
+     * Whether a send failed for want of a broker rather than because of the record
+     */
+    private static boolean isRetriable(Throwable cause) {
+        for (Throwable current = cause; current != null; current = current.getCause()) {
+            if (current instanceof RetriableException || current instanceof TimeoutException
+                    || current instanceof InterruptedException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void refreshBacklog() {
+        Instant now = clock.instant();
+        if (backlogRefreshedAt.plus(backlogRefresh).isAfter(now)) {
+            return;
+        }
+        backlogRefreshedAt = now;
+        try {
+            pendingEvents.set(mongoTemplate.estimatedCount(OutboxEvent.class));
+            Document stats = mongoTemplate.getCollection(mongoTemplate.getCollectionName(OutboxEvent.class))
+                .aggregate(List.of(new Document("$collStats", new Document("storageStats", new Document()))))
+                .first();
+            if (stats != null && stats.get("storageStats") instanceof Document storage
+                    && storage.get("size") instanceof Number size) {
+                pendingBytes.set(size.longValue());
+            }
+        } catch (RuntimeException e) {
+            logger.debug("Could not refresh outbox backlog metrics: {}", e.toString());
+        }
+    }
+
+    private Timer publishLatency(String type) {
+        return publishLatencies.computeIfAbsent(type, key -> Timer.builder("workload.events.publish.latency")
+            .description("Time from staging an event in the outbox to broker acknowledgement")
+            .tag("type", key)
+            .publishPercentileHistogram()
+            .register(meterRegistry));
+    }
+
+    private Counter deadLetters(String type) {
+        return deadLetters.computeIfAbsent(type, key -> Counter.builder("workload.events.publish.dead-lettered")
+            .description("Events moved to the dead-letter collection after running out of attempts")
+            .tag("type", key)
+            .register(meterRegistry));
+    }
+
+    private Counter publishFailures(String type) {
+        return publishFailures.computeIfAbsent(type, key -> Counter.builder("workload.events.publish.failures")
+            .description("Event sends that failed or timed out")
+            .tag("type", key)
+            .register(meterRegistry));
+    }
+}
@@ -0,0 +1,215 @@
+package com.paklog.wms.workload.adapter.event;
+
+import com.paklog.wms.workload.adapter.event.WorkloadEventPayload.RosterChanged;
+import com.paklog.wms.workload.domain.aggregate.WorkloadPlan;
+import com.paklog.wms.workload.domain.repository.WorkloadPlanRepository;
+import com.paklog.wms.workload.domain.valueobject.ShiftType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Collapses roster changes to a plan into one plan.roster.changed event per window
+ *
+ * The first change to a plan opens a window that snapshots the roster as it was;
+ * later changes only count towards it. Once the window closes, the current roster
+ * is diffed against the snapshot and the net change is staged in the outbox, keyed
+ * by plan ID, in the same transaction that removes the window. Windows are fixed
+ * from their first change, so a plan under constant edits still emits once per
+ * window, and changes that cancel out emit nothing.
+ */
+@Component
+public class RosterChangeCoalescer {
+
+    private static final Logger logger = LoggerFactory.getLogger(RosterChangeCoalescer.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final WorkloadPlanRepository planRepository;
+    private final WorkloadPlanningEventPublisher eventPublisher;
+    private final TransactionOperations transactionOperations;
+    private final Duration window;
+    private final int batchSize;
+    private final Clock clock;
+
+    @Autowired
+    public RosterChangeCoalescer(
+            MongoTemplate mongoTemplate,
+            WorkloadPlanRepository planRepository,
+            WorkloadPlanningEventPublisher eventPublisher,
+            TransactionOperations transactionOperations,
+            @Value("${workload.events.roster.window:5s}") Duration window,
+            @Value("${workload.events.roster.batch-size:100}") int batchSize
+    ) {
+        this(mongoTemplate, planRepository, eventPublisher, transactionOperations, window, batchSize,
+            Clock.systemUTC());
+    }
+
+    RosterChangeCoalescer(
+            MongoTemplate mongoTemplate,
+            WorkloadPlanRepository planRepository,
+            WorkloadPlanningEventPublisher eventPublisher,
+            TransactionOperations transactionOperations,
+            Duration window,
+            int batchSize,
+            Clock clock
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.planRepository = planRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionOperations = transactionOperations;
+        this.window = window;
+        this.batchSize = batchSize;
+        this.clock = clock;
+    }
+
+    /**
+     * Record a roster change about to be applied to a plan. Call with the plan
+     * still in its previous state, within the transaction that saves the change.
+     */
+    public void recordChange(WorkloadPlan plan) {
+        Instant now = clock.instant();
+        mongoTemplate.upsert(
+            Query.query(where("_id").is(plan.getPlanId())),
+            new Update()
+                .setOnInsert("warehouseId", plan.getWarehouseId())
+                .setOnInsert("baseline", roster(plan))
+                .setOnInsert("openedAt", now)
+                .setOnInsert("closesAt", now.plus(window))
+                .inc("changes", 1),
+            RosterChangeWindow.class
+        );
+    }
+
+    /**
+     * Publish the net change of every closed window
+     *
+     * @return number of roster changed events staged
+     */
+    @Scheduled(fixedDelayString = "${workload.events.roster.flush-interval:PT1S}")
+    public int flushClosedWindows() {
+        Instant now = clock.instant();
+        Query closed = Query.query(where("closesAt").lte(now))
+            .with(Sort.by("closesAt"))
+            .limit(batchSize);
+        closed.fields().include("_id");
+
+        int published = 0;
+        for (RosterChangeWindow closedWindow : mongoTemplate.find(closed, RosterChangeWindow.class)) {
+            try {
+                if (Boolean.TRUE.equals(transactionOperations.execute(status -> flush(closedWindow.planId(), now)))) {
+                    published++;
+                }
+            } catch (RuntimeException e) {
+                // The window stays in place and is retried on the next run
+                logger.warn("Failed to flush roster changes of plan {}", closedWindow.planId(), e);
+            }
+        }
+        return published;
+    }
+
+    private boolean flush(String planId, Instant now) {
+        RosterChangeWindow closedWindow = mongoTemplate.findAndRemove(
+            Query.query(where("_id").is(planId).and("closesAt").lte(now)),
+            RosterChangeWindow.class
+        );
+        if (closedWindow == null) {
+            // Flushed by another instance
+            return false;
+        }
+
+        RosterChanged rosterChanged = planRepository.findById(planId)
+            .map(plan -> diff(closedWindow, plan))
+            .orElse(null);
+        if (rosterChanged == null
+                || rosterChanged.added().isEmpty() && rosterChanged.updated().isEmpty() && rosterChanged.removed().isEmpty()) {
+            return false;
+        }
+
+        eventPublisher.publishRosterChanged(rosterChanged);
+        logger.debug("Coalesced {} roster changes of plan {} into one event",
+            closedWindow.changes(), planId);
+        return true;
+    }
+
+    /**
+     * Net change between the roster at the start of a window and the current plan
+     */
+    static RosterChanged diff(RosterChangeWindow closedWindow, WorkloadPlan plan) {
+        Map<String, RosterChanged.Assignment> before = byShiftAndWorker(closedWindow.baseline());
+        Map<String, RosterChanged.Assignment> after = byShiftAndWorker(roster(plan));
+
+        List<RosterChanged.Assignment> added = new ArrayList<>();
+        List<RosterChanged.Assignment> updated = new ArrayList<>();
+        List<RosterChanged.Assignment> removed = new ArrayList<>();
+        after.forEach((key, assignment) -> {
+            RosterChanged.Assignment previous = before.get(key);
+            if (previous == null) {
+                added.add(assignment);
+            } else if (!Objects.equals(previous, assignment)) {
+                updated.add(assignment);
+            }
+        });
+        before.forEach((key, assignment) -> {
+            if (!after.containsKey(key)) {
+                removed.add(assignment);
+            }
+        });
+
+        return new RosterChanged(
+            plan.getPlanId(),
+            plan.getWarehouseId(),
+            closedWindow.changes(),
+            plan.getTotalWorkersAssigned(),
+            added,
+            updated,
+            removed
+        );
+    }
+
+    static List<RosterChanged.Assignment> roster(WorkloadPlan plan) {
+        List<RosterChanged.Assignment> roster = new ArrayList<>();
+        Map<ShiftType, List<WorkloadPlan.ShiftAssignment>> byShift = new EnumMap<>(ShiftType.class);
+        byShift.putAll(plan.getShiftAssignments());
+        byShift.forEach((shift, assignments) -> {
+            for (WorkloadPlan.ShiftAssignment assignment : assignments) {
+                roster.add(new RosterChanged.Assignment(
+                    assignment.workerId(),
+                    shift.name(),
+                    assignment.primaryCategory().name(),
+                    assignment.plannedHours()
+                ));
+            }
+        });
+        return roster;
+    }
+
+    private static Map<String, RosterChanged.Assignment> byShiftAndWorker(List<RosterChanged.Assignment> roster) {
+        Map<String, RosterChanged.Assignment> indexed = new LinkedHashMap<>();
+        if (roster != null) {
+            for (RosterChanged.Assignment assignment : roster) {
+                indexed.put(assignment.shift() + '/' + assignment.workerId(), assignment);
+            }
+        }
+        return indexed;
+    }
+}
@@ -0,0 +1,22 @@
+package com.paklog.wms.workload.adapter.event;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Open coalescing window of roster changes to one plan, holding the roster as it
+ * was before the first change of the window
+ */
+@Document(collection = "roster_change_windows")
+public record RosterChangeWindow(
+    @Id String planId,
+    String warehouseId,
+    List<WorkloadEventPayload.RosterChanged.Assignment> baseline,
+    int changes,
+    Instant openedAt,
+    @Indexed Instant closesAt
+) {}
@@ -0,0 +1,160 @@
+package com.paklog.wms.workload.adapter.event;
+
+import java.util.List;
+
+/**
+ * Typed payloads of the events published by the workload planning service
+ *
+ * Each payload has an Avro schema of the same name under resources/avro;
+ * field order here matches the schema.
+ */
+public sealed interface WorkloadEventPayload {
+
+    /**
+     * CloudEvent type
+     */
+    String eventType();
+
+    /**
+     * CloudEvent subject, also used as the Kafka record key
+     */
+    String subject();
+
+    record ForecastGenerated(
+        String forecastId,
+        String warehouseId,
+        String period,
+        String forecastingModel,
+        Double accuracy
+    ) implements WorkloadEventPayload {
+        @Override
+        public String eventType() {
+            return "com.paklog.workload.forecast.generated";
+        }
+
+        @Override
+        public String subject() {
+            return forecastId;
+        }
+    }
+
+    record PlanCreated(
+        String planId,
+        String warehouseId,
+        String planDate,
+        int totalRequiredHours
+    ) implements WorkloadEventPayload {
+        @Override
+        public String eventType() {
+            return "com.paklog.workload.plan.created";
+        }
+
+        @Override
+        public String subject() {
+            return planId;
+        }
+    }
+
+    record PlanApproved(
+        String planId,
+        String warehouseId,
+        String approvedBy,
+        int totalWorkers,
+        double utilization
+    ) implements WorkloadEventPayload {
+        @Override
+        public String eventType() {
+            return "com.paklog.workload.plan.approved";
+        }
+
+        @Override
+        public String subject() {
+            return planId;
+        }
+    }
+
+    record PlanPublished(
+        String planId,
+        String warehouseId,
+        String planDate,
+        int totalWorkers
+    ) implements WorkloadEventPayload {
+        @Override
+        public String eventType() {
+            return "com.paklog.workload.plan.published";
+        }
+
+        @Override
+        public String subject() {
+            return planId;
+        }
+    }
+
+    record PlanCancelled(
+        String planId,
+        String warehouseId,
+        String reason
+    ) implements WorkloadEventPayload {
+        @Override
+        public String eventType() {
+            return "com.paklog.workload.plan.cancelled";
+        }
+
+        @Override
+        public String subject() {
+            return planId;
+        }
+    }
+
+    record WorkerAssigned(
+        String planId,
+        String workerId,
+        String workerName,
+        String shift,
+        String category,
+        int plannedHours
+    ) implements WorkloadEventPayload {
+        @Override
+        public String eventType() {
+            return "com.paklog.workload.worker.assigned";
+        }
+
+        @Override
+        public String subject() {
+            return planId;
+        }
+    }
+
+    /**
+     * Net change to a plan's roster over a coalescing window
+     */
+    record RosterChanged(
+        String planId,
+        String warehouseId,
+        int coalescedChanges,
+        int totalWorkers,
+        List<Assignment> added,
+        List<Assignment> updated,
+        List<Assignment> removed
+    ) implements WorkloadEventPayload {
+        @Override
+        public String eventType() {
+            return "com.paklog.workload.plan.roster.changed";
+        }
+
+        @Override
+        public String subject() {
+            return planId;
+        }
+
+        /**
+         * Assignment of a worker to a shift; removed entries carry their last values
+         */
+        public record Assignment(
+            String workerId,
+            String shift,
+            String category,
+            int plannedHours
+        ) {}
+    }
+}
@@ -2,30 +2,49 @@ package com.paklog.wms.workload.adapter.event;
 
 import io.cloudevents.CloudEvent;
 import io.cloudevents.core.builder.CloudEventBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.net.URI;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Event publisher for Workload Planning Service
- * Publishes CloudEvents to Kafka for downstream consumption
+ * Stages CloudEvents in the transactional outbox; {@link OutboxRelay} delivers them to Kafka
+ *
+ * Inside a transaction, events are buffered and written with a single batched
+ * insert just before commit, so a request that raises many events pays for one
+ * outbox write.
  */
 @Component
 public class WorkloadPlanningEventPublisher {
 
     private static final Logger logger = LoggerFactory.getLogger(WorkloadPlanningEventPublisher.class);
     private static final String SOURCE = "workload-planning-service";
-
-    private final KafkaTemplate<String, CloudEvent> kafkaTemplate;
-
-    public WorkloadPlanningEventPublisher(KafkaTemplate<String, CloudEvent> kafkaTemplate) {
-        this.kafkaTemplate = kafkaTemplate;
+    private static final String TOPIC = "workload-events";
+
+    private final MongoTemplate mongoTemplate;
+    private final EventPayloadEncoders encoders;
+    private final MeterRegistry meterRegistry;
+    // Per encoding, then event type; building a meter looks it up in the registry on every event
+    private final Map<String, Map<String, Timer>> stagingTimers = new ConcurrentHashMap<>();
+
+    public WorkloadPlanningEventPublisher(MongoTemplate mongoTemplate, EventPayloadEncoders encoders,
+                                          MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.encoders = encoders;
+        this.meterRegistry = meterRegistry;
     }
 
     /**
@@ -38,21 +57,9 @@ public class WorkloadPlanningEventPublisher {
             String forecastingModel,
             Double accuracy
     ) {
-        Map<String, Object> data = Map.of(
-            "forecastId", forecastId,
-            "warehouseId", warehouseId,
-            "period", period,
-            "forecastingModel", forecastingModel,
-            "accuracy", accuracy != null ? accuracy.toString() : "0.0"
-        );
-
-        CloudEvent event = buildEvent(
-            "com.paklog.workload.forecast.generated",
-            forecastId,
-            data
-        );
-
-        publishEvent("workload-events", forecastId, event);
+        publish(new WorkloadEventPayload.ForecastGenerated(
+            forecastId, warehouseId, period, forecastingModel, accuracy
+        ));
     }
 
     /**
@@ -64,20 +71,7 @@ public class WorkloadPlanningEventPublisher {
             String planDate,
             Integer totalRequiredHours
     ) {
-        Map<String, Object> data = Map.of(
-            "planId", planId,
-            "warehouseId", warehouseId,
-            "planDate", planDate,
-            "totalRequiredHours", totalRequiredHours.toString()
-        );
-
-        CloudEvent event = buildEvent(
-            "com.paklog.workload.plan.created",
-            planId,
-            data
-        );
-
-        publishEvent("workload-events", planId, event);
+        publish(new WorkloadEventPayload.PlanCreated(planId, warehouseId, planDate, totalRequiredHours));
     }
 
     /**
@@ -90,21 +84,7 @@ public class WorkloadPlanningEventPublisher {
             Integer totalWorkers,
             Double utilization
     ) {
-        Map<String, Object> data = Map.of(
-            "planId", planId,
-            "warehouseId", warehouseId,
-            "approvedBy", approvedBy,
-            "totalWorkers", totalWorkers.toString(),
-            "utilization", utilization.toString()
-        );
-
-        CloudEvent event = buildEvent(
-            "com.paklog.workload.plan.approved",
-            planId,
-            data
-        );
-
-        publishEvent("workload-events", planId, event);
+        publish(new WorkloadEventPayload.PlanApproved(planId, warehouseId, approvedBy, totalWorkers, utilization));
     }
 
     /**
@@ -116,20 +96,7 @@ public class WorkloadPlanningEventPublisher {
             String planDate,
             Integer totalWorkers
     ) {
-        Map<String, Object> data = Map.of(
-            "planId", planId,
-            "warehouseId", warehouseId,
-            "planDate", planDate,
-            "totalWorkers", totalWorkers.toString()
-        );
-
-        CloudEvent event = buildEvent(
-            "com.paklog.workload.plan.published",
-            planId,
-            data
-        );
-
-        publishEvent("workload-events", planId, event);
+        publish(new WorkloadEventPayload.PlanPublished(planId, warehouseId, planDate, totalWorkers));
     }
 
     /**
@@ -140,19 +107,7 @@ public class WorkloadPlanningEventPublisher {
             String warehouseId,
             String reason
     ) {
-        Map<String, Object> data = Map.of(
-            "planId", planId,
-            "warehouseId", warehouseId,
-            "reason", reason
-        );
-
-        CloudEvent event = buildEvent(
-            "com.paklog.workload.plan.cancelled",
-            planId,
-            data
-        );
-
-        publishEvent("workload-events", planId, event);
+        publish(new WorkloadEventPayload.PlanCancelled(planId, warehouseId, reason));
     }
 
     /**
@@ -166,71 +121,88 @@ public class WorkloadPlanningEventPublisher {
             String category,
             Integer plannedHours
     ) {
-        Map<String, Object> data = Map.of(
-            "planId", planId,
-            "workerId", workerId,
-            "workerName", workerName,
-            "shift", shift,
-            "category", category,
-            "plannedHours", plannedHours.toString()
-        );
-
-        CloudEvent event = buildEvent(
-            "com.paklog.workload.worker.assigned",
-            planId,
-            data
-        );
-
-        publishEvent("workload-events", planId, event);
+        publish(new WorkloadEventPayload.WorkerAssigned(
+            planId, workerId, workerName, shift, category, plannedHours
+        ));
     }
 
     /**
-     * Build CloudEvent
+     * Publish the net roster change of a plan over a coalescing window
      */
-    private CloudEvent buildEvent(String type, String subject, Map<String, Object> data) {
-        return CloudEventBuilder.v1()
+    public void publishRosterChanged(WorkloadEventPayload.RosterChanged rosterChanged) {
+        publish(rosterChanged);
+    }
+
+    /**
+     * Build CloudEvent with the payload encoded for the topic and stage it
+     */
+    private void publish(WorkloadEventPayload payload) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        EventPayloadCodec codec = encoders.forTopic(TOPIC);
+        CloudEventBuilder builder = CloudEventBuilder.v1()
             .withId(UUID.randomUUID().toString())
             .withSource(URI.create(SOURCE))
-            .withType(type)
-            .withSubject(subject)
+            .withType(payload.eventType())
+            .withSubject(payload.subject())
             .withTime(OffsetDateTime.now())
-            .withDataContentType("application/json")
-            .withData(convertToJson(data).getBytes())
-            .build();
+            .withDataContentType(codec.contentType())
+            .withData(codec.encode(payload));
+        URI dataSchema = codec.dataSchema(payload);
+        if (dataSchema != null) {
+            builder.withDataSchema(dataSchema);
+        }
+
+        publishEvent(TOPIC, payload.subject(), builder.build());
+        sample.stop(stagingTimer(payload.eventType(), codec.name()));
+    }
+
+    private Timer stagingTimer(String type, String encoding) {
+        return stagingTimers.computeIfAbsent(encoding, key -> new ConcurrentHashMap<>())
+            .computeIfAbsent(type, key -> Timer.builder("workload.events.staging")
+                .description("Time to encode an event and stage it in the outbox")
+                .tag("type", key)
+                .tag("encoding", encoding)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
     }
 
     /**
-     * Publish event to Kafka
+     * Stage event in the outbox. Joins the caller's transaction, so a failure
+     * here rolls back the aggregate change as well.
      */
     private void publishEvent(String topic, String key, CloudEvent event) {
-        try {
-            kafkaTemplate.send(topic, key, event);
-            logger.info("Published event: type={}, subject={}, topic={}",
-                event.getType(), event.getSubject(), topic);
-        } catch (Exception e) {
-            logger.error("Failed to publish event: type={}, subject={}",
-                event.getType(), event.getSubject(), e);
+        OutboxEvent staged = OutboxEvent.pending(topic, key, event);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            transactionBuffer().add(staged);
+        } else {
+            mongoTemplate.insert(staged);
         }
+        logger.debug("Staged event: type={}, subject={}, topic={}",
+            event.getType(), event.getSubject(), topic);
     }
 
-    /**
-     * Convert data map to JSON string
-     */
-    private String convertToJson(Map<String, Object> data) {
-        try {
-            StringBuilder json = new StringBuilder("{");
-            boolean first = true;
-            for (Map.Entry<String, Object> entry : data.entrySet()) {
-                if (!first) json.append(",");
-                json.append("\"").append(entry.getKey()).append("\":\"")
-                    .append(entry.getValue()).append("\"");
-                first = false;
-            }
-            json.append("}");
-            return json.toString();
-        } catch (Exception e) {
-            logger.error("Failed to convert data to JSON", e);
-            return "{}";
+    @SuppressWarnings("unchecked")
+    private List<OutboxEvent> transactionBuffer() {
+        List<OutboxEvent> buffer = (List<OutboxEvent>) TransactionSynchronizationManager.getResource(this);
+        if (buffer != null) {
+            return buffer;
         }
+
+        List<OutboxEvent> created = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                if (!created.isEmpty()) {
+                    mongoTemplate.insert(created, OutboxEvent.class);
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(WorkloadPlanningEventPublisher.this);
+            }
+        });
+        return created;
     }
 }
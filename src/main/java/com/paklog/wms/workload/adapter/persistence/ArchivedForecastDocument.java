@@ -0,0 +1,31 @@
+package com.paklog.wms.workload.adapter.persistence;
+
+import com.paklog.wms.workload.domain.valueobject.ForecastPeriod;
+import com.paklog.wms.workload.domain.valueobject.WorkloadCategory;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Cold copy of a DemandForecast: summary metrics plus a compressed data point blob
+ */
+@Document(collection = "demand_forecasts_archive")
+public record ArchivedForecastDocument(
+    @Id String forecastId,
+    @Indexed String warehouseId,
+    ForecastPeriod period,
+    LocalDateTime forecastDate,
+    LocalDateTime createdAt,
+    LocalDateTime archivedAt,
+    String forecastingModel,
+    Map<String, Object> modelParameters,
+    Double accuracy,
+    Double meanAbsoluteError,
+    Double meanSquaredError,
+    int dataPointCount,
+    Map<WorkloadCategory, Integer> totalVolumeByCategory,
+    byte[] packedDataPoints
+) {}
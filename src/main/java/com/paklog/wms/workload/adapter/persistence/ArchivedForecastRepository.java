@@ -0,0 +1,11 @@
+package com.paklog.wms.workload.adapter.persistence;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for the cold forecast archive
+ */
+@Repository
+public interface ArchivedForecastRepository extends MongoRepository<ArchivedForecastDocument, String> {
+}
@@ -0,0 +1,36 @@
+package com.paklog.wms.workload.adapter.persistence;
+
+import com.paklog.wms.workload.domain.aggregate.DemandForecast;
+import com.paklog.wms.workload.domain.repository.DemandForecastRepositoryCustom;
+import com.paklog.wms.workload.domain.repository.ForecastSummary;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * MongoDB implementation of custom DemandForecast queries
+ */
+@Repository
+public class DemandForecastRepositoryImpl implements DemandForecastRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public DemandForecastRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<ForecastSummary> findSummariesByWarehouseId(
+            String warehouseId,
+            LocalDateTime afterForecastDate,
+            String afterForecastId,
+            int limit
+    ) {
+        return mongoTemplate.query(DemandForecast.class)
+            .as(ForecastSummary.class)
+            .matching(SummaryQueries.forecastSummaries(warehouseId, afterForecastDate, afterForecastId, limit))
+            .all();
+    }
+}
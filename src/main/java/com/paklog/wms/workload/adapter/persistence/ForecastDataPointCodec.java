@@ -0,0 +1,302 @@
+package com.paklog.wms.workload.adapter.persistence;
+
+import com.paklog.wms.workload.domain.aggregate.DemandForecast.ForecastDataPoint;
+import com.paklog.wms.workload.domain.aggregate.ForecastDataPoints;
+import com.paklog.wms.workload.domain.valueobject.WorkloadCategory;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Packs forecast data points into a compact binary form
+ *
+ * Timestamps are stored as epoch millis of the local date-time, the same
+ * precision MongoDB keeps for dates.
+ *
+ * Format: version byte, point count,
+ * per-category volume totals, then runs of consecutive points sharing a
+ * category. Each run stores its columns separately: timestamps as
+ * delta-of-delta, volumes as deltas, both zigzag varints, and confidence
+ * intervals as absent, one shared value, or a presence bitmap plus values.
+ * Point order is preserved.
+ */
+public final class ForecastDataPointCodec {
+
+    static final byte VERSION = 1;
+
+    private static final WorkloadCategory[] CATEGORIES = WorkloadCategory.values();
+
+    private static final byte NO_CONFIDENCE = 0;
+    private static final byte SHARED_CONFIDENCE = 1;
+    private static final byte PER_POINT_CONFIDENCE = 2;
+
+    private ForecastDataPointCodec() {
+    }
+
+    /**
+     * Encode data points in the current format
+     */
+    public static byte[] encode(List<ForecastDataPoint> points) {
+        Output out = new Output(16 + points.size() * 3);
+        out.writeByte(VERSION);
+        out.writeVarLong(points.size());
+
+        long[] totals = new long[CATEGORIES.length];
+        for (ForecastDataPoint point : points) {
+            totals[point.category().ordinal()] += point.forecastedVolume();
+        }
+        out.writeVarLong(totals.length);
+        for (long total : totals) {
+            out.writeSignedVarLong(total);
+        }
+
+        int start = 0;
+        while (start < points.size()) {
+            WorkloadCategory category = points.get(start).category();
+            int end = start + 1;
+            while (end < points.size() && points.get(end).category() == category) {
+                end++;
+            }
+            writeRun(out, category, points.subList(start, end));
+            start = end;
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decode data points
+     */
+    public static List<ForecastDataPoint> decode(byte[] encoded) {
+        List<ForecastDataPoint> points = new ArrayList<>();
+        forEach(encoded, points::add);
+        return points;
+    }
+
+    /**
+     * Decode data points one at a time, in order, without collecting them
+     */
+    public static void forEach(byte[] encoded, Consumer<ForecastDataPoint> action) {
+        readPoints(header(encoded), action);
+    }
+
+    /**
+     * Wrap encoded data points without decoding them
+     *
+     * Size and category totals come from the header.
+     */
+    public static ForecastDataPoints lazy(byte[] encoded) {
+        ByteBuffer in = header(encoded);
+        int size = Math.toIntExact(readVarLong(in));
+        int storedCategories = Math.toIntExact(readVarLong(in));
+        long[] totals = new long[CATEGORIES.length];
+        for (int i = 0; i < storedCategories; i++) {
+            long total = readSignedVarLong(in);
+            if (i < totals.length) {
+                totals[i] = total;
+            }
+        }
+        return ForecastDataPoints.lazy(size, totals, action -> forEach(encoded, action));
+    }
+
+    private static void writeRun(Output out, WorkloadCategory category, List<ForecastDataPoint> run) {
+        int n = run.size();
+        out.writeByte(category.ordinal());
+        out.writeVarLong(n);
+
+        long previous = toEpochMilli(run.get(0).timestamp());
+        long previousDelta = 0;
+        out.writeSignedVarLong(previous);
+        for (int i = 1; i < n; i++) {
+            long current = toEpochMilli(run.get(i).timestamp());
+            long delta = current - previous;
+            out.writeSignedVarLong(delta - previousDelta);
+            previous = current;
+            previousDelta = delta;
+        }
+
+        long previousVolume = 0;
+        for (ForecastDataPoint point : run) {
+            out.writeSignedVarLong(point.forecastedVolume() - previousVolume);
+            previousVolume = point.forecastedVolume();
+        }
+
+        writeConfidence(out, run);
+    }
+
+    private static void writeConfidence(Output out, List<ForecastDataPoint> run) {
+        Double first = run.get(0).confidenceInterval();
+        boolean allAbsent = true;
+        boolean allShared = first != null;
+        for (ForecastDataPoint point : run) {
+            Double value = point.confidenceInterval();
+            allAbsent &= value == null;
+            allShared = allShared && value != null && Double.compare(value, first) == 0;
+        }
+
+        if (allAbsent) {
+            out.writeByte(NO_CONFIDENCE);
+        } else if (allShared) {
+            out.writeByte(SHARED_CONFIDENCE);
+            out.writeDouble(first);
+        } else {
+            out.writeByte(PER_POINT_CONFIDENCE);
+            byte[] presence = new byte[(run.size() + 7) / 8];
+            for (int i = 0; i < run.size(); i++) {
+                if (run.get(i).confidenceInterval() != null) {
+                    presence[i >>> 3] |= (byte) (1 << (i & 7));
+                }
+            }
+            out.writeBytes(presence);
+            for (ForecastDataPoint point : run) {
+                if (point.confidenceInterval() != null) {
+                    out.writeDouble(point.confidenceInterval());
+                }
+            }
+        }
+    }
+
+    private static ByteBuffer header(byte[] encoded) {
+        ByteBuffer in = ByteBuffer.wrap(encoded);
+        byte version = in.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported data point encoding version: " + version);
+        }
+        return in;
+    }
+
+    private static void readPoints(ByteBuffer in, Consumer<ForecastDataPoint> action) {
+        long count = readVarLong(in);
+        long storedCategories = readVarLong(in);
+        for (long i = 0; i < storedCategories; i++) {
+            readSignedVarLong(in);
+        }
+
+        long decoded = 0;
+        while (decoded < count) {
+            WorkloadCategory category = CATEGORIES[Byte.toUnsignedInt(in.get())];
+            int n = Math.toIntExact(readVarLong(in));
+
+            // The run's columns follow each other; read them in lockstep with one cursor per column
+            ByteBuffer timestamps = in.duplicate();
+            skipVarLongs(in, n);
+            ByteBuffer volumes = in.duplicate();
+            skipVarLongs(in, n);
+
+            byte confidenceMode = in.get();
+            Double shared = confidenceMode == SHARED_CONFIDENCE ? in.getDouble() : null;
+            int presence = -1;
+            if (confidenceMode == PER_POINT_CONFIDENCE) {
+                presence = in.position();
+                in.position(presence + (n + 7) / 8);
+            }
+
+            long timestamp = readSignedVarLong(timestamps);
+            long delta = 0;
+            long volume = 0;
+            for (int i = 0; i < n; i++) {
+                if (i > 0) {
+                    delta += readSignedVarLong(timestamps);
+                    timestamp += delta;
+                }
+                volume += readSignedVarLong(volumes);
+                Double confidenceInterval = shared;
+                if (presence >= 0 && (in.get(presence + (i >>> 3)) & (1 << (i & 7))) != 0) {
+                    confidenceInterval = in.getDouble();
+                }
+                action.accept(new ForecastDataPoint(fromEpochMilli(timestamp), category, Math.toIntExact(volume),
+                    confidenceInterval));
+            }
+            decoded += n;
+        }
+    }
+
+    private static void skipVarLongs(ByteBuffer in, int count) {
+        for (int i = 0; i < count; i++) {
+            readVarLong(in);
+        }
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint in data point encoding");
+    }
+
+    private static long readSignedVarLong(ByteBuffer in) {
+        long raw = readVarLong(in);
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    static long toEpochMilli(LocalDateTime timestamp) {
+        return timestamp.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    static LocalDateTime fromEpochMilli(long epochMilli) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), ZoneOffset.UTC);
+    }
+
+    /**
+     * Growable byte sink; avoids the per-call overhead of DataOutputStream
+     */
+    private static final class Output {
+
+        private byte[] buffer;
+        private int position;
+
+        Output(int initialCapacity) {
+            this.buffer = new byte[Math.max(16, initialCapacity)];
+        }
+
+        void writeByte(int value) {
+            ensureCapacity(1);
+            buffer[position++] = (byte) value;
+        }
+
+        void writeBytes(byte[] bytes) {
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        void writeSignedVarLong(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        void writeDouble(double value) {
+            ensureCapacity(8);
+            ByteBuffer.wrap(buffer, position, 8).putDouble(value);
+            position += 8;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+
+        private void ensureCapacity(int extra) {
+            if (position + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+            }
+        }
+    }
+}
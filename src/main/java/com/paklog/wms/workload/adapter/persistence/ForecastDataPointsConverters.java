@@ -0,0 +1,107 @@
+package com.paklog.wms.workload.adapter.persistence;
+
+import com.paklog.wms.workload.domain.aggregate.DemandForecast;
+import com.paklog.wms.workload.domain.aggregate.DemandForecast.ForecastDataPoint;
+import com.paklog.wms.workload.domain.aggregate.ForecastDataPoints;
+import com.paklog.wms.workload.domain.valueobject.WorkloadCategory;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.PropertyValueConverterRegistrar;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+import org.springframework.data.mongodb.core.convert.MongoConversionContext;
+import org.springframework.data.mongodb.core.convert.MongoValueConverter;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * MongoDB converters storing forecast data points as a single packed binary field
+ */
+final class ForecastDataPointsConverters {
+
+    private ForecastDataPointsConverters() {
+    }
+
+    static List<Converter<?, ?>> all() {
+        return List.of(ToBinary.INSTANCE, FromBinary.INSTANCE);
+    }
+
+    static void registerProperties(PropertyValueConverterRegistrar<MongoPersistentProperty> registrar) {
+        registrar.registerConverter(DemandForecast.class, "dataPoints", DataPointsProperty.INSTANCE);
+    }
+
+    @WritingConverter
+    enum ToBinary implements Converter<ForecastDataPoints, Binary> {
+        INSTANCE;
+
+        @Override
+        public Binary convert(ForecastDataPoints source) {
+            return new Binary(ForecastDataPointCodec.encode(source.asList()));
+        }
+    }
+
+    /**
+     * Decoding is deferred until the points are first accessed
+     */
+    @ReadingConverter
+    enum FromBinary implements Converter<Binary, ForecastDataPoints> {
+        INSTANCE;
+
+        @Override
+        public ForecastDataPoints convert(Binary source) {
+            return ForecastDataPointCodec.lazy(source.getData());
+        }
+    }
+
+    /**
+     * Converts the dataPoints property of stored forecasts, also reading documents
+     * written before data points were packed
+     *
+     * Those held an array of subdocuments with dates stored in the JVM's default
+     * zone. A type converter from an array would be keyed on java.util.List,
+     * which Spring Data does not accept as a store type to read from, so the
+     * array is handled for this one property instead.
+     */
+    enum DataPointsProperty implements MongoValueConverter<ForecastDataPoints, Object> {
+        INSTANCE;
+
+        @Override
+        public ForecastDataPoints read(Object value, MongoConversionContext context) {
+            if (value instanceof Binary binary) {
+                return FromBinary.INSTANCE.convert(binary);
+            }
+            if (value instanceof List<?> legacy) {
+                return fromLegacyArray(legacy);
+            }
+            throw new IllegalStateException("Unexpected stored data points of type " + value.getClass().getName());
+        }
+
+        @Override
+        public Object write(ForecastDataPoints value, MongoConversionContext context) {
+            return ToBinary.INSTANCE.convert(value);
+        }
+
+        private static ForecastDataPoints fromLegacyArray(List<?> source) {
+            List<ForecastDataPoint> points = new ArrayList<>(source.size());
+            for (Object element : source) {
+                Document document = (Document) element;
+                Date timestamp = document.getDate("timestamp");
+                Number volume = document.get("forecastedVolume", Number.class);
+                Number confidenceInterval = document.get("confidenceInterval", Number.class);
+                points.add(new ForecastDataPoint(
+                    LocalDateTime.ofInstant(timestamp.toInstant(), ZoneId.systemDefault()),
+                    WorkloadCategory.valueOf(document.getString("category")),
+                    volume != null ? volume.intValue() : 0,
+                    confidenceInterval != null ? confidenceInterval.doubleValue() : null
+                ));
+            }
+            return ForecastDataPoints.of(points);
+        }
+    }
+}
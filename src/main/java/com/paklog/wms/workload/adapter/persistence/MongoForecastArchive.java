@@ -0,0 +1,119 @@
+package com.paklog.wms.workload.adapter.persistence;
+
+import com.paklog.wms.workload.domain.aggregate.DemandForecast;
+import com.paklog.wms.workload.domain.repository.ForecastArchive;
+import com.paklog.wms.workload.domain.valueobject.WorkloadCategory;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * MongoDB-backed forecast archive storing deflate-compressed packed data points
+ */
+@Component
+public class MongoForecastArchive implements ForecastArchive {
+
+    private final ArchivedForecastRepository repository;
+
+    public MongoForecastArchive(ArchivedForecastRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public void archive(DemandForecast forecast) {
+        Map<WorkloadCategory, Integer> totals = new EnumMap<>(WorkloadCategory.class);
+        for (DemandForecast.ForecastDataPoint point : forecast.getDataPoints()) {
+            totals.merge(point.category(), point.forecastedVolume(), Integer::sum);
+        }
+
+        repository.save(new ArchivedForecastDocument(
+            forecast.getForecastId(),
+            forecast.getWarehouseId(),
+            forecast.getPeriod(),
+            forecast.getForecastDate(),
+            forecast.getCreatedAt(),
+            LocalDateTime.now(),
+            forecast.getForecastingModel(),
+            forecast.getModelParameters(),
+            forecast.getAccuracy(),
+            forecast.getMeanAbsoluteError(),
+            forecast.getMeanSquaredError(),
+            forecast.getDataPoints().size(),
+            totals,
+            compress(ForecastDataPointCodec.encode(forecast.getDataPoints()))
+        ));
+    }
+
+    @Override
+    public Optional<DemandForecast> findById(String forecastId) {
+        return repository.findById(forecastId).map(MongoForecastArchive::rehydrate);
+    }
+
+    private static DemandForecast rehydrate(ArchivedForecastDocument document) {
+        DemandForecast forecast = DemandForecast.restore(
+            document.forecastId(),
+            document.warehouseId(),
+            document.period(),
+            document.forecastDate(),
+            document.createdAt()
+        );
+        forecast.setForecastingModel(document.forecastingModel(), document.modelParameters());
+        if (document.accuracy() != null) {
+            forecast.updateAccuracyMetrics(
+                document.accuracy(),
+                document.meanAbsoluteError() != null ? document.meanAbsoluteError() : 0.0,
+                document.meanSquaredError() != null ? document.meanSquaredError() : 0.0
+            );
+        }
+        for (DemandForecast.ForecastDataPoint point :
+                ForecastDataPointCodec.decode(decompress(document.packedDataPoints()))) {
+            forecast.addDataPoint(point.timestamp(), point.category(),
+                point.forecastedVolume(), point.confidenceInterval());
+        }
+        return forecast;
+    }
+
+    static byte[] compress(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+            byte[] chunk = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    static byte[] decompress(byte[] compressed) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(compressed.length * 4);
+            byte[] chunk = new byte[4096];
+            while (!inflater.finished()) {
+                int inflated = inflater.inflate(chunk);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Truncated archived data point blob");
+                }
+                out.write(chunk, 0, inflated);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt archived data point blob", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
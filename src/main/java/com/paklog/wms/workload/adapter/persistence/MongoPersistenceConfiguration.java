@@ -0,0 +1,36 @@
+package com.paklog.wms.workload.adapter.persistence;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+
+/**
+ * MongoDB mapping configuration shared by the blocking and reactive templates
+ *
+ * Spring Data only looks for custom query implementations in the package of
+ * the repository interface, so the ones in this package are beans named after
+ * their repository (workloadPlanRepositoryImpl for workloadPlanRepository),
+ * which Spring Data picks up from the context instead.
+ */
+@Configuration
+public class MongoPersistenceConfiguration {
+
+    @Bean
+    public MongoCustomConversions mongoCustomConversions() {
+        return MongoCustomConversions.create(adapter -> adapter
+            .useSpringDataJavaTimeCodecs()
+            .registerConverters(ForecastDataPointsConverters.all())
+            .configurePropertyConversions(ForecastDataPointsConverters::registerProperties));
+    }
+
+    /**
+     * Backs @Transactional so aggregate writes and their outbox events commit together.
+     * Multi-document transactions require a replica set.
+     */
+    @Bean
+    public MongoTransactionManager transactionManager(MongoDatabaseFactory databaseFactory) {
+        return new MongoTransactionManager(databaseFactory);
+    }
+}
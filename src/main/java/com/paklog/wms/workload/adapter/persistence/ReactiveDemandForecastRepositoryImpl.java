@@ -0,0 +1,36 @@
+package com.paklog.wms.workload.adapter.persistence;
+
+import com.paklog.wms.workload.domain.aggregate.DemandForecast;
+import com.paklog.wms.workload.domain.repository.ForecastSummary;
+import com.paklog.wms.workload.domain.repository.ReactiveDemandForecastRepositoryCustom;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+
+/**
+ * Reactive MongoDB implementation of custom DemandForecast queries
+ */
+@Repository
+public class ReactiveDemandForecastRepositoryImpl implements ReactiveDemandForecastRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    public ReactiveDemandForecastRepositoryImpl(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Flux<ForecastSummary> findSummariesByWarehouseId(
+            String warehouseId,
+            LocalDateTime afterForecastDate,
+            String afterForecastId,
+            int limit
+    ) {
+        return mongoTemplate.query(DemandForecast.class)
+            .as(ForecastSummary.class)
+            .matching(SummaryQueries.forecastSummaries(warehouseId, afterForecastDate, afterForecastId, limit))
+            .all();
+    }
+}
@@ -0,0 +1,45 @@
+package com.paklog.wms.workload.adapter.persistence;
+
+import com.paklog.wms.workload.domain.aggregate.WorkloadPlan;
+import com.paklog.wms.workload.domain.repository.PlanSummary;
+import com.paklog.wms.workload.domain.repository.ReactiveWorkloadPlanRepositoryCustom;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * Reactive MongoDB implementation of custom WorkloadPlan queries
+ */
+@Repository
+public class ReactiveWorkloadPlanRepositoryImpl implements ReactiveWorkloadPlanRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    public ReactiveWorkloadPlanRepositoryImpl(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Flux<PlanSummary> findSummariesByWarehouseId(
+            String warehouseId,
+            LocalDate afterPlanDate,
+            String afterPlanId,
+            int limit
+    ) {
+        return mongoTemplate.query(WorkloadPlan.class)
+            .as(PlanSummary.class)
+            .matching(SummaryQueries.planSummaries(warehouseId, afterPlanDate, afterPlanId, limit))
+            .all();
+    }
+
+    @Override
+    public Mono<WorkloadPlan> findProjectedById(String planId, Collection<String> properties) {
+        return mongoTemplate.query(WorkloadPlan.class)
+            .matching(SummaryQueries.planProperties(planId, properties))
+            .one();
+    }
+}
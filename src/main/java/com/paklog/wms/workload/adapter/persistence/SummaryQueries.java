@@ -0,0 +1,90 @@
+package com.paklog.wms.workload.adapter.persistence;
+
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Keyset summary and projected queries shared by the blocking and reactive repositories
+ */
+final class SummaryQueries {
+
+    /**
+     * Stored headcounts, or for plans stored before they were kept, distinct workers per shift counted by the server
+     */
+    private static final String HEADCOUNT_BY_SHIFT = """
+        { $ifNull: [ "$headcountByShift", { $arrayToObject: { $filter: {
+            input: { $map: {
+                input: { $objectToArray: { $ifNull: [ "$shiftAssignments", {} ] } },
+                as: "shift",
+                in: { k: "$$shift.k", v: { $size: { $setUnion: [ "$$shift.v.workerId", [] ] } } }
+            } },
+            as: "count",
+            cond: { $gt: [ "$$count.v", 0 ] }
+        } } } ] }
+        """;
+
+    private SummaryQueries() {
+    }
+
+    /**
+     * Forecast summaries ordered by forecast date (newest first); data points are never read
+     */
+    static Query forecastSummaries(String warehouseId, LocalDateTime afterForecastDate,
+                                   String afterForecastId, int limit) {
+        Query query = keysetPage(warehouseId, "forecastDate", afterForecastDate, afterForecastId, limit);
+        query.fields().include(
+            "warehouseId", "period", "forecastDate", "forecastingModel",
+            "accuracy", "meanAbsoluteError", "createdAt"
+        );
+        return query;
+    }
+
+    /**
+     * Plan summaries ordered by plan date (newest first); shift assignments are never read
+     */
+    static Query planSummaries(String warehouseId, LocalDate afterPlanDate,
+                               String afterPlanId, int limit) {
+        Query query = keysetPage(warehouseId, "planDate", afterPlanDate, afterPlanId, limit);
+        query.fields().include(
+            "warehouseId", "planDate", "totalRequiredLaborHours", "totalAvailableLaborHours",
+            "utilizationPercentage", "estimatedLaborCost", "status", "createdAt", "updatedAt"
+        );
+        return query;
+    }
+
+    /**
+     * A single plan with only the given properties; its revision is always read for the validators
+     */
+    static Query planProperties(String planId, Collection<String> properties) {
+        Query query = Query.query(Criteria.where("_id").is(planId));
+        query.fields().include(properties.stream()
+            .filter(property -> !property.equals("headcountByShift"))
+            .toArray(String[]::new)).include("updatedAt", "revision");
+        if (properties.contains("headcountByShift")) {
+            // Counted in the projection so worker assignments never leave the server
+            query.fields().project(() -> Document.parse(HEADCOUNT_BY_SHIFT)).as("headcountByShift");
+        }
+        return query;
+    }
+
+    private static Query keysetPage(String warehouseId, String sortField, Object afterSortValue,
+                                    String afterId, int limit) {
+        Criteria criteria = Criteria.where("warehouseId").is(warehouseId);
+        if (afterSortValue != null && afterId != null) {
+            criteria = criteria.orOperator(
+                Criteria.where(sortField).lt(afterSortValue),
+                Criteria.where(sortField).is(afterSortValue).and("_id").lt(afterId)
+            );
+        }
+
+        return Query.query(criteria)
+            .with(Sort.by(Sort.Direction.DESC, sortField, "_id"))
+            .limit(limit);
+    }
+}
@@ -0,0 +1,335 @@
+package com.paklog.wms.workload.adapter.persistence;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import com.paklog.wms.workload.application.service.PlanFeed;
+import com.paklog.wms.workload.application.service.WorkloadAggregateCache;
+import com.paklog.wms.workload.domain.aggregate.DemandForecast;
+import com.paklog.wms.workload.domain.aggregate.WorkloadPlan;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.messaging.ChangeStreamRequest;
+import org.springframework.data.mongodb.core.messaging.DefaultMessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.Message;
+import org.springframework.data.mongodb.core.messaging.MessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.Subscription;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Tails the plan and forecast change streams into the warehouse KPI read model
+ *
+ * The resume token of each stream is checkpointed at most once per checkpoint
+ * interval and on shutdown, so a restart replays at most that window; the
+ * projector is idempotent. A failed stream is resubscribed from its last
+ * checkpoint after the retry delay, and so is a stream whose change could not
+ * be projected: that change is retried, and only after max-attempts failures
+ * is it logged and checkpointed past. When the oplog no longer holds the
+ * checkpoint, the checkpoint is dropped and the stream resumes from now; the
+ * KPIs then miss the changes in between and need a rebuild, which is logged.
+ *
+ * Change streams require a replica set or a sharded cluster; against a
+ * standalone server the listener says so once and stays idle.
+ *
+ * Plan changes are also published to the live plan feed, so subscribers see
+ * saves made by any instance, and applied to the aggregate cache: a newer plan
+ * revision replaces the cached one and a changed forecast, which has no
+ * revision to compare, is evicted.
+ */
+@Component
+@ConditionalOnProperty(prefix = "workload.kpi.change-stream", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class WarehouseKpiChangeStreamListener implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarehouseKpiChangeStreamListener.class);
+
+    static final String CHECKPOINT_COLLECTION = "kpi_change_stream_checkpoints";
+    static final String PLANS_COLLECTION = "workload_plans";
+    static final String FORECASTS_COLLECTION = "demand_forecasts";
+
+    // ChangeStreamHistoryLost, and ChangeStreamFatalError as servers before 4.4 report a token missing from the oplog
+    private static final Set<Integer> HISTORY_LOST_CODES = Set.of(286, 280);
+
+    private final MongoTemplate mongoTemplate;
+    private final WarehouseKpiProjector projector;
+    private final PlanFeed planFeed;
+    private final WorkloadAggregateCache aggregateCache;
+    private final Duration checkpointInterval;
+    private final Duration retryDelay;
+    private final int maxAttempts;
+    private final Clock clock = Clock.systemUTC();
+
+    private final Map<String, Checkpoint> checkpoints = new ConcurrentHashMap<>();
+    private final Map<String, FailedChange> failedChanges = new ConcurrentHashMap<>();
+    private volatile MessageListenerContainer container;
+    private volatile ScheduledExecutorService supervisor;
+
+    public WarehouseKpiChangeStreamListener(
+            MongoTemplate mongoTemplate,
+            WarehouseKpiProjector projector,
+            PlanFeed planFeed,
+            WorkloadAggregateCache aggregateCache,
+            @Value("${workload.kpi.change-stream.checkpoint-interval:1s}") Duration checkpointInterval,
+            @Value("${workload.kpi.change-stream.retry-delay:10s}") Duration retryDelay,
+            @Value("${workload.kpi.change-stream.max-attempts:5}") int maxAttempts
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.projector = projector;
+        this.planFeed = planFeed;
+        this.aggregateCache = aggregateCache;
+        this.checkpointInterval = checkpointInterval;
+        this.retryDelay = retryDelay;
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Override
+    public void start() {
+        container = new DefaultMessageListenerContainer(mongoTemplate);
+        container.start();
+        supervisor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "kpi-change-stream-supervisor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Checking the deployment and subscribing read from MongoDB; keep them off the startup thread
+        supervisor.execute(this::startTailing);
+    }
+
+    @Override
+    public void stop() {
+        supervisor.shutdownNow();
+        container.stop();
+        checkpoints.forEach((collection, checkpoint) -> {
+            try {
+                flush(collection, checkpoint);
+            } catch (RuntimeException e) {
+                logger.warn("Could not checkpoint {} change stream on shutdown", collection, e);
+            }
+        });
+    }
+
+    @Override
+    public boolean isRunning() {
+        return container != null && container.isRunning();
+    }
+
+    private void startTailing() {
+        try {
+            if (!supportsChangeStreams()) {
+                logger.warn("MongoDB is a standalone server, which has no change streams; warehouse KPIs and the live "
+                    + "plan feed will not follow saves by other instances. Run a replica set or set workload.kpi.change-stream.enabled=false");
+                return;
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Could not reach MongoDB to start the KPI change streams, retrying in {}: {}", retryDelay, e.toString());
+            schedule(this::startTailing);
+            return;
+        }
+        subscribe(PLANS_COLLECTION, WorkloadPlan.class, this::onPlanChange);
+        subscribe(FORECASTS_COLLECTION, DemandForecast.class, this::onForecastChange);
+    }
+
+    /**
+     * Replica set members and mongos routers serve change streams; a standalone server does not
+     */
+    private boolean supportsChangeStreams() {
+        Document hello = mongoTemplate.executeCommand(new Document("hello", 1));
+        return hello.containsKey("setName") || "isdbgrid".equals(hello.getString("msg"));
+    }
+
+    private <T> void subscribe(String collection, Class<T> bodyType,
+                               Consumer<Message<ChangeStreamDocument<Document>, T>> handler) {
+        try {
+            // Set once this subscription fails; later messages are neither projected nor checkpointed
+            AtomicBoolean failed = new AtomicBoolean();
+            Subscription[] subscription = new Subscription[1];
+            Runnable resubscribe = () -> {
+                if (subscription[0] != null) {
+                    container.remove(subscription[0]);
+                }
+                subscribe(collection, bodyType, handler);
+            };
+
+            ChangeStreamRequest.ChangeStreamRequestBuilder<T> request = ChangeStreamRequest.<T>builder(message -> {
+                    if (failed.get() || handle(collection, message, handler)) {
+                        return;
+                    }
+                    if (failed.compareAndSet(false, true)) {
+                        schedule(resubscribe);
+                    }
+                })
+                .collection(collection)
+                .filter(newAggregation(match(where("operationType").in("insert", "update", "replace", "delete"))))
+                .fullDocumentLookup(FullDocument.UPDATE_LOOKUP);
+
+            BsonDocument resumeToken = loadResumeToken(collection);
+            if (resumeToken != null) {
+                request.resumeAfter(resumeToken);
+            }
+
+            subscription[0] = container.register(request.build(), bodyType, error -> {
+                if (!failed.compareAndSet(false, true)) {
+                    return;
+                }
+                if (isHistoryLost(error)) {
+                    logger.error("The oplog no longer holds the {} change stream checkpoint; resuming from now in {}. "
+                        + "Changes in between are missing from warehouse KPIs, which need a rebuild",
+                        collection, retryDelay, error);
+                    forgetCheckpoint(collection);
+                } else {
+                    logger.warn("KPI change stream on {} failed, resubscribing in {}", collection, retryDelay, error);
+                }
+                schedule(resubscribe);
+            });
+            logger.info("Tailing {} change stream into warehouse KPIs{}", collection,
+                resumeToken != null ? " from checkpoint" : "");
+        } catch (RuntimeException e) {
+            logger.warn("Could not subscribe to {} change stream, retrying in {}", collection, retryDelay, e);
+            schedule(() -> subscribe(collection, bodyType, handler));
+        }
+    }
+
+    private void schedule(Runnable task) {
+        ScheduledExecutorService current = supervisor;
+        if (current != null && !current.isShutdown()) {
+            current.schedule(task, retryDelay.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Project a change and checkpoint past it
+     *
+     * @return false when the change could not be projected and is to be retried; it is then not checkpointed
+     */
+    private <T> boolean handle(String collection, Message<ChangeStreamDocument<Document>, T> message,
+                               Consumer<Message<ChangeStreamDocument<Document>, T>> handler) {
+        ChangeStreamDocument<Document> raw = message.getRaw();
+        BsonDocument resumeToken = raw != null ? raw.getResumeToken() : null;
+        try {
+            handler.accept(message);
+            if (resumeToken != null) {
+                failedChanges.computeIfPresent(collection,
+                    (key, failure) -> failure.resumeToken().equals(resumeToken) ? null : failure);
+            }
+        } catch (RuntimeException e) {
+            // Counted per change: the changes replayed before it from the last checkpoint do not reset the count
+            int attempts = resumeToken == null ? 1 : failedChanges.merge(collection, new FailedChange(resumeToken, 1),
+                (previous, first) -> previous.resumeToken().equals(resumeToken) ? previous.retried() : first).attempts();
+            Object documentKey = raw != null ? raw.getDocumentKey() : null;
+            if (resumeToken == null || attempts < maxAttempts) {
+                logger.error("Failed to project {} change {} into warehouse KPIs (attempt {} of {}), "
+                    + "retrying from the last checkpoint in {}", collection, documentKey, attempts, maxAttempts,
+                    retryDelay, e);
+                return false;
+            }
+            logger.error("Skipping {} change {} after {} failed attempts; warehouse KPIs miss it and need a rebuild",
+                collection, documentKey, attempts, e);
+            failedChanges.remove(collection);
+        }
+        if (resumeToken != null) {
+            checkpoint(collection, resumeToken);
+        }
+        return true;
+    }
+
+    private static boolean isHistoryLost(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoException mongoError && HISTORY_LOST_CODES.contains(mongoError.getCode())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void forgetCheckpoint(String collection) {
+        checkpoints.remove(collection);
+        failedChanges.remove(collection);
+        try {
+            mongoTemplate.remove(Query.query(where("_id").is(collection)), CHECKPOINT_COLLECTION);
+        } catch (RuntimeException e) {
+            // The next subscription finds the token gone from the oplog again and retries this
+            logger.warn("Could not drop the {} change stream checkpoint", collection, e);
+        }
+        // Cached aggregates may predate the changes that were missed
+        aggregateCache.clear();
+    }
+
+    private void onPlanChange(Message<ChangeStreamDocument<Document>, WorkloadPlan> message) {
+        ChangeStreamDocument<Document> raw = message.getRaw();
+        if (raw.getOperationType() == OperationType.DELETE) {
+            String planId = raw.getDocumentKey().getString("_id").getValue();
+            projector.removePlan(planId);
+            aggregateCache.evictPlan(planId);
+        } else if (message.getBody() != null) {
+            projector.projectPlan(message.getBody());
+            planFeed.planChanged(message.getBody());
+            aggregateCache.planChanged(message.getBody());
+        }
+    }
+
+    private void onForecastChange(Message<ChangeStreamDocument<Document>, DemandForecast> message) {
+        aggregateCache.evictForecast(message.getRaw().getDocumentKey().getString("_id").getValue());
+        // Deleted forecasts are archived ones; the KPIs they contributed remain valid history
+        if (message.getRaw().getOperationType() != OperationType.DELETE && message.getBody() != null) {
+            projector.projectForecast(message.getBody());
+        }
+    }
+
+    private void checkpoint(String collection, BsonDocument resumeToken) {
+        Instant now = clock.instant();
+        Checkpoint checkpoint = checkpoints.compute(collection, (key, previous) ->
+            new Checkpoint(resumeToken, previous != null ? previous.flushedAt() : Instant.EPOCH));
+        if (!checkpoint.flushedAt().plus(checkpointInterval).isAfter(now)) {
+            flush(collection, checkpoint);
+            checkpoints.put(collection, new Checkpoint(resumeToken, now));
+        }
+    }
+
+    private void flush(String collection, Checkpoint checkpoint) {
+        mongoTemplate.upsert(
+            Query.query(where("_id").is(collection)),
+            new Update().set("resumeToken", checkpoint.resumeToken().toJson()).currentDate("updatedAt"),
+            CHECKPOINT_COLLECTION
+        );
+    }
+
+    private BsonDocument loadResumeToken(String collection) {
+        Document stored = mongoTemplate.findById(collection, Document.class, CHECKPOINT_COLLECTION);
+        return stored != null && stored.getString("resumeToken") != null
+            ? BsonDocument.parse(stored.getString("resumeToken"))
+            : null;
+    }
+
+    private record Checkpoint(BsonDocument resumeToken, Instant flushedAt) {}
+
+    private record FailedChange(BsonDocument resumeToken, int attempts) {
+
+        FailedChange retried() {
+            return new FailedChange(resumeToken, attempts + 1);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.paklog.wms.workload.adapter.persistence;
+
+import com.paklog.wms.workload.domain.aggregate.DemandForecast;
+import com.paklog.wms.workload.domain.aggregate.WorkloadPlan;
+import com.paklog.wms.workload.domain.repository.WarehouseKpi;
+import com.paklog.wms.workload.domain.valueobject.ShiftType;
+import com.paklog.wms.workload.domain.valueobject.WorkloadCategory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Folds plan and forecast changes into the warehouse KPI read model
+ *
+ * Every projection carries the full current state of its source, so applying
+ * the same change twice or out of order is harmless: an upsert only matches
+ * when the stored source is not newer, and a non-matching upsert on an
+ * existing document fails on the _id key and is skipped.
+ */
+@Component
+public class WarehouseKpiProjector {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarehouseKpiProjector.class);
+
+    private static final String[] PLAN_FIELDS = {
+        "planId", "planStatus", "planUpdatedAt", "requiredLaborHours", "availableLaborHours",
+        "utilizationPercentage", "estimatedLaborCost", "headcountByShift"
+    };
+
+    private final MongoTemplate mongoTemplate;
+
+    public WarehouseKpiProjector(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Apply the current state of a plan
+     */
+    public void projectPlan(WorkloadPlan plan) {
+        if (plan.getStatus() == WorkloadPlan.PlanStatus.CANCELLED) {
+            removePlan(plan.getPlanId());
+            return;
+        }
+
+        Update update = new Update()
+            .set("warehouseId", plan.getWarehouseId())
+            .set("date", plan.getPlanDate())
+            .set("planId", plan.getPlanId())
+            .set("planStatus", plan.getStatus())
+            .set("planUpdatedAt", plan.getUpdatedAt())
+            .set("requiredLaborHours", plan.getTotalRequiredLaborHours())
+            .set("availableLaborHours", plan.getTotalAvailableLaborHours())
+            .set("utilizationPercentage", plan.getUtilizationPercentage())
+            .set("estimatedLaborCost", plan.getEstimatedLaborCost())
+            .set("headcountByShift", headcountByShift(plan))
+            .currentDate("updatedAt");
+
+        upsertIfNotNewer(WarehouseKpi.idOf(plan.getWarehouseId(), plan.getPlanDate()),
+            "planUpdatedAt", plan.getUpdatedAt(), update);
+    }
+
+    /**
+     * Clear plan metrics contributed by a cancelled or deleted plan
+     */
+    public void removePlan(String planId) {
+        Update update = new Update().currentDate("updatedAt");
+        for (String field : PLAN_FIELDS) {
+            update.unset(field);
+        }
+        mongoTemplate.updateFirst(Query.query(where("planId").is(planId)), update, WarehouseKpi.class);
+    }
+
+    /**
+     * Apply a forecast to every date its data points cover
+     */
+    public void projectForecast(DemandForecast forecast) {
+        Map<LocalDate, Map<WorkloadCategory, Integer>> volumesByDate = new TreeMap<>();
+        for (DemandForecast.ForecastDataPoint point : forecast.getDataPoints()) {
+            volumesByDate
+                .computeIfAbsent(point.timestamp().toLocalDate(), date -> new EnumMap<>(WorkloadCategory.class))
+                .merge(point.category(), point.forecastedVolume(), Integer::sum);
+        }
+
+        for (Map.Entry<LocalDate, Map<WorkloadCategory, Integer>> entry : volumesByDate.entrySet()) {
+            Update update = new Update()
+                .set("warehouseId", forecast.getWarehouseId())
+                .set("date", entry.getKey())
+                .set("forecastId", forecast.getForecastId())
+                .set("forecastPeriod", forecast.getPeriod())
+                .set("forecastCreatedAt", forecast.getCreatedAt())
+                .set("forecastedVolumeByCategory", entry.getValue())
+                .set("forecastAccuracy", forecast.getAccuracy())
+                .currentDate("updatedAt");
+
+            upsertIfNotNewer(WarehouseKpi.idOf(forecast.getWarehouseId(), entry.getKey()),
+                "forecastCreatedAt", forecast.getCreatedAt(), update);
+        }
+    }
+
+    static Map<ShiftType, Integer> headcountByShift(WorkloadPlan plan) {
+        Map<ShiftType, Integer> headcount = new EnumMap<>(ShiftType.class);
+        for (Map.Entry<ShiftType, List<WorkloadPlan.ShiftAssignment>> entry : plan.getShiftAssignments().entrySet()) {
+            int workers = (int) entry.getValue().stream().map(WorkloadPlan.ShiftAssignment::workerId).distinct().count();
+            if (workers > 0) {
+                headcount.put(entry.getKey(), workers);
+            }
+        }
+        return headcount;
+    }
+
+    private void upsertIfNotNewer(String id, String versionField, LocalDateTime version, Update update) {
+        Criteria criteria = where("_id").is(id);
+        if (version != null) {
+            criteria.orOperator(where(versionField).lte(version), where(versionField).is(null));
+        }
+        try {
+            mongoTemplate.upsert(Query.query(criteria), update, WarehouseKpi.class);
+        } catch (DuplicateKeyException e) {
+            logger.debug("Skipping stale {} {} for KPI {}", versionField, version, id);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.paklog.wms.workload.adapter.persistence;
+
+import com.paklog.wms.workload.domain.aggregate.WorkloadPlan;
+import com.paklog.wms.workload.domain.repository.PlanSummary;
+import com.paklog.wms.workload.domain.repository.WorkloadPlanRepositoryCustom;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * MongoDB implementation of custom WorkloadPlan queries
+ */
+@Repository
+public class WorkloadPlanRepositoryImpl implements WorkloadPlanRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public WorkloadPlanRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<PlanSummary> findSummariesByWarehouseId(
+            String warehouseId,
+            LocalDate afterPlanDate,
+            String afterPlanId,
+            int limit
+    ) {
+        return mongoTemplate.query(WorkloadPlan.class)
+            .as(PlanSummary.class)
+            .matching(SummaryQueries.planSummaries(warehouseId, afterPlanDate, afterPlanId, limit))
+            .all();
+    }
+
+    @Override
+    public Optional<WorkloadPlan> findProjectedById(String planId, Collection<String> properties) {
+        return mongoTemplate.query(WorkloadPlan.class)
+            .matching(SummaryQueries.planProperties(planId, properties))
+            .one();
+    }
+}
@@ -0,0 +1,124 @@
+package com.paklog.wms.workload.adapter.rest;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Adaptive concurrency limit using additive increase, multiplicative decrease
+ *
+ * Every completed request is a latency sample. A sample over the latency budget
+ * means the work behind the limit is queueing, so the limit is cut by a tenth,
+ * at most once per latency budget: the requests in flight during a slowdown all
+ * report it, and one cut per request would take the limit to its minimum at
+ * once. A sample within budget while at least half the limit was in use raises
+ * it by one. Requests over the current limit are refused rather than queued.
+ *
+ * A fixed limiter only counts slots; its requests are not latency samples.
+ */
+final class AimdLimiter {
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyBudgetNanos;
+    private final LongSupplier nanoTime;
+    private final boolean adaptive;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ReentrantLock sampleLock = new ReentrantLock();
+    private volatile double limit;
+    private long lastBackoffNanos;
+
+    AimdLimiter(int initialLimit, int minLimit, int maxLimit, Duration latencyBudget) {
+        this(initialLimit, minLimit, maxLimit, latencyBudget, System::nanoTime);
+    }
+
+    AimdLimiter(int initialLimit, int minLimit, int maxLimit, Duration latencyBudget, LongSupplier nanoTime) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max, got "
+                + minLimit + ", " + initialLimit + ", " + maxLimit);
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyBudgetNanos = latencyBudget.toNanos();
+        this.nanoTime = nanoTime;
+        this.adaptive = minLimit < maxLimit;
+        this.lastBackoffNanos = nanoTime.getAsLong() - latencyBudgetNanos;
+    }
+
+    /**
+     * A limit that does not adapt, for work whose duration says nothing about load
+     */
+    static AimdLimiter fixed(int limit) {
+        return new AimdLimiter(limit, limit, limit, Duration.ZERO);
+    }
+
+    /**
+     * Take a slot, or nothing when the limit is reached
+     */
+    Optional<Permit> tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= (int) limit) {
+                return Optional.empty();
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return Optional.of(new Permit(current + 1, nanoTime.getAsLong()));
+    }
+
+    int getLimit() {
+        return (int) limit;
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    private void onSample(long nowNanos, long latencyNanos, int inFlightAtStart) {
+        // Not synchronized: a virtual thread would pin its carrier while waiting for the monitor
+        sampleLock.lock();
+        try {
+            if (latencyNanos > latencyBudgetNanos) {
+                if (nowNanos - lastBackoffNanos >= latencyBudgetNanos) {
+                    limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+                    lastBackoffNanos = nowNanos;
+                }
+            } else if (inFlightAtStart * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1);
+            }
+        } finally {
+            sampleLock.unlock();
+        }
+    }
+
+    /**
+     * A slot held by one request; releasing it more than once has no effect
+     */
+    final class Permit {
+
+        private final int inFlightAtStart;
+        private final long startNanos;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(int inFlightAtStart, long startNanos) {
+            this.inFlightAtStart = inFlightAtStart;
+            this.startNanos = startNanos;
+        }
+
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                inFlight.decrementAndGet();
+                if (adaptive) {
+                    long now = nanoTime.getAsLong();
+                    onSample(now, now - startNanos, inFlightAtStart);
+                }
+            }
+        }
+    }
+}
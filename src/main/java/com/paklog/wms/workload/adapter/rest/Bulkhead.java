@@ -0,0 +1,18 @@
+package com.paklog.wms.workload.adapter.rest;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Puts a handler in a given concurrency bulkhead
+ *
+ * Handlers without it are classed by HTTP method: GET is a read, anything else a write.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Bulkhead {
+
+    EndpointClass value();
+}
@@ -0,0 +1,64 @@
+package com.paklog.wms.workload.adapter.rest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Concurrency bulkheads for the workload API
+ *
+ * Each endpoint class is configured under workload.api.concurrency.&lt;class&gt;
+ * with initial-limit, min-limit, max-limit and latency-budget. The latency
+ * budget is the response time past which its limit starts to shrink.
+ * Transfers have a fixed limit, workload.api.concurrency.transfer.limit.
+ */
+@Configuration
+@ConditionalOnProperty(value = "workload.api.concurrency.enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitConfiguration implements WebMvcConfigurer {
+
+    private static final String PREFIX = "workload.api.concurrency.";
+
+    private final ConcurrencyLimitInterceptor interceptor;
+
+    public ConcurrencyLimitConfiguration(
+            Environment environment,
+            @Value("${workload.api.concurrency.retry-after:1s}") Duration retryAfter,
+            ObjectProvider<MeterRegistry> meterRegistry
+    ) {
+        Map<EndpointClass, AimdLimiter> limiters = new EnumMap<>(EndpointClass.class);
+        limiters.put(EndpointClass.READ, limiter(environment, EndpointClass.READ, 100, 20, 400, Duration.ofMillis(250)));
+        limiters.put(EndpointClass.WRITE, limiter(environment, EndpointClass.WRITE, 40, 5, 100, Duration.ofSeconds(1)));
+        limiters.put(EndpointClass.COMPUTE, limiter(environment, EndpointClass.COMPUTE, 8, 1, 32, Duration.ofSeconds(5)));
+        limiters.put(EndpointClass.TRANSFER, AimdLimiter.fixed(
+            environment.getProperty(PREFIX + EndpointClass.TRANSFER.tag() + ".limit", Integer.class, 16)));
+        // Slices without metrics auto-configuration still get the limits
+        this.interceptor = new ConcurrencyLimitInterceptor(limiters, retryAfter,
+            meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(interceptor).addPathPatterns("/api/v1/workload/**");
+    }
+
+    private static AimdLimiter limiter(Environment environment, EndpointClass endpointClass,
+                                       int initialLimit, int minLimit, int maxLimit, Duration latencyBudget) {
+        String prefix = PREFIX + endpointClass.tag() + ".";
+        return new AimdLimiter(
+            environment.getProperty(prefix + "initial-limit", Integer.class, initialLimit),
+            environment.getProperty(prefix + "min-limit", Integer.class, minLimit),
+            environment.getProperty(prefix + "max-limit", Integer.class, maxLimit),
+            environment.getProperty(prefix + "latency-budget", Duration.class, latencyBudget)
+        );
+    }
+}
@@ -0,0 +1,137 @@
+package com.paklog.wms.workload.adapter.rest;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Sheds API requests over the adaptive limit of their endpoint class
+ *
+ * Reads, writes and compute each have their own limiter, so a burst of slow
+ * optimizations can only exhaust the compute bulkhead. A refused request gets
+ * 503 with Retry-After before its handler runs. Asynchronous handlers (reactive
+ * reads, streamed downloads) hold their slot until the response completes.
+ */
+class ConcurrencyLimitInterceptor implements AsyncHandlerInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyLimitInterceptor.class);
+
+    private static final String PERMIT_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".permit";
+
+    private final Map<EndpointClass, AimdLimiter> limiters;
+    private final Map<EndpointClass, Counter> rejections = new EnumMap<>(EndpointClass.class);
+    private final String retryAfterSeconds;
+
+    ConcurrencyLimitInterceptor(Map<EndpointClass, AimdLimiter> limiters, Duration retryAfter, MeterRegistry meterRegistry) {
+        this.limiters = new EnumMap<>(limiters);
+        this.retryAfterSeconds = Long.toString(Math.max(1, retryAfter.toSeconds()));
+        this.limiters.forEach((endpointClass, limiter) -> {
+            Gauge.builder("workload.api.concurrency.limit", limiter, AimdLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .tag("class", endpointClass.tag())
+                .register(meterRegistry);
+            Gauge.builder("workload.api.concurrency.in-flight", limiter, AimdLimiter::getInFlight)
+                .tag("class", endpointClass.tag())
+                .register(meterRegistry);
+            rejections.put(endpointClass, Counter.builder("workload.api.concurrency.rejected")
+                .description("Requests refused with 503 because their endpoint class was at its limit")
+                .tag("class", endpointClass.tag())
+                .register(meterRegistry));
+        });
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        if (!(handler instanceof HandlerMethod handlerMethod) || request.getDispatcherType() == DispatcherType.ASYNC) {
+            // Async redispatches still hold the slot taken by the original request
+            return true;
+        }
+
+        EndpointClass endpointClass = classify(handlerMethod, request);
+        AimdLimiter limiter = limiters.get(endpointClass);
+        if (limiter == null) {
+            return true;
+        }
+        Optional<AimdLimiter.Permit> permit = limiter.tryAcquire();
+        if (permit.isEmpty()) {
+            rejections.get(endpointClass).increment();
+            logger.debug("Refused {} {}: {} limit of {} reached",
+                request.getMethod(), request.getRequestURI(), endpointClass.tag(), limiter.getLimit());
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE,
+                "Too many concurrent " + endpointClass.tag() + " requests");
+            return false;
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, permit.get());
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        AimdLimiter.Permit permit = (AimdLimiter.Permit) request.getAttribute(PERMIT_ATTRIBUTE);
+        if (permit != null) {
+            request.getAsyncContext().addListener(new ReleaseOnCompletion(permit));
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        AimdLimiter.Permit permit = (AimdLimiter.Permit) request.getAttribute(PERMIT_ATTRIBUTE);
+        if (permit != null && !request.isAsyncStarted()) {
+            permit.release();
+        }
+    }
+
+    static EndpointClass classify(HandlerMethod handlerMethod, HttpServletRequest request) {
+        Bulkhead bulkhead = handlerMethod.getMethodAnnotation(Bulkhead.class);
+        if (bulkhead != null) {
+            return bulkhead.value();
+        }
+        return HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod())
+            ? EndpointClass.READ
+            : EndpointClass.WRITE;
+    }
+
+    private record ReleaseOnCompletion(AimdLimiter.Permit permit) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            permit.release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            permit.release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            permit.release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
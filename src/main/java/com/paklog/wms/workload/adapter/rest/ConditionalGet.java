@@ -0,0 +1,68 @@
+package com.paklog.wms.workload.adapter.rest;
+
+import com.paklog.wms.workload.domain.repository.ForecastRevision;
+import com.paklog.wms.workload.domain.repository.PlanRevision;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Conditional GET helpers for the plan and forecast endpoints
+ *
+ * Validators come from a revision, which the services answer from the aggregate
+ * cache or a projected query, so a 304 is sent without loading the aggregate or
+ * building its DTO. ETags are strong: a plan's changes with its revision counter,
+ * and a forecast's is its creation time since forecasts are never modified.
+ */
+final class ConditionalGet {
+
+    private ConditionalGet() {
+    }
+
+    static Validators validators(PlanRevision revision) {
+        long lastModified = epochMillis(revision.updatedAt());
+        return new Validators("\"" + revision.revision() + "-" + lastModified + "\"", lastModified);
+    }
+
+    static Validators validators(ForecastRevision revision) {
+        long lastModified = epochMillis(revision.createdAt());
+        return new Validators("\"" + lastModified + "\"", lastModified);
+    }
+
+    private static long epochMillis(LocalDateTime timestamp) {
+        // Timestamps are written with LocalDateTime.now(), i.e. in the default zone
+        return timestamp != null ? timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : -1;
+    }
+
+    record Validators(String eTag, long lastModified) {
+
+        /**
+         * Whether the request's If-None-Match or If-Modified-Since still holds
+         */
+        boolean notModifiedFor(WebRequest request) {
+            return request.checkNotModified(eTag, lastModified);
+        }
+
+        <T> ResponseEntity<T> notModified() {
+            return headers(ResponseEntity.status(HttpStatus.NOT_MODIFIED)).build();
+        }
+
+        ResponseEntity.BodyBuilder ok() {
+            return headers(ResponseEntity.ok());
+        }
+
+        private ResponseEntity.BodyBuilder headers(ResponseEntity.BodyBuilder response) {
+            // One validator covers the JSON and binary representations, so caches must key on Accept too
+            response.eTag(eTag).cacheControl(CacheControl.noCache()).varyBy(HttpHeaders.ACCEPT);
+            if (lastModified >= 0) {
+                response.lastModified(lastModified);
+            }
+            return response;
+        }
+    }
+}
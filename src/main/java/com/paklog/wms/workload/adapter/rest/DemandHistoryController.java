@@ -0,0 +1,97 @@
+package com.paklog.wms.workload.adapter.rest;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.paklog.wms.workload.adapter.rest.dto.DemandHistoryImportResponse;
+import com.paklog.wms.workload.adapter.rest.dto.DemandHistoryRow;
+import com.paklog.wms.workload.application.service.DemandHistoryService;
+import com.paklog.wms.workload.application.service.DemandHistoryService.HistoryImportException;
+import com.paklog.wms.workload.domain.repository.DemandObservation;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+
+/**
+ * Streaming import of observed demand
+ *
+ * The request body is parsed row by row as it arrives, so a multi-year hourly
+ * backfill is never buffered in memory.
+ */
+@RestController
+@RequestMapping("/api/v1/workload")
+@Tag(name = "Demand History", description = "Bulk import of observed demand")
+public class DemandHistoryController {
+
+    static final String TEXT_CSV_VALUE = "text/csv";
+
+    private final DemandHistoryService historyService;
+    private final ObjectReader ndjsonReader;
+    private final ObjectReader csvReader;
+
+    public DemandHistoryController(DemandHistoryService historyService, ObjectMapper objectMapper) {
+        this.historyService = historyService;
+        this.ndjsonReader = objectMapper.readerFor(DemandHistoryRow.class)
+            .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        CsvMapper csvMapper = CsvMapper.builder().findAndAddModules().build();
+        this.csvReader = csvMapper.readerFor(DemandHistoryRow.class)
+            .with(CsvSchema.emptySchema().withHeader())
+            .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    /**
+     * Import demand history for warehouse
+     */
+    @PostMapping(value = "/warehouses/{warehouseId}/demand-history",
+        consumes = {TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Bulkhead(EndpointClass.TRANSFER)
+    @Operation(summary = "Import demand history",
+        description = "Stream timestamp, category, volume rows as CSV with a header line or as NDJSON. "
+            + "Re-importing a row overwrites it")
+    public ResponseEntity<DemandHistoryImportResponse> importDemandHistory(
+            @PathVariable String warehouseId,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body
+    ) throws IOException {
+        ObjectReader reader = MediaType.APPLICATION_NDJSON.includes(contentType) ? ndjsonReader : csvReader;
+        try (MappingIterator<DemandHistoryRow> rows = reader.readValues(body)) {
+            return ResponseEntity.ok(DemandHistoryImportResponse.from(
+                historyService.importHistory(warehouseId, observations(warehouseId, rows))
+            ));
+        } catch (HistoryImportException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                e.getMessage() + " (" + e.getImportedRows() + " rows imported before it)", e);
+        }
+    }
+
+    private static Iterator<DemandObservation> observations(String warehouseId, MappingIterator<DemandHistoryRow> rows) {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            @Override
+            public DemandObservation next() {
+                DemandHistoryRow row = rows.next();
+                if (row.timestamp() == null || row.category() == null || row.volume() == null || row.volume() < 0) {
+                    throw new IllegalArgumentException("Incomplete row at line " + rows.getCurrentLocation().getLineNr()
+                        + ": timestamp, category and a non-negative volume are required");
+                }
+                return DemandObservation.of(warehouseId, row.category(), row.timestamp(), row.volume());
+            }
+        };
+    }
+}
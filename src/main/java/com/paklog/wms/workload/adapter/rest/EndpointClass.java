@@ -0,0 +1,18 @@
+package com.paklog.wms.workload.adapter.rest;
+
+/**
+ * Endpoint classes that get separate concurrency bulkheads
+ */
+public enum EndpointClass {
+    READ,
+    WRITE,
+    COMPUTE,
+    /** Streamed downloads and uploads, which take as long as their size; a fixed limit */
+    TRANSFER,
+    /** Long-lived streams, bounded by their own subscriber limit instead */
+    UNLIMITED;
+
+    String tag() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,83 @@
+package com.paklog.wms.workload.adapter.rest;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.paklog.wms.workload.domain.aggregate.DemandForecast;
+import com.paklog.wms.workload.domain.aggregate.DemandForecast.ForecastDataPoint;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Streams forecast data points through a JsonGenerator
+ *
+ * Points are visited in place on the aggregate, and decoded one at a time when
+ * still in their persistent form, so no DTOs or intermediate lists are built and
+ * heap use stays flat however long the forecast horizon is. Field names and
+ * formats match {@link com.paklog.wms.workload.adapter.rest.dto.ForecastResponse.ForecastDataPointDto}.
+ */
+final class ForecastDataPointWriter {
+
+    private final JsonFactory jsonFactory;
+
+    ForecastDataPointWriter(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    /**
+     * One JSON object per line
+     */
+    StreamingResponseBody ndjson(DemandForecast forecast) {
+        return out -> write(forecast, out, true);
+    }
+
+    /**
+     * A single JSON array, sent chunked
+     */
+    StreamingResponseBody jsonArray(DemandForecast forecast) {
+        return out -> write(forecast, out, false);
+    }
+
+    private void write(DemandForecast forecast, OutputStream out, boolean delimited) throws IOException {
+        try (JsonGenerator generator = jsonFactory.createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            if (!delimited) {
+                generator.writeStartArray();
+            }
+            try {
+                forecast.forEachDataPoint(point -> {
+                    try {
+                        writePoint(generator, point);
+                        if (delimited) {
+                            generator.writeRaw('\n');
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            if (!delimited) {
+                generator.writeEndArray();
+            }
+        }
+    }
+
+    private static void writePoint(JsonGenerator generator, ForecastDataPoint point) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("timestamp", DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(point.timestamp()));
+        generator.writeStringField("category", point.category().name());
+        generator.writeNumberField("forecastedVolume", point.forecastedVolume());
+        if (point.confidenceInterval() != null) {
+            generator.writeNumberField("confidenceInterval", point.confidenceInterval());
+        } else {
+            generator.writeNullField("confidenceInterval");
+        }
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,39 @@
+package com.paklog.wms.workload.adapter.rest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque pagination cursor carrying the sort key and ID of the last item returned
+ */
+record KeysetCursor(String sortKey, String id) {
+
+    private static final char SEPARATOR = '|';
+
+    /**
+     * Encode cursor as a URL-safe token
+     */
+    String encode() {
+        String raw = sortKey + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token produced by {@link #encode()}
+     */
+    static KeysetCursor decode(String token) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor: " + token, e);
+        }
+
+        int separator = raw.indexOf(SEPARATOR);
+        if (separator <= 0 || separator == raw.length() - 1) {
+            throw new IllegalArgumentException("Malformed cursor: " + token);
+        }
+        return new KeysetCursor(raw.substring(0, separator), raw.substring(separator + 1));
+    }
+}
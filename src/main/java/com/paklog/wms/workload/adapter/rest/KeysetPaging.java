@@ -0,0 +1,59 @@
+package com.paklog.wms.workload.adapter.rest;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keyset pagination helpers shared by the list endpoints
+ */
+final class KeysetPaging {
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private KeysetPaging() {
+    }
+
+    /**
+     * Resolve requested page size, falling back to the default and capping at the maximum
+     */
+    static int pageSize(Integer requested, int defaultPageSize, int maxPageSize) {
+        if (requested == null) {
+            return defaultPageSize;
+        }
+        return Math.max(1, Math.min(requested, maxPageSize));
+    }
+
+    /**
+     * Decode a cursor token into a typed keyset, or null for the first page
+     */
+    static <T> Keyset<T> decode(String cursor, Function<String, T> sortKeyParser) {
+        if (cursor == null) {
+            return null;
+        }
+        try {
+            KeysetCursor keyset = KeysetCursor.decode(cursor);
+            return new Keyset<>(sortKeyParser.apply(keyset.sortKey()), keyset.id());
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed cursor", e);
+        }
+    }
+
+    /**
+     * Trim a page fetched with one extra row and compute the next cursor, if any
+     */
+    static <T> Page<T> page(List<T> rows, int pageSize, Function<T, KeysetCursor> cursorOf) {
+        if (rows.size() <= pageSize) {
+            return new Page<>(rows, null);
+        }
+        List<T> items = rows.subList(0, pageSize);
+        return new Page<>(items, cursorOf.apply(items.get(pageSize - 1)).encode());
+    }
+
+    record Keyset<T>(T sortKey, String id) {}
+
+    record Page<T>(List<T> items, String nextCursor) {}
+}
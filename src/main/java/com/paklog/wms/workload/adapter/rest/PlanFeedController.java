@@ -0,0 +1,104 @@
+package com.paklog.wms.workload.adapter.rest;
+
+import com.paklog.wms.workload.adapter.rest.dto.PlanMetricsEvent;
+import com.paklog.wms.workload.application.service.PlanFeed;
+import com.paklog.wms.workload.application.service.PlanMetrics;
+import com.paklog.wms.workload.application.service.WorkloadPlanningService;
+import com.paklog.wms.workload.domain.aggregate.WorkloadPlan;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Live plan utilization over Server-Sent Events
+ *
+ * Each "metrics" event carries the plan revision as its ID and only the
+ * metrics that changed; a plan stream opens with a full snapshot. Streams are
+ * served from the in-process {@link PlanFeed}, are exempt from the request
+ * bulkheads, and are closed when the client falls behind; clients reconnect.
+ */
+@RestController
+@RequestMapping("/api/v1/workload")
+@Tag(name = "Workload Planning (live)", description = "Streaming plan metrics for dashboards")
+public class PlanFeedController {
+
+    static final String METRICS_EVENT = "metrics";
+
+    private final WorkloadPlanningService planningService;
+    private final PlanFeed planFeed;
+    private final long timeoutMillis;
+
+    public PlanFeedController(
+            WorkloadPlanningService planningService,
+            PlanFeed planFeed,
+            @Value("${workload.plans.feed.timeout:PT30M}") Duration timeout
+    ) {
+        this.planningService = planningService;
+        this.planFeed = planFeed;
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    /**
+     * Stream metric changes of a plan
+     */
+    @GetMapping(value = "/plans/{id}/feed", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Bulkhead(EndpointClass.UNLIMITED)
+    @Operation(summary = "Follow plan metrics", description = "Snapshot of the plan's metrics, then a delta per change")
+    public SseEmitter followPlan(@PathVariable String id) {
+        WorkloadPlan plan = planningService.getWorkloadPlan(id)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Plan " + id + " not found"));
+        return open(sink -> planFeed.subscribeToPlan(plan, sink));
+    }
+
+    /**
+     * Stream metric changes of every plan in a warehouse
+     */
+    @GetMapping(value = "/warehouses/{warehouseId}/plan-feed", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Bulkhead(EndpointClass.UNLIMITED)
+    @Operation(summary = "Follow warehouse plan metrics", description = "A delta per change to any plan of the warehouse")
+    public SseEmitter followWarehouse(@PathVariable String warehouseId) {
+        return open(sink -> planFeed.subscribeToWarehouse(warehouseId, sink));
+    }
+
+    private SseEmitter open(Function<PlanFeed.Sink, PlanFeed.Subscription> subscribe) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        PlanFeed.Subscription subscription = subscribe.apply(new EmitterSink(emitter));
+        if (subscription == null) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many live plan subscribers");
+        }
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(error -> subscription.close());
+        return emitter;
+    }
+
+    private record EmitterSink(SseEmitter emitter) implements PlanFeed.Sink {
+
+        @Override
+        public void send(PlanMetrics metrics) throws IOException {
+            emitter.send(SseEmitter.event()
+                .name(METRICS_EVENT)
+                .id(Long.toString(metrics.revision()))
+                .data(PlanMetricsEvent.from(metrics), MediaType.APPLICATION_JSON));
+        }
+
+        @Override
+        public void heartbeat() throws IOException {
+            emitter.send(SseEmitter.event().comment("heartbeat"));
+        }
+
+        @Override
+        public void close() {
+            emitter.complete();
+        }
+    }
+}
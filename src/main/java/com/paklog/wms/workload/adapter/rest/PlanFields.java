@@ -0,0 +1,64 @@
+package com.paklog.wms.workload.adapter.rest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.paklog.wms.workload.adapter.rest.dto.WorkloadPlanResponse;
+import com.paklog.wms.workload.domain.aggregate.WorkloadPlan;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.lang.reflect.RecordComponent;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Sparse fieldsets for plan reads
+ *
+ * Selectable fields are the properties of {@link WorkloadPlanResponse}, which are
+ * named after the stored plan's, so one selection drives both the MongoDB
+ * projection and the body. The plan ID is always sent.
+ */
+final class PlanFields {
+
+    static final Set<String> SELECTABLE = Arrays.stream(WorkloadPlanResponse.class.getRecordComponents())
+        .map(RecordComponent::getName)
+        .collect(Collectors.toCollection(TreeSet::new));
+
+    private final ObjectMapper objectMapper;
+
+    PlanFields(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Parse a comma-separated field list
+     */
+    static Set<String> parse(String fields) {
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add("planId");
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!SELECTABLE.contains(name)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Unknown field '" + name + "', expected any of " + SELECTABLE);
+            }
+            selected.add(name);
+        }
+        return selected;
+    }
+
+    /**
+     * Body holding only the selected fields of a plan
+     */
+    ObjectNode select(WorkloadPlan plan, Set<String> fields) {
+        ObjectNode body = objectMapper.valueToTree(WorkloadPlanResponse.from(plan));
+        body.retain(fields);
+        return body;
+    }
+}
@@ -1,20 +1,38 @@
 package com.paklog.wms.workload.adapter.rest;
 
 import com.paklog.wms.workload.adapter.rest.dto.*;
+import com.paklog.wms.workload.application.service.StaffingRecommendation;
 import com.paklog.wms.workload.application.service.WorkloadPlanningService;
+import com.paklog.wms.workload.application.service.WorkloadPlanningService.NoDemandHistoryException;
 import com.paklog.wms.workload.domain.aggregate.DemandForecast;
 import com.paklog.wms.workload.domain.aggregate.WorkloadPlan;
 import com.paklog.wms.workload.domain.entity.WorkerCapacity;
+import com.paklog.wms.workload.domain.repository.ForecastRevision;
+import com.paklog.wms.workload.domain.repository.ForecastSummary;
+import com.paklog.wms.workload.domain.repository.PlanRevision;
+import com.paklog.wms.workload.domain.repository.PlanSummary;
+import com.paklog.wms.workload.domain.valueobject.ForecastPeriod;
 import com.paklog.wms.workload.domain.valueobject.ShiftType;
 import com.paklog.wms.workload.domain.valueobject.WorkloadCategory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -26,25 +44,44 @@ import java.util.stream.Collectors;
 public class WorkloadPlanningController {
 
     private final WorkloadPlanningService planningService;
-
-    public WorkloadPlanningController(WorkloadPlanningService planningService) {
+    private final ForecastDataPointWriter dataPointWriter;
+    private final PlanFields planFields;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public WorkloadPlanningController(
+            WorkloadPlanningService planningService,
+            ObjectMapper objectMapper,
+            @Value("${workload.api.pagination.default-page-size:50}") int defaultPageSize,
+            @Value("${workload.api.pagination.max-page-size:200}") int maxPageSize
+    ) {
         this.planningService = planningService;
+        this.dataPointWriter = new ForecastDataPointWriter(objectMapper.getFactory());
+        this.planFields = new PlanFields(objectMapper);
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
     }
 
     /**
      * Generate demand forecast
      */
     @PostMapping("/forecasts")
+    @Bulkhead(EndpointClass.COMPUTE)
     @Operation(summary = "Generate forecast", description = "Generate demand forecast using historical data")
     public ResponseEntity<ForecastResponse> generateForecast(
             @Valid @RequestBody GenerateForecastRequest request
     ) {
-        DemandForecast forecast = planningService.generateDemandForecast(
-            request.warehouseId(),
-            request.period(),
-            request.forecastDate(),
-            request.historicalData()
-        );
+        DemandForecast forecast;
+        try {
+            forecast = planningService.generateDemandForecast(
+                request.warehouseId(),
+                request.period(),
+                request.forecastDate(),
+                request.historicalData()
+            );
+        } catch (NoDemandHistoryException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
 
         return ResponseEntity.status(HttpStatus.CREATED)
             .body(ForecastResponse.from(forecast));
@@ -55,27 +92,73 @@ public class WorkloadPlanningController {
      */
     @GetMapping("/forecasts/{id}")
     @Operation(summary = "Get forecast", description = "Get demand forecast by ID")
-    public ResponseEntity<ForecastResponse> getForecast(@PathVariable String id) {
-        return planningService.getForecast(id)
+    public ResponseEntity<ForecastResponse> getForecast(@PathVariable String id, WebRequest request) {
+        return forecastIfModified(id, request, null, ForecastResponse::from);
+    }
+
+    /**
+     * Stream forecast data points, one JSON object per line
+     */
+    @GetMapping(value = "/forecasts/{id}/data-points", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Bulkhead(EndpointClass.TRANSFER)
+    @Operation(summary = "Stream forecast data points",
+        description = "Stream the data points of a forecast as NDJSON, in constant memory whatever the horizon")
+    public ResponseEntity<StreamingResponseBody> streamForecastDataPoints(@PathVariable String id, WebRequest request) {
+        return forecastIfModified(id, request, MediaType.APPLICATION_NDJSON, dataPointWriter::ndjson);
+    }
+
+    /**
+     * Stream forecast data points as one chunked JSON array
+     */
+    @GetMapping(value = "/forecasts/{id}/data-points", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Bulkhead(EndpointClass.TRANSFER)
+    @Operation(summary = "Get forecast data points",
+        description = "Stream the data points of a forecast as a JSON array, in constant memory whatever the horizon")
+    public ResponseEntity<StreamingResponseBody> getForecastDataPoints(@PathVariable String id, WebRequest request) {
+        return forecastIfModified(id, request, MediaType.APPLICATION_JSON, dataPointWriter::jsonArray);
+    }
+
+    /**
+     * Get latest forecast for warehouse
+     */
+    @GetMapping("/forecasts/latest")
+    @Operation(summary = "Get latest forecast", description = "Get the most recent forecast for warehouse, optionally by period")
+    public ResponseEntity<ForecastResponse> getLatestForecast(
+            @RequestParam String warehouseId,
+            @RequestParam(required = false) ForecastPeriod period
+    ) {
+        return planningService.getLatestForecast(warehouseId, period)
             .map(ForecastResponse::from)
             .map(ResponseEntity::ok)
             .orElse(ResponseEntity.notFound().build());
     }
 
     /**
-     * List forecasts for warehouse
+     * List forecast summaries for warehouse, newest first
      */
     @GetMapping("/forecasts")
-    @Operation(summary = "List forecasts", description = "List forecasts for warehouse")
-    public ResponseEntity<List<ForecastResponse>> listForecasts(
-            @RequestParam String warehouseId
+    @Operation(summary = "List forecasts",
+        description = "List forecast summaries for warehouse. Follow the X-Next-Cursor header to read the next page")
+    public ResponseEntity<List<ForecastSummaryResponse>> listForecasts(
+            @RequestParam String warehouseId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor
     ) {
-        List<DemandForecast> forecasts = planningService.getForecastsByWarehouse(warehouseId);
+        int pageSize = KeysetPaging.pageSize(limit, defaultPageSize, maxPageSize);
+        KeysetPaging.Keyset<LocalDateTime> after = KeysetPaging.decode(cursor, LocalDateTime::parse);
+
+        // Fetch one extra row to detect whether a next page exists
+        List<ForecastSummary> rows = planningService.getForecastSummaries(
+            warehouseId,
+            after != null ? after.sortKey() : null,
+            after != null ? after.id() : null,
+            pageSize + 1
+        );
 
-        return ResponseEntity.ok(
-            forecasts.stream()
-                .map(ForecastResponse::from)
-                .collect(Collectors.toList())
+        return pageResponse(
+            KeysetPaging.page(rows, pageSize,
+                last -> new KeysetCursor(last.forecastDate().toString(), last.forecastId())),
+            ForecastSummaryResponse::from
         );
     }
 
@@ -103,27 +186,53 @@ public class WorkloadPlanningController {
      */
     @GetMapping("/plans/{id}")
     @Operation(summary = "Get plan", description = "Get workload plan by ID")
-    public ResponseEntity<WorkloadPlanResponse> getPlan(@PathVariable String id) {
-        return planningService.getWorkloadPlan(id)
-            .map(WorkloadPlanResponse::from)
-            .map(ResponseEntity::ok)
-            .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<WorkloadPlanResponse> getPlan(@PathVariable String id, WebRequest request) {
+        return planIfModified(id, request, planningService::getWorkloadPlan, WorkloadPlanResponse::from);
     }
 
     /**
-     * List workload plans for warehouse
+     * Get selected fields of a workload plan
+     */
+    @GetMapping(value = "/plans/{id}", params = "fields")
+    @Operation(summary = "Get plan fields",
+        description = "Get only the comma-separated fields of a workload plan, "
+            + "e.g. fields=utilizationPercentage,headcountByShift. Unselected fields are not read from MongoDB")
+    public ResponseEntity<ObjectNode> getPlanFields(
+            @PathVariable String id,
+            @RequestParam String fields,
+            WebRequest request
+    ) {
+        Set<String> selected = PlanFields.parse(fields);
+        return planIfModified(id, request, planId -> planningService.getWorkloadPlan(planId, selected),
+            plan -> planFields.select(plan, selected));
+    }
+
+    /**
+     * List workload plan summaries for warehouse, newest first
      */
     @GetMapping("/plans")
-    @Operation(summary = "List plans", description = "List workload plans for warehouse")
-    public ResponseEntity<List<WorkloadPlanResponse>> listPlans(
-            @RequestParam String warehouseId
+    @Operation(summary = "List plans",
+        description = "List workload plan summaries for warehouse. Follow the X-Next-Cursor header to read the next page")
+    public ResponseEntity<List<WorkloadPlanSummaryResponse>> listPlans(
+            @RequestParam String warehouseId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor
     ) {
-        List<WorkloadPlan> plans = planningService.getWorkloadPlansByWarehouse(warehouseId);
+        int pageSize = KeysetPaging.pageSize(limit, defaultPageSize, maxPageSize);
+        KeysetPaging.Keyset<LocalDate> after = KeysetPaging.decode(cursor, LocalDate::parse);
+
+        // Fetch one extra row to detect whether a next page exists
+        List<PlanSummary> rows = planningService.getPlanSummaries(
+            warehouseId,
+            after != null ? after.sortKey() : null,
+            after != null ? after.id() : null,
+            pageSize + 1
+        );
 
-        return ResponseEntity.ok(
-            plans.stream()
-                .map(WorkloadPlanResponse::from)
-                .collect(Collectors.toList())
+        return pageResponse(
+            KeysetPaging.page(rows, pageSize,
+                last -> new KeysetCursor(last.planDate().toString(), last.planId())),
+            WorkloadPlanSummaryResponse::from
         );
     }
 
@@ -152,6 +261,7 @@ public class WorkloadPlanningController {
      * Optimize labor allocation
      */
     @PostMapping("/plans/{id}/optimize")
+    @Bulkhead(EndpointClass.COMPUTE)
     @Operation(summary = "Optimize labor", description = "Optimize labor allocation using available workers")
     public ResponseEntity<WorkloadPlanResponse> optimizeLaborAllocation(
             @PathVariable String id,
@@ -206,74 +316,81 @@ public class WorkloadPlanningController {
             @RequestParam String warehouseId,
             @RequestParam String forecastId
     ) {
-        DemandForecast forecast = planningService.getForecast(forecastId)
+        StaffingRecommendation recommendation = planningService.getStaffingRecommendation(warehouseId, forecastId)
             .orElseThrow(() -> new IllegalArgumentException("Forecast not found: " + forecastId));
 
-        // Build recommendations based on forecast
-        Map<WorkloadCategory, WorkloadRecommendationResponse.CategoryRecommendation> categoryRecs =
-            new HashMap<>();
-
-        List<String> warnings = new ArrayList<>();
-        List<String> suggestions = new ArrayList<>();
-
-        // Analyze each category
-        for (WorkloadCategory category : WorkloadCategory.values()) {
-            int forecastedVolume = forecast.getDataPoints().stream()
-                .filter(dp -> dp.category() == category)
-                .mapToInt(dp -> dp.forecastedVolume())
-                .sum();
-
-            int requiredWorkers = category.calculateRequiredWorkers(forecastedVolume, 8);
-            double requiredHours = category.calculateLaborHours(forecastedVolume);
-
-            categoryRecs.put(category, new WorkloadRecommendationResponse.CategoryRecommendation(
-                category,
-                forecastedVolume,
-                requiredWorkers,
-                0, // Would come from actual worker assignments
-                requiredWorkers,
-                requiredHours
-            ));
-
-            if (requiredWorkers > 10) {
-                warnings.add(String.format("High staffing requirement for %s: %d workers",
-                    category.name(), requiredWorkers));
-            }
+        return ResponseEntity.ok(WorkloadRecommendationResponse.from(recommendation));
+    }
+
+    /**
+     * Get warehouse KPIs for a date
+     */
+    @GetMapping("/kpis")
+    @Operation(summary = "Get warehouse KPIs",
+        description = "Get staffing, utilization, cost and forecast KPIs for a warehouse and date")
+    public ResponseEntity<WarehouseKpiResponse> getWarehouseKpi(
+            @RequestParam String warehouseId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
+    ) {
+        return planningService.getWarehouseKpi(warehouseId, date)
+            .map(WarehouseKpiResponse::from)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    private <T, R> ResponseEntity<List<R>> pageResponse(KeysetPaging.Page<T> page, Function<T, R> mapper) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(KeysetPaging.NEXT_CURSOR_HEADER, page.nextCursor());
         }
+        return response.body(page.items().stream().map(mapper).collect(Collectors.toList()));
+    }
 
-        // Build shift recommendations
-        Map<ShiftType, WorkloadRecommendationResponse.ShiftRecommendation> shiftRecs = new HashMap<>();
-        for (ShiftType shift : ShiftType.values()) {
-            int totalRequired = categoryRecs.values().stream()
-                .mapToInt(cr -> cr.requiredWorkers())
-                .sum() / ShiftType.values().length;
-
-            shiftRecs.put(shift, new WorkloadRecommendationResponse.ShiftRecommendation(
-                shift,
-                totalRequired,
-                0,
-                totalRequired,
-                0.0
-            ));
-
-            if (shift.isNightShift() || shift.isWeekendShift()) {
-                suggestions.add(String.format("Consider %s premium (%.0f%%) for %s",
-                    shift.isWeekendShift() ? "weekend" : "night",
-                    (shift.getPremiumMultiplier() - 1.0) * 100,
-                    shift.name()));
-            }
+    /**
+     * Answer a plan read with 304 from its revision, or build the body from the loaded plan
+     */
+    private <T> ResponseEntity<T> planIfModified(String id, WebRequest request,
+                                                 Function<String, Optional<WorkloadPlan>> loader,
+                                                 Function<WorkloadPlan, T> body) {
+        Optional<PlanRevision> revision = planningService.getPlanRevision(id);
+        if (revision.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        ConditionalGet.Validators validators = ConditionalGet.validators(revision.get());
+        if (validators.notModifiedFor(request)) {
+            return validators.notModified();
         }
 
-        WorkloadRecommendationResponse response = new WorkloadRecommendationResponse(
-            warehouseId,
-            categoryRecs,
-            shiftRecs,
-            85.0, // Target utilization
-            "BALANCED",
-            warnings,
-            suggestions
-        );
+        // Validators of what is actually sent, in case the plan changed since the revision was read
+        return loader.apply(id)
+            .map(plan -> ConditionalGet.validators(PlanRevision.of(plan)).ok().body(body.apply(plan)))
+            .orElse(ResponseEntity.notFound().build());
+    }
 
-        return ResponseEntity.ok(response);
+    /**
+     * Answer a forecast read with 304 from its revision, or build the body from the loaded forecast
+     *
+     * @param contentType content type of the body, or null to negotiate it
+     */
+    private <T> ResponseEntity<T> forecastIfModified(String id, WebRequest request, MediaType contentType,
+                                                     Function<DemandForecast, T> body) {
+        Optional<ForecastRevision> revision = planningService.getForecastRevision(id);
+        if (revision.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        ConditionalGet.Validators validators = ConditionalGet.validators(revision.get());
+        if (validators.notModifiedFor(request)) {
+            return validators.notModified();
+        }
+
+        return planningService.getForecast(id)
+            .map(forecast -> {
+                ResponseEntity.BodyBuilder response = ConditionalGet.validators(ForecastRevision.of(forecast)).ok();
+                if (contentType != null) {
+                    response.contentType(contentType);
+                }
+                return response.body(body.apply(forecast));
+            })
+            .orElse(ResponseEntity.notFound().build());
     }
 }
@@ -0,0 +1,207 @@
+package com.paklog.wms.workload.adapter.rest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.paklog.wms.workload.adapter.rest.dto.*;
+import com.paklog.wms.workload.application.service.WorkloadQueryService;
+import com.paklog.wms.workload.domain.aggregate.WorkloadPlan;
+import com.paklog.wms.workload.domain.repository.ForecastRevision;
+import com.paklog.wms.workload.domain.repository.PlanRevision;
+import com.paklog.wms.workload.domain.valueobject.ForecastPeriod;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Non-blocking read API for workload planning
+ *
+ * Mirrors the GET endpoints of {@link WorkloadPlanningController}. Handlers return
+ * Mono so the request thread is released while the reactive MongoDB driver performs I/O.
+ */
+@RestController
+@RequestMapping("/api/v1/workload/reactive")
+@Tag(name = "Workload Planning (reactive reads)", description = "Non-blocking read path for dashboards")
+public class WorkloadQueryController {
+
+    private final WorkloadQueryService queryService;
+    private final PlanFields planFields;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public WorkloadQueryController(
+            WorkloadQueryService queryService,
+            ObjectMapper objectMapper,
+            @Value("${workload.api.pagination.default-page-size:50}") int defaultPageSize,
+            @Value("${workload.api.pagination.max-page-size:200}") int maxPageSize
+    ) {
+        this.queryService = queryService;
+        this.planFields = new PlanFields(objectMapper);
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * Get forecast by ID
+     */
+    @GetMapping("/forecasts/{id}")
+    @Operation(summary = "Get forecast", description = "Get demand forecast by ID")
+    public Mono<ResponseEntity<ForecastResponse>> getForecast(@PathVariable String id, WebRequest request) {
+        return queryService.getForecastRevision(id)
+            .map(ConditionalGet::validators)
+            .flatMap(validators -> validators.notModifiedFor(request)
+                ? Mono.just(validators.<ForecastResponse>notModified())
+                : queryService.getForecast(id)
+                    .map(forecast -> ConditionalGet.validators(ForecastRevision.of(forecast)).ok()
+                        .body(ForecastResponse.from(forecast))))
+            .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Get latest forecast for warehouse
+     */
+    @GetMapping("/forecasts/latest")
+    @Operation(summary = "Get latest forecast", description = "Get the most recent forecast for warehouse, optionally by period")
+    public Mono<ResponseEntity<ForecastResponse>> getLatestForecast(
+            @RequestParam String warehouseId,
+            @RequestParam(required = false) ForecastPeriod period
+    ) {
+        return queryService.getLatestForecast(warehouseId, period)
+            .map(ForecastResponse::from)
+            .map(ResponseEntity::ok)
+            .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * List forecast summaries for warehouse, newest first
+     */
+    @GetMapping("/forecasts")
+    @Operation(summary = "List forecasts",
+        description = "List forecast summaries for warehouse. Follow the X-Next-Cursor header to read the next page")
+    public Mono<ResponseEntity<List<ForecastSummaryResponse>>> listForecasts(
+            @RequestParam String warehouseId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor
+    ) {
+        int pageSize = KeysetPaging.pageSize(limit, defaultPageSize, maxPageSize);
+        KeysetPaging.Keyset<LocalDateTime> after = KeysetPaging.decode(cursor, LocalDateTime::parse);
+
+        return pageResponse(
+            queryService.getForecastSummaries(
+                warehouseId,
+                after != null ? after.sortKey() : null,
+                after != null ? after.id() : null,
+                pageSize + 1
+            ),
+            pageSize,
+            last -> new KeysetCursor(last.forecastDate().toString(), last.forecastId()),
+            ForecastSummaryResponse::from
+        );
+    }
+
+    /**
+     * Get workload plan by ID
+     */
+    @GetMapping("/plans/{id}")
+    @Operation(summary = "Get plan", description = "Get workload plan by ID")
+    public Mono<ResponseEntity<WorkloadPlanResponse>> getPlan(@PathVariable String id, WebRequest request) {
+        return planIfModified(id, request, queryService::getWorkloadPlan, WorkloadPlanResponse::from);
+    }
+
+    /**
+     * Get selected fields of a workload plan
+     */
+    @GetMapping(value = "/plans/{id}", params = "fields")
+    @Operation(summary = "Get plan fields",
+        description = "Get only the comma-separated fields of a workload plan, "
+            + "e.g. fields=utilizationPercentage,headcountByShift. Unselected fields are not read from MongoDB")
+    public Mono<ResponseEntity<ObjectNode>> getPlanFields(
+            @PathVariable String id,
+            @RequestParam String fields,
+            WebRequest request
+    ) {
+        Set<String> selected = PlanFields.parse(fields);
+        return planIfModified(id, request, planId -> queryService.getWorkloadPlan(planId, selected),
+            plan -> planFields.select(plan, selected));
+    }
+
+    private <T> Mono<ResponseEntity<T>> planIfModified(String id, WebRequest request,
+                                                       Function<String, Mono<WorkloadPlan>> loader,
+                                                       Function<WorkloadPlan, T> body) {
+        return queryService.getPlanRevision(id)
+            .map(ConditionalGet::validators)
+            .flatMap(validators -> validators.notModifiedFor(request)
+                ? Mono.just(validators.<T>notModified())
+                : loader.apply(id)
+                    .map(plan -> ConditionalGet.validators(PlanRevision.of(plan)).ok().body(body.apply(plan))))
+            .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * List workload plan summaries for warehouse, newest first
+     */
+    @GetMapping("/plans")
+    @Operation(summary = "List plans",
+        description = "List workload plan summaries for warehouse. Follow the X-Next-Cursor header to read the next page")
+    public Mono<ResponseEntity<List<WorkloadPlanSummaryResponse>>> listPlans(
+            @RequestParam String warehouseId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor
+    ) {
+        int pageSize = KeysetPaging.pageSize(limit, defaultPageSize, maxPageSize);
+        KeysetPaging.Keyset<LocalDate> after = KeysetPaging.decode(cursor, LocalDate::parse);
+
+        return pageResponse(
+            queryService.getPlanSummaries(
+                warehouseId,
+                after != null ? after.sortKey() : null,
+                after != null ? after.id() : null,
+                pageSize + 1
+            ),
+            pageSize,
+            last -> new KeysetCursor(last.planDate().toString(), last.planId()),
+            WorkloadPlanSummaryResponse::from
+        );
+    }
+
+    /**
+     * Get workload recommendations
+     */
+    @GetMapping("/recommendations")
+    @Operation(summary = "Get recommendations", description = "Get workload planning recommendations")
+    public Mono<ResponseEntity<WorkloadRecommendationResponse>> getRecommendations(
+            @RequestParam String warehouseId,
+            @RequestParam String forecastId
+    ) {
+        return queryService.getStaffingRecommendation(warehouseId, forecastId)
+            .map(WorkloadRecommendationResponse::from)
+            .map(ResponseEntity::ok)
+            .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    private <T, R> Mono<ResponseEntity<List<R>>> pageResponse(
+            Flux<T> rows,
+            int pageSize,
+            Function<T, KeysetCursor> cursorOf,
+            Function<T, R> mapper
+    ) {
+        return rows.collectList().map(list -> {
+            KeysetPaging.Page<T> page = KeysetPaging.page(list, pageSize, cursorOf);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.nextCursor() != null) {
+                response.header(KeysetPaging.NEXT_CURSOR_HEADER, page.nextCursor());
+            }
+            return response.body(page.items().stream().map(mapper).toList());
+        });
+    }
+}
@@ -0,0 +1,21 @@
+package com.paklog.wms.workload.adapter.rest.dto;
+
+import com.paklog.wms.workload.application.service.DemandHistoryService.ImportReport;
+
+public record DemandHistoryImportResponse(
+    String warehouseId,
+    long rows,
+    int batches,
+    long elapsedMillis,
+    double rowsPerSecond
+) {
+    public static DemandHistoryImportResponse from(ImportReport report) {
+        return new DemandHistoryImportResponse(
+            report.warehouseId(),
+            report.rows(),
+            report.batches(),
+            report.elapsedMillis(),
+            report.rowsPerSecond()
+        );
+    }
+}
@@ -0,0 +1,14 @@
+package com.paklog.wms.workload.adapter.rest.dto;
+
+import com.paklog.wms.workload.domain.valueobject.WorkloadCategory;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of an uploaded demand history file
+ */
+public record DemandHistoryRow(
+    LocalDateTime timestamp,
+    WorkloadCategory category,
+    Integer volume
+) {}
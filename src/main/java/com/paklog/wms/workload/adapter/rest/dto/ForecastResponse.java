@@ -5,6 +5,7 @@ import com.paklog.wms.workload.domain.valueobject.ForecastPeriod;
 import com.paklog.wms.workload.domain.valueobject.WorkloadCategory;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 public record ForecastResponse(
@@ -19,6 +20,8 @@ public record ForecastResponse(
     LocalDateTime createdAt
 ) {
     public static ForecastResponse from(DemandForecast forecast) {
+        List<ForecastDataPointDto> dataPoints = new ArrayList<>(forecast.getDataPointCount());
+        forecast.forEachDataPoint(point -> dataPoints.add(ForecastDataPointDto.from(point)));
         return new ForecastResponse(
             forecast.getForecastId(),
             forecast.getWarehouseId(),
@@ -27,7 +30,7 @@ public record ForecastResponse(
             forecast.getForecastingModel(),
             forecast.getAccuracy(),
             forecast.getMeanAbsoluteError(),
-            forecast.getDataPoints().stream().map(ForecastDataPointDto::from).toList(),
+            dataPoints,
             forecast.getCreatedAt()
         );
     }
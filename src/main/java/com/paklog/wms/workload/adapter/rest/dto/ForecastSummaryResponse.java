@@ -0,0 +1,30 @@
+package com.paklog.wms.workload.adapter.rest.dto;
+
+import com.paklog.wms.workload.domain.repository.ForecastSummary;
+import com.paklog.wms.workload.domain.valueobject.ForecastPeriod;
+
+import java.time.LocalDateTime;
+
+public record ForecastSummaryResponse(
+    String forecastId,
+    String warehouseId,
+    ForecastPeriod period,
+    LocalDateTime forecastDate,
+    String forecastingModel,
+    Double accuracy,
+    Double meanAbsoluteError,
+    LocalDateTime createdAt
+) {
+    public static ForecastSummaryResponse from(ForecastSummary summary) {
+        return new ForecastSummaryResponse(
+            summary.forecastId(),
+            summary.warehouseId(),
+            summary.period(),
+            summary.forecastDate(),
+            summary.forecastingModel(),
+            summary.accuracy(),
+            summary.meanAbsoluteError(),
+            summary.createdAt()
+        );
+    }
+}
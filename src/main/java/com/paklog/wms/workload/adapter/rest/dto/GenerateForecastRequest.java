@@ -19,6 +19,6 @@ public record GenerateForecastRequest(
     @NotNull(message = "Forecast date is required")
     LocalDateTime forecastDate,
 
-    @NotNull(message = "Historical data is required")
+    // Optional; when absent the forecast is built from the imported demand history
     Map<WorkloadCategory, List<Integer>> historicalData
 ) {}
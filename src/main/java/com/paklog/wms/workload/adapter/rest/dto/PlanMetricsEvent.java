@@ -0,0 +1,47 @@
+package com.paklog.wms.workload.adapter.rest.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.paklog.wms.workload.application.service.PlanMetrics;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Live plan metrics; unchanged metrics are left out of deltas
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PlanMetricsEvent(
+    String planId,
+    String warehouseId,
+    LocalDate planDate,
+    long revision,
+    Integer totalRequiredLaborHours,
+    Integer totalAvailableLaborHours,
+    Double utilizationPercentage,
+    Double estimatedLaborCost,
+    Map<String, Integer> headcountByShift,
+    String status
+) {
+    public static PlanMetricsEvent from(PlanMetrics metrics) {
+        Map<String, Integer> headcount = null;
+        if (metrics.headcountByShift() != null) {
+            headcount = new TreeMap<>();
+            for (var entry : metrics.headcountByShift().entrySet()) {
+                headcount.put(entry.getKey().name(), entry.getValue());
+            }
+        }
+        return new PlanMetricsEvent(
+            metrics.planId(),
+            metrics.warehouseId(),
+            metrics.planDate(),
+            metrics.revision(),
+            metrics.totalRequiredLaborHours(),
+            metrics.totalAvailableLaborHours(),
+            metrics.utilizationPercentage(),
+            metrics.estimatedLaborCost(),
+            headcount,
+            metrics.status() != null ? metrics.status().name() : null
+        );
+    }
+}
@@ -0,0 +1,52 @@
+package com.paklog.wms.workload.adapter.rest.dto;
+
+import com.paklog.wms.workload.domain.repository.WarehouseKpi;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+
+public record WarehouseKpiResponse(
+    String warehouseId,
+    LocalDate date,
+    String planId,
+    String planStatus,
+    Integer requiredLaborHours,
+    Integer availableLaborHours,
+    Double utilizationPercentage,
+    Double estimatedLaborCost,
+    Map<String, Integer> headcountByShift,
+    String forecastId,
+    String forecastPeriod,
+    Map<String, Integer> forecastedVolumeByCategory,
+    Double forecastAccuracy,
+    LocalDateTime updatedAt
+) {
+    public static WarehouseKpiResponse from(WarehouseKpi kpi) {
+        return new WarehouseKpiResponse(
+            kpi.warehouseId(),
+            kpi.date(),
+            kpi.planId(),
+            kpi.planStatus() != null ? kpi.planStatus().name() : null,
+            kpi.requiredLaborHours(),
+            kpi.availableLaborHours(),
+            kpi.utilizationPercentage(),
+            kpi.estimatedLaborCost(),
+            byName(kpi.headcountByShift()),
+            kpi.forecastId(),
+            kpi.forecastPeriod() != null ? kpi.forecastPeriod().name() : null,
+            byName(kpi.forecastedVolumeByCategory()),
+            kpi.forecastAccuracy(),
+            kpi.updatedAt()
+        );
+    }
+
+    private static Map<String, Integer> byName(Map<? extends Enum<?>, Integer> values) {
+        Map<String, Integer> byName = new TreeMap<>();
+        if (values != null) {
+            values.forEach((key, value) -> byName.put(key.name(), value));
+        }
+        return byName;
+    }
+}
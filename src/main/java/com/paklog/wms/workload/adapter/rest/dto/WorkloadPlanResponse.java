@@ -15,6 +15,7 @@ public record WorkloadPlanResponse(
     LocalDate planDate,
     Map<WorkloadCategory, Integer> plannedVolumes,
     Map<ShiftType, List<ShiftAssignmentDto>> shiftAssignments,
+    Map<ShiftType, Integer> headcountByShift,
     Integer totalRequiredLaborHours,
     Integer totalAvailableLaborHours,
     Double utilizationPercentage,
@@ -34,10 +35,11 @@ public record WorkloadPlanResponse(
                     Map.Entry::getKey,
                     e -> e.getValue().stream().map(ShiftAssignmentDto::from).toList()
                 )),
+            plan.getHeadcountByShift(),
             plan.getTotalRequiredLaborHours(),
             plan.getTotalAvailableLaborHours(),
             plan.getUtilizationPercentage(),
-            plan.getStatus().name(),
+            plan.getStatus() != null ? plan.getStatus().name() : null,
             plan.getNotes(),
             plan.getCreatedAt(),
             plan.getUpdatedAt()
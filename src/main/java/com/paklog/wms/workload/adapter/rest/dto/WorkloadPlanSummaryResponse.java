@@ -0,0 +1,34 @@
+package com.paklog.wms.workload.adapter.rest.dto;
+
+import com.paklog.wms.workload.domain.repository.PlanSummary;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public record WorkloadPlanSummaryResponse(
+    String planId,
+    String warehouseId,
+    LocalDate planDate,
+    Integer totalRequiredLaborHours,
+    Integer totalAvailableLaborHours,
+    Double utilizationPercentage,
+    Double estimatedLaborCost,
+    String status,
+    LocalDateTime createdAt,
+    LocalDateTime updatedAt
+) {
+    public static WorkloadPlanSummaryResponse from(PlanSummary summary) {
+        return new WorkloadPlanSummaryResponse(
+            summary.planId(),
+            summary.warehouseId(),
+            summary.planDate(),
+            summary.totalRequiredLaborHours(),
+            summary.totalAvailableLaborHours(),
+            summary.utilizationPercentage(),
+            summary.estimatedLaborCost(),
+            summary.status() != null ? summary.status().name() : null,
+            summary.createdAt(),
+            summary.updatedAt()
+        );
+    }
+}
@@ -1,8 +1,10 @@
 package com.paklog.wms.workload.adapter.rest.dto;
 
+import com.paklog.wms.workload.application.service.StaffingRecommendation;
 import com.paklog.wms.workload.domain.valueobject.ShiftType;
 import com.paklog.wms.workload.domain.valueobject.WorkloadCategory;
 
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 
@@ -15,6 +17,40 @@ public record WorkloadRecommendationResponse(
     List<String> warnings,
     List<String> suggestions
 ) {
+
+    public static WorkloadRecommendationResponse from(StaffingRecommendation recommendation) {
+        Map<WorkloadCategory, CategoryRecommendation> categories = new EnumMap<>(WorkloadCategory.class);
+        recommendation.categories().forEach((category, staffing) -> categories.put(category,
+            new CategoryRecommendation(
+                category,
+                staffing.forecastedVolume(),
+                staffing.requiredWorkers(),
+                staffing.currentWorkers(),
+                staffing.gap(),
+                staffing.requiredLaborHours()
+            )));
+
+        Map<ShiftType, ShiftRecommendation> shifts = new EnumMap<>(ShiftType.class);
+        recommendation.shifts().forEach((shift, staffing) -> shifts.put(shift,
+            new ShiftRecommendation(
+                shift,
+                staffing.requiredWorkers(),
+                staffing.currentWorkers(),
+                staffing.gap(),
+                staffing.utilizationPercentage()
+            )));
+
+        return new WorkloadRecommendationResponse(
+            recommendation.warehouseId(),
+            categories,
+            shifts,
+            recommendation.projectedUtilization(),
+            recommendation.balanceStatus(),
+            recommendation.warnings(),
+            recommendation.suggestions()
+        );
+    }
+
     public record CategoryRecommendation(
         WorkloadCategory category,
         Integer forecastedVolume,
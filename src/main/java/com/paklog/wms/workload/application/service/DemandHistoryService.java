@@ -0,0 +1,160 @@
+package com.paklog.wms.workload.application.service;
+
+import com.paklog.wms.workload.domain.repository.DemandHistoryRepository;
+import com.paklog.wms.workload.domain.repository.DemandObservation;
+import com.paklog.wms.workload.domain.valueobject.ForecastPeriod;
+import com.paklog.wms.workload.domain.valueobject.WorkloadCategory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Demand History Service
+ * Bulk imports observed demand and serves it back as forecast input.
+ *
+ * Imports consume their rows one at a time and write them in fixed-size
+ * unordered bulk upserts, so memory stays constant however long the upload is,
+ * and re-sending a file after a failure is harmless.
+ */
+@Service
+public class DemandHistoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DemandHistoryService.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final DemandHistoryRepository historyRepository;
+    private final int batchSize;
+
+    public DemandHistoryService(
+            MongoTemplate mongoTemplate,
+            DemandHistoryRepository historyRepository,
+            @Value("${workload.history.import.batch-size:1000}") int batchSize
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.historyRepository = historyRepository;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Import observations as they are read
+     *
+     * @throws HistoryImportException when a row cannot be read; rows before it are already stored
+     */
+    public ImportReport importHistory(String warehouseId, Iterator<DemandObservation> observations) {
+        long started = System.nanoTime();
+        List<DemandObservation> batch = new ArrayList<>(batchSize);
+        long rows = 0;
+        int batches = 0;
+        DemandObservation observation;
+        while ((observation = next(observations, batch, rows)) != null) {
+            batch.add(observation);
+            if (batch.size() == batchSize) {
+                rows += write(batch);
+                batches++;
+            }
+        }
+        if (!batch.isEmpty()) {
+            rows += write(batch);
+            batches++;
+        }
+
+        ImportReport report = ImportReport.of(warehouseId, rows, batches, Duration.ofNanos(System.nanoTime() - started));
+        logger.info("Imported {} demand history rows for warehouse {} in {} ms ({} rows/s)",
+            report.rows(), warehouseId, report.elapsedMillis(), Math.round(report.rowsPerSecond()));
+        return report;
+    }
+
+    /**
+     * Read the next row, or null at the end; a bad row stores the rows read before it and fails the import
+     */
+    private DemandObservation next(Iterator<DemandObservation> observations, List<DemandObservation> batch, long rows) {
+        try {
+            return observations.hasNext() ? observations.next() : null;
+        } catch (RuntimeException e) {
+            long imported = batch.isEmpty() ? rows : rows + write(batch);
+            throw new HistoryImportException(imported, e);
+        }
+    }
+
+    private int write(List<DemandObservation> batch) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DemandObservation.class);
+        for (DemandObservation observation : batch) {
+            bulk.replaceOne(query(where("_id").is(observation.id())), observation, FindAndReplaceOptions.options().upsert());
+        }
+        bulk.execute();
+        int written = batch.size();
+        batch.clear();
+        return written;
+    }
+
+    /**
+     * Observed volume per category for the periods just before a date, oldest first
+     */
+    public Map<WorkloadCategory, List<Integer>> recentVolumes(
+            String warehouseId,
+            ForecastPeriod period,
+            LocalDateTime before,
+            int periods
+    ) {
+        LocalDateTime from = before.minusHours((long) periods * period.getHoursPerPeriod());
+        Map<WorkloadCategory, int[]> buckets = new EnumMap<>(WorkloadCategory.class);
+        for (DemandObservation observation : historyRepository
+                .findByWarehouseIdAndTimestampGreaterThanEqualAndTimestampLessThan(warehouseId, from, before)) {
+            int bucket = (int) (Duration.between(from, observation.timestamp()).toHours() / period.getHoursPerPeriod());
+            buckets.computeIfAbsent(observation.category(), category -> new int[periods])[bucket] += observation.volume();
+        }
+
+        Map<WorkloadCategory, List<Integer>> volumes = new EnumMap<>(WorkloadCategory.class);
+        buckets.forEach((category, totals) -> volumes.put(category, Arrays.stream(totals).boxed().toList()));
+        return volumes;
+    }
+
+    /**
+     * Outcome of an import
+     */
+    public record ImportReport(
+        String warehouseId,
+        long rows,
+        int batches,
+        long elapsedMillis,
+        double rowsPerSecond
+    ) {
+        static ImportReport of(String warehouseId, long rows, int batches, Duration elapsed) {
+            double seconds = Math.max(elapsed.toNanos(), 1) / 1_000_000_000.0;
+            return new ImportReport(warehouseId, rows, batches, elapsed.toMillis(), rows / seconds);
+        }
+    }
+
+    /**
+     * A row could not be read; the rows before it were imported
+     */
+    public static class HistoryImportException extends RuntimeException {
+
+        private final long importedRows;
+
+        public HistoryImportException(long importedRows, RuntimeException cause) {
+            super(cause.getMessage(), cause);
+            this.importedRows = importedRows;
+        }
+
+        public long getImportedRows() {
+            return importedRows;
+        }
+    }
+}
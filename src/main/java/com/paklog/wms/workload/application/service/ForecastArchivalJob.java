@@ -0,0 +1,90 @@
+package com.paklog.wms.workload.application.service;
+
+import com.paklog.wms.workload.domain.aggregate.DemandForecast;
+import com.paklog.wms.workload.domain.repository.DemandForecastRepository;
+import com.paklog.wms.workload.domain.repository.ForecastArchive;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves forecasts whose forecast date is older than the configured age from the
+ * hot collection into the compressed archive, keeping the hot working set small.
+ */
+@Component
+@ConditionalOnProperty(prefix = "workload.archival", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ForecastArchivalJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(ForecastArchivalJob.class);
+
+    private final DemandForecastRepository forecastRepository;
+    private final ForecastArchive forecastArchive;
+    private final LatestForecastIndex latestForecastIndex;
+    private final WorkloadAggregateCache aggregateCache;
+    private final Duration maxAge;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    public ForecastArchivalJob(
+            DemandForecastRepository forecastRepository,
+            ForecastArchive forecastArchive,
+            LatestForecastIndex latestForecastIndex,
+            WorkloadAggregateCache aggregateCache,
+            @Value("${workload.archival.max-age:90d}") Duration maxAge,
+            @Value("${workload.archival.batch-size:500}") int batchSize,
+            @Value("${workload.archival.max-batches-per-run:20}") int maxBatchesPerRun
+    ) {
+        this.forecastRepository = forecastRepository;
+        this.forecastArchive = forecastArchive;
+        this.latestForecastIndex = latestForecastIndex;
+        this.aggregateCache = aggregateCache;
+        this.maxAge = maxAge;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    /**
+     * Archive aged forecasts in bounded batches
+     */
+    @Scheduled(
+        initialDelayString = "${workload.archival.initial-delay:PT5M}",
+        fixedDelayString = "${workload.archival.interval:PT1H}"
+    )
+    public void archiveAgedForecasts() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(maxAge);
+        int archived = 0;
+
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            List<DemandForecast> aged = forecastRepository
+                .findByForecastDateBeforeOrderByForecastDateAsc(cutoff, Limit.of(batchSize));
+            if (aged.isEmpty()) {
+                break;
+            }
+
+            for (DemandForecast forecast : aged) {
+                // Archive first so a crash in between leaves a duplicate, never a loss
+                forecastArchive.archive(forecast);
+                forecastRepository.deleteById(forecast.getForecastId());
+                latestForecastIndex.evict(forecast.getForecastId());
+                aggregateCache.evictForecast(forecast.getForecastId());
+            }
+            archived += aged.size();
+
+            if (aged.size() < batchSize) {
+                break;
+            }
+        }
+
+        if (archived > 0) {
+            logger.info("Archived {} forecasts older than {}", archived, cutoff);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.paklog.wms.workload.application.service;
+
+import com.paklog.wms.workload.domain.aggregate.DemandForecast;
+import com.paklog.wms.workload.domain.valueobject.ForecastPeriod;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory pointer to the latest forecast per warehouse and per (warehouse, period)
+ *
+ * Pointers are advanced when this instance saves a forecast and learned from
+ * top-1 queries otherwise. They expire after a TTL so forecasts saved by other
+ * instances become visible within that bound.
+ */
+@Component
+public class LatestForecastIndex {
+
+    private final ConcurrentMap<Key, Pointer> pointers = new ConcurrentHashMap<>();
+    private final Duration ttl;
+    private final Clock clock;
+
+    @Autowired
+    public LatestForecastIndex(@Value("${workload.forecasting.latest-pointer-ttl:30s}") Duration ttl) {
+        this(ttl, Clock.systemUTC());
+    }
+
+    LatestForecastIndex(Duration ttl, Clock clock) {
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    /**
+     * Record a saved or freshly loaded forecast, advancing pointers it is newer than
+     */
+    public void record(DemandForecast forecast) {
+        Instant now = clock.instant();
+        Pointer candidate = new Pointer(forecast.getForecastId(), forecast.getForecastDate(), now);
+        advance(new Key(forecast.getWarehouseId(), null), candidate);
+        advance(new Key(forecast.getWarehouseId(), forecast.getPeriod()), candidate);
+    }
+
+    /**
+     * Get the latest known forecast ID for a warehouse, optionally restricted to a period
+     */
+    public Optional<String> lookup(String warehouseId, ForecastPeriod period) {
+        Key key = new Key(warehouseId, period);
+        Pointer pointer = pointers.get(key);
+        if (pointer == null) {
+            return Optional.empty();
+        }
+        if (pointer.recordedAt().plus(ttl).isBefore(clock.instant())) {
+            pointers.remove(key, pointer);
+            return Optional.empty();
+        }
+        return Optional.of(pointer.forecastId());
+    }
+
+    /**
+     * Drop pointers referring to a forecast that no longer exists
+     */
+    public void evict(String forecastId) {
+        pointers.values().removeIf(pointer -> pointer.forecastId().equals(forecastId));
+    }
+
+    private void advance(Key key, Pointer candidate) {
+        pointers.merge(key, candidate, (current, next) -> {
+            boolean sameForecast = current.forecastId().equals(next.forecastId());
+            boolean newer = current.forecastDate() == null
+                || (next.forecastDate() != null && !next.forecastDate().isBefore(current.forecastDate()));
+            return sameForecast || newer ? next : current;
+        });
+    }
+
+    private record Key(String warehouseId, ForecastPeriod period) {}
+
+    private record Pointer(String forecastId, LocalDateTime forecastDate, Instant recordedAt) {}
+}
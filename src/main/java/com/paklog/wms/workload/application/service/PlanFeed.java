@@ -0,0 +1,277 @@
+package com.paklog.wms.workload.application.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.paklog.wms.workload.domain.aggregate.WorkloadPlan;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-process broadcaster of plan metric changes to live subscribers
+ *
+ * Changes arrive from this instance's saves once they commit and from the
+ * change stream for every instance's; the revision drops whichever comes
+ * second. Each change is reduced once to a delta against the last metrics seen
+ * for the plan and handed to every matching subscriber's bounded buffer. A
+ * small pool of platform threads drains the buffers into the connections, one
+ * task per subscriber with pending changes: emitter writes hold the emitter's
+ * monitor, which would pin a virtual thread to its carrier for as long as a
+ * slow client takes. A subscriber whose buffer is full is evicted rather than
+ * slowing the feed or growing without bound, and reconnects for a fresh start.
+ */
+@Component
+public class PlanFeed {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlanFeed.class);
+
+    // Queued to keep idle connections open and to notice clients that have gone
+    private static final PlanMetrics HEARTBEAT = new PlanMetrics(null, null, null, 0, null, null, null, null, null, null);
+
+    private final Cache<String, PlanMetrics> lastMetrics;
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final Counter slowEvictions;
+    private final Counter disconnects;
+    private final ExecutorService writers;
+
+    public PlanFeed(
+            @Value("${workload.plans.feed.buffer-size:64}") int bufferSize,
+            @Value("${workload.plans.feed.max-subscribers:5000}") int maxSubscribers,
+            @Value("${workload.plans.feed.writer-threads:4}") int writerThreads,
+            @Value("${workload.cache.plans.maximum-size:10000}") long trackedPlans,
+            MeterRegistry meterRegistry
+    ) {
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.writers = Executors.newFixedThreadPool(writerThreads,
+            Thread.ofPlatform().name("plan-feed-writer-", 0).daemon().factory());
+        this.lastMetrics = Caffeine.newBuilder().maximumSize(trackedPlans).build();
+        Gauge.builder("workload.plans.feed.subscribers", subscriptions, Set::size)
+            .description("Open live plan metric subscriptions")
+            .register(meterRegistry);
+        this.slowEvictions = evictions(meterRegistry, "slow");
+        this.disconnects = evictions(meterRegistry, "disconnected");
+    }
+
+    /**
+     * Follow one plan, starting with a snapshot of all its metrics
+     *
+     * The snapshot is the newer of the given plan and the last change the feed
+     * saw, so the deltas that follow apply to it.
+     *
+     * @return the subscription, or null when the feed is at its subscriber limit
+     */
+    public Subscription subscribeToPlan(WorkloadPlan plan, Sink sink) {
+        PlanMetrics snapshot = lastMetrics.asMap().merge(plan.getPlanId(), PlanMetrics.of(plan),
+            (seen, loaded) -> loaded.revision() > seen.revision() ? loaded : seen);
+        return subscribe(plan.getPlanId(), null, sink, snapshot);
+    }
+
+    /**
+     * Follow every plan of a warehouse
+     *
+     * @return the subscription, or null when the feed is at its subscriber limit
+     */
+    public Subscription subscribeToWarehouse(String warehouseId, Sink sink) {
+        return subscribe(null, warehouseId, sink, null);
+    }
+
+    private Subscription subscribe(String planId, String warehouseId, Sink sink, PlanMetrics snapshot) {
+        if (subscriptions.size() >= maxSubscribers) {
+            return null;
+        }
+        Subscription subscription = new Subscription(planId, warehouseId, sink);
+        if (snapshot != null) {
+            subscription.offer(snapshot);
+        }
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    /**
+     * Publish a plan saved by this instance once the surrounding transaction commits
+     */
+    public void planSaved(WorkloadPlan plan) {
+        PlanMetrics saved = PlanMetrics.of(plan);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(saved);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(saved);
+            }
+        });
+    }
+
+    /**
+     * Publish a plan seen on the change stream; replays and changes that leave the metrics as they were are not sent
+     */
+    public void planChanged(WorkloadPlan plan) {
+        publish(PlanMetrics.of(plan));
+    }
+
+    private void publish(PlanMetrics current) {
+        PlanMetrics[] previous = new PlanMetrics[1];
+        boolean newer = current == lastMetrics.asMap().merge(current.planId(), current, (seen, candidate) -> {
+            previous[0] = seen;
+            return candidate.revision() > seen.revision() ? candidate : seen;
+        });
+        if (!newer) {
+            return;
+        }
+        PlanMetrics delta = current.changedSince(previous[0]);
+        if (!delta.hasMetrics()) {
+            return;
+        }
+        for (Subscription subscription : subscriptions) {
+            if (subscription.matches(delta)) {
+                subscription.offer(delta);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${workload.plans.feed.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        subscriptions.forEach(subscription -> subscription.offer(HEARTBEAT));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        writers.shutdownNow();
+    }
+
+    int subscriberCount() {
+        return subscriptions.size();
+    }
+
+    private static Counter evictions(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("workload.plans.feed.evictions")
+            .description("Live plan subscriptions closed by the feed")
+            .tag("reason", reason)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Connection a subscription writes to
+     */
+    public interface Sink {
+
+        void send(PlanMetrics metrics) throws IOException;
+
+        void heartbeat() throws IOException;
+
+        void close();
+    }
+
+    /**
+     * One subscriber with its own bounded buffer
+     */
+    public final class Subscription {
+
+        private final String planId;
+        private final String warehouseId;
+        private final Sink sink;
+        private final BlockingQueue<PlanMetrics> buffer = new ArrayBlockingQueue<>(bufferSize);
+        // Set while a drain task is queued or running, so each subscriber is written by one thread at a time
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        private Subscription(String planId, String warehouseId, Sink sink) {
+            this.planId = planId;
+            this.warehouseId = warehouseId;
+            this.sink = sink;
+        }
+
+        private boolean matches(PlanMetrics delta) {
+            return planId != null ? planId.equals(delta.planId()) : warehouseId.equals(delta.warehouseId());
+        }
+
+        private void offer(PlanMetrics metrics) {
+            if (closed) {
+                return;
+            }
+            if (!buffer.offer(metrics)) {
+                logger.info("Evicting slow plan feed subscriber of {} after {} undelivered changes",
+                    planId != null ? planId : warehouseId, bufferSize);
+                slowEvictions.increment();
+                close();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                PlanMetrics next;
+                while (!closed && (next = buffer.poll()) != null) {
+                    if (next == HEARTBEAT) {
+                        sink.heartbeat();
+                    } else {
+                        sink.send(next);
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                if (!closed) {
+                    disconnects.increment();
+                }
+                logger.debug("Plan feed subscriber gone: {}", e.getMessage());
+                close();
+            } finally {
+                draining.set(false);
+            }
+            // A change offered after the last poll found the task still running and left it to this one
+            if (!closed && !buffer.isEmpty() && draining.compareAndSet(false, true)) {
+                execute(this::drain);
+            }
+        }
+
+        /**
+         * Stop delivering and release the connection; safe to call more than once
+         *
+         * The connection is released on a writer thread, never on the caller's:
+         * completing an emitter waits for a write in progress to finish.
+         */
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            subscriptions.remove(this);
+            execute(sink::close);
+        }
+
+        private void execute(Runnable task) {
+            try {
+                writers.execute(task);
+            } catch (RejectedExecutionException e) {
+                // Shutting down: the connections are closed by the container
+                logger.debug("Plan feed is shut down, dropping write to subscriber of {}",
+                    planId != null ? planId : warehouseId);
+            }
+        }
+    }
+}
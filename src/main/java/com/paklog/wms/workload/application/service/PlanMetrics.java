@@ -0,0 +1,76 @@
+package com.paklog.wms.workload.application.service;
+
+import com.paklog.wms.workload.domain.aggregate.WorkloadPlan;
+import com.paklog.wms.workload.domain.valueobject.ShiftType;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Staffing metrics of a plan at one revision, as pushed to live subscribers
+ *
+ * A delta carries the identifying fields and only the metrics that changed;
+ * the others are null.
+ */
+public record PlanMetrics(
+    String planId,
+    String warehouseId,
+    LocalDate planDate,
+    long revision,
+    Integer totalRequiredLaborHours,
+    Integer totalAvailableLaborHours,
+    Double utilizationPercentage,
+    Double estimatedLaborCost,
+    Map<ShiftType, Integer> headcountByShift,
+    WorkloadPlan.PlanStatus status
+) {
+    public static PlanMetrics of(WorkloadPlan plan) {
+        return new PlanMetrics(
+            plan.getPlanId(),
+            plan.getWarehouseId(),
+            plan.getPlanDate(),
+            plan.getRevision(),
+            plan.getTotalRequiredLaborHours(),
+            plan.getTotalAvailableLaborHours(),
+            plan.getUtilizationPercentage(),
+            plan.getEstimatedLaborCost(),
+            Map.copyOf(plan.getHeadcountByShift()),
+            plan.getStatus()
+        );
+    }
+
+    /**
+     * The metrics that differ from an earlier revision, or all of them without one
+     */
+    public PlanMetrics changedSince(PlanMetrics previous) {
+        if (previous == null) {
+            return this;
+        }
+        return new PlanMetrics(
+            planId,
+            warehouseId,
+            planDate,
+            revision,
+            changed(totalRequiredLaborHours, previous.totalRequiredLaborHours),
+            changed(totalAvailableLaborHours, previous.totalAvailableLaborHours),
+            changed(utilizationPercentage, previous.utilizationPercentage),
+            changed(estimatedLaborCost, previous.estimatedLaborCost),
+            changed(headcountByShift, previous.headcountByShift),
+            changed(status, previous.status)
+        );
+    }
+
+    /**
+     * Whether any metric is present, i.e. a delta is worth sending
+     */
+    public boolean hasMetrics() {
+        return totalRequiredLaborHours != null || totalAvailableLaborHours != null
+            || utilizationPercentage != null || estimatedLaborCost != null
+            || headcountByShift != null || status != null;
+    }
+
+    private static <T> T changed(T current, T previous) {
+        return Objects.equals(current, previous) ? null : current;
+    }
+}
@@ -0,0 +1,160 @@
+package com.paklog.wms.workload.application.service;
+
+import com.paklog.wms.workload.domain.aggregate.DemandForecast;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Latency and size metrics of forecast generation and labor optimization
+ *
+ * Whole operations are timed by warehouse, and forecasts also by period and
+ * model; each stage of an operation has its own timer so percentiles show where
+ * the time goes. Warehouse tags are bounded: the first max-warehouses seen keep
+ * their own series and the rest share "other". Periods, models and stages are
+ * fixed sets.
+ */
+@Component
+public class PlanningMetrics {
+
+    static final String OTHER_WAREHOUSES = "other";
+
+    private static final Duration MIN_EXPECTED = Duration.ofMillis(1);
+    private static final Duration MAX_EXPECTED = Duration.ofMinutes(1);
+
+    private final MeterRegistry meterRegistry;
+    private final int maxWarehouses;
+    private final Set<String> warehouses = ConcurrentHashMap.newKeySet();
+    // Per operation, then stage; building a meter looks it up in the registry on every call
+    private final Map<Operation, Map<String, Timer>> stageTimers = new EnumMap<>(Operation.class);
+
+    public PlanningMetrics(
+            MeterRegistry meterRegistry,
+            @Value("${workload.metrics.max-warehouses:50}") int maxWarehouses
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.maxWarehouses = maxWarehouses;
+        for (Operation operation : Operation.values()) {
+            stageTimers.put(operation, new ConcurrentHashMap<>());
+        }
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(meterRegistry);
+    }
+
+    /**
+     * Time one stage of an operation
+     */
+    public <T> T stage(Operation operation, String stage, Supplier<T> work) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return work.get();
+        } finally {
+            sample.stop(stageTimer(operation, stage));
+        }
+    }
+
+    public void stage(Operation operation, String stage, Runnable work) {
+        stage(operation, stage, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Record a generated forecast
+     */
+    public void forecastGenerated(Timer.Sample sample, DemandForecast forecast) {
+        String warehouse = warehouseTag(forecast.getWarehouseId());
+        sample.stop(Timer.builder("workload.forecast.generation")
+            .description("Demand forecast generation, from history lookup to staged event")
+            .tag("warehouse", warehouse)
+            .tag("period", forecast.getPeriod().name())
+            .tag("model", forecast.getForecastingModel())
+            .publishPercentileHistogram()
+            .minimumExpectedValue(MIN_EXPECTED)
+            .maximumExpectedValue(MAX_EXPECTED)
+            .register(meterRegistry));
+        DistributionSummary.builder("workload.forecast.data-points")
+            .description("Data points generated per forecast")
+            .tag("warehouse", warehouse)
+            .tag("period", forecast.getPeriod().name())
+            .register(meterRegistry)
+            .record(forecast.getDataPointCount());
+    }
+
+    /**
+     * Record a labor optimization run
+     */
+    public void planOptimized(Timer.Sample sample, String warehouseId, int workersConsidered, int assignmentsMade) {
+        String warehouse = warehouseTag(warehouseId);
+        sample.stop(Timer.builder("workload.plan.optimization")
+            .description("Labor allocation of a plan, from load to save")
+            .tag("warehouse", warehouse)
+            .publishPercentileHistogram()
+            .minimumExpectedValue(MIN_EXPECTED)
+            .maximumExpectedValue(MAX_EXPECTED)
+            .register(meterRegistry));
+        DistributionSummary.builder("workload.plan.optimization.workers")
+            .description("Workers offered to an optimization run")
+            .tag("warehouse", warehouse)
+            .register(meterRegistry)
+            .record(workersConsidered);
+        DistributionSummary.builder("workload.plan.optimization.assignments")
+            .description("Shift assignments made by an optimization run")
+            .tag("warehouse", warehouse)
+            .register(meterRegistry)
+            .record(assignmentsMade);
+    }
+
+    private Timer stageTimer(Operation operation, String stage) {
+        return stageTimers.get(operation).computeIfAbsent(stage, key -> Timer.builder("workload.planning.stage")
+            .description("Time spent in each stage of forecast generation and labor optimization")
+            .tag("operation", operation.tag)
+            .tag("stage", key)
+            .publishPercentileHistogram()
+            .minimumExpectedValue(MIN_EXPECTED)
+            .maximumExpectedValue(MAX_EXPECTED)
+            .register(meterRegistry));
+    }
+
+    String warehouseTag(String warehouseId) {
+        if (warehouseId == null) {
+            return OTHER_WAREHOUSES;
+        }
+        if (warehouses.contains(warehouseId)) {
+            return warehouseId;
+        }
+        synchronized (warehouses) {
+            if (warehouses.contains(warehouseId) || warehouses.size() < maxWarehouses) {
+                warehouses.add(warehouseId);
+                return warehouseId;
+            }
+        }
+        return OTHER_WAREHOUSES;
+    }
+
+    /**
+     * Instrumented planning operations
+     */
+    public enum Operation {
+        FORECAST("forecast"),
+        OPTIMIZE("optimize");
+
+        private final String tag;
+
+        Operation(String tag) {
+            this.tag = tag;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.paklog.wms.workload.application.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.paklog.wms.workload.application.service.StaffingRecommendation.CategoryStaffing;
+import com.paklog.wms.workload.application.service.StaffingRecommendation.ShiftStaffing;
+import com.paklog.wms.workload.domain.aggregate.DemandForecast;
+import com.paklog.wms.workload.domain.aggregate.WorkloadPlan;
+import com.paklog.wms.workload.domain.repository.PlanRevision;
+import com.paklog.wms.workload.domain.valueobject.ShiftType;
+import com.paklog.wms.workload.domain.valueobject.WorkloadCategory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Computes staffing recommendations from a forecast and the live plan of its date
+ *
+ * Category demand comes from the forecast's per-category totals, so the data
+ * points are never decoded, and the plan's roster is walked once for the
+ * current headcount per category and shift. Results are cached per forecast and
+ * plan revision: recommendations are polled far more often than either changes.
+ */
+@Component
+public class RecommendationEngine {
+
+    private static final int SHIFT_HOURS = 8;
+    private static final int HIGH_STAFFING_WORKERS = 10;
+    // Same bands as WorkloadPlan#isUnderstaffed and WorkloadPlan#isOverstaffed
+    private static final double UNDERSTAFFED_BELOW = 85.0;
+    private static final double OVERSTAFFED_ABOVE = 110.0;
+
+    private static final List<String> PREMIUM_SUGGESTIONS = premiumSuggestions();
+
+    private final Cache<Key, StaffingRecommendation> recommendations;
+
+    public RecommendationEngine(
+            @Value("${workload.recommendations.cache.maximum-size:1000}") long maximumSize,
+            @Value("${workload.cache.time-to-live:10m}") Duration timeToLive,
+            MeterRegistry meterRegistry
+    ) {
+        this.recommendations = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(timeToLive)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, recommendations, "workload.recommendations");
+    }
+
+    /**
+     * Get a recommendation computed for this forecast and plan revision, if cached
+     *
+     * @param revision revision of the live plan, or null when the date has no plan
+     */
+    public Optional<StaffingRecommendation> getCached(String warehouseId, DemandForecast forecast,
+                                                      PlanRevision revision) {
+        return Optional.ofNullable(recommendations.getIfPresent(Key.of(warehouseId, forecast, revision)));
+    }
+
+    /**
+     * Compute and cache the recommendation for a forecast against a plan
+     *
+     * @param plan live plan of the forecast date, or null when there is none
+     */
+    public StaffingRecommendation recommend(String warehouseId, DemandForecast forecast, WorkloadPlan plan) {
+        PlanRevision revision = plan != null ? PlanRevision.of(plan) : null;
+        return recommendations.get(Key.of(warehouseId, forecast, revision),
+            key -> compute(warehouseId, forecast, plan));
+    }
+
+    static StaffingRecommendation compute(String warehouseId, DemandForecast forecast, WorkloadPlan plan) {
+        Map<WorkloadCategory, Set<String>> workersByCategory = new EnumMap<>(WorkloadCategory.class);
+        Map<ShiftType, Set<String>> workersByShift = new EnumMap<>(ShiftType.class);
+        Map<ShiftType, Integer> hoursByShift = new EnumMap<>(ShiftType.class);
+        if (plan != null) {
+            plan.getShiftAssignments().forEach((shift, assignments) -> {
+                for (WorkloadPlan.ShiftAssignment assignment : assignments) {
+                    workersByCategory.computeIfAbsent(assignment.primaryCategory(), category -> new HashSet<>())
+                        .add(assignment.workerId());
+                    workersByShift.computeIfAbsent(shift, key -> new HashSet<>()).add(assignment.workerId());
+                    hoursByShift.merge(shift, assignment.plannedHours(), Integer::sum);
+                }
+            });
+        }
+
+        Map<WorkloadCategory, CategoryStaffing> categories = new EnumMap<>(WorkloadCategory.class);
+        List<String> warnings = new ArrayList<>();
+        int totalRequiredWorkers = 0;
+        double totalRequiredHours = 0;
+        for (WorkloadCategory category : WorkloadCategory.values()) {
+            int volume = forecast.getTotalForecastedVolume(category);
+            int required = category.calculateRequiredWorkers(volume, SHIFT_HOURS);
+            double hours = category.calculateLaborHours(volume);
+            int current = workersByCategory.getOrDefault(category, Set.of()).size();
+            categories.put(category, new CategoryStaffing(category, volume, required, current, required - current, hours));
+
+            totalRequiredWorkers += required;
+            totalRequiredHours += hours;
+            if (required > HIGH_STAFFING_WORKERS) {
+                warnings.add(String.format("High staffing requirement for %s: %d workers", category.name(), required));
+            }
+        }
+
+        // Demand is not broken down by time of day, so it is spread evenly over the shifts
+        int shiftCount = ShiftType.values().length;
+        int requiredPerShift = totalRequiredWorkers / shiftCount;
+        double requiredHoursPerShift = totalRequiredHours / shiftCount;
+        Map<ShiftType, ShiftStaffing> shifts = new EnumMap<>(ShiftType.class);
+        for (ShiftType shift : ShiftType.values()) {
+            int current = workersByShift.getOrDefault(shift, Set.of()).size();
+            int availableHours = hoursByShift.getOrDefault(shift, 0);
+            shifts.put(shift, new ShiftStaffing(shift, requiredPerShift, current, requiredPerShift - current,
+                utilization(requiredHoursPerShift, availableHours)));
+        }
+
+        int availableHours = plan != null ? plan.getTotalAvailableLaborHours() : 0;
+        double projectedUtilization = utilization(totalRequiredHours, availableHours);
+
+        return new StaffingRecommendation(
+            warehouseId,
+            forecast.getForecastId(),
+            plan != null ? plan.getPlanId() : null,
+            Collections.unmodifiableMap(categories),
+            Collections.unmodifiableMap(shifts),
+            projectedUtilization,
+            balanceStatus(availableHours, projectedUtilization),
+            List.copyOf(warnings),
+            PREMIUM_SUGGESTIONS
+        );
+    }
+
+    private static double utilization(double requiredHours, int availableHours) {
+        return availableHours > 0 ? requiredHours * 100.0 / availableHours : 0.0;
+    }
+
+    private static String balanceStatus(int availableHours, double utilization) {
+        if (availableHours == 0) {
+            return "UNSTAFFED";
+        }
+        if (utilization < UNDERSTAFFED_BELOW) {
+            return "UNDERSTAFFED";
+        }
+        return utilization > OVERSTAFFED_ABOVE ? "OVERSTAFFED" : "BALANCED";
+    }
+
+    private static List<String> premiumSuggestions() {
+        List<String> suggestions = new ArrayList<>();
+        for (ShiftType shift : ShiftType.values()) {
+            if (shift.isNightShift() || shift.isWeekendShift()) {
+                suggestions.add(String.format("Consider %s premium (%.0f%%) for %s",
+                    shift.isWeekendShift() ? "weekend" : "night",
+                    (shift.getPremiumMultiplier() - 1.0) * 100,
+                    shift.name()));
+            }
+        }
+        return List.copyOf(suggestions);
+    }
+
+    /**
+     * Whether a plan is at the given revision
+     */
+    public static boolean isAt(WorkloadPlan plan, PlanRevision revision) {
+        return plan.getPlanId().equals(revision.planId()) && plan.getRevision() == revision.revision();
+    }
+
+    private record Key(String warehouseId, String forecastId, String planId, Long planRevision) {
+
+        static Key of(String warehouseId, DemandForecast forecast, PlanRevision revision) {
+            return revision != null
+                ? new Key(warehouseId, forecast.getForecastId(), revision.planId(), revision.revision())
+                : new Key(warehouseId, forecast.getForecastId(), null, null);
+        }
+    }
+}
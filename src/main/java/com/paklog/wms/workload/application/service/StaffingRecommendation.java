@@ -0,0 +1,40 @@
+package com.paklog.wms.workload.application.service;
+
+import com.paklog.wms.workload.domain.valueobject.ShiftType;
+import com.paklog.wms.workload.domain.valueobject.WorkloadCategory;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Staffing recommendation for a forecast, measured against the live plan of its date
+ */
+public record StaffingRecommendation(
+    String warehouseId,
+    String forecastId,
+    String planId,
+    Map<WorkloadCategory, CategoryStaffing> categories,
+    Map<ShiftType, ShiftStaffing> shifts,
+    double projectedUtilization,
+    String balanceStatus,
+    List<String> warnings,
+    List<String> suggestions
+) {
+
+    public record CategoryStaffing(
+        WorkloadCategory category,
+        int forecastedVolume,
+        int requiredWorkers,
+        int currentWorkers,
+        int gap,
+        double requiredLaborHours
+    ) {}
+
+    public record ShiftStaffing(
+        ShiftType shift,
+        int requiredWorkers,
+        int currentWorkers,
+        int gap,
+        double utilizationPercentage
+    ) {}
+}
@@ -0,0 +1,204 @@
+package com.paklog.wms.workload.application.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.paklog.wms.workload.domain.aggregate.DemandForecast;
+import com.paklog.wms.workload.domain.aggregate.WorkloadPlan;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * In-process read-through cache for workload plans and demand forecasts
+ *
+ * Plans are evicted by size and a write TTL. Forecasts expire when they would
+ * start to need a refresh (see {@link DemandForecast#needsRefresh()}), capped
+ * by the same TTL. Writes made through this instance replace the cached entry
+ * once their transaction commits and drop it on rollback; writes made by other
+ * instances arrive from the change stream, and the TTL only bounds staleness
+ * where there is none.
+ *
+ * Cached aggregates are shared between readers and must not be mutated;
+ * mutations load a fresh copy from the repository.
+ */
+@Component
+public class WorkloadAggregateCache {
+
+    private final Cache<String, WorkloadPlan> plans;
+    private final Cache<String, DemandForecast> forecasts;
+
+    @Autowired
+    public WorkloadAggregateCache(
+            @Value("${workload.cache.plans.maximum-size:10000}") long planMaximumSize,
+            @Value("${workload.cache.forecasts.maximum-size:1000}") long forecastMaximumSize,
+            @Value("${workload.cache.time-to-live:10m}") Duration timeToLive,
+            MeterRegistry meterRegistry
+    ) {
+        this(planMaximumSize, forecastMaximumSize, timeToLive, Clock.systemDefaultZone());
+        CaffeineCacheMetrics.monitor(meterRegistry, plans, "workload.plans");
+        CaffeineCacheMetrics.monitor(meterRegistry, forecasts, "workload.forecasts");
+    }
+
+    WorkloadAggregateCache(long planMaximumSize, long forecastMaximumSize, Duration timeToLive, Clock clock) {
+        this.plans = Caffeine.newBuilder()
+            .maximumSize(planMaximumSize)
+            .expireAfterWrite(timeToLive)
+            .recordStats()
+            .build();
+        this.forecasts = Caffeine.newBuilder()
+            .maximumSize(forecastMaximumSize)
+            .expireAfter(new UntilRefreshDue(timeToLive, clock))
+            .recordStats()
+            .build();
+    }
+
+    /**
+     * Get a plan, loading and caching it on a miss
+     */
+    public Optional<WorkloadPlan> getPlan(String planId, Function<String, Optional<WorkloadPlan>> loader) {
+        return Optional.ofNullable(plans.get(planId, id -> loader.apply(id).orElse(null)));
+    }
+
+    /**
+     * Get a plan only if cached
+     */
+    public Optional<WorkloadPlan> getCachedPlan(String planId) {
+        return Optional.ofNullable(plans.getIfPresent(planId));
+    }
+
+    /**
+     * Cache a plan loaded outside {@link #getPlan}, keeping any entry already present
+     */
+    public void cacheLoadedPlan(WorkloadPlan plan) {
+        plans.asMap().putIfAbsent(plan.getPlanId(), plan);
+    }
+
+    /**
+     * Replace the cached plan with a saved version once the surrounding transaction commits
+     */
+    public void planSaved(WorkloadPlan plan) {
+        String planId = plan.getPlanId();
+        plans.invalidate(planId);
+        onCompletion(() -> plans.put(planId, plan), () -> plans.invalidate(planId));
+    }
+
+    /**
+     * Replace a cached plan with a newer revision saved elsewhere; plans not cached stay uncached
+     */
+    public void planChanged(WorkloadPlan plan) {
+        plans.asMap().computeIfPresent(plan.getPlanId(),
+            (planId, cached) -> plan.getRevision() > cached.getRevision() ? plan : cached);
+    }
+
+    /**
+     * Drop a plan that was removed from the repository
+     */
+    public void evictPlan(String planId) {
+        plans.invalidate(planId);
+    }
+
+    /**
+     * Get a forecast, loading and caching it on a miss
+     */
+    public Optional<DemandForecast> getForecast(String forecastId,
+                                                Function<String, Optional<DemandForecast>> loader) {
+        return Optional.ofNullable(forecasts.get(forecastId, id -> loader.apply(id).orElse(null)));
+    }
+
+    /**
+     * Get a forecast only if cached
+     */
+    public Optional<DemandForecast> getCachedForecast(String forecastId) {
+        return Optional.ofNullable(forecasts.getIfPresent(forecastId));
+    }
+
+    /**
+     * Cache a forecast loaded outside {@link #getForecast}, keeping any entry already present
+     */
+    public void cacheLoadedForecast(DemandForecast forecast) {
+        forecasts.asMap().putIfAbsent(forecast.getForecastId(), forecast);
+    }
+
+    /**
+     * Replace the cached forecast with a saved version once the surrounding transaction commits
+     */
+    public void forecastSaved(DemandForecast forecast) {
+        String forecastId = forecast.getForecastId();
+        forecasts.invalidate(forecastId);
+        onCompletion(() -> forecasts.put(forecastId, forecast), () -> forecasts.invalidate(forecastId));
+    }
+
+    /**
+     * Drop a forecast that was removed from the repository
+     */
+    public void evictForecast(String forecastId) {
+        forecasts.invalidate(forecastId);
+    }
+
+    /**
+     * Drop every cached aggregate, for when changes made elsewhere may have been missed
+     */
+    public void clear() {
+        plans.invalidateAll();
+        forecasts.invalidateAll();
+    }
+
+    private static void onCompletion(Runnable onCommit, Runnable onRollback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            onCommit.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    onCommit.run();
+                } else {
+                    onRollback.run();
+                }
+            }
+        });
+    }
+
+    /**
+     * Keeps a forecast until its refresh is due, never longer than the TTL
+     */
+    private record UntilRefreshDue(Duration timeToLive, Clock clock) implements Expiry<String, DemandForecast> {
+
+        @Override
+        public long expireAfterCreate(String key, DemandForecast forecast, long currentTime) {
+            LocalDateTime refreshDueAt = forecast.getRefreshDueAt();
+            if (refreshDueAt == null) {
+                return 0;
+            }
+            Duration remaining = Duration.between(LocalDateTime.now(clock), refreshDueAt);
+            if (remaining.isNegative()) {
+                return 0;
+            }
+            return Math.min(remaining.toNanos(), timeToLive.toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, DemandForecast forecast, long currentTime,
+                                      long currentDuration) {
+            return expireAfterCreate(key, forecast, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, DemandForecast forecast, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,15 +1,26 @@
 package com.paklog.wms.workload.application.service;
 
+import com.paklog.wms.workload.adapter.event.RosterChangeCoalescer;
 import com.paklog.wms.workload.adapter.event.WorkloadPlanningEventPublisher;
+import com.paklog.wms.workload.application.service.PlanningMetrics.Operation;
 import com.paklog.wms.workload.domain.aggregate.DemandForecast;
 import com.paklog.wms.workload.domain.aggregate.WorkloadPlan;
 import com.paklog.wms.workload.domain.entity.WorkerCapacity;
 import com.paklog.wms.workload.domain.repository.DemandForecastRepository;
+import com.paklog.wms.workload.domain.repository.ForecastArchive;
+import com.paklog.wms.workload.domain.repository.ForecastRevision;
+import com.paklog.wms.workload.domain.repository.ForecastSummary;
+import com.paklog.wms.workload.domain.repository.PlanRevision;
+import com.paklog.wms.workload.domain.repository.PlanSummary;
+import com.paklog.wms.workload.domain.repository.WarehouseKpi;
+import com.paklog.wms.workload.domain.repository.WarehouseKpiRepository;
 import com.paklog.wms.workload.domain.repository.WorkloadPlanRepository;
 import com.paklog.wms.workload.domain.valueobject.*;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
@@ -19,6 +30,9 @@ import java.util.*;
 /**
  * Workload Planning Service
  * Core service for demand forecasting, labor capacity planning, and workload optimization
+ *
+ * Mutations run in a MongoDB transaction that also stages their events in the outbox;
+ * reads join a caller's transaction if there is one but never start their own.
  */
 @Service
 @Transactional
@@ -29,19 +43,48 @@ public class WorkloadPlanningService {
     private final DemandForecastRepository forecastRepository;
     private final WorkloadPlanRepository planRepository;
     private final WorkloadPlanningEventPublisher eventPublisher;
+    private final LatestForecastIndex latestForecastIndex;
+    private final ForecastArchive forecastArchive;
+    private final WorkloadAggregateCache aggregateCache;
+    private final WarehouseKpiRepository kpiRepository;
+    private final RosterChangeCoalescer rosterChanges;
+    private final RecommendationEngine recommendationEngine;
+    private final DemandHistoryService demandHistory;
+    private final PlanFeed planFeed;
+    private final PlanningMetrics metrics;
 
     public WorkloadPlanningService(
             DemandForecastRepository forecastRepository,
             WorkloadPlanRepository planRepository,
-            WorkloadPlanningEventPublisher eventPublisher
+            WorkloadPlanningEventPublisher eventPublisher,
+            LatestForecastIndex latestForecastIndex,
+            ForecastArchive forecastArchive,
+            WorkloadAggregateCache aggregateCache,
+            WarehouseKpiRepository kpiRepository,
+            RosterChangeCoalescer rosterChanges,
+            RecommendationEngine recommendationEngine,
+            DemandHistoryService demandHistory,
+            PlanFeed planFeed,
+            PlanningMetrics metrics
     ) {
         this.forecastRepository = forecastRepository;
         this.planRepository = planRepository;
         this.eventPublisher = eventPublisher;
+        this.latestForecastIndex = latestForecastIndex;
+        this.forecastArchive = forecastArchive;
+        this.aggregateCache = aggregateCache;
+        this.kpiRepository = kpiRepository;
+        this.rosterChanges = rosterChanges;
+        this.recommendationEngine = recommendationEngine;
+        this.demandHistory = demandHistory;
+        this.planFeed = planFeed;
+        this.metrics = metrics;
     }
 
     /**
-     * Generate demand forecast using historical data
+     * Generate demand forecast using historical data, or the imported demand history when none is given
+     *
+     * @throws NoDemandHistoryException when neither is available
      */
     public DemandForecast generateDemandForecast(
             String warehouseId,
@@ -51,8 +94,42 @@ public class WorkloadPlanningService {
     ) {
         logger.info("Generating {} forecast for warehouse {} on {}",
             period, warehouseId, forecastDate);
+        Timer.Sample sample = metrics.start();
+        Map<WorkloadCategory, List<Integer>> history = historicalData == null || historicalData.isEmpty()
+            ? metrics.stage(Operation.FORECAST, "history",
+                () -> demandHistory.recentVolumes(warehouseId, period, forecastDate, 7))
+            : historicalData;
+        if (history.isEmpty()) {
+            throw new NoDemandHistoryException(warehouseId, forecastDate);
+        }
 
         String forecastId = UUID.randomUUID().toString();
+        DemandForecast generated = metrics.stage(Operation.FORECAST, "compute",
+            () -> forecast(forecastId, warehouseId, period, forecastDate, history));
+
+        DemandForecast forecast = metrics.stage(Operation.FORECAST, "persist", () -> {
+            DemandForecast saved = forecastRepository.save(generated);
+            aggregateCache.forecastSaved(saved);
+            latestForecastIndex.record(saved);
+            return saved;
+        });
+
+        // Publish event
+        metrics.stage(Operation.FORECAST, "publish", () -> eventPublisher.publishForecastGenerated(
+            forecastId, warehouseId, period.name(), forecast.getForecastingModel(), forecast.getAccuracy()
+        ));
+
+        metrics.forecastGenerated(sample, forecast);
+        return forecast;
+    }
+
+    private static DemandForecast forecast(
+            String forecastId,
+            String warehouseId,
+            ForecastPeriod period,
+            LocalDateTime forecastDate,
+            Map<WorkloadCategory, List<Integer>> historicalData
+    ) {
         DemandForecast forecast = DemandForecast.create(
             forecastId, warehouseId, period, forecastDate
         );
@@ -76,14 +153,14 @@ public class WorkloadPlanningService {
             WorkloadCategory category = entry.getKey();
             List<Integer> historical = entry.getValue();
 
+            // Simple moving average forecast, the same for every period of a category
+            int forecastedVolume = calculateMovingAverage(historical, 7);
+            double confidenceInterval = calculateConfidenceInterval(historical);
+
             // Generate forecasts for the period
             for (int i = 0; i < period.getPeriodsAhead(); i++) {
                 LocalDateTime timestamp = forecastDate.plusHours(i * period.getHoursPerPeriod());
 
-                // Simple moving average forecast
-                int forecastedVolume = calculateMovingAverage(historical, 7);
-                double confidenceInterval = calculateConfidenceInterval(historical);
-
                 forecast.addDataPoint(timestamp, category, forecastedVolume, confidenceInterval);
             }
         }
@@ -93,33 +170,78 @@ public class WorkloadPlanningService {
         double mae = 5.0;
         double mse = 25.0;
         forecast.updateAccuracyMetrics(accuracy, mae, mse);
-
-        forecast = forecastRepository.save(forecast);
-
-        // Publish event
-        eventPublisher.publishForecastGenerated(
-            forecastId, warehouseId, period.name(), model, accuracy
-        );
-
         return forecast;
     }
 
     /**
-     * Get forecast by ID
+     * Get forecast by ID, reading through to the archive for aged forecasts
      */
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Optional<DemandForecast> getForecast(String forecastId) {
-        return forecastRepository.findById(forecastId);
+        Optional<DemandForecast> forecast = aggregateCache.getForecast(forecastId, forecastRepository::findById);
+        return forecast.isPresent() ? forecast : forecastArchive.findById(forecastId);
+    }
+
+    /**
+     * Get the revision of a forecast, from the cache or a projected query rather than a full load
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public Optional<ForecastRevision> getForecastRevision(String forecastId) {
+        return aggregateCache.getCachedForecast(forecastId)
+            .map(ForecastRevision::of)
+            .or(() -> forecastRepository.findRevisionByForecastId(forecastId))
+            .or(() -> forecastArchive.findById(forecastId).map(ForecastRevision::of));
+    }
+
+    /**
+     * Get the most recent forecast for a warehouse, optionally restricted to a period.
+     * Served from the latest-forecast pointer when warm, otherwise from a top-1 indexed query.
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public Optional<DemandForecast> getLatestForecast(String warehouseId, ForecastPeriod period) {
+        Optional<String> pointer = latestForecastIndex.lookup(warehouseId, period);
+        if (pointer.isPresent()) {
+            Optional<DemandForecast> forecast = aggregateCache.getForecast(pointer.get(), forecastRepository::findById);
+            if (forecast.isPresent()) {
+                return forecast;
+            }
+            latestForecastIndex.evict(pointer.get());
+        }
+
+        Optional<DemandForecast> latest = period == null
+            ? forecastRepository.findFirstByWarehouseIdOrderByForecastDateDesc(warehouseId)
+            : forecastRepository.findFirstByWarehouseIdAndPeriodOrderByForecastDateDesc(warehouseId, period);
+        latest.ifPresent(forecast -> {
+            aggregateCache.cacheLoadedForecast(forecast);
+            latestForecastIndex.record(forecast);
+        });
+        return latest;
     }
 
     /**
      * Get forecasts by warehouse
      */
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public List<DemandForecast> getForecastsByWarehouse(String warehouseId) {
         return forecastRepository.findByWarehouseIdOrderByForecastDateDesc(warehouseId);
     }
 
+    /**
+     * Get a page of forecast summaries for a warehouse, newest first.
+     * The keyset is the forecast date and ID of the last summary of the previous page.
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public List<ForecastSummary> getForecastSummaries(
+            String warehouseId,
+            LocalDateTime afterForecastDate,
+            String afterForecastId,
+            int limit
+    ) {
+        return forecastRepository.findSummariesByWarehouseId(
+            warehouseId, afterForecastDate, afterForecastId, limit
+        );
+    }
+
     /**
      * Create workload plan from demand forecast
      */
@@ -141,7 +263,7 @@ public class WorkloadPlanningService {
             }
         }
 
-        return planRepository.save(plan);
+        return savePlan(plan);
     }
 
     /**
@@ -166,7 +288,7 @@ public class WorkloadPlanningService {
             plan.setPlannedVolume(entry.getKey(), entry.getValue());
         }
 
-        plan = planRepository.save(plan);
+        plan = savePlan(plan);
 
         // Publish event
         eventPublisher.publishPlanCreated(
@@ -179,19 +301,63 @@ public class WorkloadPlanningService {
     /**
      * Get workload plan by ID
      */
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Optional<WorkloadPlan> getWorkloadPlan(String planId) {
-        return planRepository.findById(planId);
+        return aggregateCache.getPlan(planId, planRepository::findById);
+    }
+
+    /**
+     * Get a workload plan with at least the given properties read: the cached plan, or a
+     * projected query that leaves the rest unread and is not cached
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public Optional<WorkloadPlan> getWorkloadPlan(String planId, Collection<String> properties) {
+        return aggregateCache.getCachedPlan(planId)
+            .or(() -> planRepository.findProjectedById(planId, properties));
+    }
+
+    /**
+     * Get the revision of a workload plan, from the cache or a projected query rather than a full load
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public Optional<PlanRevision> getPlanRevision(String planId) {
+        return aggregateCache.getCachedPlan(planId)
+            .map(PlanRevision::of)
+            .or(() -> planRepository.findRevisionByPlanId(planId));
     }
 
     /**
      * Get workload plans by warehouse
      */
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public List<WorkloadPlan> getWorkloadPlansByWarehouse(String warehouseId) {
         return planRepository.findByWarehouseIdOrderByPlanDateDesc(warehouseId);
     }
 
+    /**
+     * Get a page of plan summaries for a warehouse, newest first.
+     * The keyset is the plan date and ID of the last summary of the previous page.
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public List<PlanSummary> getPlanSummaries(
+            String warehouseId,
+            LocalDate afterPlanDate,
+            String afterPlanId,
+            int limit
+    ) {
+        return planRepository.findSummariesByWarehouseId(
+            warehouseId, afterPlanDate, afterPlanId, limit
+        );
+    }
+
+    /**
+     * Get the KPI read model for a warehouse and date
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public Optional<WarehouseKpi> getWarehouseKpi(String warehouseId, LocalDate date) {
+        return kpiRepository.findById(WarehouseKpi.idOf(warehouseId, date));
+    }
+
     /**
      * Assign worker to shift in plan
      */
@@ -206,9 +372,10 @@ public class WorkloadPlanningService {
         logger.info("Assigning worker {} to {} shift for plan {}", workerId, shiftType, planId);
 
         WorkloadPlan plan = getPlanOrThrow(planId);
+        rosterChanges.recordChange(plan);
         plan.assignWorkerToShift(shiftType, workerId, workerName, primaryCategory, plannedHours);
 
-        plan = planRepository.save(plan);
+        plan = savePlan(plan);
 
         // Publish event
         eventPublisher.publishWorkerAssigned(
@@ -226,12 +393,28 @@ public class WorkloadPlanningService {
             List<WorkerCapacity> availableWorkers
     ) {
         logger.info("Optimizing labor allocation for plan {}", planId);
+        Timer.Sample sample = metrics.start();
 
-        WorkloadPlan plan = getPlanOrThrow(planId);
+        WorkloadPlan plan = metrics.stage(Operation.OPTIMIZE, "load", () -> getPlanOrThrow(planId));
+        // Downstream sees the whole optimization as one plan.roster.changed event
+        rosterChanges.recordChange(plan);
 
         // Clear existing assignments
         // (In production, this would be more sophisticated)
+        int assignments = metrics.stage(Operation.OPTIMIZE, "allocate", () -> allocateWorkers(plan, availableWorkers));
 
+        WorkloadPlan saved = metrics.stage(Operation.OPTIMIZE, "persist", () -> savePlan(plan));
+        metrics.planOptimized(sample, plan.getWarehouseId(), availableWorkers.size(), assignments);
+        return saved;
+    }
+
+    /**
+     * Assign workers to the plan's shifts, most skilled first, until each category is covered
+     *
+     * @return the number of assignments made
+     */
+    static int allocateWorkers(WorkloadPlan plan, List<WorkerCapacity> availableWorkers) {
+        int assignments = 0;
         // Calculate required workers per category
         Map<WorkloadCategory, Integer> requiredWorkers = new HashMap<>();
         for (Map.Entry<WorkloadCategory, Integer> entry : plan.getPlannedVolumes().entrySet()) {
@@ -257,10 +440,10 @@ public class WorkloadPlanningService {
 
                 // Decrease required count
                 requiredWorkers.merge(bestCategory, -1, Integer::sum);
+                assignments++;
             }
         }
-
-        return planRepository.save(plan);
+        return assignments;
     }
 
     /**
@@ -270,7 +453,7 @@ public class WorkloadPlanningService {
         logger.info("Approving workload plan {}", planId);
         WorkloadPlan plan = getPlanOrThrow(planId);
         plan.approve();
-        return planRepository.save(plan);
+        return savePlan(plan);
     }
 
     /**
@@ -280,7 +463,7 @@ public class WorkloadPlanningService {
         logger.info("Approving workload plan {} by {}", planId, approvedBy);
         WorkloadPlan plan = getPlanOrThrow(planId);
         plan.approve();
-        plan = planRepository.save(plan);
+        plan = savePlan(plan);
 
         // Publish event
         eventPublisher.publishPlanApproved(
@@ -301,7 +484,7 @@ public class WorkloadPlanningService {
         logger.info("Publishing workload plan {}", planId);
         WorkloadPlan plan = getPlanOrThrow(planId);
         plan.publish();
-        plan = planRepository.save(plan);
+        plan = savePlan(plan);
 
         // Publish event
         eventPublisher.publishPlanPublished(
@@ -321,7 +504,7 @@ public class WorkloadPlanningService {
         logger.info("Cancelling workload plan {}: {}", planId, reason);
         WorkloadPlan plan = getPlanOrThrow(planId);
         plan.cancel(reason);
-        plan = planRepository.save(plan);
+        plan = savePlan(plan);
 
         // Publish event
         eventPublisher.publishPlanCancelled(
@@ -331,15 +514,40 @@ public class WorkloadPlanningService {
         return plan;
     }
 
+    /**
+     * Get the staffing recommendation for a forecast against the live plan of its date
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public Optional<StaffingRecommendation> getStaffingRecommendation(String warehouseId, String forecastId) {
+        return getForecast(forecastId).map(forecast -> {
+            PlanRevision revision = planRepository.findRevisionByWarehouseIdAndPlanDate(
+                warehouseId, forecast.getForecastDate().toLocalDate()
+            ).orElse(null);
+            return recommendationEngine.getCached(warehouseId, forecast, revision)
+                .orElseGet(() -> recommendationEngine.recommend(warehouseId, forecast, livePlan(revision)));
+        });
+    }
+
+    private WorkloadPlan livePlan(PlanRevision revision) {
+        if (revision == null) {
+            return null;
+        }
+        WorkloadPlan plan = aggregateCache.getPlan(revision.planId(), planRepository::findById).orElse(null);
+        if (plan != null && !RecommendationEngine.isAt(plan, revision)) {
+            // Cached copy predates a write made through another instance that the change stream has not brought yet
+            plan = planRepository.findById(revision.planId()).orElse(null);
+            if (plan != null) {
+                aggregateCache.planChanged(plan);
+            }
+        }
+        return plan;
+    }
+
     /**
      * Get workload plan recommendations
      */
     public WorkloadRecommendations getRecommendations(String warehouseId, LocalDate date) {
-        DemandForecast forecast = forecastRepository
-            .findByWarehouseIdOrderByForecastDateDesc(warehouseId)
-            .stream()
-            .findFirst()
-            .orElse(null);
+        DemandForecast forecast = getLatestForecast(warehouseId, null).orElse(null);
 
         WorkloadPlan plan = planRepository
             .findByWarehouseIdAndPlanDate(warehouseId, date)
@@ -384,7 +592,7 @@ public class WorkloadPlanningService {
 
     // Helper methods
 
-    private int calculateMovingAverage(List<Integer> data, int window) {
+    static int calculateMovingAverage(List<Integer> data, int window) {
         if (data.isEmpty()) {
             return 0;
         }
@@ -394,7 +602,7 @@ public class WorkloadPlanningService {
         return (int) subset.stream().mapToInt(Integer::intValue).average().orElse(0);
     }
 
-    private double calculateConfidenceInterval(List<Integer> data) {
+    static double calculateConfidenceInterval(List<Integer> data) {
         if (data.size() < 2) {
             return 0.0;
         }
@@ -408,8 +616,8 @@ public class WorkloadPlanningService {
         return Math.sqrt(variance) * 1.96; // 95% confidence interval
     }
 
-    private WorkloadCategory findBestCategory(WorkerCapacity worker,
-                                              Map<WorkloadCategory, Integer> required) {
+    private static WorkloadCategory findBestCategory(WorkerCapacity worker,
+                                                     Map<WorkloadCategory, Integer> required) {
         return required.entrySet().stream()
             .filter(e -> e.getValue() > 0 && worker.canPerform(e.getKey()))
             .max(Comparator.comparingInt(Map.Entry::getValue))
@@ -417,11 +625,11 @@ public class WorkloadPlanningService {
             .orElse(null);
     }
 
-    private ShiftType determineOptimalShift(WorkloadPlan plan, WorkloadCategory category) {
+    private static ShiftType determineOptimalShift(WorkloadPlan plan, WorkloadCategory category) {
         // Simple logic: distribute across shifts
-        int dayCount = plan.getShiftAssignments(ShiftType.DAY_SHIFT).size();
-        int eveningCount = plan.getShiftAssignments(ShiftType.EVENING_SHIFT).size();
-        int nightCount = plan.getShiftAssignments(ShiftType.NIGHT_SHIFT).size();
+        int dayCount = plan.getAssignmentCountForShift(ShiftType.DAY_SHIFT);
+        int eveningCount = plan.getAssignmentCountForShift(ShiftType.EVENING_SHIFT);
+        int nightCount = plan.getAssignmentCountForShift(ShiftType.NIGHT_SHIFT);
 
         if (dayCount <= eveningCount && dayCount <= nightCount) {
             return ShiftType.DAY_SHIFT;
@@ -450,6 +658,17 @@ public class WorkloadPlanningService {
         return Math.max(0, (int) Math.floor(excess / 8.0)); // 8-hour shifts
     }
 
+    private WorkloadPlan savePlan(WorkloadPlan plan) {
+        WorkloadPlan saved = planRepository.save(plan);
+        aggregateCache.planSaved(saved);
+        planFeed.planSaved(saved);
+        return saved;
+    }
+
+    /**
+     * Load a plan for mutation. Reads bypass the cache: cached plans are shared
+     * with concurrent readers and must not be modified in place.
+     */
     private WorkloadPlan getPlanOrThrow(String planId) {
         return planRepository.findById(planId)
             .orElseThrow(() -> new IllegalArgumentException("Workload plan not found: " + planId));
@@ -463,4 +682,14 @@ public class WorkloadPlanningService {
         DemandForecast latestForecast,
         WorkloadPlan currentPlan
     ) {}
+
+    /**
+     * No historical data was given and none was imported for the warehouse
+     */
+    public static class NoDemandHistoryException extends RuntimeException {
+
+        public NoDemandHistoryException(String warehouseId, LocalDateTime before) {
+            super("No demand history for warehouse " + warehouseId + " before " + before);
+        }
+    }
 }
@@ -0,0 +1,189 @@
+package com.paklog.wms.workload.application.service;
+
+import com.paklog.wms.workload.domain.aggregate.DemandForecast;
+import com.paklog.wms.workload.domain.aggregate.WorkloadPlan;
+import com.paklog.wms.workload.domain.repository.ForecastArchive;
+import com.paklog.wms.workload.domain.repository.ForecastRevision;
+import com.paklog.wms.workload.domain.repository.ForecastSummary;
+import com.paklog.wms.workload.domain.repository.PlanRevision;
+import com.paklog.wms.workload.domain.repository.PlanSummary;
+import com.paklog.wms.workload.domain.repository.ReactiveDemandForecastRepository;
+import com.paklog.wms.workload.domain.repository.ReactiveWorkloadPlanRepository;
+import com.paklog.wms.workload.domain.valueobject.ForecastPeriod;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Workload Query Service
+ * Non-blocking read path for plans and forecasts backed by the reactive MongoDB driver.
+ * Writes stay on {@link WorkloadPlanningService}.
+ */
+@Service
+public class WorkloadQueryService {
+
+    private final ReactiveDemandForecastRepository forecastRepository;
+    private final ReactiveWorkloadPlanRepository planRepository;
+    private final LatestForecastIndex latestForecastIndex;
+    private final ForecastArchive forecastArchive;
+    private final WorkloadAggregateCache aggregateCache;
+    private final RecommendationEngine recommendationEngine;
+
+    public WorkloadQueryService(
+            ReactiveDemandForecastRepository forecastRepository,
+            ReactiveWorkloadPlanRepository planRepository,
+            LatestForecastIndex latestForecastIndex,
+            ForecastArchive forecastArchive,
+            WorkloadAggregateCache aggregateCache,
+            RecommendationEngine recommendationEngine
+    ) {
+        this.forecastRepository = forecastRepository;
+        this.planRepository = planRepository;
+        this.latestForecastIndex = latestForecastIndex;
+        this.forecastArchive = forecastArchive;
+        this.aggregateCache = aggregateCache;
+        this.recommendationEngine = recommendationEngine;
+    }
+
+    /**
+     * Get forecast by ID, reading through to the archive for aged forecasts
+     */
+    public Mono<DemandForecast> getForecast(String forecastId) {
+        // The archive is a rare, blocking read; keep it off the reactive driver threads
+        return findForecast(forecastId)
+            .switchIfEmpty(Mono.fromCallable(() -> forecastArchive.findById(forecastId))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(Mono::justOrEmpty));
+    }
+
+    /**
+     * Get the revision of a forecast, from the cache or a projected query rather than a full load
+     */
+    public Mono<ForecastRevision> getForecastRevision(String forecastId) {
+        return Mono.justOrEmpty(aggregateCache.getCachedForecast(forecastId))
+            .map(ForecastRevision::of)
+            .switchIfEmpty(Mono.defer(() -> forecastRepository.findRevisionByForecastId(forecastId)))
+            .switchIfEmpty(Mono.fromCallable(() -> forecastArchive.findById(forecastId))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(Mono::justOrEmpty)
+                .map(ForecastRevision::of));
+    }
+
+    /**
+     * Get the most recent forecast for a warehouse, optionally restricted to a period
+     */
+    public Mono<DemandForecast> getLatestForecast(String warehouseId, ForecastPeriod period) {
+        Mono<DemandForecast> queryLatest = Mono.defer(() -> period == null
+                ? forecastRepository.findFirstByWarehouseIdOrderByForecastDateDesc(warehouseId)
+                : forecastRepository.findFirstByWarehouseIdAndPeriodOrderByForecastDateDesc(warehouseId, period))
+            .doOnNext(forecast -> {
+                aggregateCache.cacheLoadedForecast(forecast);
+                latestForecastIndex.record(forecast);
+            });
+
+        return Mono.justOrEmpty(latestForecastIndex.lookup(warehouseId, period))
+            .flatMap(forecastId -> findForecast(forecastId)
+                .switchIfEmpty(Mono.fromRunnable(() -> latestForecastIndex.evict(forecastId))))
+            .switchIfEmpty(queryLatest);
+    }
+
+    /**
+     * Get a page of forecast summaries for a warehouse, newest first
+     */
+    public Flux<ForecastSummary> getForecastSummaries(
+            String warehouseId,
+            LocalDateTime afterForecastDate,
+            String afterForecastId,
+            int limit
+    ) {
+        return forecastRepository.findSummariesByWarehouseId(
+            warehouseId, afterForecastDate, afterForecastId, limit
+        );
+    }
+
+    /**
+     * Get workload plan by ID
+     */
+    public Mono<WorkloadPlan> getWorkloadPlan(String planId) {
+        return Mono.justOrEmpty(aggregateCache.getCachedPlan(planId))
+            .switchIfEmpty(Mono.defer(() -> planRepository.findById(planId))
+                .doOnNext(aggregateCache::cacheLoadedPlan));
+    }
+
+    /**
+     * Get a workload plan with at least the given properties read: the cached plan, or a
+     * projected query that leaves the rest unread and is not cached
+     */
+    public Mono<WorkloadPlan> getWorkloadPlan(String planId, Collection<String> properties) {
+        return Mono.justOrEmpty(aggregateCache.getCachedPlan(planId))
+            .switchIfEmpty(Mono.defer(() -> planRepository.findProjectedById(planId, properties)));
+    }
+
+    /**
+     * Get the revision of a workload plan, from the cache or a projected query rather than a full load
+     */
+    public Mono<PlanRevision> getPlanRevision(String planId) {
+        return Mono.justOrEmpty(aggregateCache.getCachedPlan(planId))
+            .map(PlanRevision::of)
+            .switchIfEmpty(Mono.defer(() -> planRepository.findRevisionByPlanId(planId)));
+    }
+
+    /**
+     * Get workload plan for a warehouse and date
+     */
+    public Mono<WorkloadPlan> getWorkloadPlan(String warehouseId, LocalDate planDate) {
+        return planRepository.findByWarehouseIdAndPlanDate(warehouseId, planDate);
+    }
+
+    /**
+     * Get a page of plan summaries for a warehouse, newest first
+     */
+    public Flux<PlanSummary> getPlanSummaries(
+            String warehouseId,
+            LocalDate afterPlanDate,
+            String afterPlanId,
+            int limit
+    ) {
+        return planRepository.findSummariesByWarehouseId(
+            warehouseId, afterPlanDate, afterPlanId, limit
+        );
+    }
+
+    /**
+     * Get the staffing recommendation for a forecast against the live plan of its date
+     */
+    public Mono<StaffingRecommendation> getStaffingRecommendation(String warehouseId, String forecastId) {
+        return getForecast(forecastId).flatMap(forecast -> planRepository
+            .findRevisionByWarehouseIdAndPlanDate(warehouseId, forecast.getForecastDate().toLocalDate())
+            .map(Optional::of)
+            .defaultIfEmpty(Optional.empty())
+            .flatMap(revision -> Mono.justOrEmpty(
+                    recommendationEngine.getCached(warehouseId, forecast, revision.orElse(null)))
+                .switchIfEmpty(Mono.defer(() -> livePlan(revision.orElse(null))
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .map(plan -> recommendationEngine.recommend(warehouseId, forecast, plan.orElse(null)))))));
+    }
+
+    private Mono<WorkloadPlan> livePlan(PlanRevision revision) {
+        if (revision == null) {
+            return Mono.empty();
+        }
+        return getWorkloadPlan(revision.planId())
+            .filter(plan -> RecommendationEngine.isAt(plan, revision))
+            // Cached copy predates a write made through another instance
+            .switchIfEmpty(Mono.defer(() -> planRepository.findById(revision.planId())));
+    }
+
+    private Mono<DemandForecast> findForecast(String forecastId) {
+        return Mono.justOrEmpty(aggregateCache.getCachedForecast(forecastId))
+            .switchIfEmpty(Mono.defer(() -> forecastRepository.findById(forecastId))
+                .doOnNext(aggregateCache::cacheLoadedForecast));
+    }
+}
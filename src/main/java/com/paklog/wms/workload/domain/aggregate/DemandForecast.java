@@ -3,6 +3,7 @@ package com.paklog.wms.workload.domain.aggregate;
 import com.paklog.wms.workload.domain.valueobject.ForecastPeriod;
 import com.paklog.wms.workload.domain.valueobject.WorkloadCategory;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -11,6 +12,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * DemandForecast - Aggregate root for demand forecasting
@@ -18,6 +20,8 @@ import java.util.Map;
  * Uses time series analysis to predict future workload volumes
  */
 @Document(collection = "demand_forecasts")
+@CompoundIndex(name = "warehouse_forecast_date_keyset", def = "{'warehouseId': 1, 'forecastDate': -1, '_id': -1}")
+@CompoundIndex(name = "warehouse_period_forecast_date", def = "{'warehouseId': 1, 'period': 1, 'forecastDate': -1}")
 public class DemandForecast {
 
     @Id
@@ -33,8 +37,8 @@ public class DemandForecast {
 
     private LocalDateTime createdAt;
 
-    // Forecast data points (time -> category -> volume)
-    private List<ForecastDataPoint> dataPoints;
+    // Forecast data points (time -> category -> volume), stored as a packed binary column set
+    private ForecastDataPoints dataPoints;
 
     // Historical accuracy metrics
     private Double accuracy; // Percentage
@@ -46,7 +50,7 @@ public class DemandForecast {
     private Map<String, Object> modelParameters;
 
     protected DemandForecast() {
-        this.dataPoints = new ArrayList<>();
+        this.dataPoints = ForecastDataPoints.empty();
         this.modelParameters = new HashMap<>();
     }
 
@@ -65,12 +69,27 @@ public class DemandForecast {
         forecast.period = period;
         forecast.forecastDate = forecastDate;
         forecast.createdAt = LocalDateTime.now();
-        forecast.dataPoints = new ArrayList<>();
+        forecast.dataPoints = ForecastDataPoints.empty();
         forecast.modelParameters = new HashMap<>();
 
         return forecast;
     }
 
+    /**
+     * Restore a previously persisted forecast (e.g. from the archive)
+     */
+    public static DemandForecast restore(
+            String forecastId,
+            String warehouseId,
+            ForecastPeriod period,
+            LocalDateTime forecastDate,
+            LocalDateTime createdAt
+    ) {
+        DemandForecast forecast = create(forecastId, warehouseId, period, forecastDate);
+        forecast.createdAt = createdAt;
+        return forecast;
+    }
+
     /**
      * Add forecast data point
      */
@@ -103,7 +122,7 @@ public class DemandForecast {
      * Get forecasted volume for specific time and category
      */
     public int getForecastedVolume(LocalDateTime timestamp, WorkloadCategory category) {
-        return dataPoints.stream()
+        return dataPoints.asList().stream()
             .filter(dp -> dp.timestamp().equals(timestamp) && dp.category() == category)
             .findFirst()
             .map(ForecastDataPoint::forecastedVolume)
@@ -114,17 +133,14 @@ public class DemandForecast {
      * Get total forecasted volume for category
      */
     public int getTotalForecastedVolume(WorkloadCategory category) {
-        return dataPoints.stream()
-            .filter(dp -> dp.category() == category)
-            .mapToInt(ForecastDataPoint::forecastedVolume)
-            .sum();
+        return (int) dataPoints.totalVolume(category);
     }
 
     /**
      * Get peak demand period
      */
     public LocalDateTime getPeakDemandTime(WorkloadCategory category) {
-        return dataPoints.stream()
+        return dataPoints.asList().stream()
             .filter(dp -> dp.category() == category)
             .max((dp1, dp2) -> Integer.compare(dp1.forecastedVolume(), dp2.forecastedVolume()))
             .map(ForecastDataPoint::timestamp)
@@ -147,13 +163,14 @@ public class DemandForecast {
         }
 
         // Refresh based on period
-        long hoursOld = java.time.Duration.between(createdAt, LocalDateTime.now()).toHours();
-        return switch (period) {
-            case HOURLY -> hoursOld >= 1;
-            case DAILY -> hoursOld >= 24;
-            case WEEKLY -> hoursOld >= 168;
-            case MONTHLY -> hoursOld >= 720;
-        };
+        return !LocalDateTime.now().isBefore(getRefreshDueAt());
+    }
+
+    /**
+     * Get the time from which this forecast needs refreshing
+     */
+    public LocalDateTime getRefreshDueAt() {
+        return createdAt == null ? null : createdAt.plus(period.getRefreshInterval());
     }
 
     // Getters
@@ -178,7 +195,21 @@ public class DemandForecast {
     }
 
     public List<ForecastDataPoint> getDataPoints() {
-        return new ArrayList<>(dataPoints);
+        return new ArrayList<>(dataPoints.asList());
+    }
+
+    /**
+     * Visit the data points in order without copying them, decoding one at a time if still encoded
+     */
+    public void forEachDataPoint(Consumer<ForecastDataPoint> action) {
+        dataPoints.forEach(action);
+    }
+
+    /**
+     * Number of data points, without decoding them
+     */
+    public int getDataPointCount() {
+        return dataPoints.size();
     }
 
     public Double getAccuracy() {
@@ -0,0 +1,144 @@
+package com.paklog.wms.workload.domain.aggregate;
+
+import com.paklog.wms.workload.domain.aggregate.DemandForecast.ForecastDataPoint;
+import com.paklog.wms.workload.domain.valueobject.WorkloadCategory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Forecast data points of a DemandForecast
+ *
+ * Can be backed by a not-yet-decoded persistent form: size and per-category
+ * volume totals are known up front, the points themselves are decoded on first access.
+ */
+public final class ForecastDataPoints {
+
+    private static final int CATEGORY_COUNT = WorkloadCategory.values().length;
+
+    private final long[] totalVolumeByCategory;
+    private volatile Encoded encoded;
+    private volatile List<ForecastDataPoint> points;
+    private int size;
+
+    private ForecastDataPoints(List<ForecastDataPoint> points, Encoded encoded,
+                               int size, long[] totalVolumeByCategory) {
+        this.points = points;
+        this.encoded = encoded;
+        this.size = size;
+        this.totalVolumeByCategory = totalVolumeByCategory;
+    }
+
+    /**
+     * Create an empty, mutable collection
+     */
+    public static ForecastDataPoints empty() {
+        return new ForecastDataPoints(new ArrayList<>(), null, 0, new long[CATEGORY_COUNT]);
+    }
+
+    /**
+     * Create from already decoded points
+     */
+    public static ForecastDataPoints of(List<ForecastDataPoint> points) {
+        ForecastDataPoints dataPoints = empty();
+        points.forEach(dataPoints::add);
+        return dataPoints;
+    }
+
+    /**
+     * Create a lazily decoded collection
+     *
+     * @param size                   number of points the encoded form holds
+     * @param totalVolumeByCategory  total forecasted volume indexed by category ordinal
+     * @param encoded                decodes the points, on first access or for each visit
+     */
+    public static ForecastDataPoints lazy(int size, long[] totalVolumeByCategory, Encoded encoded) {
+        if (totalVolumeByCategory.length != CATEGORY_COUNT) {
+            throw new IllegalArgumentException("Expected " + CATEGORY_COUNT + " category totals");
+        }
+        return new ForecastDataPoints(null, encoded, size, totalVolumeByCategory.clone());
+    }
+
+    /**
+     * Append a data point
+     */
+    void add(ForecastDataPoint point) {
+        // The field, not asList(), whose read-only view would force a copy per point
+        List<ForecastDataPoint> current = points;
+        if (!(current instanceof ArrayList)) {
+            current = new ArrayList<>(asList());
+            points = current;
+        }
+        current.add(point);
+        size++;
+        totalVolumeByCategory[point.category().ordinal()] += point.forecastedVolume();
+    }
+
+    /**
+     * Read-only view of the points, decoding them if necessary
+     */
+    public List<ForecastDataPoint> asList() {
+        List<ForecastDataPoint> current = points;
+        if (current == null) {
+            Encoded source = encoded;
+            if (source == null) {
+                // Another thread finished decoding in between; it sets points before clearing encoded
+                return points;
+            }
+            // Threads that both get here decode the same source to equal lists; either may win
+            List<ForecastDataPoint> decoded = new ArrayList<>(size);
+            source.forEach(decoded::add);
+            current = Collections.unmodifiableList(decoded);
+            points = current;
+            encoded = null;
+        }
+        return current instanceof ArrayList ? Collections.unmodifiableList(current) : current;
+    }
+
+    /**
+     * Visit the points in order; still-encoded points are decoded one at a time and not kept
+     */
+    public void forEach(Consumer<ForecastDataPoint> action) {
+        Encoded current = encoded;
+        if (current != null) {
+            current.forEach(action);
+        } else {
+            asList().forEach(action);
+        }
+    }
+
+    /**
+     * Number of points, without decoding
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Whether the points have been decoded (or were never encoded)
+     */
+    public boolean isDecoded() {
+        return points != null;
+    }
+
+    /**
+     * Total forecasted volume for a category, without decoding
+     */
+    public long totalVolume(WorkloadCategory category) {
+        return totalVolumeByCategory[category.ordinal()];
+    }
+
+    /**
+     * Persistent form of the points that can be decoded on demand
+     */
+    @FunctionalInterface
+    public interface Encoded {
+
+        /**
+         * Decode the points in order, handing each to the action
+         */
+        void forEach(Consumer<ForecastDataPoint> action);
+    }
+}
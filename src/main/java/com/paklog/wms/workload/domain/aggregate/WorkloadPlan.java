@@ -4,6 +4,7 @@ import com.paklog.wms.workload.domain.entity.WorkerCapacity;
 import com.paklog.wms.workload.domain.valueobject.ShiftType;
 import com.paklog.wms.workload.domain.valueobject.WorkloadCategory;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -20,6 +21,7 @@ import java.util.Map;
  * Combines demand forecasts with labor capacity to create optimal staffing plans
  */
 @Document(collection = "workload_plans")
+@CompoundIndex(name = "warehouse_plan_date_keyset", def = "{'warehouseId': 1, 'planDate': -1, '_id': -1}")
 public class WorkloadPlan {
 
     @Id
@@ -33,6 +35,8 @@ public class WorkloadPlan {
 
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    // Bumped on every change; plans stored before it existed read as revision 0
+    private long revision;
 
     // Planned workload by category
     private Map<WorkloadCategory, Integer> plannedVolumes;
@@ -40,6 +44,9 @@ public class WorkloadPlan {
     // Shift assignments (shift -> list of assigned workers)
     private Map<ShiftType, List<ShiftAssignment>> shiftAssignments;
 
+    // Distinct workers per shift, kept with the assignments so dashboards can read it without them
+    private Map<ShiftType, Integer> headcountByShift;
+
     // Capacity metrics
     private Integer totalRequiredLaborHours;
     private Integer totalAvailableLaborHours;
@@ -67,6 +74,7 @@ public class WorkloadPlan {
         plan.updatedAt = LocalDateTime.now();
         plan.plannedVolumes = new HashMap<>();
         plan.shiftAssignments = new HashMap<>();
+        plan.headcountByShift = new HashMap<>();
         plan.status = PlanStatus.DRAFT;
         plan.totalRequiredLaborHours = 0;
         plan.totalAvailableLaborHours = 0;
@@ -82,7 +90,7 @@ public class WorkloadPlan {
     public void setPlannedVolume(WorkloadCategory category, int volume) {
         plannedVolumes.put(category, volume);
         recalculateMetrics();
-        this.updatedAt = LocalDateTime.now();
+        touch();
     }
 
     /**
@@ -96,7 +104,7 @@ public class WorkloadPlan {
 
         shiftAssignments.computeIfAbsent(shift, k -> new ArrayList<>()).add(assignment);
         recalculateMetrics();
-        this.updatedAt = LocalDateTime.now();
+        touch();
     }
 
     /**
@@ -107,7 +115,7 @@ public class WorkloadPlan {
         if (assignments != null) {
             assignments.removeIf(a -> a.workerId().equals(workerId));
             recalculateMetrics();
-            this.updatedAt = LocalDateTime.now();
+            touch();
         }
     }
 
@@ -117,7 +125,7 @@ public class WorkloadPlan {
     public void approve() {
         if (status == PlanStatus.DRAFT) {
             this.status = PlanStatus.APPROVED;
-            this.updatedAt = LocalDateTime.now();
+            touch();
         } else {
             throw new IllegalStateException("Only draft plans can be approved");
         }
@@ -129,7 +137,7 @@ public class WorkloadPlan {
     public void publish() {
         if (status == PlanStatus.APPROVED) {
             this.status = PlanStatus.PUBLISHED;
-            this.updatedAt = LocalDateTime.now();
+            touch();
         } else {
             throw new IllegalStateException("Only approved plans can be published");
         }
@@ -141,7 +149,7 @@ public class WorkloadPlan {
     public void cancel(String reason) {
         this.status = PlanStatus.CANCELLED;
         this.notes = reason;
-        this.updatedAt = LocalDateTime.now();
+        touch();
     }
 
     /**
@@ -151,6 +159,14 @@ public class WorkloadPlan {
         return new ArrayList<>(shiftAssignments.getOrDefault(shift, new ArrayList<>()));
     }
 
+    /**
+     * Get the number of assignments to a shift, without copying them
+     */
+    public int getAssignmentCountForShift(ShiftType shift) {
+        List<ShiftAssignment> assignments = shiftAssignments.get(shift);
+        return assignments != null ? assignments.size() : 0;
+    }
+
     /**
      * Get total workers assigned
      */
@@ -164,7 +180,7 @@ public class WorkloadPlan {
      * Get total hours assigned for a shift
      */
     public int getTotalHoursForShift(ShiftType shift) {
-        return shiftAssignments.getOrDefault(shift, new ArrayList<>()).stream()
+        return shiftAssignments.getOrDefault(shift, List.of()).stream()
             .mapToInt(ShiftAssignment::plannedHours)
             .sum();
     }
@@ -205,6 +221,25 @@ public class WorkloadPlan {
                utilizationPercentage <= 110.0;
     }
 
+    /**
+     * Record a change to the plan
+     */
+    private void touch() {
+        this.updatedAt = LocalDateTime.now();
+        this.revision++;
+    }
+
+    private Map<ShiftType, Integer> countHeadcountByShift() {
+        Map<ShiftType, Integer> headcount = new HashMap<>();
+        shiftAssignments.forEach((shift, assignments) -> {
+            int workers = (int) assignments.stream().map(ShiftAssignment::workerId).distinct().count();
+            if (workers > 0) {
+                headcount.put(shift, workers);
+            }
+        });
+        return headcount;
+    }
+
     /**
      * Recalculate all metrics
      */
@@ -218,6 +253,8 @@ public class WorkloadPlan {
             .mapToInt(ShiftAssignment::plannedHours)
             .sum();
 
+        this.headcountByShift = countHeadcountByShift();
+
         // Calculate utilization
         if (totalAvailableLaborHours > 0) {
             this.utilizationPercentage = (totalRequiredLaborHours * 100.0) / totalAvailableLaborHours;
@@ -250,6 +287,10 @@ public class WorkloadPlan {
         return updatedAt;
     }
 
+    public long getRevision() {
+        return revision;
+    }
+
     public Map<WorkloadCategory, Integer> getPlannedVolumes() {
         return new HashMap<>(plannedVolumes);
     }
@@ -258,6 +299,14 @@ public class WorkloadPlan {
         return new HashMap<>(shiftAssignments);
     }
 
+    /**
+     * Get distinct workers assigned per shift
+     */
+    public Map<ShiftType, Integer> getHeadcountByShift() {
+        // Plans stored before the count was kept get it on their next change
+        return headcountByShift != null ? new HashMap<>(headcountByShift) : countHeadcountByShift();
+    }
+
     public Integer getTotalRequiredLaborHours() {
         return totalRequiredLaborHours;
     }
@@ -2,6 +2,7 @@ package com.paklog.wms.workload.domain.repository;
 
 import com.paklog.wms.workload.domain.aggregate.DemandForecast;
 import com.paklog.wms.workload.domain.valueobject.ForecastPeriod;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
@@ -13,10 +14,13 @@ import java.util.Optional;
  * Repository for DemandForecast aggregate
  */
 @Repository
-public interface DemandForecastRepository extends MongoRepository<DemandForecast, String> {
+public interface DemandForecastRepository extends MongoRepository<DemandForecast, String>,
+        DemandForecastRepositoryCustom {
 
     List<DemandForecast> findByWarehouseId(String warehouseId);
 
+    Optional<ForecastRevision> findRevisionByForecastId(String forecastId);
+
     List<DemandForecast> findByWarehouseIdAndPeriod(String warehouseId, ForecastPeriod period);
 
     Optional<DemandForecast> findByWarehouseIdAndPeriodAndForecastDate(
@@ -28,4 +32,12 @@ public interface DemandForecastRepository extends MongoRepository<DemandForecast
     );
 
     List<DemandForecast> findByWarehouseIdOrderByForecastDateDesc(String warehouseId);
+
+    Optional<DemandForecast> findFirstByWarehouseIdOrderByForecastDateDesc(String warehouseId);
+
+    Optional<DemandForecast> findFirstByWarehouseIdAndPeriodOrderByForecastDateDesc(
+        String warehouseId, ForecastPeriod period
+    );
+
+    List<DemandForecast> findByForecastDateBeforeOrderByForecastDateAsc(LocalDateTime cutoff, Limit limit);
 }
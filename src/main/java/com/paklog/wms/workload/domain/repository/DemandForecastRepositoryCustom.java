@@ -0,0 +1,18 @@
+package com.paklog.wms.workload.domain.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Custom queries for DemandForecast that Spring Data cannot derive
+ */
+public interface DemandForecastRepositoryCustom {
+
+    /**
+     * Find forecast summaries ordered by forecast date (newest first) using keyset pagination.
+     * Pass null for both keyset arguments to read the first page.
+     */
+    List<ForecastSummary> findSummariesByWarehouseId(
+        String warehouseId, LocalDateTime afterForecastDate, String afterForecastId, int limit
+    );
+}
@@ -0,0 +1,18 @@
+package com.paklog.wms.workload.domain.repository;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for observed demand history
+ */
+@Repository
+public interface DemandHistoryRepository extends MongoRepository<DemandObservation, String> {
+
+    List<DemandObservation> findByWarehouseIdAndTimestampGreaterThanEqualAndTimestampLessThan(
+        String warehouseId, LocalDateTime from, LocalDateTime to
+    );
+}
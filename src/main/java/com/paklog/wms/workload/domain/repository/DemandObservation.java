@@ -0,0 +1,31 @@
+package com.paklog.wms.workload.domain.repository;
+
+import com.paklog.wms.workload.domain.valueobject.WorkloadCategory;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Observed demand volume for a warehouse, category and hour
+ *
+ * The ID is derived from the warehouse, category and timestamp, so importing
+ * the same history again overwrites rather than duplicates it.
+ */
+@Document(collection = "demand_history")
+@CompoundIndex(name = "warehouse_timestamp", def = "{'warehouseId': 1, 'timestamp': 1}")
+public record DemandObservation(
+    @Id String id,
+    String warehouseId,
+    WorkloadCategory category,
+    LocalDateTime timestamp,
+    int volume
+) {
+
+    public static DemandObservation of(String warehouseId, WorkloadCategory category,
+                                       LocalDateTime timestamp, int volume) {
+        return new DemandObservation(warehouseId + ":" + category + ":" + timestamp, warehouseId,
+            category, timestamp, volume);
+    }
+}
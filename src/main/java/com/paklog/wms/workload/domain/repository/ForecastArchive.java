@@ -0,0 +1,21 @@
+package com.paklog.wms.workload.domain.repository;
+
+import com.paklog.wms.workload.domain.aggregate.DemandForecast;
+
+import java.util.Optional;
+
+/**
+ * Cold storage for forecasts that have aged out of the hot collection
+ */
+public interface ForecastArchive {
+
+    /**
+     * Store a forecast in the archive; storing the same forecast twice is harmless
+     */
+    void archive(DemandForecast forecast);
+
+    /**
+     * Load an archived forecast, fully rehydrated
+     */
+    Optional<DemandForecast> findById(String forecastId);
+}
@@ -0,0 +1,21 @@
+package com.paklog.wms.workload.domain.repository;
+
+import com.paklog.wms.workload.domain.aggregate.DemandForecast;
+
+import java.time.LocalDateTime;
+
+/**
+ * Identity and creation time of a DemandForecast; forecasts are not modified once generated
+ */
+public record ForecastRevision(
+    String forecastId,
+    LocalDateTime createdAt
+) {
+
+    /**
+     * Revision of a loaded forecast
+     */
+    public static ForecastRevision of(DemandForecast forecast) {
+        return new ForecastRevision(forecast.getForecastId(), forecast.getCreatedAt());
+    }
+}
@@ -0,0 +1,19 @@
+package com.paklog.wms.workload.domain.repository;
+
+import com.paklog.wms.workload.domain.valueobject.ForecastPeriod;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lightweight projection of a DemandForecast without its data points
+ */
+public record ForecastSummary(
+    String forecastId,
+    String warehouseId,
+    ForecastPeriod period,
+    LocalDateTime forecastDate,
+    String forecastingModel,
+    Double accuracy,
+    Double meanAbsoluteError,
+    LocalDateTime createdAt
+) {}
@@ -0,0 +1,27 @@
+package com.paklog.wms.workload.domain.repository;
+
+import com.paklog.wms.workload.domain.aggregate.WorkloadPlan;
+
+import java.time.LocalDateTime;
+
+/**
+ * Identity and last modification of a WorkloadPlan, enough to tell whether derived data is current
+ */
+public record PlanRevision(
+    String planId,
+    LocalDateTime updatedAt,
+    Long revision
+) {
+
+    public PlanRevision {
+        // Plans stored before the revision counter existed have none
+        revision = revision != null ? revision : 0L;
+    }
+
+    /**
+     * Revision of a loaded plan
+     */
+    public static PlanRevision of(WorkloadPlan plan) {
+        return new PlanRevision(plan.getPlanId(), plan.getUpdatedAt(), plan.getRevision());
+    }
+}
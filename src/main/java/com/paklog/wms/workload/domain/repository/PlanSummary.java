@@ -0,0 +1,22 @@
+package com.paklog.wms.workload.domain.repository;
+
+import com.paklog.wms.workload.domain.aggregate.WorkloadPlan;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Lightweight projection of a WorkloadPlan without its shift assignments
+ */
+public record PlanSummary(
+    String planId,
+    String warehouseId,
+    LocalDate planDate,
+    Integer totalRequiredLaborHours,
+    Integer totalAvailableLaborHours,
+    Double utilizationPercentage,
+    Double estimatedLaborCost,
+    WorkloadPlan.PlanStatus status,
+    LocalDateTime createdAt,
+    LocalDateTime updatedAt
+) {}
@@ -0,0 +1,23 @@
+package com.paklog.wms.workload.domain.repository;
+
+import com.paklog.wms.workload.domain.aggregate.DemandForecast;
+import com.paklog.wms.workload.domain.valueobject.ForecastPeriod;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking read repository for DemandForecast aggregate
+ */
+@Repository
+public interface ReactiveDemandForecastRepository extends ReactiveMongoRepository<DemandForecast, String>,
+        ReactiveDemandForecastRepositoryCustom {
+
+    Mono<ForecastRevision> findRevisionByForecastId(String forecastId);
+
+    Mono<DemandForecast> findFirstByWarehouseIdOrderByForecastDateDesc(String warehouseId);
+
+    Mono<DemandForecast> findFirstByWarehouseIdAndPeriodOrderByForecastDateDesc(
+        String warehouseId, ForecastPeriod period
+    );
+}
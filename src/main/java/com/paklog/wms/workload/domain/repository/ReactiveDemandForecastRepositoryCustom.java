@@ -0,0 +1,19 @@
+package com.paklog.wms.workload.domain.repository;
+
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+
+/**
+ * Custom reactive queries for DemandForecast that Spring Data cannot derive
+ */
+public interface ReactiveDemandForecastRepositoryCustom {
+
+    /**
+     * Stream forecast summaries ordered by forecast date (newest first) using keyset pagination.
+     * Pass null for both keyset arguments to read the first page.
+     */
+    Flux<ForecastSummary> findSummariesByWarehouseId(
+        String warehouseId, LocalDateTime afterForecastDate, String afterForecastId, int limit
+    );
+}
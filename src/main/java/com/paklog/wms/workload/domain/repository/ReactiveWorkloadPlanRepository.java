@@ -0,0 +1,22 @@
+package com.paklog.wms.workload.domain.repository;
+
+import com.paklog.wms.workload.domain.aggregate.WorkloadPlan;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * Non-blocking read repository for WorkloadPlan aggregate
+ */
+@Repository
+public interface ReactiveWorkloadPlanRepository extends ReactiveMongoRepository<WorkloadPlan, String>,
+        ReactiveWorkloadPlanRepositoryCustom {
+
+    Mono<WorkloadPlan> findByWarehouseIdAndPlanDate(String warehouseId, LocalDate planDate);
+
+    Mono<PlanRevision> findRevisionByPlanId(String planId);
+
+    Mono<PlanRevision> findRevisionByWarehouseIdAndPlanDate(String warehouseId, LocalDate planDate);
+}
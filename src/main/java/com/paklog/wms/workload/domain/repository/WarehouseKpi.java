@@ -0,0 +1,49 @@
+package com.paklog.wms.workload.domain.repository;
+
+import com.paklog.wms.workload.domain.aggregate.WorkloadPlan.PlanStatus;
+import com.paklog.wms.workload.domain.valueobject.ForecastPeriod;
+import com.paklog.wms.workload.domain.valueobject.ShiftType;
+import com.paklog.wms.workload.domain.valueobject.WorkloadCategory;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Per-warehouse, per-date KPI read model
+ *
+ * Maintained incrementally from plan and forecast changes; plan fields come
+ * from the most recently updated non-cancelled plan for the date, forecast
+ * fields from the most recently created forecast covering the date.
+ */
+@Document(collection = "warehouse_kpis")
+public record WarehouseKpi(
+    @Id String id,
+    String warehouseId,
+    LocalDate date,
+    @Indexed String planId,
+    PlanStatus planStatus,
+    LocalDateTime planUpdatedAt,
+    Integer requiredLaborHours,
+    Integer availableLaborHours,
+    Double utilizationPercentage,
+    Double estimatedLaborCost,
+    Map<ShiftType, Integer> headcountByShift,
+    String forecastId,
+    ForecastPeriod forecastPeriod,
+    LocalDateTime forecastCreatedAt,
+    Map<WorkloadCategory, Integer> forecastedVolumeByCategory,
+    Double forecastAccuracy,
+    LocalDateTime updatedAt
+) {
+
+    /**
+     * Document ID for a warehouse and date
+     */
+    public static String idOf(String warehouseId, LocalDate date) {
+        return warehouseId + ":" + date;
+    }
+}
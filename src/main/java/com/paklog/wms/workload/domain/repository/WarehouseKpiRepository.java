@@ -0,0 +1,11 @@
+package com.paklog.wms.workload.domain.repository;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for the warehouse KPI read model
+ */
+@Repository
+public interface WarehouseKpiRepository extends MongoRepository<WarehouseKpi, String> {
+}
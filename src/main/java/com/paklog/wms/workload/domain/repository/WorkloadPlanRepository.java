@@ -12,12 +12,17 @@ import java.util.Optional;
  * Repository for WorkloadPlan aggregate
  */
 @Repository
-public interface WorkloadPlanRepository extends MongoRepository<WorkloadPlan, String> {
+public interface WorkloadPlanRepository extends MongoRepository<WorkloadPlan, String>,
+        WorkloadPlanRepositoryCustom {
 
     List<WorkloadPlan> findByWarehouseId(String warehouseId);
 
     Optional<WorkloadPlan> findByWarehouseIdAndPlanDate(String warehouseId, LocalDate planDate);
 
+    Optional<PlanRevision> findRevisionByPlanId(String planId);
+
+    Optional<PlanRevision> findRevisionByWarehouseIdAndPlanDate(String warehouseId, LocalDate planDate);
+
     List<WorkloadPlan> findByWarehouseIdAndPlanDateBetween(
         String warehouseId, LocalDate start, LocalDate end
     );
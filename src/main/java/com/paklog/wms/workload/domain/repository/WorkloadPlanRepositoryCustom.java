@@ -0,0 +1,28 @@
+package com.paklog.wms.workload.domain.repository;
+
+import com.paklog.wms.workload.domain.aggregate.WorkloadPlan;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Custom queries for WorkloadPlan that Spring Data cannot derive
+ */
+public interface WorkloadPlanRepositoryCustom {
+
+    /**
+     * Find plan summaries ordered by plan date (newest first) using keyset pagination.
+     * Pass null for both keyset arguments to read the first page.
+     */
+    List<PlanSummary> findSummariesByWarehouseId(
+        String warehouseId, LocalDate afterPlanDate, String afterPlanId, int limit
+    );
+
+    /**
+     * Find a plan reading only the given properties, plus the ones its revision needs.
+     * Properties left out keep their defaults, so the result must not be saved.
+     */
+    Optional<WorkloadPlan> findProjectedById(String planId, Collection<String> properties);
+}
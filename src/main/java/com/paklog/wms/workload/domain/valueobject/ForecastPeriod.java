@@ -1,5 +1,7 @@
 package com.paklog.wms.workload.domain.valueobject;
 
+import java.time.Duration;
+
 /**
  * Forecast Period - Time horizon for demand forecasting
  */
@@ -38,6 +40,13 @@ public enum ForecastPeriod {
         return hoursPerPeriod * periodsAhead;
     }
 
+    /**
+     * Get how long a forecast for this period stays current; one period
+     */
+    public Duration getRefreshInterval() {
+        return Duration.ofHours(hoursPerPeriod);
+    }
+
     /**
      * Check if this is short-term forecasting
      */
@@ -0,0 +1,155 @@
+package com.paklog.wms.workload;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Bytes an operation allocates on the calling thread, measured with JFR
+ *
+ * The operation is warmed up first so the JIT has compiled it, as it would be
+ * in a running service, then repeated under a recording.
+ * jdk.ThreadAllocationStatistics gives the thread's exact allocated bytes when
+ * the recording starts and stops; what starting and stopping a recording
+ * allocates is measured with an empty operation and subtracted.
+ * jdk.ObjectAllocationSample attributes the bytes to types and call sites, so
+ * a budget that fails says what started allocating.
+ */
+public final class AllocationProbe {
+
+    private static final String THREAD_ALLOCATIONS = "jdk.ThreadAllocationStatistics";
+    private static final String ALLOCATION_SAMPLE = "jdk.ObjectAllocationSample";
+    private static final String PACKAGE = "com.paklog.";
+    private static final int TOP_SITES = 5;
+
+    private AllocationProbe() {
+    }
+
+    /**
+     * Run the operation warmup times, then measure operations runs of it
+     */
+    public static Profile measure(int warmup, int operations, Runnable operation) {
+        for (int i = 0; i < warmup; i++) {
+            operation.run();
+        }
+        Run overhead = record(operations, () -> { });
+        Run measured = record(operations, operation);
+        return new Profile(Math.max(0, measured.bytes() - overhead.bytes()), operations, measured.sites());
+    }
+
+    private static Run record(int operations, Runnable operation) {
+        long threadId = Thread.currentThread().threadId();
+        try (Recording recording = new Recording()) {
+            recording.enable(THREAD_ALLOCATIONS).with("period", "everyChunk");
+            recording.enable(ALLOCATION_SAMPLE).with("throttle", "10000/s").withStackTrace();
+            recording.setToDisk(true);
+            recording.start();
+            for (int i = 0; i < operations; i++) {
+                operation.run();
+            }
+            recording.stop();
+
+            Path file = Files.createTempFile("allocation-probe", ".jfr");
+            try {
+                recording.dump(file);
+                return read(RecordingFile.readAllEvents(file), threadId);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Run read(List<RecordedEvent> events, long threadId) {
+        long first = Long.MAX_VALUE;
+        long last = Long.MIN_VALUE;
+        Map<String, Long> sites = new HashMap<>();
+        for (RecordedEvent event : events) {
+            String type = event.getEventType().getName();
+            if (type.equals(THREAD_ALLOCATIONS) && isThread(event.getThread("thread"), threadId)) {
+                long allocated = event.getLong("allocated");
+                first = Math.min(first, allocated);
+                last = Math.max(last, allocated);
+            } else if (type.equals(ALLOCATION_SAMPLE) && isThread(event.getThread(), threadId)) {
+                sites.merge(site(event), event.getLong("weight"), Long::sum);
+            }
+        }
+        if (first == Long.MAX_VALUE) {
+            throw new IllegalStateException("No " + THREAD_ALLOCATIONS + " events for the measuring thread");
+        }
+        return new Run(last - first, sites);
+    }
+
+    private static boolean isThread(RecordedThread thread, long threadId) {
+        return thread != null && thread.getJavaThreadId() == threadId;
+    }
+
+    /**
+     * The allocated type and the innermost frame of this codebase that led to it
+     */
+    private static String site(RecordedEvent event) {
+        String type = event.getClass("objectClass").getName();
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null) {
+            return type;
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            String declaringType = frame.getMethod().getType().getName();
+            if (declaringType.startsWith(PACKAGE) && !declaringType.equals(AllocationProbe.class.getName())) {
+                return type + " at " + declaringType + "." + frame.getMethod().getName()
+                    + ":" + frame.getLineNumber();
+            }
+        }
+        return type;
+    }
+
+    private record Run(long bytes, Map<String, Long> sites) {
+    }
+
+    /**
+     * Allocation of a measured operation
+     *
+     * @param bytes bytes allocated over all runs
+     * @param operations runs measured
+     * @param sites sampled bytes per allocated type and call site
+     */
+    public record Profile(long bytes, int operations, Map<String, Long> sites) {
+
+        public double bytesPerOperation() {
+            return (double) bytes / operations;
+        }
+
+        /**
+         * Bytes per unit of work, when each run does units of it
+         */
+        public double bytesPer(int units) {
+            return bytesPerOperation() / units;
+        }
+
+        /**
+         * The largest allocation sites, for assertion messages
+         */
+        public String describe() {
+            long sampled = Math.max(1, sites.values().stream().mapToLong(Long::longValue).sum());
+            return String.format("%.1f bytes per operation, largest sites:%n", bytesPerOperation())
+                + sites.entrySet().stream()
+                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                    .limit(TOP_SITES)
+                    .map(site -> String.format("  %4.1f%% %s", 100.0 * site.getValue() / sampled, site.getKey()))
+                    .collect(Collectors.joining(System.lineSeparator()));
+        }
+    }
+}
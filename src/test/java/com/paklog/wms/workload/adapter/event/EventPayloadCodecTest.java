@@ -0,0 +1,85 @@
+package com.paklog.wms.workload.adapter.event;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.DecoderFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventPayloadCodecTest {
+
+    private final AvroEventPayloadCodec avro = new AvroEventPayloadCodec();
+    private final JsonEventPayloadCodec json = new JsonEventPayloadCodec(new ObjectMapper());
+
+    @Test
+    void shouldEncodeEveryPayloadReadableWithItsAvroSchema() throws Exception {
+        List<WorkloadEventPayload> payloads = List.of(
+            new WorkloadEventPayload.ForecastGenerated("fc-1", "WH-1", "DAILY", "MOVING_AVERAGE", 0.92),
+            new WorkloadEventPayload.ForecastGenerated("fc-2", "WH-1", "DAILY", "MOVING_AVERAGE", null),
+            new WorkloadEventPayload.PlanCreated("plan-1", "WH-1", "2025-03-01", 120),
+            new WorkloadEventPayload.PlanApproved("plan-1", "WH-1", "supervisor", 12, 87.5),
+            new WorkloadEventPayload.PlanPublished("plan-1", "WH-1", "2025-03-01", 12),
+            new WorkloadEventPayload.PlanCancelled("plan-1", "WH-1", "Wetter \"sturm\" ü"),
+            new WorkloadEventPayload.WorkerAssigned("plan-1", "w-1", "Ana", "DAY_SHIFT", "PICKING", 8),
+            new WorkloadEventPayload.RosterChanged("plan-1", "WH-1", 40, 2,
+                List.of(new WorkloadEventPayload.RosterChanged.Assignment("w-1", "DAY_SHIFT", "PICKING", 8),
+                    new WorkloadEventPayload.RosterChanged.Assignment("w-2", "NIGHT_SHIFT", "PACKING", 6)),
+                List.of(),
+                List.of(new WorkloadEventPayload.RosterChanged.Assignment("w-3", "DAY_SHIFT", "PICKING", 8)))
+        );
+
+        for (WorkloadEventPayload payload : payloads) {
+            byte[] encoded = avro.encode(payload);
+            GenericRecord decoded = new GenericDatumReader<GenericRecord>(avro.schema(payload.getClass()))
+                .read(null, DecoderFactory.get().binaryDecoder(encoded, null));
+
+            var components = payload.getClass().getRecordComponents();
+            assertThat(decoded.getSchema().getFields()).hasSize(components.length);
+            for (var component : components) {
+                Object expected = component.getAccessor().invoke(payload);
+                Object actual = decoded.get(component.getName());
+                if (expected instanceof List<?> assignments) {
+                    List<?> decodedItems = (List<?>) actual;
+                    assertThat(decodedItems).hasSize(assignments.size());
+                    for (int i = 0; i < assignments.size(); i++) {
+                        var assignment = (WorkloadEventPayload.RosterChanged.Assignment) assignments.get(i);
+                        GenericRecord item = (GenericRecord) decodedItems.get(i);
+                        assertThat(item.get("workerId")).hasToString(assignment.workerId());
+                        assertThat(item.get("plannedHours")).isEqualTo(assignment.plannedHours());
+                    }
+                    continue;
+                }
+                assertThat(actual != null ? actual.toString() : null)
+                    .as("%s.%s", payload.eventType(), component.getName())
+                    .isEqualTo(expected != null ? expected.toString() : null);
+            }
+            assertThat(avro.dataSchema(payload).toString())
+                .startsWith("urn:avro:com.paklog.workload.events." + payload.getClass().getSimpleName() + ":");
+        }
+    }
+
+    @Test
+    void shouldWriteTypedAndEscapedJson() throws Exception {
+        byte[] encoded = json.encode(new WorkloadEventPayload.PlanApproved("plan-1", "WH-1", "O'Brien \"ops\"", 12, 87.5));
+
+        JsonNode node = new ObjectMapper().readTree(encoded);
+        assertThat(node.get("totalWorkers").isInt()).isTrue();
+        assertThat(node.get("utilization").isDouble()).isTrue();
+        assertThat(node.get("approvedBy").asText()).isEqualTo("O'Brien \"ops\"");
+        assertThat(node.has("eventType")).isFalse();
+        assertThat(json.dataSchema(null)).isNull();
+    }
+
+    @Test
+    void shouldBeMoreCompactInAvroThanJson() {
+        WorkloadEventPayload payload = new WorkloadEventPayload.WorkerAssigned(
+            "3f2c9b1e-8d5a-4c1b-9a7e-2b6d8f0c4e11", "W-00042", "Worker 42", "DAY_SHIFT", "PICKING", 8);
+
+        assertThat(avro.encode(payload).length).isLessThan(json.encode(payload).length / 2);
+    }
+}
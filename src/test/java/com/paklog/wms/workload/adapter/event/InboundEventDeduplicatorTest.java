@@ -0,0 +1,134 @@
+package com.paklog.wms.workload.adapter.event;
+
+import com.paklog.wms.workload.adapter.event.InboundEventDeduplicator.Result;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+
+class InboundEventDeduplicatorTest {
+
+    private final MongoTemplate mongoTemplate = Mockito.mock(MongoTemplate.class);
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-03-01T08:00:00Z"));
+    private final InboundEventDeduplicator deduplicator = deduplicator(100);
+
+    @Test
+    void shouldDropRecentDuplicatesAndFlagOlderOnesUntilRetentionEnds() {
+        assertThat(deduplicator.check("event-1")).isEqualTo(Result.FIRST_DELIVERY);
+        deduplicator.markProcessed("event-1");
+        assertThat(deduplicator.check("event-1")).isEqualTo(Result.DUPLICATE);
+
+        // Pushed out of the exact set, still remembered by the Bloom filters
+        for (int i = 0; i < 100; i++) {
+            deduplicator.markProcessed("other-" + i);
+        }
+        clock.advance(Duration.ofHours(2));
+        assertThat(deduplicator.check("event-1")).isEqualTo(Result.PROBABLE_DUPLICATE);
+
+        clock.advance(Duration.ofHours(3));
+        assertThat(deduplicator.check("event-1")).isEqualTo(Result.FIRST_DELIVERY);
+    }
+
+    @Test
+    void shouldKeepTheFalsePositiveRateNearTheConfiguredOne() {
+        InboundEventDeduplicator sized = deduplicator(0);
+        for (int i = 0; i < 10_000; i++) {
+            sized.markProcessed(UUID.randomUUID().toString());
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (sized.check(UUID.randomUUID().toString()) != Result.FIRST_DELIVERY) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives).isLessThan(200);
+        assertThat(sized.bloomBytes()).isLessThan(16 * 1024);
+    }
+
+    @Test
+    void shouldRestoreFromCheckpoint() {
+        deduplicator.markProcessed("event-1");
+        clock.advance(Duration.ofHours(1));
+        deduplicator.markProcessed("event-2");
+        deduplicator.checkpoint();
+
+        ArgumentCaptor<Document> saved = ArgumentCaptor.forClass(Document.class);
+        Mockito.verify(mongoTemplate, Mockito.times(3))
+            .save(saved.capture(), eq(InboundEventDeduplicator.CHECKPOINT_COLLECTION));
+        InboundEventDeduplicator restarted = deduplicator(10);
+        restarted.markProcessed("event-4");
+        restarted.restore(saved.getAllValues().stream()
+            .map(document -> document.containsKey("start")
+                ? new Document(document).append("start", Date.from(document.get("start", Instant.class)))
+                : document)
+            .toList());
+
+        assertThat(restarted.check("event-1")).isEqualTo(Result.DUPLICATE);
+        assertThat(restarted.check("event-2")).isEqualTo(Result.DUPLICATE);
+        assertThat(restarted.check("event-3")).isEqualTo(Result.FIRST_DELIVERY);
+        assertThat(restarted.check("event-4")).isEqualTo(Result.DUPLICATE);
+    }
+
+    @Test
+    void shouldRecordEventsOnlyAfterTheListenerSucceeds() {
+        DeduplicatingRecordInterceptor interceptor = new DeduplicatingRecordInterceptor(deduplicator);
+        ConsumerRecord<Object, Object> record = new ConsumerRecord<>("wave-events", 0, 42L, "wave-1", "payload");
+        record.headers().add("ce_id", "event-1".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(interceptor.intercept(record, null)).isSameAs(record);
+        // Listener failed: the redelivery goes through again
+        assertThat(interceptor.intercept(record, null)).isSameAs(record);
+
+        interceptor.success(record, null);
+        assertThat(interceptor.intercept(record, null)).isNull();
+    }
+
+    private InboundEventDeduplicator deduplicator(int recentCapacity) {
+        return new InboundEventDeduplicator(mongoTemplate, new SimpleMeterRegistry(),
+            Duration.ofHours(1), 4, 10_000, 0.01, recentCapacity, clock);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
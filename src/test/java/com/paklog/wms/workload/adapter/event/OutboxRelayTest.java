@@ -0,0 +1,268 @@
+package com.paklog.wms.workload.adapter.event;
+
+import io.cloudevents.CloudEvent;
+import io.cloudevents.core.builder.CloudEventBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.errors.RecordTooLargeException;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+
+class OutboxRelayTest {
+
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, CloudEvent> kafkaTemplate = Mockito.mock(KafkaTemplate.class);
+    private final MongoTemplate mongoTemplate = Mockito.mock(MongoTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MutableClock clock = new MutableClock(Instant.now());
+    private final OutboxRelay relay = new OutboxRelay(mongoTemplate, kafkaTemplate, 10, 5,
+        Duration.ofSeconds(30), Duration.ofSeconds(1), Duration.ofSeconds(5), 3, Duration.ofSeconds(10),
+        meterRegistry, clock);
+
+    @Test
+    void shouldDeleteAcknowledgedEventsAndReleaseFailedOnes() {
+        OutboxEvent delivered = OutboxEvent.pending("workload-events", "plan-1", event("event-1"));
+        OutboxEvent rejected = OutboxEvent.pending("workload-events", "plan-2", event("event-2"));
+        Mockito.when(mongoTemplate.getCollectionName(OutboxEvent.class)).thenReturn("event_outbox");
+        Mockito.when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("event_outbox")))
+            .thenReturn(List.of(new Document("_id", "event-1"), new Document("_id", "event-2")));
+        Mockito.when(mongoTemplate.find(any(Query.class), eq(OutboxEvent.class)))
+            .thenReturn(List.of(delivered, rejected));
+        Mockito.when(kafkaTemplate.send(anyString(), eq("plan-1"), any(CloudEvent.class)))
+            .thenReturn(CompletableFuture.completedFuture(null));
+        Mockito.when(kafkaTemplate.send(anyString(), eq("plan-2"), any(CloudEvent.class)))
+            .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker unavailable")));
+
+        clock.advance(Duration.ofMillis(50));
+        int relayed = relay.drain();
+
+        assertThat(relayed).isEqualTo(1);
+        ArgumentCaptor<Query> removed = ArgumentCaptor.forClass(Query.class);
+        Mockito.verify(mongoTemplate).remove(removed.capture(), eq(OutboxEvent.class));
+        assertThat(removed.getValue().getQueryObject().toJson()).contains("event-1").doesNotContain("event-2");
+
+        ArgumentCaptor<Update> released = ArgumentCaptor.forClass(Update.class);
+        Mockito.verify(mongoTemplate).updateFirst(any(Query.class), released.capture(), eq(OutboxEvent.class));
+        Document update = released.getValue().getUpdateObject();
+        assertThat((Document) update.get("$inc")).containsEntry("attempts", 1);
+        assertThat(((Document) update.get("$set")).getString("lastError")).contains("broker unavailable");
+
+        assertThat(meterRegistry.get("workload.events.publish.latency")
+            .tag("type", "com.paklog.workload.plan.created").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("workload.events.publish.failures")
+            .tag("type", "com.paklog.workload.plan.created").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldPauseDuringBrokerOutageAndReplayBacklogInOrder() {
+        List<OutboxEvent> backlog = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            backlog.add(OutboxEvent.pending("workload-events", "plan-" + i, event("event-" + i)));
+        }
+        PausableBroker broker = new PausableBroker();
+        stubOutbox(backlog);
+        broker.pause();
+
+        assertThat(relay.drain()).isZero();
+        assertThat(relay.isPaused()).isTrue();
+        assertThat(broker.attempts).isEqualTo(1);
+        assertThat(meterRegistry.get("workload.events.relay.paused").gauge().value()).isEqualTo(1);
+
+        // Still paused: the outbox is not even queried
+        Mockito.clearInvocations(mongoTemplate);
+        clock.advance(Duration.ofSeconds(2));
+        assertThat(relay.drain()).isZero();
+        Mockito.verify(mongoTemplate, Mockito.never()).find(any(Query.class), eq(OutboxEvent.class));
+
+        broker.resume();
+        clock.advance(Duration.ofSeconds(5));
+        assertThat(relay.drain()).isEqualTo(25);
+        assertThat(broker.delivered).containsExactlyElementsOf(
+            backlog.stream().map(OutboxEvent::id).toList());
+        assertThat(relay.isPaused()).isFalse();
+    }
+
+    @Test
+    void shouldStopAtFirstFailureAndReleaseTheRestUnsent() {
+        List<OutboxEvent> backlog = List.of(
+            OutboxEvent.pending("workload-events", "plan-1", event("event-1")),
+            OutboxEvent.pending("workload-events", "plan-2", event("event-2")),
+            OutboxEvent.pending("workload-events", "plan-3", event("event-3"))
+        );
+        stubOutbox(backlog);
+        Mockito.when(kafkaTemplate.send(anyString(), anyString(), any(CloudEvent.class)))
+            .thenReturn(CompletableFuture.completedFuture(null));
+        Mockito.when(kafkaTemplate.send(anyString(), eq("plan-2"), any(CloudEvent.class)))
+            .thenReturn(CompletableFuture.failedFuture(new RecordTooLargeException("record too large")));
+
+        assertThat(relay.drain()).isEqualTo(1);
+
+        Mockito.verify(kafkaTemplate, Mockito.never()).send(anyString(), eq("plan-3"), any(CloudEvent.class));
+        ArgumentCaptor<Query> released = ArgumentCaptor.forClass(Query.class);
+        Mockito.verify(mongoTemplate, Mockito.times(2)).updateMulti(released.capture(), any(Update.class),
+            eq(OutboxEvent.class));
+        assertThat(released.getValue().getQueryObject().toJson()).contains("event-3").doesNotContain("event-2");
+        assertThat(relay.isPaused()).isTrue();
+    }
+
+    @Test
+    void shouldMoveEventToDeadLettersAfterMaxAttempts() {
+        OutboxEvent poison = attempted(OutboxEvent.pending("workload-events", "plan-1", event("event-1")), 2);
+        stubOutbox(List.of(poison));
+        Mockito.when(kafkaTemplate.send(anyString(), anyString(), any(CloudEvent.class)))
+            .thenReturn(CompletableFuture.failedFuture(new RecordTooLargeException("record too large")));
+
+        assertThat(relay.drain()).isZero();
+
+        ArgumentCaptor<OutboxEvent> deadLetter = ArgumentCaptor.forClass(OutboxEvent.class);
+        Mockito.verify(mongoTemplate).save(deadLetter.capture(), eq(OutboxRelay.DEAD_LETTER_COLLECTION));
+        assertThat(deadLetter.getValue().attempts()).isEqualTo(3);
+        assertThat(deadLetter.getValue().lastError()).contains("record too large");
+        Mockito.verify(mongoTemplate).remove(any(Query.class), eq(OutboxEvent.class));
+        assertThat(relay.isPaused()).isFalse();
+        assertThat(meterRegistry.get("workload.events.publish.dead-lettered")
+            .tag("type", "com.paklog.workload.plan.created").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotRelayWhileAnotherInstanceHoldsTheLease() {
+        stubOutbox(List.of(OutboxEvent.pending("workload-events", "plan-1", event("event-1"))));
+        Mockito.when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(OutboxRelay.LEASE_COLLECTION)))
+            .thenThrow(new DuplicateKeyException("lease held"));
+
+        assertThat(relay.drain()).isZero();
+
+        Mockito.verify(mongoTemplate, Mockito.never()).find(any(Query.class), eq(OutboxEvent.class));
+        Mockito.verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    void shouldRebuildStagedCloudEvent() {
+        CloudEvent original = event("event-1");
+
+        CloudEvent rebuilt = OutboxEvent.pending("workload-events", "plan-1", original).toCloudEvent();
+
+        assertThat(rebuilt.getId()).isEqualTo("event-1");
+        assertThat(rebuilt.getType()).isEqualTo(original.getType());
+        assertThat(rebuilt.getSubject()).isEqualTo("plan-1");
+        assertThat(rebuilt.getTime().toInstant()).isEqualTo(original.getTime().toInstant());
+        assertThat(rebuilt.getData().toBytes()).isEqualTo(original.getData().toBytes());
+    }
+
+    /**
+     * Serves the backlog in order and forgets events once they are removed
+     */
+    private void stubOutbox(List<OutboxEvent> backlog) {
+        List<OutboxEvent> pending = new ArrayList<>(backlog);
+        Mockito.when(mongoTemplate.getCollectionName(OutboxEvent.class)).thenReturn("event_outbox");
+        Mockito.when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("event_outbox")))
+            .thenAnswer(invocation -> pending.stream().limit(10).map(event -> new Document("_id", event.id())).toList());
+        Mockito.when(mongoTemplate.find(any(Query.class), eq(OutboxEvent.class)))
+            .thenAnswer(invocation -> List.copyOf(pending.subList(0, Math.min(10, pending.size()))));
+        Mockito.when(mongoTemplate.remove(any(Query.class), eq(OutboxEvent.class))).thenAnswer(invocation -> {
+            String ids = invocation.getArgument(0, Query.class).getQueryObject().toJson();
+            pending.removeIf(event -> ids.contains('"' + event.id() + '"'));
+            return null;
+        });
+    }
+
+    /**
+     * Stand-in broker that fails sends while paused, like a producer without metadata
+     */
+    private class PausableBroker {
+
+        private final List<String> delivered = new ArrayList<>();
+        private volatile boolean paused;
+        private int attempts;
+
+        PausableBroker() {
+            Mockito.when(kafkaTemplate.send(anyString(), anyString(), any(CloudEvent.class))).thenAnswer(invocation -> {
+                attempts++;
+                if (paused) {
+                    throw new KafkaException("Send failed",
+                        new TimeoutException("Topic workload-events not present in metadata after 5000 ms"));
+                }
+                delivered.add(invocation.getArgument(2, CloudEvent.class).getId());
+                return CompletableFuture.completedFuture(null);
+            });
+        }
+
+        void pause() {
+            paused = true;
+        }
+
+        void resume() {
+            paused = false;
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+
+    private static OutboxEvent attempted(OutboxEvent event, int attempts) {
+        return new OutboxEvent(event.id(), event.topic(), event.key(), event.type(), event.source(), event.subject(),
+            event.time(), event.dataContentType(), event.dataSchema(), event.data(), event.createdAt(), attempts,
+            null, Instant.EPOCH, null);
+    }
+
+    private static CloudEvent event(String id) {
+        return CloudEventBuilder.v1()
+            .withId(id)
+            .withSource(URI.create("workload-planning-service"))
+            .withType("com.paklog.workload.plan.created")
+            .withSubject("plan-1")
+            .withTime(OffsetDateTime.now())
+            .withDataContentType("application/json")
+            .withData("{\"planId\":\"plan-1\"}".getBytes())
+            .build();
+    }
+}
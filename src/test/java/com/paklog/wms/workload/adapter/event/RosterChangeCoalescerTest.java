@@ -0,0 +1,100 @@
+package com.paklog.wms.workload.adapter.event;
+
+import com.paklog.wms.workload.adapter.event.WorkloadEventPayload.RosterChanged;
+import com.paklog.wms.workload.domain.aggregate.WorkloadPlan;
+import com.paklog.wms.workload.domain.repository.WorkloadPlanRepository;
+import com.paklog.wms.workload.domain.valueobject.ShiftType;
+import com.paklog.wms.workload.domain.valueobject.WorkloadCategory;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+
+class RosterChangeCoalescerTest {
+
+    private static final Instant NOW = Instant.parse("2025-03-01T08:00:00Z");
+
+    private final MongoTemplate mongoTemplate = Mockito.mock(MongoTemplate.class);
+    private final WorkloadPlanRepository planRepository = Mockito.mock(WorkloadPlanRepository.class);
+    private final WorkloadPlanningEventPublisher eventPublisher = Mockito.mock(WorkloadPlanningEventPublisher.class);
+    private final RosterChangeCoalescer coalescer = new RosterChangeCoalescer(
+        mongoTemplate, planRepository, eventPublisher, TransactionOperations.withoutTransaction(),
+        Duration.ofSeconds(5), 100, Clock.fixed(NOW, ZoneOffset.UTC)
+    );
+
+    @Test
+    void shouldSnapshotTheRosterOnlyWhenOpeningAWindow() {
+        WorkloadPlan plan = plan();
+        plan.assignWorkerToShift(ShiftType.DAY_SHIFT, "w-1", "Ana", WorkloadCategory.PICKING, 8);
+
+        coalescer.recordChange(plan);
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        Mockito.verify(mongoTemplate).upsert(any(Query.class), update.capture(), eq(RosterChangeWindow.class));
+        Document setOnInsert = (Document) update.getValue().getUpdateObject().get("$setOnInsert");
+        assertThat(setOnInsert.get("baseline")).isEqualTo(List.of(
+            new RosterChanged.Assignment("w-1", "DAY_SHIFT", "PICKING", 8)));
+        assertThat(setOnInsert.get("closesAt")).isEqualTo(NOW.plusSeconds(5));
+        assertThat(((Document) update.getValue().getUpdateObject().get("$inc")).get("changes")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldPublishTheNetChangeOfAClosedWindowAsOneEvent() {
+        WorkloadPlan plan = plan();
+        plan.assignWorkerToShift(ShiftType.DAY_SHIFT, "w-1", "Ana", WorkloadCategory.PICKING, 6);
+        plan.assignWorkerToShift(ShiftType.NIGHT_SHIFT, "w-3", "Ben", WorkloadCategory.PACKING, 8);
+        RosterChangeWindow closed = new RosterChangeWindow("plan-1", "WH-1", List.of(
+            new RosterChanged.Assignment("w-1", "DAY_SHIFT", "PICKING", 8),
+            new RosterChanged.Assignment("w-2", "DAY_SHIFT", "PICKING", 8)
+        ), 3, NOW.minusSeconds(6), NOW.minusSeconds(1));
+        Mockito.when(mongoTemplate.find(any(Query.class), eq(RosterChangeWindow.class))).thenReturn(List.of(closed));
+        Mockito.when(mongoTemplate.findAndRemove(any(Query.class), eq(RosterChangeWindow.class))).thenReturn(closed);
+        Mockito.when(planRepository.findById("plan-1")).thenReturn(Optional.of(plan));
+
+        assertThat(coalescer.flushClosedWindows()).isEqualTo(1);
+
+        ArgumentCaptor<RosterChanged> published = ArgumentCaptor.forClass(RosterChanged.class);
+        Mockito.verify(eventPublisher).publishRosterChanged(published.capture());
+        RosterChanged event = published.getValue();
+        assertThat(event.subject()).isEqualTo("plan-1");
+        assertThat(event.coalescedChanges()).isEqualTo(3);
+        assertThat(event.totalWorkers()).isEqualTo(2);
+        assertThat(event.added()).containsExactly(new RosterChanged.Assignment("w-3", "NIGHT_SHIFT", "PACKING", 8));
+        assertThat(event.updated()).containsExactly(new RosterChanged.Assignment("w-1", "DAY_SHIFT", "PICKING", 6));
+        assertThat(event.removed()).containsExactly(new RosterChanged.Assignment("w-2", "DAY_SHIFT", "PICKING", 8));
+    }
+
+    @Test
+    void shouldPublishNothingWhenChangesCancelOutOrAnotherInstanceFlushed() {
+        WorkloadPlan plan = plan();
+        plan.assignWorkerToShift(ShiftType.DAY_SHIFT, "w-1", "Ana", WorkloadCategory.PICKING, 8);
+        RosterChangeWindow closed = new RosterChangeWindow("plan-1", "WH-1", RosterChangeCoalescer.roster(plan),
+            2, NOW.minusSeconds(6), NOW.minusSeconds(1));
+        Mockito.when(mongoTemplate.find(any(Query.class), eq(RosterChangeWindow.class))).thenReturn(List.of(closed, closed));
+        Mockito.when(mongoTemplate.findAndRemove(any(Query.class), eq(RosterChangeWindow.class))).thenReturn(closed).thenReturn(null);
+        Mockito.when(planRepository.findById("plan-1")).thenReturn(Optional.of(plan));
+
+        assertThat(coalescer.flushClosedWindows()).isZero();
+        Mockito.verifyNoInteractions(eventPublisher);
+    }
+
+    private static WorkloadPlan plan() {
+        return WorkloadPlan.create("plan-1", "WH-1", LocalDate.of(2025, 3, 1));
+    }
+}
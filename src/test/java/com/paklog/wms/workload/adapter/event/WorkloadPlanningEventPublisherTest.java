@@ -0,0 +1,88 @@
+package com.paklog.wms.workload.adapter.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.cloudevents.CloudEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+
+class WorkloadPlanningEventPublisherTest {
+
+    private final MongoTemplate mongoTemplate = Mockito.mock(MongoTemplate.class);
+    private final EventPayloadEncoders encoders = new EventPayloadEncoders(
+        List.of(new JsonEventPayloadCodec(new ObjectMapper()), new AvroEventPayloadCodec()),
+        new MockEnvironment().withProperty("workload.events.encoding.topics.workload-events", "avro"),
+        "json"
+    );
+    private final WorkloadPlanningEventPublisher publisher = new WorkloadPlanningEventPublisher(mongoTemplate, encoders,
+        new SimpleMeterRegistry());
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldBatchEventsOfATransactionIntoOneInsertBeforeCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        publisher.publishPlanCreated("plan-1", "WH-1", "2025-03-01", 120);
+        for (int i = 0; i < 50; i++) {
+            publisher.publishWorkerAssigned("plan-1", "worker-" + i, "Worker " + i, "DAY_SHIFT", "PICKING", 8);
+        }
+        Mockito.verifyNoInteractions(mongoTemplate);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.beforeCommit(false));
+        TransactionSynchronizationManager.getSynchronizations()
+            .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        ArgumentCaptor<Collection<OutboxEvent>> inserted = ArgumentCaptor.forClass(Collection.class);
+        Mockito.verify(mongoTemplate).insert(inserted.capture(), eq(OutboxEvent.class));
+        assertThat(inserted.getValue()).hasSize(51);
+        assertThat(TransactionSynchronizationManager.getResource(publisher)).isNull();
+    }
+
+    @Test
+    void shouldInsertImmediatelyOutsideATransaction() {
+        publisher.publishPlanCancelled("plan-1", "WH-1", "weather");
+
+        Mockito.verify(mongoTemplate).insert(any(OutboxEvent.class));
+    }
+
+    @Test
+    void shouldEncodePayloadWithTheTopicEncoding() {
+        publisher.publishPlanApproved("plan-1", "WH-1", "supervisor", 12, 87.5);
+
+        ArgumentCaptor<OutboxEvent> staged = ArgumentCaptor.forClass(OutboxEvent.class);
+        Mockito.verify(mongoTemplate).insert(staged.capture());
+        CloudEvent event = staged.getValue().toCloudEvent();
+        assertThat(event.getType()).isEqualTo("com.paklog.workload.plan.approved");
+        assertThat(event.getDataContentType()).isEqualTo("application/avro");
+        assertThat(event.getDataSchema().toString()).startsWith("urn:avro:com.paklog.workload.events.PlanApproved:");
+    }
+
+    @Test
+    void shouldFallBackToTheDefaultEncodingAndRejectUnknownOnes() {
+        assertThat(encoders.forTopic("other-events").name()).isEqualTo("json");
+        assertThatThrownBy(() -> new EventPayloadEncoders(List.of(), new MockEnvironment(), "protobuf"))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("protobuf");
+    }
+}
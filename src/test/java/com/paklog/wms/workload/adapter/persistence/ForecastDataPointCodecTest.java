@@ -0,0 +1,162 @@
+package com.paklog.wms.workload.adapter.persistence;
+
+import com.paklog.wms.workload.domain.aggregate.DemandForecast;
+import com.paklog.wms.workload.domain.aggregate.DemandForecast.ForecastDataPoint;
+import com.paklog.wms.workload.domain.aggregate.ForecastDataPoints;
+import com.paklog.wms.workload.domain.valueobject.ForecastPeriod;
+import com.paklog.wms.workload.domain.valueobject.WorkloadCategory;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ForecastDataPointCodecTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 11, 1, 6, 0, 0, 123_000_000);
+
+    @Test
+    void shouldRoundTripPreservingOrderAndConfidenceIntervals() {
+        List<ForecastDataPoint> points = new ArrayList<>();
+        for (int hour = 0; hour < 48; hour++) {
+            points.add(new ForecastDataPoint(BASE.plusHours(hour), WorkloadCategory.PICKING, 120, 9.75));
+        }
+        for (int hour = 0; hour < 48; hour++) {
+            points.add(new ForecastDataPoint(BASE.plusHours(hour), WorkloadCategory.PACKING,
+                60 + (hour % 5) * 7, hour % 3 == 0 ? null : hour / 10.0));
+        }
+        points.add(new ForecastDataPoint(BASE.minusDays(2), WorkloadCategory.PICKING, -4, null));
+
+        byte[] encoded = ForecastDataPointCodec.encode(points);
+
+        assertThat(ForecastDataPointCodec.decode(encoded)).containsExactlyElementsOf(points);
+        assertThat(encoded.length).isLessThan(fixedWidthSize(points) / 3);
+    }
+
+    @Test
+    void shouldStreamTheSamePointsItDecodes() {
+        List<ForecastDataPoint> points = new ArrayList<>();
+        for (int hour = 0; hour < 24; hour++) {
+            points.add(new ForecastDataPoint(BASE.plusHours(hour), WorkloadCategory.REPLENISHMENT,
+                hour * 3, hour % 4 == 0 ? null : 1.5 + hour));
+        }
+        points.add(new ForecastDataPoint(BASE, WorkloadCategory.RETURNS, 5, 0.5));
+        byte[] encoded = ForecastDataPointCodec.encode(points);
+
+        List<ForecastDataPoint> streamed = new ArrayList<>();
+        ForecastDataPointCodec.forEach(encoded, streamed::add);
+
+        assertThat(streamed).containsExactlyElementsOf(points);
+        ForecastDataPoints lazy = ForecastDataPointCodec.lazy(encoded);
+        List<ForecastDataPoint> visited = new ArrayList<>();
+        lazy.forEach(visited::add);
+        assertThat(visited).containsExactlyElementsOf(points);
+        assertThat(lazy.isDecoded()).isFalse();
+    }
+
+    @Test
+    void shouldPackGeneratedForecastShapeTightly() {
+        List<ForecastDataPoint> points = new ArrayList<>();
+        for (WorkloadCategory category : WorkloadCategory.values()) {
+            for (int hour = 0; hour < 168; hour++) {
+                points.add(new ForecastDataPoint(BASE.plusHours(hour), category, 250, 17.3));
+            }
+        }
+
+        assertThat(ForecastDataPointCodec.encode(points).length).isLessThan(fixedWidthSize(points) / 10);
+    }
+
+    @Test
+    void shouldExposeSizeAndTotalsBeforeDecoding() {
+        List<ForecastDataPoint> points = List.of(
+            new ForecastDataPoint(BASE, WorkloadCategory.RECEIVING, 40, 2.0),
+            new ForecastDataPoint(BASE.plusHours(1), WorkloadCategory.RECEIVING, 50, 2.0),
+            new ForecastDataPoint(BASE, WorkloadCategory.RETURNS, 7, null)
+        );
+
+        ForecastDataPoints lazy = ForecastDataPointCodec.lazy(ForecastDataPointCodec.encode(points));
+
+        assertThat(lazy.isDecoded()).isFalse();
+        assertThat(lazy.size()).isEqualTo(3);
+        assertThat(lazy.totalVolume(WorkloadCategory.RECEIVING)).isEqualTo(90);
+        assertThat(lazy.totalVolume(WorkloadCategory.RETURNS)).isEqualTo(7);
+        assertThat(lazy.isDecoded()).isFalse();
+        assertThat(lazy.asList()).containsExactlyElementsOf(points);
+    }
+
+    @Test
+    void shouldRejectUnknownEncodingVersions() {
+        byte[] encoded = ForecastDataPointCodec.encode(List.of(
+            new ForecastDataPoint(BASE, WorkloadCategory.PICKING, 10, 1.5)));
+        encoded[0] = (byte) (ForecastDataPointCodec.VERSION + 1);
+
+        assertThatThrownBy(() -> ForecastDataPointCodec.decode(encoded))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ForecastDataPointCodec.lazy(encoded))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldPersistDataPointsAsBinaryAndReadLegacyArrays() {
+        MappingMongoConverter converter = converter();
+        DemandForecast forecast = DemandForecast.restore("forecast-1", "WH-1", ForecastPeriod.HOURLY, BASE, BASE);
+        forecast.addDataPoint(BASE, WorkloadCategory.PICKING, 100, 5.0);
+        forecast.addDataPoint(BASE.plusHours(1), WorkloadCategory.PICKING, 110, 5.0);
+
+        Document written = new Document();
+        converter.write(forecast, written);
+
+        assertThat(written.get("dataPoints")).isInstanceOf(Binary.class);
+        DemandForecast read = converter.read(DemandForecast.class, written);
+        assertThat(read.getDataPointCount()).isEqualTo(2);
+        assertThat(read.getTotalForecastedVolume(WorkloadCategory.PICKING)).isEqualTo(210);
+        assertThat(read.getDataPoints()).containsExactlyElementsOf(forecast.getDataPoints());
+
+        LocalDateTime legacyTimestamp = BASE.withNano(0);
+        written.put("dataPoints", List.of(new Document()
+            .append("timestamp", Date.from(legacyTimestamp.atZone(ZoneId.systemDefault()).toInstant()))
+            .append("category", "PACKING")
+            .append("forecastedVolume", 30)
+            .append("confidenceInterval", 1.25)));
+
+        DemandForecast legacy = converter.read(DemandForecast.class, written);
+        assertThat(legacy.getDataPoints()).containsExactly(
+            new ForecastDataPoint(legacyTimestamp, WorkloadCategory.PACKING, 30, 1.25));
+    }
+
+    private static MappingMongoConverter converter() {
+        MongoCustomConversions conversions = new MongoPersistenceConfiguration().mongoCustomConversions();
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+
+    /**
+     * Size of the points stored field by field: timestamp, category, volume and an optional confidence interval
+     */
+    private static int fixedWidthSize(List<ForecastDataPoint> points) {
+        int size = 0;
+        for (ForecastDataPoint point : points) {
+            size += Long.BYTES + 1 + Integer.BYTES + 1;
+            if (point.confidenceInterval() != null) {
+                size += Double.BYTES;
+            }
+        }
+        return size;
+    }
+}
@@ -0,0 +1,54 @@
+package com.paklog.wms.workload.adapter.persistence;
+
+import com.paklog.wms.workload.domain.aggregate.DemandForecast;
+import com.paklog.wms.workload.domain.valueobject.ForecastPeriod;
+import com.paklog.wms.workload.domain.valueobject.WorkloadCategory;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MongoForecastArchiveTest {
+
+    private final ArchivedForecastRepository repository = Mockito.mock(ArchivedForecastRepository.class);
+    private final MongoForecastArchive archive = new MongoForecastArchive(repository);
+
+    @Test
+    void shouldArchiveSummaryAndRehydrateFullForecast() {
+        LocalDateTime base = LocalDateTime.of(2024, 11, 1, 6, 0, 0, 123_000_000);
+        DemandForecast forecast = DemandForecast.restore(
+            "forecast-1", "WH-1", ForecastPeriod.HOURLY, base, base.minusHours(1)
+        );
+        forecast.setForecastingModel("EXPONENTIAL_SMOOTHING", Map.of("alpha", 0.3));
+        forecast.updateAccuracyMetrics(91.0, 4.5, 20.25);
+        for (int hour = 0; hour < 24; hour++) {
+            forecast.addDataPoint(base.plusHours(hour), WorkloadCategory.PICKING, 100 + hour, 12.5);
+            forecast.addDataPoint(base.plusHours(hour), WorkloadCategory.PACKING, 80, null);
+        }
+
+        archive.archive(forecast);
+
+        ArgumentCaptor<ArchivedForecastDocument> captor = ArgumentCaptor.forClass(ArchivedForecastDocument.class);
+        Mockito.verify(repository).save(captor.capture());
+        ArchivedForecastDocument document = captor.getValue();
+        assertThat(document.dataPointCount()).isEqualTo(48);
+        assertThat(document.totalVolumeByCategory())
+            .containsEntry(WorkloadCategory.PICKING, 2676)
+            .containsEntry(WorkloadCategory.PACKING, 1920);
+        assertThat(document.packedDataPoints().length)
+            .isLessThan(ForecastDataPointCodec.encode(forecast.getDataPoints()).length);
+
+        Mockito.when(repository.findById("forecast-1")).thenReturn(Optional.of(document));
+        DemandForecast restored = archive.findById("forecast-1").orElseThrow();
+
+        assertThat(restored.getCreatedAt()).isEqualTo(forecast.getCreatedAt());
+        assertThat(restored.getForecastingModel()).isEqualTo("EXPONENTIAL_SMOOTHING");
+        assertThat(restored.getMeanSquaredError()).isEqualTo(20.25);
+        assertThat(restored.getDataPoints()).containsExactlyElementsOf(forecast.getDataPoints());
+    }
+}
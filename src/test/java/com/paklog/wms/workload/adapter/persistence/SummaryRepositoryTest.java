@@ -0,0 +1,205 @@
+package com.paklog.wms.workload.adapter.persistence;
+
+import com.paklog.wms.workload.domain.aggregate.DemandForecast;
+import com.paklog.wms.workload.domain.aggregate.WorkloadPlan;
+import com.paklog.wms.workload.domain.repository.DemandForecastRepository;
+import com.paklog.wms.workload.domain.repository.ReactiveWorkloadPlanRepository;
+import com.paklog.wms.workload.domain.repository.WorkloadPlanRepository;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.mongodb.MongoExpression;
+import org.springframework.data.mongodb.core.ExecutableFindOperation.ExecutableFind;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.ReactiveFindOperation.ReactiveFind;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
+import org.springframework.data.mongodb.repository.config.EnableReactiveMongoRepositories;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The summary listings and projected reads reach their queries through the repositories Spring Data builds
+ *
+ * Repositories are created by Spring Data from the same configuration as the
+ * application, over templates that capture the query they are given instead of
+ * running it. A custom implementation Spring Data did not pick up would fall
+ * back to a derived query without the cursor or the limit.
+ */
+@SpringJUnitConfig
+class SummaryRepositoryTest {
+
+    @Autowired
+    private WorkloadPlanRepository planRepository;
+
+    @Autowired
+    private DemandForecastRepository forecastRepository;
+
+    @Autowired
+    private ReactiveWorkloadPlanRepository reactivePlanRepository;
+
+    @Autowired
+    private ExecutableFind<WorkloadPlan> planFind;
+
+    @Autowired
+    private ExecutableFind<DemandForecast> forecastFind;
+
+    @Autowired
+    private ReactiveFind<WorkloadPlan> reactivePlanFind;
+
+    @BeforeEach
+    void clearCapturedQueries() {
+        clearInvocations(planFind, forecastFind, reactivePlanFind);
+    }
+
+    @Test
+    void shouldApplyLimitAndCursorToPlanSummaries() {
+        planRepository.findSummariesByWarehouseId("WH-1", LocalDate.of(2025, 3, 1), "plan-9", 25);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(planFind).matching(query.capture());
+        assertKeysetPage(query.getValue(), "planDate", 25);
+    }
+
+    @Test
+    void shouldApplyLimitAndCursorToForecastSummaries() {
+        forecastRepository.findSummariesByWarehouseId("WH-1", LocalDateTime.of(2025, 3, 1, 6, 0), "forecast-9", 10);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(forecastFind).matching(query.capture());
+        assertKeysetPage(query.getValue(), "forecastDate", 10);
+    }
+
+    @Test
+    void shouldApplyLimitAndCursorToReactivePlanSummaries() {
+        reactivePlanRepository.findSummariesByWarehouseId("WH-1", LocalDate.of(2025, 3, 1), "plan-9", 25);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(reactivePlanFind).matching(query.capture());
+        assertKeysetPage(query.getValue(), "planDate", 25);
+    }
+
+    @Test
+    void shouldCountHeadcountsWithoutReadingAssignments() {
+        planRepository.findProjectedById("plan-1", List.of("planId", "headcountByShift"));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(planFind).matching(query.capture());
+        Document fields = query.getValue().getFieldsObject();
+        assertThat(fields).doesNotContainKeys("shiftAssignments", "plannedVolumes");
+        assertThat(fields.get("headcountByShift", MongoExpression.class).toDocument()).containsKey("$ifNull");
+    }
+
+    @Test
+    void shouldIncludeOtherSelectionsAsStored() {
+        planRepository.findProjectedById("plan-1", List.of("planId", "utilizationPercentage"));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(planFind).matching(query.capture());
+        assertThat(query.getValue().getFieldsObject())
+            .containsEntry("utilizationPercentage", 1)
+            .doesNotContainKeys("shiftAssignments", "headcountByShift");
+    }
+
+    private static void assertKeysetPage(Query query, String sortField, int limit) {
+        assertThat(query.getLimit()).isEqualTo(limit);
+        assertThat(query.getSortObject()).isEqualTo(new Document(sortField, -1).append("_id", -1));
+        assertThat(query.getQueryObject().getString("warehouseId")).isEqualTo("WH-1");
+        assertThat(query.getQueryObject().getList("$or", Document.class))
+            .hasSize(2)
+            .allSatisfy(branch -> assertThat(branch).containsKey(sortField));
+    }
+
+    @Configuration
+    @EnableMongoRepositories(basePackageClasses = WorkloadPlanRepository.class,
+        includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE,
+            classes = {WorkloadPlanRepository.class, DemandForecastRepository.class}))
+    @EnableReactiveMongoRepositories(basePackageClasses = ReactiveWorkloadPlanRepository.class,
+        includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE,
+            classes = ReactiveWorkloadPlanRepository.class))
+    @ComponentScan(basePackageClasses = WorkloadPlanRepositoryImpl.class, useDefaultFilters = false,
+        includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = {
+            WorkloadPlanRepositoryImpl.class, DemandForecastRepositoryImpl.class,
+            ReactiveWorkloadPlanRepositoryImpl.class
+        }))
+    static class Repositories {
+
+        @Bean
+        MappingMongoConverter mappingMongoConverter() {
+            MongoCustomConversions conversions = new MongoPersistenceConfiguration().mongoCustomConversions();
+            MongoMappingContext mappingContext = new MongoMappingContext();
+            mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+            mappingContext.afterPropertiesSet();
+            MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+            converter.setCustomConversions(conversions);
+            converter.afterPropertiesSet();
+            return converter;
+        }
+
+        @Bean
+        ExecutableFind<WorkloadPlan> planFind() {
+            return capturingFind();
+        }
+
+        @Bean
+        ExecutableFind<DemandForecast> forecastFind() {
+            return capturingFind();
+        }
+
+        @Bean
+        ReactiveFind<WorkloadPlan> reactivePlanFind() {
+            @SuppressWarnings("unchecked")
+            ReactiveFind<WorkloadPlan> find = mock(ReactiveFind.class, RETURNS_SELF);
+            when(find.all()).thenReturn(Flux.empty());
+            return find;
+        }
+
+        @Bean
+        MongoTemplate mongoTemplate(MappingMongoConverter converter, ExecutableFind<WorkloadPlan> planFind,
+                                    ExecutableFind<DemandForecast> forecastFind) {
+            MongoTemplate template = mock(MongoTemplate.class);
+            when(template.getConverter()).thenReturn(converter);
+            when(template.query(WorkloadPlan.class)).thenReturn(planFind);
+            when(template.query(DemandForecast.class)).thenReturn(forecastFind);
+            return template;
+        }
+
+        @Bean
+        ReactiveMongoTemplate reactiveMongoTemplate(MappingMongoConverter converter,
+                                                    ReactiveFind<WorkloadPlan> reactivePlanFind) {
+            ReactiveMongoTemplate template = mock(ReactiveMongoTemplate.class);
+            when(template.getConverter()).thenReturn(converter);
+            when(template.query(WorkloadPlan.class)).thenReturn(reactivePlanFind);
+            return template;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> ExecutableFind<T> capturingFind() {
+            ExecutableFind<T> find = mock(ExecutableFind.class, RETURNS_SELF);
+            when(find.all()).thenReturn(List.of());
+            return find;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.paklog.wms.workload.adapter.persistence;
+
+import com.paklog.wms.workload.domain.aggregate.DemandForecast;
+import com.paklog.wms.workload.domain.aggregate.WorkloadPlan;
+import com.paklog.wms.workload.domain.repository.WarehouseKpi;
+import com.paklog.wms.workload.domain.valueobject.ForecastPeriod;
+import com.paklog.wms.workload.domain.valueobject.ShiftType;
+import com.paklog.wms.workload.domain.valueobject.WorkloadCategory;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+
+class WarehouseKpiProjectorTest {
+
+    private final MongoTemplate mongoTemplate = Mockito.mock(MongoTemplate.class);
+    private final WarehouseKpiProjector projector = new WarehouseKpiProjector(mongoTemplate);
+
+    @Test
+    void shouldUpsertPlanMetricsGuardedByUpdateTime() {
+        WorkloadPlan plan = WorkloadPlan.create("plan-1", "WH-1", LocalDate.of(2025, 3, 1));
+        plan.setPlannedVolume(WorkloadCategory.PICKING, 500);
+        plan.assignWorkerToShift(ShiftType.DAY_SHIFT, "worker-1", "Alice", WorkloadCategory.PICKING, 8);
+        plan.assignWorkerToShift(ShiftType.DAY_SHIFT, "worker-2", "Bob", WorkloadCategory.PICKING, 8);
+        plan.assignWorkerToShift(ShiftType.NIGHT_SHIFT, "worker-3", "Carol", WorkloadCategory.PICKING, 8);
+
+        projector.projectPlan(plan);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        Mockito.verify(mongoTemplate).upsert(query.capture(), update.capture(), eq(WarehouseKpi.class));
+        assertThat(query.getValue().getQueryObject())
+            .containsEntry("_id", "WH-1:2025-03-01")
+            .containsKey("$or");
+        Document set = (Document) update.getValue().getUpdateObject().get("$set");
+        assertThat(set)
+            .containsEntry("planId", "plan-1")
+            .containsEntry("availableLaborHours", 24)
+            .containsEntry("headcountByShift", Map.of(ShiftType.DAY_SHIFT, 2, ShiftType.NIGHT_SHIFT, 1));
+    }
+
+    @Test
+    void shouldSpreadForecastOverCoveredDatesAndSkipStaleWrites() {
+        LocalDateTime base = LocalDateTime.of(2025, 3, 1, 20, 0);
+        DemandForecast forecast = DemandForecast.restore("forecast-1", "WH-1", ForecastPeriod.HOURLY, base, base);
+        for (int hour = 0; hour < 6; hour++) {
+            forecast.addDataPoint(base.plusHours(hour), WorkloadCategory.PICKING, 10, 1.0);
+        }
+        Mockito.when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(WarehouseKpi.class)))
+            .thenThrow(new DuplicateKeyException("newer forecast already projected"))
+            .thenReturn(null);
+
+        projector.projectForecast(forecast);
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        Mockito.verify(mongoTemplate, Mockito.times(2)).upsert(any(Query.class), update.capture(), eq(WarehouseKpi.class));
+        List<Update> updates = update.getAllValues();
+        assertThat(((Document) updates.get(0).getUpdateObject().get("$set")).get("forecastedVolumeByCategory"))
+            .isEqualTo(Map.of(WorkloadCategory.PICKING, 40));
+        assertThat(((Document) updates.get(1).getUpdateObject().get("$set")).get("forecastedVolumeByCategory"))
+            .isEqualTo(Map.of(WorkloadCategory.PICKING, 20));
+    }
+
+    @Test
+    void shouldClearPlanMetricsWhenPlanIsCancelled() {
+        WorkloadPlan plan = WorkloadPlan.create("plan-1", "WH-1", LocalDate.of(2025, 3, 1));
+        plan.cancel("weather");
+
+        projector.projectPlan(plan);
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        Mockito.verify(mongoTemplate).updateFirst(any(Query.class), update.capture(), eq(WarehouseKpi.class));
+        assertThat((Document) update.getValue().getUpdateObject().get("$unset")).containsKeys("planId", "headcountByShift");
+        Mockito.verify(mongoTemplate, Mockito.never()).upsert(any(Query.class), any(Update.class), eq(WarehouseKpi.class));
+    }
+}
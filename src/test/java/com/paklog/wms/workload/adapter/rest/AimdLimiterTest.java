@@ -0,0 +1,104 @@
+package com.paklog.wms.workload.adapter.rest;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AimdLimiterTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    @Test
+    void shouldRefuseRequestsOverTheLimitUntilASlotIsReleased() {
+        AimdLimiter limiter = new AimdLimiter(2, 1, 10, Duration.ofMillis(100), nanos::get);
+
+        AimdLimiter.Permit first = limiter.tryAcquire().orElseThrow();
+        limiter.tryAcquire().orElseThrow();
+
+        assertThat(limiter.tryAcquire()).isEmpty();
+        first.release();
+        first.release();
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+        assertThat(limiter.tryAcquire()).isPresent();
+    }
+
+    @Test
+    void shouldGrowWhileFastAndBusyAndBackOffWhenLatencyInflates() {
+        AimdLimiter limiter = new AimdLimiter(10, 2, 12, Duration.ofMillis(100), nanos::get);
+
+        List<AimdLimiter.Permit> permits = acquire(limiter, 6);
+        nanos.addAndGet(Duration.ofMillis(20).toNanos());
+        permits.forEach(AimdLimiter.Permit::release);
+        assertThat(limiter.getLimit()).isEqualTo(12);
+
+        AimdLimiter.Permit slow = limiter.tryAcquire().orElseThrow();
+        nanos.addAndGet(Duration.ofMillis(500).toNanos());
+        slow.release();
+        assertThat(limiter.getLimit()).isEqualTo(10);
+
+        for (int i = 0; i < 50; i++) {
+            AimdLimiter.Permit permit = limiter.tryAcquire().orElseThrow();
+            nanos.addAndGet(Duration.ofSeconds(1).toNanos());
+            permit.release();
+        }
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldBackOffOncePerLatencyBudgetWhenABurstIsSlow() {
+        AimdLimiter limiter = new AimdLimiter(100, 2, 200, Duration.ofMillis(100), nanos::get);
+
+        List<AimdLimiter.Permit> burst = acquire(limiter, 50);
+        nanos.addAndGet(Duration.ofMillis(500).toNanos());
+        burst.forEach(AimdLimiter.Permit::release);
+        assertThat(limiter.getLimit()).isEqualTo(90);
+
+        AimdLimiter.Permit later = limiter.tryAcquire().orElseThrow();
+        nanos.addAndGet(Duration.ofMillis(150).toNanos());
+        later.release();
+        assertThat(limiter.getLimit()).isEqualTo(81);
+    }
+
+    @Test
+    void shouldNotGrowWhenMostOfTheLimitIsUnused() {
+        AimdLimiter limiter = new AimdLimiter(10, 1, 100, Duration.ofMillis(100), nanos::get);
+
+        for (int i = 0; i < 20; i++) {
+            limiter.tryAcquire().orElseThrow().release();
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    void shouldKeepAFixedLimitWhateverTheLatency() {
+        AimdLimiter limiter = AimdLimiter.fixed(4);
+
+        List<AimdLimiter.Permit> permits = acquire(limiter, 4);
+        assertThat(limiter.tryAcquire()).isEmpty();
+        permits.forEach(AimdLimiter.Permit::release);
+
+        assertThat(limiter.getLimit()).isEqualTo(4);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void shouldRejectInconsistentLimits() {
+        assertThatThrownBy(() -> new AimdLimiter(5, 10, 20, Duration.ofMillis(100)))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<AimdLimiter.Permit> acquire(AimdLimiter limiter, int count) {
+        List<AimdLimiter.Permit> permits = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            permits.add(limiter.tryAcquire().orElseThrow());
+        }
+        return permits;
+    }
+}
@@ -0,0 +1,87 @@
+package com.paklog.wms.workload.adapter.rest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.method.HandlerMethod;
+
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimitInterceptorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConcurrencyLimitInterceptor interceptor = new ConcurrencyLimitInterceptor(Map.of(
+        EndpointClass.READ, new AimdLimiter(1, 1, 1, Duration.ofSeconds(1)),
+        EndpointClass.WRITE, new AimdLimiter(1, 1, 1, Duration.ofSeconds(1)),
+        EndpointClass.COMPUTE, new AimdLimiter(1, 1, 1, Duration.ofSeconds(1))
+    ), Duration.ofSeconds(2), meterRegistry);
+
+    @Test
+    void shouldShedComputeOverItsLimitWithoutTouchingReads() throws Exception {
+        HandlerMethod optimize = handler("optimize");
+        MockHttpServletRequest running = request("POST");
+        assertThat(interceptor.preHandle(running, new MockHttpServletResponse(), optimize)).isTrue();
+
+        MockHttpServletResponse refused = new MockHttpServletResponse();
+        assertThat(interceptor.preHandle(request("POST"), refused, optimize)).isFalse();
+        assertThat(refused.getStatus()).isEqualTo(503);
+        assertThat(refused.getHeader("Retry-After")).isEqualTo("2");
+        assertThat(meterRegistry.get("workload.api.concurrency.rejected").tag("class", "compute").counter().count())
+            .isEqualTo(1.0);
+
+        assertThat(interceptor.preHandle(request("GET"), new MockHttpServletResponse(), handler("read"))).isTrue();
+
+        interceptor.afterCompletion(running, new MockHttpServletResponse(), optimize, null);
+        assertThat(interceptor.preHandle(request("POST"), new MockHttpServletResponse(), optimize)).isTrue();
+        assertThat(meterRegistry.get("workload.api.concurrency.limit").tag("class", "compute").gauge().value())
+            .isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldClassifyUnannotatedHandlersByMethod() throws Exception {
+        assertThat(ConcurrencyLimitInterceptor.classify(handler("read"), request("GET"))).isEqualTo(EndpointClass.READ);
+        assertThat(ConcurrencyLimitInterceptor.classify(handler("read"), request("POST"))).isEqualTo(EndpointClass.WRITE);
+        assertThat(ConcurrencyLimitInterceptor.classify(handler("optimize"), request("POST")))
+            .isEqualTo(EndpointClass.COMPUTE);
+    }
+
+    @Test
+    void shouldClassifyStreamsAndImportsAsTransfers() throws Exception {
+        assertThat(bulkhead(WorkloadPlanningController.class.getMethod(
+            "streamForecastDataPoints", String.class, WebRequest.class))).isEqualTo(EndpointClass.TRANSFER);
+        assertThat(bulkhead(WorkloadPlanningController.class.getMethod(
+            "getForecastDataPoints", String.class, WebRequest.class))).isEqualTo(EndpointClass.TRANSFER);
+        assertThat(bulkhead(DemandHistoryController.class.getMethod(
+            "importDemandHistory", String.class, MediaType.class, InputStream.class))).isEqualTo(EndpointClass.TRANSFER);
+    }
+
+    private static EndpointClass bulkhead(Method handler) {
+        return handler.getAnnotation(Bulkhead.class).value();
+    }
+
+    private static HandlerMethod handler(String name) throws NoSuchMethodException {
+        return new HandlerMethod(new Handlers(), Handlers.class.getMethod(name));
+    }
+
+    private static MockHttpServletRequest request(String method) {
+        return new MockHttpServletRequest(method, "/api/v1/workload/plans/plan-1");
+    }
+
+    static class Handlers {
+
+        @Bulkhead(EndpointClass.COMPUTE)
+        public void optimize() {
+        }
+
+        public void read() {
+        }
+    }
+}
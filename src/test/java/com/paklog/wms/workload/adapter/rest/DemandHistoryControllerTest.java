@@ -0,0 +1,101 @@
+package com.paklog.wms.workload.adapter.rest;
+
+import com.paklog.wms.workload.application.service.DemandHistoryService;
+import com.paklog.wms.workload.application.service.DemandHistoryService.HistoryImportException;
+import com.paklog.wms.workload.application.service.DemandHistoryService.ImportReport;
+import com.paklog.wms.workload.domain.repository.DemandObservation;
+import com.paklog.wms.workload.domain.valueobject.WorkloadCategory;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(DemandHistoryController.class)
+class DemandHistoryControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private DemandHistoryService historyService;
+
+    private final List<DemandObservation> imported = new ArrayList<>();
+
+    @Test
+    void shouldImportCsvRows() throws Exception {
+        drainIntoImported();
+
+        mockMvc.perform(post("/api/v1/workload/warehouses/WH-1/demand-history")
+                .contentType("text/csv")
+                .content("""
+                    timestamp,category,volume
+                    2024-01-01T00:00:00,PICKING,120
+                    2024-01-01T01:00:00,PACKING,80
+                    """))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.rows").value(2));
+
+        assertThat(imported).containsExactly(
+            DemandObservation.of("WH-1", WorkloadCategory.PICKING, LocalDateTime.of(2024, 1, 1, 0, 0), 120),
+            DemandObservation.of("WH-1", WorkloadCategory.PACKING, LocalDateTime.of(2024, 1, 1, 1, 0), 80)
+        );
+    }
+
+    @Test
+    void shouldImportNdjsonRows() throws Exception {
+        drainIntoImported();
+
+        mockMvc.perform(post("/api/v1/workload/warehouses/WH-1/demand-history")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content("""
+                    {"timestamp":"2024-01-01T00:00:00","category":"PICKING","volume":120}
+                    {"timestamp":"2024-01-01T01:00:00","category":"RETURNS","volume":3,"source":"wms"}
+                    """))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.warehouseId").value("WH-1"));
+
+        assertThat(imported).extracting(DemandObservation::category)
+            .containsExactly(WorkloadCategory.PICKING, WorkloadCategory.RETURNS);
+    }
+
+    @Test
+    void shouldRejectIncompleteRows() throws Exception {
+        drainIntoImported();
+
+        mockMvc.perform(post("/api/v1/workload/warehouses/WH-1/demand-history")
+                .contentType("text/csv")
+                .content("""
+                    timestamp,category,volume
+                    2024-01-01T00:00:00,PICKING,120
+                    2024-01-01T01:00:00,PACKING,
+                    """))
+            .andExpect(status().isBadRequest());
+        assertThat(imported).hasSize(1);
+    }
+
+    private void drainIntoImported() {
+        Mockito.when(historyService.importHistory(eq("WH-1"), any())).thenAnswer(invocation -> {
+            Iterator<DemandObservation> rows = invocation.getArgument(1);
+            try {
+                rows.forEachRemaining(imported::add);
+            } catch (RuntimeException e) {
+                throw new HistoryImportException(imported.size(), e);
+            }
+            return new ImportReport("WH-1", imported.size(), 1, 1, 1000.0 * imported.size());
+        });
+    }
+}
@@ -1,36 +1,52 @@
 package com.paklog.wms.workload.adapter.rest;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import com.paklog.wms.workload.adapter.rest.dto.AssignWorkerRequest;
 import com.paklog.wms.workload.adapter.rest.dto.CreateWorkloadPlanRequest;
 import com.paklog.wms.workload.adapter.rest.dto.GenerateForecastRequest;
+import com.paklog.wms.workload.application.service.RecommendationEngine;
 import com.paklog.wms.workload.application.service.WorkloadPlanningService;
+import com.paklog.wms.workload.application.service.WorkloadPlanningService.NoDemandHistoryException;
 import com.paklog.wms.workload.domain.aggregate.DemandForecast;
 import com.paklog.wms.workload.domain.aggregate.WorkloadPlan;
 import com.paklog.wms.workload.domain.entity.WorkerCapacity;
+import com.paklog.wms.workload.domain.repository.ForecastRevision;
+import com.paklog.wms.workload.domain.repository.ForecastSummary;
+import com.paklog.wms.workload.domain.repository.PlanRevision;
+import com.paklog.wms.workload.domain.repository.PlanSummary;
+import com.paklog.wms.workload.domain.repository.WarehouseKpi;
 import com.paklog.wms.workload.domain.valueobject.ForecastPeriod;
 import com.paklog.wms.workload.domain.valueobject.ShiftType;
 import com.paklog.wms.workload.domain.valueobject.SkillLevel;
 import com.paklog.wms.workload.domain.valueobject.WorkloadCategory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(WorkloadPlanningController.class)
+@Import(BinaryContentConfiguration.class)
 class WorkloadPlanningControllerTest {
 
     @Autowired
@@ -64,35 +80,189 @@ class WorkloadPlanningControllerTest {
             .andExpect(jsonPath("$.dataPoints[0].category").value("PICKING"));
     }
 
+    @Test
+    void shouldRejectForecastWithoutAnyHistory() throws Exception {
+        Mockito.when(planningService.generateDemandForecast(anyString(), any(ForecastPeriod.class), any(LocalDateTime.class), any()))
+            .thenThrow(new NoDemandHistoryException("WH-1", LocalDateTime.of(2025, 3, 1, 0, 0)));
+
+        GenerateForecastRequest request = new GenerateForecastRequest(
+            "WH-1",
+            ForecastPeriod.DAILY,
+            LocalDateTime.of(2025, 3, 1, 0, 0),
+            Map.of()
+        );
+
+        mockMvc.perform(post("/api/v1/workload/forecasts")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     void shouldGetForecastById() throws Exception {
         DemandForecast forecast = sampleForecast();
+        Mockito.when(planningService.getForecastRevision("forecast-1"))
+            .thenReturn(Optional.of(ForecastRevision.of(forecast)));
         Mockito.when(planningService.getForecast("forecast-1"))
             .thenReturn(Optional.of(forecast));
 
         mockMvc.perform(get("/api/v1/workload/forecasts/forecast-1"))
             .andExpect(status().isOk())
+            .andExpect(header().exists("ETag"))
+            .andExpect(header().exists("Last-Modified"))
             .andExpect(jsonPath("$.forecastId").value("forecast-1"));
     }
 
+    @Test
+    void shouldAnswerUnchangedForecastWithoutLoadingIt() throws Exception {
+        DemandForecast forecast = sampleForecast();
+        Mockito.when(planningService.getForecastRevision("forecast-1"))
+            .thenReturn(Optional.of(ForecastRevision.of(forecast)));
+        Mockito.when(planningService.getForecast("forecast-1"))
+            .thenReturn(Optional.of(forecast));
+        String eTag = mockMvc.perform(get("/api/v1/workload/forecasts/forecast-1"))
+            .andReturn().getResponse().getHeader("ETag");
+        Mockito.clearInvocations(planningService);
+
+        mockMvc.perform(get("/api/v1/workload/forecasts/forecast-1").header("If-None-Match", eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string("ETag", eTag))
+            .andExpect(content().string(""));
+        Mockito.verify(planningService, Mockito.never()).getForecast(anyString());
+    }
+
+    @Test
+    void shouldStreamForecastDataPointsAsNdjson() throws Exception {
+        DemandForecast forecast = sampleForecast();
+        Mockito.when(planningService.getForecastRevision("forecast-1"))
+            .thenReturn(Optional.of(ForecastRevision.of(forecast)));
+        Mockito.when(planningService.getForecast("forecast-1"))
+            .thenReturn(Optional.of(forecast));
+
+        MvcResult started = mockMvc.perform(get("/api/v1/workload/forecasts/forecast-1/data-points")
+                .accept(MediaType.APPLICATION_NDJSON))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+            .andExpect(header().exists("ETag"))
+            .andReturn().getResponse().getContentAsString();
+        List<String> lines = body.lines().toList();
+        assertThat(lines).hasSize(forecast.getDataPointCount());
+        assertThat(objectMapper.readTree(lines.get(0)).get("category").asText()).isEqualTo("PICKING");
+        assertThat(objectMapper.readTree(lines.get(0)).get("forecastedVolume").asInt()).isPositive();
+    }
+
+    @Test
+    void shouldStreamForecastDataPointsAsJsonArrayMatchingTheForecastBody() throws Exception {
+        DemandForecast forecast = sampleForecast();
+        Mockito.when(planningService.getForecastRevision("forecast-1"))
+            .thenReturn(Optional.of(ForecastRevision.of(forecast)));
+        Mockito.when(planningService.getForecast("forecast-1"))
+            .thenReturn(Optional.of(forecast));
+
+        MvcResult started = mockMvc.perform(get("/api/v1/workload/forecasts/forecast-1/data-points")
+                .accept(MediaType.APPLICATION_JSON))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        String streamed = mockMvc.perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+            .andReturn().getResponse().getContentAsString();
+        String full = mockMvc.perform(get("/api/v1/workload/forecasts/forecast-1"))
+            .andReturn().getResponse().getContentAsString();
+
+        assertThat(objectMapper.readTree(streamed)).isEqualTo(objectMapper.readTree(full).get("dataPoints"));
+    }
+
     @Test
     void shouldReturnNotFoundWhenForecastMissing() throws Exception {
-        Mockito.when(planningService.getForecast("missing"))
+        Mockito.when(planningService.getForecastRevision("missing"))
             .thenReturn(Optional.empty());
 
         mockMvc.perform(get("/api/v1/workload/forecasts/missing"))
             .andExpect(status().isNotFound());
     }
 
+    @Test
+    void shouldGetLatestForecast() throws Exception {
+        Mockito.when(planningService.getLatestForecast("WH-1", ForecastPeriod.DAILY))
+            .thenReturn(Optional.of(sampleForecast()));
+        Mockito.when(planningService.getLatestForecast("WH-2", null))
+            .thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/v1/workload/forecasts/latest")
+                .param("warehouseId", "WH-1")
+                .param("period", "DAILY"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.forecastId").value("forecast-1"));
+
+        mockMvc.perform(get("/api/v1/workload/forecasts/latest")
+                .param("warehouseId", "WH-2"))
+            .andExpect(status().isNotFound());
+    }
+
     @Test
     void shouldListForecasts() throws Exception {
-        Mockito.when(planningService.getForecastsByWarehouse("WH-1"))
-            .thenReturn(List.of(sampleForecast()));
+        Mockito.when(planningService.getForecastSummaries("WH-1", null, null, 51))
+            .thenReturn(List.of(sampleForecastSummary("forecast-1", LocalDateTime.now())));
 
         mockMvc.perform(get("/api/v1/workload/forecasts")
                 .param("warehouseId", "WH-1"))
             .andExpect(status().isOk())
-            .andExpect(jsonPath("$[0].forecastId").value("forecast-1"));
+            .andExpect(jsonPath("$[0].forecastId").value("forecast-1"))
+            .andExpect(jsonPath("$[0].dataPoints").doesNotExist())
+            .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    void shouldPageForecastsWithKeysetCursor() throws Exception {
+        LocalDateTime newest = LocalDateTime.of(2025, 3, 2, 6, 0);
+        LocalDateTime older = newest.minusDays(1);
+        Mockito.when(planningService.getForecastSummaries("WH-1", null, null, 2))
+            .thenReturn(List.of(
+                sampleForecastSummary("forecast-2", newest),
+                sampleForecastSummary("forecast-1", older)
+            ));
+
+        String cursor = mockMvc.perform(get("/api/v1/workload/forecasts")
+                .param("warehouseId", "WH-1")
+                .param("limit", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].forecastId").value("forecast-2"))
+            .andReturn().getResponse().getHeader("X-Next-Cursor");
+
+        Mockito.when(planningService.getForecastSummaries("WH-1", newest, "forecast-2", 2))
+            .thenReturn(List.of(sampleForecastSummary("forecast-1", older)));
+
+        mockMvc.perform(get("/api/v1/workload/forecasts")
+                .param("warehouseId", "WH-1")
+                .param("limit", "1")
+                .param("cursor", cursor))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].forecastId").value("forecast-1"))
+            .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    void shouldCapPageSizeAndRejectMalformedCursor() throws Exception {
+        Mockito.when(planningService.getForecastSummaries("WH-1", null, null, 201))
+            .thenReturn(List.of());
+
+        mockMvc.perform(get("/api/v1/workload/forecasts")
+                .param("warehouseId", "WH-1")
+                .param("limit", "100000"))
+            .andExpect(status().isOk());
+
+        Mockito.verify(planningService).getForecastSummaries("WH-1", null, null, 201);
+
+        mockMvc.perform(get("/api/v1/workload/plans")
+                .param("warehouseId", "WH-1")
+                .param("cursor", "not-a-cursor"))
+            .andExpect(status().isBadRequest());
     }
 
     @Test
@@ -118,17 +288,93 @@ class WorkloadPlanningControllerTest {
     @Test
     void shouldGetPlan() throws Exception {
         WorkloadPlan plan = samplePlan();
+        Mockito.when(planningService.getPlanRevision("plan-1"))
+            .thenReturn(Optional.of(PlanRevision.of(plan)));
         Mockito.when(planningService.getWorkloadPlan("plan-1"))
             .thenReturn(Optional.of(plan));
 
         mockMvc.perform(get("/api/v1/workload/plans/plan-1"))
             .andExpect(status().isOk())
+            .andExpect(header().string("ETag", "\"2-" + epochMillis(plan.getUpdatedAt()) + "\""))
             .andExpect(jsonPath("$.planId").value("plan-1"));
     }
 
+    @Test
+    void shouldReadAndSendOnlySelectedPlanFields() throws Exception {
+        WorkloadPlan plan = samplePlan();
+        plan.assignWorkerToShift(ShiftType.DAY_SHIFT, "W-1", "Worker One", WorkloadCategory.PICKING, 8);
+        plan.assignWorkerToShift(ShiftType.DAY_SHIFT, "W-2", "Worker Two", WorkloadCategory.PACKING, 8);
+        Mockito.when(planningService.getPlanRevision("plan-1"))
+            .thenReturn(Optional.of(PlanRevision.of(plan)));
+        Mockito.when(planningService.getWorkloadPlan(eq("plan-1"), anyCollection()))
+            .thenReturn(Optional.of(plan));
+
+        mockMvc.perform(get("/api/v1/workload/plans/plan-1")
+                .param("fields", "utilizationPercentage, headcountByShift"))
+            .andExpect(status().isOk())
+            .andExpect(header().exists("ETag"))
+            .andExpect(jsonPath("$.planId").value("plan-1"))
+            .andExpect(jsonPath("$.headcountByShift.DAY_SHIFT").value(2))
+            .andExpect(jsonPath("$.utilizationPercentage").exists())
+            .andExpect(jsonPath("$.shiftAssignments").doesNotExist())
+            .andExpect(jsonPath("$.warehouseId").doesNotExist());
+        Mockito.verify(planningService).getWorkloadPlan("plan-1",
+            Set.of("planId", "utilizationPercentage", "headcountByShift"));
+        Mockito.verify(planningService, Mockito.never()).getWorkloadPlan(anyString());
+    }
+
+    @Test
+    void shouldRejectUnknownPlanFields() throws Exception {
+        mockMvc.perform(get("/api/v1/workload/plans/plan-1").param("fields", "utilizationPercentage,salary"))
+            .andExpect(status().isBadRequest());
+        Mockito.verifyNoInteractions(planningService);
+    }
+
+    @Test
+    void shouldSendPlanAsCborWhenAsked() throws Exception {
+        WorkloadPlan plan = samplePlan();
+        Mockito.when(planningService.getPlanRevision("plan-1"))
+            .thenReturn(Optional.of(PlanRevision.of(plan)));
+        Mockito.when(planningService.getWorkloadPlan("plan-1"))
+            .thenReturn(Optional.of(plan));
+
+        byte[] cbor = mockMvc.perform(get("/api/v1/workload/plans/plan-1").accept("application/cbor"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/cbor"))
+            .andExpect(header().string("Vary", org.hamcrest.Matchers.containsString("Accept")))
+            .andReturn().getResponse().getContentAsByteArray();
+        String json = mockMvc.perform(get("/api/v1/workload/plans/plan-1"))
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+            .andReturn().getResponse().getContentAsString();
+
+        assertThat(new CBORMapper().readTree(cbor)).isEqualTo(objectMapper.readTree(json));
+        assertThat(cbor.length).isLessThan(json.length());
+    }
+
+    @Test
+    void shouldRevalidatePlanAgainstItsRevision() throws Exception {
+        WorkloadPlan plan = samplePlan();
+        Mockito.when(planningService.getPlanRevision("plan-1"))
+            .thenAnswer(invocation -> Optional.of(PlanRevision.of(plan)));
+        Mockito.when(planningService.getWorkloadPlan("plan-1"))
+            .thenReturn(Optional.of(plan));
+        String eTag = mockMvc.perform(get("/api/v1/workload/plans/plan-1"))
+            .andReturn().getResponse().getHeader("ETag");
+        Mockito.clearInvocations(planningService);
+
+        mockMvc.perform(get("/api/v1/workload/plans/plan-1").header("If-None-Match", eTag))
+            .andExpect(status().isNotModified());
+        Mockito.verify(planningService, Mockito.never()).getWorkloadPlan(anyString());
+
+        plan.assignWorkerToShift(ShiftType.DAY_SHIFT, "W-1", "Worker One", WorkloadCategory.PICKING, 8);
+        mockMvc.perform(get("/api/v1/workload/plans/plan-1").header("If-None-Match", eTag))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", "\"3-" + epochMillis(plan.getUpdatedAt()) + "\""));
+    }
+
     @Test
     void shouldReturnNotFoundWhenPlanMissing() throws Exception {
-        Mockito.when(planningService.getWorkloadPlan("missing"))
+        Mockito.when(planningService.getPlanRevision("missing"))
             .thenReturn(Optional.empty());
 
         mockMvc.perform(get("/api/v1/workload/plans/missing"))
@@ -137,13 +383,19 @@ class WorkloadPlanningControllerTest {
 
     @Test
     void shouldListPlans() throws Exception {
-        Mockito.when(planningService.getWorkloadPlansByWarehouse("WH-1"))
-            .thenReturn(List.of(samplePlan()));
+        PlanSummary summary = new PlanSummary(
+            "plan-1", "WH-1", LocalDate.now(), 18, 16, 112.5, 400.0,
+            WorkloadPlan.PlanStatus.DRAFT, LocalDateTime.now(), LocalDateTime.now()
+        );
+        Mockito.when(planningService.getPlanSummaries("WH-1", null, null, 51))
+            .thenReturn(List.of(summary));
 
         mockMvc.perform(get("/api/v1/workload/plans")
                 .param("warehouseId", "WH-1"))
             .andExpect(status().isOk())
-            .andExpect(jsonPath("$[0].planId").value("plan-1"));
+            .andExpect(jsonPath("$[0].planId").value("plan-1"))
+            .andExpect(jsonPath("$[0].status").value("DRAFT"))
+            .andExpect(jsonPath("$[0].shiftAssignments").doesNotExist());
     }
 
     @Test
@@ -209,11 +461,34 @@ class WorkloadPlanningControllerTest {
             .andExpect(jsonPath("$.status").value("CANCELLED"));
     }
 
+    @Test
+    void shouldReturnWarehouseKpiForDate() throws Exception {
+        LocalDate date = LocalDate.of(2025, 3, 1);
+        WarehouseKpi kpi = new WarehouseKpi(
+            WarehouseKpi.idOf("WH-1", date), "WH-1", date,
+            "plan-1", WorkloadPlan.PlanStatus.PUBLISHED, LocalDateTime.now(),
+            120, 128, 93.75, 3200.0, Map.of(ShiftType.DAY_SHIFT, 16),
+            "forecast-1", ForecastPeriod.DAILY, LocalDateTime.now(), Map.of(WorkloadCategory.PICKING, 900), 91.0,
+            LocalDateTime.now()
+        );
+        Mockito.when(planningService.getWarehouseKpi("WH-1", date)).thenReturn(Optional.of(kpi));
+
+        mockMvc.perform(get("/api/v1/workload/kpis").param("warehouseId", "WH-1").param("date", "2025-03-01"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.utilizationPercentage").value(93.75))
+            .andExpect(jsonPath("$.headcountByShift.DAY_SHIFT").value(16))
+            .andExpect(jsonPath("$.forecastedVolumeByCategory.PICKING").value(900));
+
+        mockMvc.perform(get("/api/v1/workload/kpis").param("warehouseId", "WH-1").param("date", "2025-03-02"))
+            .andExpect(status().isNotFound());
+    }
+
     @Test
     void shouldReturnRecommendations() throws Exception {
         DemandForecast forecast = sampleForecastWithHighVolume();
-        Mockito.when(planningService.getForecast("forecast-1"))
-            .thenReturn(Optional.of(forecast));
+        Mockito.when(planningService.getStaffingRecommendation("WH-1", "forecast-1"))
+            .thenReturn(Optional.of(new RecommendationEngine(100, Duration.ofMinutes(1), new SimpleMeterRegistry())
+                .recommend("WH-1", forecast, null)));
 
         mockMvc.perform(get("/api/v1/workload/recommendations")
                 .param("warehouseId", "WH-1")
@@ -235,6 +510,13 @@ class WorkloadPlanningControllerTest {
         return forecast;
     }
 
+    private ForecastSummary sampleForecastSummary(String forecastId, LocalDateTime forecastDate) {
+        return new ForecastSummary(
+            forecastId, "WH-1", ForecastPeriod.DAILY, forecastDate,
+            "MOVING_AVERAGE", 92.0, 4.0, forecastDate
+        );
+    }
+
     private DemandForecast sampleForecastWithHighVolume() {
         DemandForecast forecast = sampleForecast();
         forecast.addDataPoint(LocalDateTime.now().plusHours(24), WorkloadCategory.PICKING, 3200, 5.0);
@@ -242,6 +524,10 @@ class WorkloadPlanningControllerTest {
         return forecast;
     }
 
+    private static long epochMillis(LocalDateTime timestamp) {
+        return timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
     private WorkloadPlan samplePlan() {
         WorkloadPlan plan = WorkloadPlan.create("plan-1", "WH-1", LocalDate.now());
         plan.setPlannedVolume(WorkloadCategory.PICKING, 300);
@@ -0,0 +1,112 @@
+package com.paklog.wms.workload.adapter.rest;
+
+import com.paklog.wms.workload.application.service.RecommendationEngine;
+import com.paklog.wms.workload.application.service.WorkloadQueryService;
+import com.paklog.wms.workload.domain.aggregate.DemandForecast;
+import com.paklog.wms.workload.domain.aggregate.WorkloadPlan;
+import com.paklog.wms.workload.domain.repository.PlanRevision;
+import com.paklog.wms.workload.domain.repository.PlanSummary;
+import com.paklog.wms.workload.domain.valueobject.ForecastPeriod;
+import com.paklog.wms.workload.domain.valueobject.WorkloadCategory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(WorkloadQueryController.class)
+class WorkloadQueryControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private WorkloadQueryService queryService;
+
+    @Test
+    void shouldGetPlanWithoutBlocking() throws Exception {
+        WorkloadPlan plan = WorkloadPlan.create("plan-1", "WH-1", LocalDate.now());
+        plan.setPlannedVolume(WorkloadCategory.PICKING, 300);
+        Mockito.when(queryService.getPlanRevision("plan-1")).thenReturn(Mono.just(PlanRevision.of(plan)));
+        Mockito.when(queryService.getPlanRevision("missing")).thenReturn(Mono.empty());
+        Mockito.when(queryService.getWorkloadPlan("plan-1")).thenReturn(Mono.just(plan));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/workload/reactive/plans/plan-1"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        String eTag = mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.planId").value("plan-1"))
+            .andReturn().getResponse().getHeader("ETag");
+
+        Mockito.clearInvocations(queryService);
+        MvcResult unchanged = mockMvc.perform(get("/api/v1/workload/reactive/plans/plan-1")
+                .header("If-None-Match", eTag))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(unchanged))
+            .andExpect(status().isNotModified());
+        Mockito.verify(queryService, Mockito.never()).getWorkloadPlan("plan-1");
+
+        MvcResult missing = mockMvc.perform(get("/api/v1/workload/reactive/plans/missing"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(missing))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldPagePlanSummaries() throws Exception {
+        LocalDate today = LocalDate.of(2025, 3, 2);
+        Mockito.when(queryService.getPlanSummaries("WH-1", null, null, 2))
+            .thenReturn(Flux.just(summary("plan-2", today), summary("plan-1", today.minusDays(1))));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/workload/reactive/plans")
+                .param("warehouseId", "WH-1")
+                .param("limit", "1"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].planId").value("plan-2"))
+            .andExpect(header().exists(KeysetPaging.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void shouldBuildRecommendationsFromForecast() throws Exception {
+        DemandForecast forecast = DemandForecast.create("forecast-1", "WH-1", ForecastPeriod.DAILY, LocalDateTime.now());
+        forecast.addDataPoint(LocalDateTime.now(), WorkloadCategory.PICKING, 3200, 5.0);
+        Mockito.when(queryService.getStaffingRecommendation("WH-1", "forecast-1")).thenReturn(Mono.just(
+            new RecommendationEngine(100, Duration.ofMinutes(1), new SimpleMeterRegistry()).recommend("WH-1", forecast, null)));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/workload/reactive/recommendations")
+                .param("warehouseId", "WH-1")
+                .param("forecastId", "forecast-1"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.categoryRecommendations.PICKING.requiredWorkers").value(16));
+    }
+
+    private PlanSummary summary(String planId, LocalDate planDate) {
+        return new PlanSummary(
+            planId, "WH-1", planDate, 10, 8, 125.0, 200.0,
+            WorkloadPlan.PlanStatus.DRAFT, LocalDateTime.now(), LocalDateTime.now()
+        );
+    }
+}
@@ -0,0 +1,39 @@
+package com.paklog.wms.workload.adapter.rest.dto;
+
+import com.paklog.wms.workload.AllocationProbe;
+import com.paklog.wms.workload.domain.aggregate.WorkloadPlan;
+import com.paklog.wms.workload.domain.valueobject.ShiftType;
+import com.paklog.wms.workload.domain.valueobject.WorkloadCategory;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Allocation budget of mapping a plan to its response
+ */
+@Tag("allocation")
+class WorkloadPlanResponseAllocationTest {
+
+    private static final ShiftType[] SHIFTS = {ShiftType.DAY_SHIFT, ShiftType.EVENING_SHIFT, ShiftType.NIGHT_SHIFT};
+    private static final int ASSIGNMENTS = 60;
+
+    // Measured at 67 bytes: the assignment DTO and its share of the per-shift lists and map copies
+    private static final long ASSIGNMENT_BUDGET = 80;
+
+    @Test
+    void shouldStayWithinBudgetPerMappedAssignment() {
+        WorkloadPlan plan = WorkloadPlan.create("plan-1", "WH-1", LocalDate.of(2025, 3, 1));
+        plan.setPlannedVolume(WorkloadCategory.PICKING, 2_400);
+        for (int i = 0; i < ASSIGNMENTS; i++) {
+            plan.assignWorkerToShift(SHIFTS[i % SHIFTS.length], "worker-" + i, "Worker " + i,
+                WorkloadCategory.PICKING, 8);
+        }
+
+        AllocationProbe.Profile profile = AllocationProbe.measure(5_000, 5_000, () -> WorkloadPlanResponse.from(plan));
+
+        assertThat(profile.bytesPer(ASSIGNMENTS)).as(profile.describe()).isLessThanOrEqualTo(ASSIGNMENT_BUDGET);
+    }
+}
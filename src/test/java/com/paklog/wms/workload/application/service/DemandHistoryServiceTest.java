@@ -0,0 +1,99 @@
+package com.paklog.wms.workload.application.service;
+
+import com.paklog.wms.workload.application.service.DemandHistoryService.HistoryImportException;
+import com.paklog.wms.workload.application.service.DemandHistoryService.ImportReport;
+import com.paklog.wms.workload.domain.repository.DemandHistoryRepository;
+import com.paklog.wms.workload.domain.repository.DemandObservation;
+import com.paklog.wms.workload.domain.valueobject.ForecastPeriod;
+import com.paklog.wms.workload.domain.valueobject.WorkloadCategory;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+
+class DemandHistoryServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private final MongoTemplate mongoTemplate = Mockito.mock(MongoTemplate.class);
+    private final BulkOperations bulk = Mockito.mock(BulkOperations.class);
+    private final DemandHistoryRepository historyRepository = Mockito.mock(DemandHistoryRepository.class);
+    private final DemandHistoryService service = new DemandHistoryService(mongoTemplate, historyRepository, 2);
+
+    @Test
+    void shouldWriteRowsInBatchesAsTheyAreRead() {
+        Mockito.when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DemandObservation.class)).thenReturn(bulk);
+
+        ImportReport report = service.importHistory("WH-1", hours(5).iterator());
+
+        assertThat(report.rows()).isEqualTo(5);
+        assertThat(report.batches()).isEqualTo(3);
+        assertThat(report.rowsPerSecond()).isPositive();
+        Mockito.verify(bulk, Mockito.times(5))
+            .replaceOne(any(Query.class), any(DemandObservation.class), any(FindAndReplaceOptions.class));
+        Mockito.verify(bulk, Mockito.times(3)).execute();
+    }
+
+    @Test
+    void shouldKeepRowsBeforeAMalformedOne() {
+        Mockito.when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DemandObservation.class)).thenReturn(bulk);
+        Iterator<DemandObservation> rows = hours(3).iterator();
+        Iterator<DemandObservation> failing = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public DemandObservation next() {
+                if (rows.hasNext()) {
+                    return rows.next();
+                }
+                throw new IllegalArgumentException("Incomplete row at line 5");
+            }
+        };
+
+        assertThatThrownBy(() -> service.importHistory("WH-1", failing))
+            .isInstanceOf(HistoryImportException.class)
+            .hasMessageContaining("line 5")
+            .extracting(e -> ((HistoryImportException) e).getImportedRows())
+            .isEqualTo(3L);
+        Mockito.verify(bulk, Mockito.times(2)).execute();
+    }
+
+    @Test
+    void shouldSumHistoryIntoForecastPeriods() {
+        LocalDateTime before = START.plusDays(3);
+        Mockito.when(historyRepository.findByWarehouseIdAndTimestampGreaterThanEqualAndTimestampLessThan(
+                eq("WH-1"), eq(START.plusDays(1)), eq(before)))
+            .thenReturn(List.of(
+                DemandObservation.of("WH-1", WorkloadCategory.PICKING, START.plusDays(1), 10),
+                DemandObservation.of("WH-1", WorkloadCategory.PICKING, START.plusDays(1).plusHours(23), 5),
+                DemandObservation.of("WH-1", WorkloadCategory.PICKING, START.plusDays(2).plusHours(1), 7),
+                DemandObservation.of("WH-1", WorkloadCategory.PACKING, START.plusDays(2), 4)
+            ));
+
+        assertThat(service.recentVolumes("WH-1", ForecastPeriod.DAILY, before, 2))
+            .containsEntry(WorkloadCategory.PICKING, List.of(15, 7))
+            .containsEntry(WorkloadCategory.PACKING, List.of(0, 4))
+            .hasSize(2);
+    }
+
+    private static Stream<DemandObservation> hours(int count) {
+        return IntStream.range(0, count)
+            .mapToObj(hour -> DemandObservation.of("WH-1", WorkloadCategory.PICKING, START.plusHours(hour), 100 + hour));
+    }
+}
@@ -0,0 +1,54 @@
+package com.paklog.wms.workload.application.service;
+
+import com.paklog.wms.workload.domain.aggregate.DemandForecast;
+import com.paklog.wms.workload.domain.repository.DemandForecastRepository;
+import com.paklog.wms.workload.domain.repository.ForecastArchive;
+import com.paklog.wms.workload.domain.valueobject.ForecastPeriod;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Limit;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+
+class ForecastArchivalJobTest {
+
+    private final DemandForecastRepository forecastRepository = Mockito.mock(DemandForecastRepository.class);
+    private final ForecastArchive forecastArchive = Mockito.mock(ForecastArchive.class);
+    private final LatestForecastIndex latestForecastIndex = new LatestForecastIndex(Duration.ofMinutes(1));
+
+    @Test
+    void shouldArchiveBeforeDeletingAndStopWhenBatchIsShort() {
+        ForecastArchivalJob job = new ForecastArchivalJob(
+            forecastRepository, forecastArchive, latestForecastIndex,
+            new WorkloadAggregateCache(10, 10, Duration.ofMinutes(10), Clock.systemDefaultZone()),
+            Duration.ofDays(90), 2, 10
+        );
+        DemandForecast first = aged("forecast-1");
+        DemandForecast second = aged("forecast-2");
+        DemandForecast third = aged("forecast-3");
+        Mockito.when(forecastRepository.findByForecastDateBeforeOrderByForecastDateAsc(any(LocalDateTime.class), eq(Limit.of(2))))
+            .thenReturn(List.of(first, second))
+            .thenReturn(List.of(third));
+
+        job.archiveAgedForecasts();
+
+        InOrder inOrder = Mockito.inOrder(forecastArchive, forecastRepository);
+        inOrder.verify(forecastArchive).archive(first);
+        inOrder.verify(forecastRepository).deleteById("forecast-1");
+        Mockito.verify(forecastArchive).archive(third);
+        Mockito.verify(forecastRepository).deleteById("forecast-3");
+        Mockito.verify(forecastRepository, Mockito.times(2))
+            .findByForecastDateBeforeOrderByForecastDateAsc(any(LocalDateTime.class), any(Limit.class));
+    }
+
+    private DemandForecast aged(String forecastId) {
+        return DemandForecast.create(forecastId, "WH-1", ForecastPeriod.DAILY, LocalDateTime.now().minusDays(200));
+    }
+}
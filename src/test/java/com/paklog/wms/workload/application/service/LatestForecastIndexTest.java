@@ -0,0 +1,70 @@
+package com.paklog.wms.workload.application.service;
+
+import com.paklog.wms.workload.domain.aggregate.DemandForecast;
+import com.paklog.wms.workload.domain.valueobject.ForecastPeriod;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatestForecastIndexTest {
+
+    private final MutableClock clock = new MutableClock();
+    private final LatestForecastIndex index = new LatestForecastIndex(Duration.ofSeconds(30), clock);
+
+    @Test
+    void shouldTrackLatestForecastPerWarehouseAndPeriod() {
+        LocalDateTime base = LocalDateTime.of(2025, 3, 1, 6, 0);
+        index.record(DemandForecast.create("daily-1", "WH-1", ForecastPeriod.DAILY, base));
+        index.record(DemandForecast.create("hourly-1", "WH-1", ForecastPeriod.HOURLY, base.plusHours(2)));
+        index.record(DemandForecast.create("daily-old", "WH-1", ForecastPeriod.DAILY, base.minusDays(1)));
+
+        assertThat(index.lookup("WH-1", null)).contains("hourly-1");
+        assertThat(index.lookup("WH-1", ForecastPeriod.DAILY)).contains("daily-1");
+        assertThat(index.lookup("WH-1", ForecastPeriod.WEEKLY)).isEmpty();
+        assertThat(index.lookup("WH-2", null)).isEmpty();
+    }
+
+    @Test
+    void shouldExpirePointersAfterTtlAndEvictDeletedForecasts() {
+        LocalDateTime base = LocalDateTime.of(2025, 3, 1, 6, 0);
+        index.record(DemandForecast.create("daily-1", "WH-1", ForecastPeriod.DAILY, base));
+
+        clock.advance(Duration.ofSeconds(31));
+        assertThat(index.lookup("WH-1", ForecastPeriod.DAILY)).isEmpty();
+
+        index.record(DemandForecast.create("daily-2", "WH-1", ForecastPeriod.DAILY, base));
+        index.evict("daily-2");
+        assertThat(index.lookup("WH-1", null)).isEmpty();
+        assertThat(index.lookup("WH-1", ForecastPeriod.DAILY)).isEmpty();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2025-03-01T06:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
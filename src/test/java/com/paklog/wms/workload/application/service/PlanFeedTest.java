@@ -0,0 +1,156 @@
+package com.paklog.wms.workload.application.service;
+
+import com.paklog.wms.workload.domain.aggregate.WorkloadPlan;
+import com.paklog.wms.workload.domain.valueobject.ShiftType;
+import com.paklog.wms.workload.domain.valueobject.WorkloadCategory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PlanFeedTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PlanFeed feed = new PlanFeed(2, 10, 4, 100, meterRegistry);
+
+    @Test
+    void shouldSendSnapshotThenOnlyChangedMetrics() throws InterruptedException {
+        WorkloadPlan plan = WorkloadPlan.create("plan-1", "WH-1", LocalDate.of(2025, 3, 1));
+        RecordingSink sink = new RecordingSink();
+        feed.subscribeToPlan(plan, sink);
+
+        plan.assignWorkerToShift(ShiftType.DAY_SHIFT, "W-1", "Ada", WorkloadCategory.PICKING, 8);
+        feed.planChanged(plan);
+        // Replayed change: same revision, nothing new
+        feed.planChanged(plan);
+
+        eventually(() -> sink.received.size() == 2);
+        PlanMetrics snapshot = sink.received.get(0);
+        PlanMetrics delta = sink.received.get(1);
+        assertThat(snapshot.status()).isNotNull();
+        assertThat(delta.revision()).isEqualTo(plan.getRevision());
+        assertThat(delta.totalAvailableLaborHours()).isEqualTo(8);
+        assertThat(delta.headcountByShift()).containsEntry(ShiftType.DAY_SHIFT, 1);
+        assertThat(delta.status()).isNull();
+        assertThat(delta.totalRequiredLaborHours()).isNull();
+    }
+
+    @Test
+    void shouldFanOutWarehouseChangesToMatchingSubscribers() throws InterruptedException {
+        RecordingSink warehouse = new RecordingSink();
+        RecordingSink otherWarehouse = new RecordingSink();
+        feed.subscribeToWarehouse("WH-1", warehouse);
+        feed.subscribeToWarehouse("WH-2", otherWarehouse);
+
+        WorkloadPlan plan = WorkloadPlan.create("plan-1", "WH-1", LocalDate.of(2025, 3, 1));
+        plan.setPlannedVolume(WorkloadCategory.PICKING, 500);
+        feed.planChanged(plan);
+
+        eventually(() -> warehouse.received.size() == 1);
+        assertThat(warehouse.received.get(0).planId()).isEqualTo("plan-1");
+        assertThat(otherWarehouse.received).isEmpty();
+    }
+
+    @Test
+    void shouldPublishSavedPlanOnceTheTransactionCommits() throws InterruptedException {
+        RecordingSink sink = new RecordingSink();
+        feed.subscribeToWarehouse("WH-1", sink);
+        WorkloadPlan plan = WorkloadPlan.create("plan-1", "WH-1", LocalDate.of(2025, 3, 1));
+        plan.setPlannedVolume(WorkloadCategory.PICKING, 500);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            feed.planSaved(plan);
+            assertThat(sink.received).isEmpty();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        // The same revision arriving from the change stream is not sent again
+        feed.planChanged(plan);
+
+        eventually(() -> sink.received.size() == 1);
+        Thread.sleep(50);
+        assertThat(sink.received).hasSize(1);
+    }
+
+    @Test
+    void shouldEvictSubscriberThatFallsBehind() throws InterruptedException {
+        CountDownLatch stalled = new CountDownLatch(1);
+        RecordingSink slow = new RecordingSink() {
+            @Override
+            public void send(PlanMetrics metrics) {
+                stalled.countDown();
+                try {
+                    Thread.sleep(Long.MAX_VALUE);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        RecordingSink fast = new RecordingSink();
+        feed.subscribeToWarehouse("WH-1", slow);
+        feed.subscribeToWarehouse("WH-1", fast);
+
+        WorkloadPlan plan = WorkloadPlan.create("plan-1", "WH-1", LocalDate.of(2025, 3, 1));
+        plan.setPlannedVolume(WorkloadCategory.PICKING, 100);
+        feed.planChanged(plan);
+        assertThat(stalled.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int change = 2; change <= 5; change++) {
+            plan.setPlannedVolume(WorkloadCategory.PICKING, change * 100);
+            feed.planChanged(plan);
+            int delivered = change;
+            eventually(() -> fast.received.size() == delivered);
+        }
+
+        eventually(() -> slow.closed);
+        assertThat(fast.closed).isFalse();
+        assertThat(feed.subscriberCount()).isEqualTo(1);
+        assertThat(meterRegistry.counter("workload.plans.feed.evictions", "reason", "slow").count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRefuseSubscribersOverTheLimit() {
+        PlanFeed small = new PlanFeed(2, 1, 4, 100, meterRegistry);
+
+        assertThat(small.subscribeToWarehouse("WH-1", new RecordingSink())).isNotNull();
+        assertThat(small.subscribeToWarehouse("WH-1", new RecordingSink())).isNull();
+    }
+
+    private static void eventually(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition met within 5s").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private static class RecordingSink implements PlanFeed.Sink {
+
+        final List<PlanMetrics> received = new CopyOnWriteArrayList<>();
+        volatile boolean closed;
+
+        @Override
+        public void send(PlanMetrics metrics) {
+            received.add(metrics);
+        }
+
+        @Override
+        public void heartbeat() {
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
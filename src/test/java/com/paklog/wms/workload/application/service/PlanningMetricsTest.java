@@ -0,0 +1,50 @@
+package com.paklog.wms.workload.application.service;
+
+import com.paklog.wms.workload.application.service.PlanningMetrics.Operation;
+import com.paklog.wms.workload.domain.aggregate.DemandForecast;
+import com.paklog.wms.workload.domain.valueobject.ForecastPeriod;
+import com.paklog.wms.workload.domain.valueobject.WorkloadCategory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PlanningMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PlanningMetrics metrics = new PlanningMetrics(meterRegistry, 2);
+
+    @Test
+    void shouldTagForecastsByWarehousePeriodAndModel() {
+        DemandForecast forecast = DemandForecast.create("fc-1", "WH-1", ForecastPeriod.DAILY, LocalDateTime.of(2025, 3, 1, 0, 0));
+        forecast.setForecastingModel("MOVING_AVERAGE", Map.of());
+        forecast.addDataPoint(LocalDateTime.of(2025, 3, 1, 0, 0), WorkloadCategory.PICKING, 100, 5.0);
+        forecast.addDataPoint(LocalDateTime.of(2025, 3, 2, 0, 0), WorkloadCategory.PICKING, 120, 5.0);
+
+        int computed = metrics.stage(Operation.FORECAST, "compute", () -> 42);
+        metrics.forecastGenerated(metrics.start(), forecast);
+
+        assertThat(computed).isEqualTo(42);
+        assertThat(meterRegistry.get("workload.planning.stage").tags("operation", "forecast", "stage", "compute")
+            .timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("workload.forecast.generation")
+            .tags("warehouse", "WH-1", "period", "DAILY", "model", "MOVING_AVERAGE").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("workload.forecast.data-points").summary().totalAmount()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldBoundWarehouseTags() {
+        for (String warehouse : new String[] {"WH-1", "WH-2", "WH-3", "WH-1", "WH-4"}) {
+            metrics.planOptimized(metrics.start(), warehouse, 10, 8);
+        }
+
+        assertThat(meterRegistry.get("workload.plan.optimization").timers())
+            .extracting(timer -> timer.getId().getTag("warehouse"))
+            .containsExactlyInAnyOrder("WH-1", "WH-2", PlanningMetrics.OTHER_WAREHOUSES);
+        assertThat(meterRegistry.get("workload.plan.optimization.assignments").tag("warehouse", "other")
+            .summary().totalAmount()).isEqualTo(16);
+    }
+}
@@ -0,0 +1,82 @@
+package com.paklog.wms.workload.application.service;
+
+import com.paklog.wms.workload.domain.aggregate.DemandForecast;
+import com.paklog.wms.workload.domain.aggregate.WorkloadPlan;
+import com.paklog.wms.workload.domain.repository.PlanRevision;
+import com.paklog.wms.workload.domain.valueobject.ForecastPeriod;
+import com.paklog.wms.workload.domain.valueobject.ShiftType;
+import com.paklog.wms.workload.domain.valueobject.WorkloadCategory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecommendationEngineTest {
+
+    private final RecommendationEngine engine =
+        new RecommendationEngine(100, Duration.ofMinutes(10), new SimpleMeterRegistry());
+
+    @Test
+    void shouldMeasureForecastDemandAgainstTheLivePlan() {
+        DemandForecast forecast = forecast();
+        WorkloadPlan plan = WorkloadPlan.create("plan-1", "WH-1", LocalDate.of(2025, 3, 1));
+        plan.assignWorkerToShift(ShiftType.DAY_SHIFT, "w-1", "Ana", WorkloadCategory.PICKING, 8);
+        plan.assignWorkerToShift(ShiftType.DAY_SHIFT, "w-2", "Ben", WorkloadCategory.PICKING, 8);
+        plan.assignWorkerToShift(ShiftType.NIGHT_SHIFT, "w-3", "Cy", WorkloadCategory.PACKING, 8);
+
+        StaffingRecommendation recommendation = engine.recommend("WH-1", forecast, plan);
+
+        StaffingRecommendation.CategoryStaffing picking = recommendation.categories().get(WorkloadCategory.PICKING);
+        assertThat(picking.forecastedVolume()).isEqualTo(3200);
+        assertThat(picking.requiredWorkers()).isEqualTo(16);
+        assertThat(picking.currentWorkers()).isEqualTo(2);
+        assertThat(picking.gap()).isEqualTo(14);
+        assertThat(recommendation.categories().get(WorkloadCategory.PACKING).currentWorkers()).isEqualTo(1);
+
+        assertThat(recommendation.shifts().get(ShiftType.DAY_SHIFT).currentWorkers()).isEqualTo(2);
+        assertThat(recommendation.shifts().get(ShiftType.DAY_SHIFT).utilizationPercentage()).isPositive();
+        assertThat(recommendation.shifts().get(ShiftType.EVENING_SHIFT).utilizationPercentage()).isZero();
+        assertThat(recommendation.planId()).isEqualTo("plan-1");
+        assertThat(recommendation.projectedUtilization()).isGreaterThan(110.0);
+        assertThat(recommendation.balanceStatus()).isEqualTo("OVERSTAFFED");
+        assertThat(recommendation.warnings()).anyMatch(warning -> warning.contains("PICKING"));
+        assertThat(recommendation.suggestions()).anyMatch(suggestion -> suggestion.contains("premium"));
+    }
+
+    @Test
+    void shouldServeRepeatedPollsFromCacheUntilThePlanChanges() {
+        DemandForecast forecast = forecast();
+        WorkloadPlan plan = WorkloadPlan.create("plan-1", "WH-1", LocalDate.of(2025, 3, 1));
+        PlanRevision stored = PlanRevision.of(plan);
+
+        assertThat(engine.getCached("WH-1", forecast, stored)).isEmpty();
+        StaffingRecommendation computed = engine.recommend("WH-1", forecast, plan);
+        assertThat(engine.getCached("WH-1", forecast, stored)).containsSame(computed);
+        assertThat(RecommendationEngine.isAt(plan, stored)).isTrue();
+
+        PlanRevision reloaded = new PlanRevision("plan-1", stored.updatedAt().plusNanos(1), stored.revision());
+        assertThat(engine.getCached("WH-1", forecast, reloaded)).containsSame(computed);
+        assertThat(RecommendationEngine.isAt(plan, reloaded)).isTrue();
+
+        PlanRevision changed = new PlanRevision("plan-1", stored.updatedAt(), stored.revision() + 1);
+        assertThat(engine.getCached("WH-1", forecast, changed)).isEmpty();
+        assertThat(RecommendationEngine.isAt(plan, changed)).isFalse();
+
+        assertThat(engine.getCached("WH-1", forecast, null)).isEmpty();
+        assertThat(engine.recommend("WH-1", forecast, null).balanceStatus()).isEqualTo("UNSTAFFED");
+        assertThat(engine.getCached("WH-1", forecast, null)).isPresent();
+    }
+
+    private static DemandForecast forecast() {
+        DemandForecast forecast = DemandForecast.create("forecast-1", "WH-1", ForecastPeriod.DAILY,
+            LocalDateTime.of(2025, 3, 1, 0, 0));
+        forecast.addDataPoint(LocalDateTime.of(2025, 3, 1, 8, 0), WorkloadCategory.PICKING, 1600, 5.0);
+        forecast.addDataPoint(LocalDateTime.of(2025, 3, 1, 12, 0), WorkloadCategory.PICKING, 1600, 5.0);
+        forecast.addDataPoint(LocalDateTime.of(2025, 3, 1, 8, 0), WorkloadCategory.PACKING, 200, 5.0);
+        return forecast;
+    }
+}
@@ -0,0 +1,99 @@
+package com.paklog.wms.workload.application.service;
+
+import com.paklog.wms.workload.domain.aggregate.DemandForecast;
+import com.paklog.wms.workload.domain.aggregate.WorkloadPlan;
+import com.paklog.wms.workload.domain.valueobject.ForecastPeriod;
+import com.paklog.wms.workload.domain.valueobject.WorkloadCategory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WorkloadAggregateCacheTest {
+
+    private final WorkloadAggregateCache cache =
+        new WorkloadAggregateCache(100, 100, Duration.ofMinutes(10), Clock.systemDefaultZone());
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldReadThroughOnceAndReplaceOnSave() {
+        WorkloadPlan plan = WorkloadPlan.create("plan-1", "WH-1", LocalDate.of(2025, 3, 1));
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.getPlan("plan-1", id -> { loads.incrementAndGet(); return Optional.of(plan); });
+        cache.getPlan("plan-1", id -> { loads.incrementAndGet(); return Optional.of(plan); });
+        assertThat(loads).hasValue(1);
+
+        WorkloadPlan saved = WorkloadPlan.create("plan-1", "WH-1", LocalDate.of(2025, 3, 1));
+        cache.planSaved(saved);
+        assertThat(cache.getCachedPlan("plan-1")).containsSame(saved);
+
+        cache.getPlan("missing", id -> Optional.empty());
+        assertThat(cache.getCachedPlan("missing")).isEmpty();
+    }
+
+    @Test
+    void shouldFollowNewerPlanRevisionsSavedElsewhere() {
+        WorkloadPlan cached = WorkloadPlan.create("plan-1", "WH-1", LocalDate.of(2025, 3, 1));
+        cache.cacheLoadedPlan(cached);
+
+        WorkloadPlan older = WorkloadPlan.create("plan-1", "WH-1", LocalDate.of(2025, 3, 1));
+        cache.planChanged(older);
+        assertThat(cache.getCachedPlan("plan-1")).containsSame(cached);
+
+        WorkloadPlan newer = WorkloadPlan.create("plan-1", "WH-1", LocalDate.of(2025, 3, 1));
+        newer.setPlannedVolume(WorkloadCategory.PICKING, 500);
+        cache.planChanged(newer);
+        assertThat(cache.getCachedPlan("plan-1")).containsSame(newer);
+
+        cache.planChanged(WorkloadPlan.create("plan-2", "WH-1", LocalDate.of(2025, 3, 1)));
+        assertThat(cache.getCachedPlan("plan-2")).isEmpty();
+
+        cache.evictPlan("plan-1");
+        assertThat(cache.getCachedPlan("plan-1")).isEmpty();
+    }
+
+    @Test
+    void shouldApplySavesOnlyWhenTransactionCommits() {
+        WorkloadPlan cached = WorkloadPlan.create("plan-1", "WH-1", LocalDate.of(2025, 3, 1));
+        cache.cacheLoadedPlan(cached);
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.planSaved(WorkloadPlan.create("plan-1", "WH-1", LocalDate.of(2025, 3, 1)));
+        assertThat(cache.getCachedPlan("plan-1")).isEmpty();
+
+        TransactionSynchronizationManager.getSynchronizations()
+            .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        assertThat(cache.getCachedPlan("plan-1")).isEmpty();
+    }
+
+    @Test
+    void shouldNotKeepForecastsThatAlreadyNeedRefresh() {
+        DemandForecast stale = DemandForecast.restore("stale", "WH-1", ForecastPeriod.HOURLY,
+            LocalDateTime.now(), LocalDateTime.now().minusHours(2));
+        DemandForecast fresh = DemandForecast.restore("fresh", "WH-1", ForecastPeriod.DAILY,
+            LocalDateTime.now(), LocalDateTime.now());
+
+        cache.cacheLoadedForecast(stale);
+        cache.cacheLoadedForecast(fresh);
+
+        assertThat(stale.needsRefresh()).isTrue();
+        assertThat(cache.getCachedForecast("stale")).isEmpty();
+        assertThat(cache.getCachedForecast("fresh")).containsSame(fresh);
+    }
+}
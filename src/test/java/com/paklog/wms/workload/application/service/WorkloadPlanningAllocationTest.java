@@ -0,0 +1,150 @@
+package com.paklog.wms.workload.application.service;
+
+import com.paklog.wms.workload.AllocationProbe;
+import com.paklog.wms.workload.adapter.event.RosterChangeCoalescer;
+import com.paklog.wms.workload.adapter.event.WorkloadPlanningEventPublisher;
+import com.paklog.wms.workload.application.service.PlanningMetrics.Operation;
+import com.paklog.wms.workload.domain.aggregate.DemandForecast;
+import com.paklog.wms.workload.domain.aggregate.WorkloadPlan;
+import com.paklog.wms.workload.domain.entity.WorkerCapacity;
+import com.paklog.wms.workload.domain.repository.DemandForecastRepository;
+import com.paklog.wms.workload.domain.repository.ForecastArchive;
+import com.paklog.wms.workload.domain.repository.WarehouseKpiRepository;
+import com.paklog.wms.workload.domain.repository.WorkloadPlanRepository;
+import com.paklog.wms.workload.domain.valueobject.ForecastPeriod;
+import com.paklog.wms.workload.domain.valueobject.SkillLevel;
+import com.paklog.wms.workload.domain.valueobject.WorkloadCategory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Allocation budgets of forecast computation and labor allocation, without persistence
+ */
+@Tag("allocation")
+class WorkloadPlanningAllocationTest {
+
+    private static final WorkloadCategory[] CORE = {
+        WorkloadCategory.RECEIVING, WorkloadCategory.PICKING, WorkloadCategory.PACKING
+    };
+    private static final int ROSTER_SIZE = 120;
+
+    // Measured at 141 (hourly) and 152 (daily): the point, its timestamp and its boxed interval
+    private static final long FORECAST_DATA_POINT_BUDGET = 200;
+    // Measured at 5.5 KB; each assignment recomputes the plan's metrics, so this grows with the roster
+    private static final long ALLOCATED_WORKER_BUDGET = 6_500;
+
+    @ParameterizedTest
+    @EnumSource(value = ForecastPeriod.class, names = {"HOURLY", "DAILY"})
+    void shouldStayWithinBudgetPerForecastDataPoint(ForecastPeriod period) {
+        Map<WorkloadCategory, List<Integer>> history = history();
+        LocalDateTime forecastDate = LocalDateTime.of(2025, 3, 1, 0, 0);
+        int dataPoints = period.getPeriodsAhead() * history.size();
+        Supplier<?> compute = forecastComputation(period, forecastDate, history);
+
+        AllocationProbe.Profile profile = AllocationProbe.measure(500, 500, compute::get);
+
+        assertThat(profile.bytesPer(dataPoints)).as(profile.describe()).isLessThanOrEqualTo(FORECAST_DATA_POINT_BUDGET);
+    }
+
+    @Test
+    void shouldStayWithinBudgetPerAllocatedWorker() {
+        List<WorkerCapacity> workers = roster();
+
+        AllocationProbe.Profile profile = AllocationProbe.measure(200, 200,
+            () -> WorkloadPlanningService.allocateWorkers(plan(), workers));
+
+        assertThat(profile.bytesPer(ROSTER_SIZE)).as(profile.describe()).isLessThanOrEqualTo(ALLOCATED_WORKER_BUDGET);
+    }
+
+    /**
+     * The compute stage of one forecast generation, replayed without persisting or publishing
+     */
+    private static Supplier<?> forecastComputation(ForecastPeriod period, LocalDateTime forecastDate,
+                                                   Map<WorkloadCategory, List<Integer>> history) {
+        ComputeStageCapture metrics = new ComputeStageCapture();
+        DemandForecastRepository forecastRepository = mock(DemandForecastRepository.class);
+        when(forecastRepository.save(any(DemandForecast.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        WorkloadPlanningService service = new WorkloadPlanningService(forecastRepository,
+            mock(WorkloadPlanRepository.class),
+            mock(WorkloadPlanningEventPublisher.class), mock(LatestForecastIndex.class),
+            mock(ForecastArchive.class), mock(WorkloadAggregateCache.class),
+            mock(WarehouseKpiRepository.class),
+            mock(RosterChangeCoalescer.class), mock(RecommendationEngine.class),
+            mock(DemandHistoryService.class), mock(PlanFeed.class), metrics);
+
+        service.generateDemandForecast("WH-1", period, forecastDate, history);
+        return metrics.compute;
+    }
+
+    private static Map<WorkloadCategory, List<Integer>> history() {
+        Random random = new Random(42);
+        Map<WorkloadCategory, List<Integer>> history = new EnumMap<>(WorkloadCategory.class);
+        for (WorkloadCategory category : WorkloadCategory.values()) {
+            List<Integer> volumes = new ArrayList<>();
+            for (int day = 0; day < 28; day++) {
+                volumes.add(100 + random.nextInt(50));
+            }
+            history.put(category, volumes);
+        }
+        return history;
+    }
+
+    private static List<WorkerCapacity> roster() {
+        Random random = new Random(42);
+        SkillLevel[] skills = {SkillLevel.JUNIOR, SkillLevel.INTERMEDIATE, SkillLevel.SENIOR, SkillLevel.EXPERT};
+        List<WorkerCapacity> workers = new ArrayList<>(ROSTER_SIZE);
+        for (int i = 0; i < ROSTER_SIZE; i++) {
+            workers.add(new WorkerCapacity("W-" + i, "Worker " + i,
+                skills[random.nextInt(skills.length)], 40, true, 22.0));
+        }
+        return workers;
+    }
+
+    /**
+     * A plan needing about one worker per roster entry, so every worker is placed
+     */
+    private static WorkloadPlan plan() {
+        WorkloadPlan plan = WorkloadPlan.create("plan-1", "WH-1", LocalDate.of(2025, 3, 1));
+        for (WorkloadCategory category : CORE) {
+            plan.setPlannedVolume(category, (int) (ROSTER_SIZE / CORE.length * 8 * category.getStandardProductivityRate()));
+        }
+        return plan;
+    }
+
+    /**
+     * Keeps the forecast computation the service hands to its compute stage
+     */
+    private static class ComputeStageCapture extends PlanningMetrics {
+
+        private Supplier<?> compute;
+
+        ComputeStageCapture() {
+            super(new SimpleMeterRegistry(), 50);
+        }
+
+        @Override
+        public <T> T stage(Operation operation, String stage, Supplier<T> work) {
+            if (operation == Operation.FORECAST && stage.equals("compute")) {
+                compute = work;
+            }
+            return super.stage(operation, stage, work);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.paklog.wms.workload.application.service;
 
+import com.paklog.wms.workload.adapter.event.OutboxRelay;
 import com.paklog.wms.workload.domain.aggregate.DemandForecast;
 import com.paklog.wms.workload.domain.aggregate.WorkloadPlan;
 import com.paklog.wms.workload.domain.entity.WorkerCapacity;
@@ -19,11 +20,9 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.support.SendResult;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
-import org.springframework.util.concurrent.SettableListenableFuture;
 import org.testcontainers.containers.MongoDBContainer;
 import org.testcontainers.lifecycle.Startables;
 import org.testcontainers.utility.DockerImageName;
@@ -34,10 +33,12 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 
@@ -68,6 +69,9 @@ class WorkloadPlanningServiceIntegrationTest {
     @Autowired
     private WorkloadPlanRepository planRepository;
 
+    @Autowired
+    private OutboxRelay outboxRelay;
+
     @org.springframework.boot.test.mock.mockito.MockBean
     private KafkaTemplate<String, CloudEvent> kafkaTemplate;
 
@@ -86,10 +90,7 @@ class WorkloadPlanningServiceIntegrationTest {
                 String key = invocation.getArgument(1);
                 CloudEvent event = invocation.getArgument(2);
                 publishedEvents.computeIfAbsent(key, __ -> new ArrayList<>()).add(event);
-                SettableListenableFuture<SendResult<String, CloudEvent>> future =
-                    new SettableListenableFuture<>();
-                future.set(null);
-                return future;
+                return CompletableFuture.completedFuture(null);
             });
     }
 
@@ -117,11 +118,26 @@ class WorkloadPlanningServiceIntegrationTest {
         assertThat(persisted.getDataPoints()).isNotEmpty();
         assertThat(persisted.getAccuracy()).isEqualTo(90.0);
 
+        outboxRelay.drain();
         List<CloudEvent> events = publishedEvents.getOrDefault(forecast.getForecastId(), List.of());
         assertThat(events).hasSize(1);
         assertThat(events.getFirst().getType()).isEqualTo("com.paklog.workload.forecast.generated");
     }
 
+    @Test
+    void shouldRejectForecastWithoutAnyHistory() {
+        assertThatThrownBy(() -> service.generateDemandForecast(
+            "WH-NO-HISTORY",
+            ForecastPeriod.DAILY,
+            LocalDateTime.now(),
+            Map.of()
+        )).isInstanceOf(WorkloadPlanningService.NoDemandHistoryException.class);
+
+        assertThat(forecastRepository.count()).isZero();
+        outboxRelay.drain();
+        assertThat(publishedEvents).isEmpty();
+    }
+
     @Test
     void shouldManagePlanLifecyclePersistStateAndEmitEvents() {
         Map<WorkloadCategory, Integer> plannedVolumes = new HashMap<>();
@@ -166,7 +182,14 @@ class WorkloadPlanningServiceIntegrationTest {
         assertThat(planRepository.findById(created.getPlanId()))
             .map(WorkloadPlan::getStatus)
             .contains(WorkloadPlan.PlanStatus.CANCELLED);
+        assertThat(planRepository.findProjectedById(created.getPlanId(), List.of("headcountByShift")))
+            .hasValueSatisfying(projected -> {
+                assertThat(projected.getHeadcountByShift()).isEqualTo(optimized.getHeadcountByShift());
+                assertThat(projected.getShiftAssignments()).isEmpty();
+                assertThat(projected.getStatus()).isNull();
+            });
 
+        outboxRelay.drain();
         List<CloudEvent> events = publishedEvents.getOrDefault(created.getPlanId(), List.of());
         assertThat(events).hasSizeGreaterThanOrEqualTo(5);
         String types = events.stream().map(CloudEvent::getType).toList().toString();
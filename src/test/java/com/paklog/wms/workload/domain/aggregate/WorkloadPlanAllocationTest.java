@@ -0,0 +1,56 @@
+package com.paklog.wms.workload.domain.aggregate;
+
+import com.paklog.wms.workload.AllocationProbe;
+import com.paklog.wms.workload.domain.valueobject.ShiftType;
+import com.paklog.wms.workload.domain.valueobject.WorkloadCategory;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Allocation budgets of plan mutation and reads, on a plan staffed with 60 workers
+ */
+@Tag("allocation")
+class WorkloadPlanAllocationTest {
+
+    private static final ShiftType[] SHIFTS = {ShiftType.DAY_SHIFT, ShiftType.EVENING_SHIFT, ShiftType.NIGHT_SHIFT};
+
+    // Measured at 10 KB; each change recomputes the plan's metrics over all assignments
+    private static final long ASSIGN_AND_REMOVE_BUDGET = 12_000;
+    private static final long PLANNED_VOLUME_BUDGET = 6_000;
+
+    private final WorkloadPlan plan = staffedPlan();
+
+    @Test
+    void shouldStayWithinBudgetWhenAssignmentsChange() {
+        AllocationProbe.Profile profile = AllocationProbe.measure(5_000, 5_000, () -> {
+            plan.assignWorkerToShift(ShiftType.DAY_SHIFT, "temp-1", "Temp", WorkloadCategory.PICKING, 4);
+            plan.removeWorkerFromShift(ShiftType.DAY_SHIFT, "temp-1");
+        });
+
+        assertThat(profile.bytesPerOperation()).as(profile.describe()).isLessThanOrEqualTo(ASSIGN_AND_REMOVE_BUDGET);
+    }
+
+    @Test
+    void shouldStayWithinBudgetWhenPlannedVolumeChanges() {
+        AllocationProbe.Profile profile = AllocationProbe.measure(5_000, 5_000,
+            () -> plan.setPlannedVolume(WorkloadCategory.PICKING, 1_200));
+
+        assertThat(profile.bytesPerOperation()).as(profile.describe()).isLessThanOrEqualTo(PLANNED_VOLUME_BUDGET);
+    }
+
+    private static WorkloadPlan staffedPlan() {
+        WorkloadPlan plan = WorkloadPlan.create("plan-1", "WH-1", LocalDate.of(2025, 3, 1));
+        plan.setPlannedVolume(WorkloadCategory.PICKING, 2_400);
+        plan.setPlannedVolume(WorkloadCategory.PACKING, 1_500);
+        plan.setPlannedVolume(WorkloadCategory.RECEIVING, 1_000);
+        for (int i = 0; i < 60; i++) {
+            plan.assignWorkerToShift(SHIFTS[i % SHIFTS.length], "worker-" + i, "Worker " + i,
+                WorkloadCategory.values()[i % 3], 8);
+        }
+        return plan;
+    }
+}
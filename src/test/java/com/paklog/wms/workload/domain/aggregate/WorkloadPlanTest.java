@@ -40,14 +40,20 @@ class WorkloadPlanTest {
         assertThat(plan.getTotalWorkersAssigned()).isEqualTo(2);
         assertThat(plan.getTotalHoursForShift(ShiftType.DAY_SHIFT)).isEqualTo(8);
         assertThat(plan.getTotalHoursForShift(ShiftType.EVENING_SHIFT)).isEqualTo(8);
+        assertThat(plan.getAssignmentCountForShift(ShiftType.DAY_SHIFT)).isEqualTo(1);
+        assertThat(plan.getAssignmentCountForShift(ShiftType.NIGHT_SHIFT)).isZero();
         assertThat(plan.getTotalAvailableLaborHours()).isEqualTo(16);
         assertThat(plan.getUtilizationPercentage()).isCloseTo(81.25, withinTolerance());
         assertThat(plan.isUnderstaffed()).isTrue();
+        assertThat(plan.getHeadcountByShift())
+            .containsEntry(ShiftType.DAY_SHIFT, 1)
+            .containsEntry(ShiftType.EVENING_SHIFT, 1);
 
         plan.removeWorkerFromShift(ShiftType.EVENING_SHIFT, "worker-2");
         assertThat(plan.getTotalWorkersAssigned()).isEqualTo(1);
         assertThat(plan.getTotalAvailableLaborHours()).isEqualTo(8);
         assertThat(plan.getShiftAssignments(ShiftType.EVENING_SHIFT)).isEmpty();
+        assertThat(plan.getHeadcountByShift()).containsOnlyKeys(ShiftType.DAY_SHIFT);
     }
 
     @Test
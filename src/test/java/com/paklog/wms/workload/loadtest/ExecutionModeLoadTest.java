@@ -0,0 +1,66 @@
+package com.paklog.wms.workload.loadtest;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Compares platform-thread and virtual-thread execution of the blocking MVC path at high concurrency.
+ *
+ * Runs only with the load-test profile against two seeded instances of the same build,
+ * started with VIRTUAL_THREADS_ENABLED=false and VIRTUAL_THREADS_ENABLED=true, both with
+ * WORKLOAD_API_CONCURRENCY_ENABLED=false; the read bulkhead would shed most of these clients
+ * with 503, which count as errors here:
+ * mvn test -Pload-test -Dtest=ExecutionModeLoadTest -Dloadtest.platformBaseUrl=http://localhost:8083
+ *     -Dloadtest.virtualBaseUrl=http://localhost:8084 -Dloadtest.planId=... -Dloadtest.warehouseId=...
+ */
+@Tag("load")
+class ExecutionModeLoadTest {
+
+    private static final String PLATFORM_BASE_URL = System.getProperty("loadtest.platformBaseUrl", "http://localhost:8083");
+    private static final String VIRTUAL_BASE_URL = System.getProperty("loadtest.virtualBaseUrl", "http://localhost:8084");
+    private static final String PLAN_ID = System.getProperty("loadtest.planId", "plan-1");
+    private static final String WAREHOUSE_ID = System.getProperty("loadtest.warehouseId", "WH-1");
+    private static final int CLIENTS = Integer.getInteger("loadtest.clients", 2000);
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("loadtest.warmupSeconds", 10));
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("loadtest.durationSeconds", 30));
+    private static final String SHEDDING_HINT = "error rate (are the services running with WORKLOAD_API_CONCURRENCY_ENABLED=false?)";
+
+    @Test
+    void shouldComparePlatformAndVirtualThreads() throws Exception {
+        assumeTrue(LoadDriver.reachable(PLATFORM_BASE_URL), "Service not reachable at " + PLATFORM_BASE_URL);
+        assumeTrue(LoadDriver.reachable(VIRTUAL_BASE_URL), "Service not reachable at " + VIRTUAL_BASE_URL);
+
+        LoadDriver driver = new LoadDriver(CLIENTS, WARMUP, DURATION);
+        LoadResult platform = driver.run("mvc-platform-threads", client -> blockingRead(PLATFORM_BASE_URL, client));
+        LoadResult virtual = driver.run("mvc-virtual-threads", client -> blockingRead(VIRTUAL_BASE_URL, client));
+
+        System.out.println(platform.toJson());
+        System.out.println(virtual.toJson());
+        System.out.println(String.format(Locale.ROOT,
+            "{\"scenario\":\"virtual-vs-platform\",\"throughputRatio\":%.2f,\"p99Ratio\":%.2f}",
+            virtual.throughputPerSecond() / platform.throughputPerSecond(),
+            virtual.p99Millis() / platform.p99Millis()));
+
+        assertThat(platform.errorRate()).as(SHEDDING_HINT).isLessThan(0.01);
+        assertThat(virtual.errorRate()).as(SHEDDING_HINT).isLessThan(0.01);
+    }
+
+    /**
+     * Dashboard mix over the blocking endpoints, each holding a request thread for its Mongo round trip
+     */
+    private static HttpRequest blockingRead(String baseUrl, int client) {
+        String api = baseUrl + "/api/v1/workload";
+        return LoadDriver.get(switch (client % 3) {
+            case 0 -> api + "/plans/" + PLAN_ID;
+            case 1 -> api + "/forecasts/latest?warehouseId=" + WAREHOUSE_ID;
+            default -> api + "/plans?warehouseId=" + WAREHOUSE_ID;
+        });
+    }
+}
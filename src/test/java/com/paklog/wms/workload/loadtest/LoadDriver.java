@@ -0,0 +1,174 @@
+package com.paklog.wms.workload.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+
+/**
+ * Closed-loop HTTP load driver: each virtual client issues one request at a time
+ * for the configured duration and records end-to-end latency.
+ */
+public class LoadDriver {
+
+    private final HttpClient httpClient;
+    private final int clients;
+    private final Duration warmup;
+    private final Duration duration;
+
+    public LoadDriver(int clients, Duration warmup, Duration duration) {
+        this.clients = clients;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    }
+
+    /**
+     * Run a scenario; the request factory receives the client index
+     */
+    public LoadResult run(String scenario, IntFunction<HttpRequest> requestFactory) throws InterruptedException {
+        Histogram latencies = new ConcurrentHistogram(TimeUnit.MINUTES.toNanos(1), 3);
+        LongAdder errors = new LongAdder();
+        long warmupEnds = System.nanoTime() + warmup.toNanos();
+        long runEnds = warmupEnds + duration.toNanos();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int client = 0; client < clients; client++) {
+                int clientIndex = client;
+                executor.submit(() -> {
+                    long now;
+                    while ((now = System.nanoTime()) < runEnds) {
+                        boolean measured = now >= warmupEnds;
+                        try {
+                            HttpResponse<Void> response = httpClient.send(
+                                requestFactory.apply(clientIndex), HttpResponse.BodyHandlers.discarding()
+                            );
+                            if (measured) {
+                                if (response.statusCode() >= 400) {
+                                    errors.increment();
+                                }
+                                latencies.recordValue(Math.min(System.nanoTime() - now, latencies.getHighestTrackableValue()));
+                            }
+                        } catch (Exception e) {
+                            if (measured) {
+                                errors.increment();
+                            }
+                        }
+                    }
+                });
+            }
+        }
+
+        return LoadResult.of(scenario, clients, duration, latencies, errors.sum());
+    }
+
+    /**
+     * Run a mix of operations; the factory picks the next operation for a client.
+     * Returns the combined result followed by one result per operation name.
+     */
+    public List<LoadResult> runMix(String scenario, IntFunction<Request> operationFactory) throws InterruptedException {
+        Histogram all = new ConcurrentHistogram(TimeUnit.MINUTES.toNanos(1), 3);
+        Map<String, Histogram> byOperation = new ConcurrentHashMap<>();
+        Map<String, LongAdder> errorsByOperation = new ConcurrentHashMap<>();
+        long warmupEnds = System.nanoTime() + warmup.toNanos();
+        long runEnds = warmupEnds + duration.toNanos();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int client = 0; client < clients; client++) {
+                int clientIndex = client;
+                executor.submit(() -> {
+                    long now;
+                    while ((now = System.nanoTime()) < runEnds) {
+                        boolean measured = now >= warmupEnds;
+                        Request operation = operationFactory.apply(clientIndex);
+                        boolean failed;
+                        try {
+                            HttpResponse<Void> response = httpClient.send(
+                                operation.request(), HttpResponse.BodyHandlers.discarding()
+                            );
+                            failed = response.statusCode() >= 400;
+                        } catch (Exception e) {
+                            failed = true;
+                        }
+                        if (measured) {
+                            long latency = Math.min(System.nanoTime() - now, all.getHighestTrackableValue());
+                            all.recordValue(latency);
+                            byOperation.computeIfAbsent(operation.name(),
+                                name -> new ConcurrentHistogram(TimeUnit.MINUTES.toNanos(1), 3)).recordValue(latency);
+                            LongAdder errors = errorsByOperation.computeIfAbsent(operation.name(), name -> new LongAdder());
+                            if (failed) {
+                                errors.increment();
+                            }
+                        }
+                    }
+                });
+            }
+        }
+
+        List<LoadResult> results = new ArrayList<>();
+        results.add(LoadResult.of(scenario, clients, duration, all,
+            errorsByOperation.values().stream().mapToLong(LongAdder::sum).sum()));
+        new TreeMap<>(byOperation).forEach((name, latencies) -> results.add(
+            LoadResult.of(scenario + "/" + name, clients, duration, latencies, errorsByOperation.get(name).sum())));
+        return results;
+    }
+
+    /**
+     * Whether a service instance answers its health endpoint
+     */
+    public static boolean reachable(String baseUrl) {
+        try {
+            HttpResponse<Void> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health"))
+                    .timeout(Duration.ofSeconds(2)).build(),
+                HttpResponse.BodyHandlers.discarding());
+            return response.statusCode() < 500;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Build a JSON POST request
+     */
+    public static HttpRequest post(String url, String json) {
+        return HttpRequest.newBuilder(URI.create(url))
+            .timeout(Duration.ofSeconds(30))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(json))
+            .build();
+    }
+
+    /**
+     * Build a GET request with a short timeout
+     */
+    public static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url))
+            .timeout(Duration.ofSeconds(30))
+            .GET()
+            .build();
+    }
+
+    /**
+     * A request labelled with the operation it stands for
+     */
+    public record Request(String name, HttpRequest request) {}
+}
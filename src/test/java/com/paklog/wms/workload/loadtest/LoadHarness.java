@@ -0,0 +1,233 @@
+package com.paklog.wms.workload.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.paklog.wms.workload.domain.valueobject.WorkloadCategory;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Drives a production-shaped mix of planning and dashboard traffic and writes
+ * throughput and latency percentiles, overall and per operation, as JSON
+ *
+ * Without loadtest.baseUrl the service is started in-process on MongoDB and
+ * Redpanda containers. A synthetic estate is seeded through the API first: a
+ * plan per warehouse and day and a forecast per warehouse. Run with the
+ * load-test profile:
+ * mvn -Pload-test test-compile exec:exec@mixed-load -Dloadtest.warehouses=20 -Dloadtest.clients=200
+ */
+public final class LoadHarness {
+
+    // Weights per operation; reads dominate, as dashboards poll while planners edit
+    static final String DEFAULT_MIX = "read-plan=30,latest-forecast=15,list-plans=10,plan-fields=5,kpis=5,"
+        + "assign-worker=15,create-plan=8,generate-forecast=7,optimize=5";
+    static final Set<String> OPERATIONS = Arrays.stream(DEFAULT_MIX.split(","))
+        .map(entry -> entry.substring(0, entry.indexOf('=')))
+        .collect(Collectors.toUnmodifiableSet());
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final SyntheticWarehouses estate;
+    private final String api;
+    private final int days;
+    private final int rosterSize;
+    private final LocalDate firstDay;
+    private final Map<String, List<String>> plans = new LinkedHashMap<>();
+    private final Map<String, String> rosters = new LinkedHashMap<>();
+    private final AtomicInteger createdPlans = new AtomicInteger();
+
+    LoadHarness(SyntheticWarehouses estate, String baseUrl, int days, int rosterSize, LocalDate firstDay) {
+        this.estate = estate;
+        this.api = baseUrl + "/api/v1/workload";
+        this.days = days;
+        this.rosterSize = rosterSize;
+        this.firstDay = firstDay;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = System.getProperty("loadtest.baseUrl", "");
+        int warehouses = Integer.getInteger("loadtest.warehouses", 10);
+        int days = Integer.getInteger("loadtest.days", 14);
+        int rosterSize = Integer.getInteger("loadtest.rosterSize", 60);
+        int clients = Integer.getInteger("loadtest.clients", 100);
+        long seed = Long.getLong("loadtest.seed", 42);
+        Duration warmup = Duration.ofSeconds(Long.getLong("loadtest.warmupSeconds", 10));
+        Duration duration = Duration.ofSeconds(Long.getLong("loadtest.durationSeconds", 60));
+        Map<String, Integer> mix = parseMix(System.getProperty("loadtest.mix", DEFAULT_MIX));
+        File report = new File(System.getProperty("loadtest.report", "target/load-report.json"));
+        String runId = Long.toString(System.currentTimeMillis() % 1_000_000_000L, 36);
+
+        try (ServiceUnderTest service = baseUrl.isBlank()
+                ? ServiceUnderTest.standIns()
+                : ServiceUnderTest.external(baseUrl)) {
+            LoadHarness harness = new LoadHarness(new SyntheticWarehouses(runId, warehouses, seed),
+                service.baseUrl(), days, rosterSize, LocalDate.now().plusDays(1));
+            Instant started = Instant.now();
+            harness.seed(new Random(seed));
+
+            List<LoadResult> results = new LoadDriver(clients, warmup, duration)
+                .runMix("mixed", harness.operations(mix));
+
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("runId", runId);
+            body.put("startedAt", started);
+            body.put("target", service.description());
+            body.put("warehouses", warehouses);
+            body.put("plansPerWarehouse", days);
+            body.put("clients", clients);
+            body.put("warmupSeconds", warmup.toSeconds());
+            body.put("durationSeconds", duration.toSeconds());
+            body.put("mix", mix);
+            body.put("results", results);
+            if (report.getParentFile() != null) {
+                report.getParentFile().mkdirs();
+            }
+            MAPPER.writeValue(report, body);
+            results.forEach(result -> System.out.println(result.toJson()));
+            System.out.println("Load report written to " + report.getAbsolutePath());
+        }
+    }
+
+    /**
+     * Create a plan per warehouse and day, and a forecast per warehouse, through the API
+     */
+    void seed(Random random) throws IOException, InterruptedException {
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            for (String warehouseId : estate.warehouseIds()) {
+                List<String> planIds = new ArrayList<>();
+                for (int day = 0; day < days; day++) {
+                    LocalDate date = firstDay.plusDays(day);
+                    JsonNode plan = send(client, LoadDriver.post(api + "/plans", json(createPlan(warehouseId, date, random))));
+                    planIds.add(plan.path("planId").asText());
+                }
+                plans.put(warehouseId, planIds);
+                rosters.put(warehouseId, json(estate.roster(warehouseId, rosterSize)));
+                send(client, LoadDriver.post(api + "/forecasts", json(generateForecast(warehouseId, random))));
+            }
+        }
+    }
+
+    /**
+     * Pick each client's next operation from the weighted mix
+     */
+    IntFunction<LoadDriver.Request> operations(Map<String, Integer> mix) {
+        List<String> names = new ArrayList<>(mix.keySet());
+        int[] cumulative = new int[names.size()];
+        int total = 0;
+        for (int i = 0; i < names.size(); i++) {
+            total += mix.get(names.get(i));
+            cumulative[i] = total;
+        }
+        int weights = total;
+        List<String> warehouseIds = estate.warehouseIds();
+
+        return client -> {
+            Random random = ThreadLocalRandom.current();
+            int pick = random.nextInt(weights);
+            int index = 0;
+            while (cumulative[index] <= pick) {
+                index++;
+            }
+            String name = names.get(index);
+            String warehouseId = warehouseIds.get(random.nextInt(warehouseIds.size()));
+            List<String> planIds = plans.get(warehouseId);
+            String planId = planIds.get(random.nextInt(planIds.size()));
+            return new LoadDriver.Request(name, request(name, warehouseId, planId, random));
+        };
+    }
+
+    private HttpRequest request(String operation, String warehouseId, String planId, Random random) {
+        return switch (operation) {
+            case "read-plan" -> LoadDriver.get(api + "/plans/" + planId);
+            case "plan-fields" -> LoadDriver.get(api + "/plans/" + planId + "?fields=status,utilizationPercentage,headcountByShift");
+            case "latest-forecast" -> LoadDriver.get(api + "/forecasts/latest?warehouseId=" + warehouseId);
+            case "list-plans" -> LoadDriver.get(api + "/plans?warehouseId=" + warehouseId + "&limit=20");
+            case "kpis" -> LoadDriver.get(api + "/kpis?warehouseId=" + warehouseId
+                + "&date=" + firstDay.plusDays(random.nextInt(days)));
+            case "assign-worker" -> LoadDriver.post(api + "/plans/" + planId + "/workers",
+                json(estate.assignment(warehouseId, random)));
+            case "create-plan" -> LoadDriver.post(api + "/plans", json(createPlan(warehouseId,
+                firstDay.plusDays(days + createdPlans.getAndIncrement()), random)));
+            case "generate-forecast" -> LoadDriver.post(api + "/forecasts", json(generateForecast(warehouseId, random)));
+            case "optimize" -> LoadDriver.post(api + "/plans/" + planId + "/optimize", rosters.get(warehouseId));
+            default -> throw new IllegalArgumentException("Unknown operation " + operation);
+        };
+    }
+
+    private Map<String, Object> createPlan(String warehouseId, LocalDate date, Random random) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("warehouseId", warehouseId);
+        body.put("planDate", date);
+        body.put("plannedVolumes", estate.plannedVolumes(warehouseId, date.getDayOfWeek().ordinal(), random));
+        body.put("description", "Load test plan");
+        return body;
+    }
+
+    private Map<String, Object> generateForecast(String warehouseId, Random random) {
+        Map<WorkloadCategory, List<Integer>> history = estate.history(warehouseId, 28, random);
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("warehouseId", warehouseId);
+        body.put("period", "DAILY");
+        body.put("forecastDate", firstDay.atStartOfDay());
+        body.put("historicalData", history);
+        return body;
+    }
+
+    static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2 || !OPERATIONS.contains(parts[0])) {
+                throw new IllegalArgumentException("Bad mix entry '" + entry + "', expected name=weight for any of " + OPERATIONS);
+            }
+            int weight = Integer.parseInt(parts[1]);
+            if (weight > 0) {
+                weights.put(parts[0], weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Mix has no operations: " + mix);
+        }
+        return weights;
+    }
+
+    private static JsonNode send(HttpClient client, HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException("Seeding failed: " + request.method() + " " + request.uri()
+                + " returned " + response.statusCode() + ": " + response.body());
+        }
+        return MAPPER.readTree(response.body());
+    }
+
+    private static String json(Object body) {
+        try {
+            return MAPPER.writeValueAsString(body);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.paklog.wms.workload.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Throughput and latency percentiles for one load scenario
+ */
+public record LoadResult(
+    String scenario,
+    int clients,
+    long requests,
+    long errors,
+    double throughputPerSecond,
+    double p50Millis,
+    double p90Millis,
+    double p99Millis,
+    double p999Millis,
+    double maxMillis
+) {
+    static LoadResult of(String scenario, int clients, Duration duration, Histogram latencies, long errors) {
+        long requests = latencies.getTotalCount();
+        return new LoadResult(
+            scenario,
+            clients,
+            requests,
+            errors,
+            requests / (duration.toMillis() / 1000.0),
+            latencies.getValueAtPercentile(50) / 1_000_000.0,
+            latencies.getValueAtPercentile(90) / 1_000_000.0,
+            latencies.getValueAtPercentile(99) / 1_000_000.0,
+            latencies.getValueAtPercentile(99.9) / 1_000_000.0,
+            latencies.getMaxValue() / 1_000_000.0
+        );
+    }
+
+    double errorRate() {
+        return requests == 0 ? 1.0 : (double) errors / requests;
+    }
+
+    String toJson() {
+        return String.format(Locale.ROOT,
+            "{\"scenario\":\"%s\",\"clients\":%d,\"requests\":%d,\"errors\":%d,"
+                + "\"throughputPerSecond\":%.1f,\"p50Millis\":%.2f,\"p90Millis\":%.2f,\"p99Millis\":%.2f,"
+                + "\"p999Millis\":%.2f,\"maxMillis\":%.2f}",
+            scenario, clients, requests, errors, throughputPerSecond, p50Millis, p90Millis, p99Millis, p999Millis,
+            maxMillis);
+    }
+}
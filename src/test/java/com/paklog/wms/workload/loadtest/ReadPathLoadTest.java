@@ -0,0 +1,53 @@
+package com.paklog.wms.workload.loadtest;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Compares the blocking MVC read path with the reactive read path under dashboard fan-out.
+ *
+ * Runs only with the load-test profile against a running, seeded instance started with
+ * WORKLOAD_API_CONCURRENCY_ENABLED=false; the read bulkhead would shed most of these clients
+ * with 503, which count as errors here:
+ * mvn test -Pload-test -Dloadtest.baseUrl=http://localhost:8083 -Dloadtest.planId=... -Dloadtest.warehouseId=...
+ */
+@Tag("load")
+class ReadPathLoadTest {
+
+    private static final String BASE_URL = System.getProperty("loadtest.baseUrl", "http://localhost:8083");
+    private static final String PLAN_ID = System.getProperty("loadtest.planId", "plan-1");
+    private static final String WAREHOUSE_ID = System.getProperty("loadtest.warehouseId", "WH-1");
+    private static final int CLIENTS = Integer.getInteger("loadtest.clients", 5000);
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("loadtest.warmupSeconds", 10));
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("loadtest.durationSeconds", 30));
+    private static final String SHEDDING_HINT = "error rate (is the service running with WORKLOAD_API_CONCURRENCY_ENABLED=false?)";
+
+    @Test
+    void shouldCompareBlockingAndReactiveReadPaths() throws Exception {
+        assumeTrue(LoadDriver.reachable(BASE_URL), "Service not reachable at " + BASE_URL);
+
+        LoadDriver driver = new LoadDriver(CLIENTS, WARMUP, DURATION);
+        String api = BASE_URL + "/api/v1/workload";
+
+        LoadResult blocking = driver.run("mvc-dashboard-reads", client -> LoadDriver.get(
+            client % 2 == 0
+                ? api + "/plans/" + PLAN_ID
+                : api + "/forecasts/latest?warehouseId=" + WAREHOUSE_ID));
+
+        LoadResult reactive = driver.run("reactive-dashboard-reads", client -> LoadDriver.get(
+            client % 2 == 0
+                ? api + "/reactive/plans/" + PLAN_ID
+                : api + "/reactive/forecasts/latest?warehouseId=" + WAREHOUSE_ID));
+
+        System.out.println(blocking.toJson());
+        System.out.println(reactive.toJson());
+
+        assertThat(blocking.errorRate()).as(SHEDDING_HINT).isLessThan(0.01);
+        assertThat(reactive.errorRate()).as(SHEDDING_HINT).isLessThan(0.01);
+    }
+}
@@ -0,0 +1,80 @@
+package com.paklog.wms.workload.loadtest;
+
+import com.paklog.wms.workload.WorkloadPlanningServiceApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.lifecycle.Startables;
+import org.testcontainers.redpanda.RedpandaContainer;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * The instance a load run drives: an external URL, or the service started
+ * in-process on MongoDB and Redpanda containers
+ */
+abstract class ServiceUnderTest implements AutoCloseable {
+
+    abstract String baseUrl();
+
+    /**
+     * What the report names as the target
+     */
+    abstract String description();
+
+    @Override
+    public void close() {
+    }
+
+    static ServiceUnderTest external(String baseUrl) {
+        return new ServiceUnderTest() {
+            @Override
+            String baseUrl() {
+                return baseUrl;
+            }
+
+            @Override
+            String description() {
+                return baseUrl;
+            }
+        };
+    }
+
+    /**
+     * Start containers and the service on a random port. The service shares this
+     * JVM with the load generator, so prefer an external instance for absolute numbers.
+     */
+    static ServiceUnderTest standIns() {
+        // Change streams need a replica set, which the MongoDB container provides
+        MongoDBContainer mongo = new MongoDBContainer(DockerImageName.parse("mongo:6.0.8"));
+        RedpandaContainer redpanda = new RedpandaContainer(
+            DockerImageName.parse("docker.redpanda.com/redpandadata/redpanda:v23.2.14"));
+        Startables.deepStart(mongo, redpanda).join();
+
+        ConfigurableApplicationContext context = SpringApplication.run(WorkloadPlanningServiceApplication.class,
+            "--server.port=0",
+            "--spring.data.mongodb.uri=" + mongo.getReplicaSetUrl("workload_planning"),
+            "--spring.kafka.bootstrap-servers=" + redpanda.getBootstrapServers(),
+            "--management.tracing.sampling.probability=0");
+        String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        String description = "in-process on " + mongo.getDockerImageName() + " and " + redpanda.getDockerImageName();
+
+        return new ServiceUnderTest() {
+            @Override
+            String baseUrl() {
+                return baseUrl;
+            }
+
+            @Override
+            String description() {
+                return description;
+            }
+
+            @Override
+            public void close() {
+                context.close();
+                redpanda.stop();
+                mongo.stop();
+            }
+        };
+    }
+}
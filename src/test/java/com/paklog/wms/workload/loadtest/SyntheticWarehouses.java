@@ -0,0 +1,117 @@
+package com.paklog.wms.workload.loadtest;
+
+import com.paklog.wms.workload.domain.valueobject.ShiftType;
+import com.paklog.wms.workload.domain.valueobject.SkillLevel;
+import com.paklog.wms.workload.domain.valueobject.WorkloadCategory;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Synthetic warehouse estate for load runs
+ *
+ * Warehouses differ in size by up to an order of magnitude, as a mix of
+ * regional hubs and small sites does. Demand has a weekly cycle with quiet
+ * weekends and noise on top. Rosters skew towards intermediate workers. Given
+ * the same seed, the estate is the same; warehouse IDs carry the run ID, so
+ * runs against a shared instance do not collide.
+ */
+class SyntheticWarehouses {
+
+    private static final WorkloadCategory[] CATEGORIES = WorkloadCategory.values();
+    private static final ShiftType[] SHIFTS = {ShiftType.DAY_SHIFT, ShiftType.EVENING_SHIFT, ShiftType.NIGHT_SHIFT};
+    private static final SkillLevel[] SKILLS = {
+        SkillLevel.TRAINEE, SkillLevel.JUNIOR, SkillLevel.INTERMEDIATE, SkillLevel.INTERMEDIATE,
+        SkillLevel.INTERMEDIATE, SkillLevel.SENIOR, SkillLevel.SENIOR, SkillLevel.EXPERT, SkillLevel.LEAD
+    };
+    // Weekend days run at a fraction of weekday demand
+    private static final double[] WEEKLY_PROFILE = {1.0, 1.05, 1.1, 1.05, 1.2, 0.6, 0.35};
+
+    private final List<String> warehouseIds = new ArrayList<>();
+    private final Map<String, Double> scales = new LinkedHashMap<>();
+    private final long seed;
+
+    SyntheticWarehouses(String runId, int warehouses, long seed) {
+        this.seed = seed;
+        Random random = new Random(seed);
+        for (int i = 1; i <= warehouses; i++) {
+            String warehouseId = String.format("LT-%s-WH-%03d", runId, i);
+            warehouseIds.add(warehouseId);
+            // Log-uniform between 0.3x and 3x of a typical site
+            scales.put(warehouseId, 0.3 * Math.pow(10, random.nextDouble()));
+        }
+    }
+
+    List<String> warehouseIds() {
+        return warehouseIds;
+    }
+
+    /**
+     * Daily observed volume per category for the given number of days, oldest first
+     */
+    Map<WorkloadCategory, List<Integer>> history(String warehouseId, int days, Random random) {
+        Map<WorkloadCategory, List<Integer>> history = new EnumMap<>(WorkloadCategory.class);
+        for (WorkloadCategory category : CATEGORIES) {
+            List<Integer> volumes = new ArrayList<>(days);
+            for (int day = 0; day < days; day++) {
+                volumes.add(volume(warehouseId, category, day, random));
+            }
+            history.put(category, volumes);
+        }
+        return history;
+    }
+
+    /**
+     * Planned volume per category for one day
+     */
+    Map<WorkloadCategory, Integer> plannedVolumes(String warehouseId, int dayOfWeek, Random random) {
+        Map<WorkloadCategory, Integer> volumes = new EnumMap<>(WorkloadCategory.class);
+        for (WorkloadCategory category : CATEGORIES) {
+            volumes.put(category, volume(warehouseId, category, dayOfWeek, random));
+        }
+        return volumes;
+    }
+
+    /**
+     * Workers available to a warehouse, as the optimize endpoint takes them
+     */
+    List<Map<String, Object>> roster(String warehouseId, int size) {
+        Random random = new Random(seed ^ warehouseId.hashCode());
+        List<Map<String, Object>> roster = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Map<String, Object> worker = new LinkedHashMap<>();
+            worker.put("workerId", warehouseId + "-W-" + i);
+            worker.put("name", "Worker " + i);
+            worker.put("skillLevel", SKILLS[random.nextInt(SKILLS.length)]);
+            worker.put("maxHoursPerWeek", 40);
+            worker.put("isFullTime", random.nextInt(4) > 0);
+            worker.put("hourlyRate", 18.0 + random.nextInt(12));
+            roster.add(worker);
+        }
+        return roster;
+    }
+
+    /**
+     * A single worker assignment body
+     */
+    Map<String, Object> assignment(String warehouseId, Random random) {
+        Map<String, Object> assignment = new LinkedHashMap<>();
+        int worker = random.nextInt(10_000);
+        assignment.put("shiftType", SHIFTS[random.nextInt(SHIFTS.length)]);
+        assignment.put("workerId", warehouseId + "-T-" + worker);
+        assignment.put("workerName", "Temp " + worker);
+        assignment.put("primaryCategory", CATEGORIES[random.nextInt(3)]);
+        assignment.put("plannedHours", 4 + random.nextInt(5));
+        return assignment;
+    }
+
+    private int volume(String warehouseId, WorkloadCategory category, int day, Random random) {
+        double base = scales.get(warehouseId) * category.getStandardProductivityRate() * 160;
+        double noise = 1 + random.nextGaussian() * 0.1;
+        return (int) Math.max(0, Math.round(base * WEEKLY_PROFILE[day % 7] * noise));
+    }
+}